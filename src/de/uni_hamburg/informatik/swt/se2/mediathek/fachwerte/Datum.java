@@ -1,25 +1,72 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Ein Kalenderdatum, bestehend aus Tag, Monat und Jahr.
  * 
  * Das Klassenobjekt stellt zwei Hilfsmethoden zur Verfügung, um das heutige
  * Datum zu ermitteln und zu überprüfen, ob drei Ganzzahlen ein gültiges Datum
- * bilden.
+ * bilden. Das heutige Datum liefert eine einstellbare Uhr, standardmäßig die
+ * Systemuhr.
+ * 
+ * Intern wird zusätzlich die Anzahl der Tage seit dem 1.1.1970 gespeichert.
+ * Vergleiche und Differenzen sind damit einfache Ganzzahloperationen. Die
+ * Umrechnung zwischen Tag, Monat, Jahr und Epochentag erfolgt im
+ * proleptischen gregorianischen Kalender ohne Sperren und ohne Calendar.
+ * 
+ * Mit Datum.of(tag, monat, jahr) werden die Exemplare der Jahre 1900 bis 2199
+ * zwischengespeichert, sodass etwa beim Einlesen großer Bestände jedes Datum
+ * nur einmal im Speicher liegt.
  * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Datum implements Comparable<Datum>
 {
-    // Dieses Calendar-Exemplar wird für die Gültigkeitsprüfung verwendet.
-    private static final Calendar CALENDAR = Calendar.getInstance();
+    // Die Tage eines 400-jährigen gregorianischen Zyklus
+    private static final int TAGE_PRO_ZYKLUS = 146097;
+
+    // Die Tage vom 1.3.0000 bis zum 1.1.1970
+    private static final int TAGE_BIS_1970 = 719468;
+
+    // Die Jahre werden intern um so viele Zyklen verschoben, dass alle
+    // unterstützten Jahre positiv sind. So kommen die Divisionen ohne
+    // Sonderfall für negative Werte aus.
+    private static final int VERSCHIEBUNG_ZYKLEN = 2600;
+
+    /**
+     * Das kleinste unterstützte Jahr.
+     */
+    public static final int MIN_JAHR = -1000000;
+
+    /**
+     * Das größte unterstützte Jahr.
+     */
+    public static final int MAX_JAHR = 1000000;
+
+    // Die Anzahl der Tage in den Monaten eines Nicht-Schaltjahres
+    private static final int[] TAGE_IM_MONAT = {31, 28, 31, 30, 31, 30, 31,
+            31, 30, 31, 30, 31};
 
-    // Die Anzahl von Millesekunden an einem Tag
-    private static final long MILLISECONDS_IN_ONE_DAY = 1000 * 60 * 60 * 24;
+    // Der erste Epochentag des Zwischenspeichers, der 1.1.1900
+    private static final int CACHE_ANFANG = -25567;
+
+    // Der Zwischenspeicher ist in Blöcke zu 2^10 Tagen aufgeteilt, die erst
+    // bei Bedarf angelegt werden
+    private static final int CACHE_BLOCKBITS = 10;
+
+    // Die Anzahl der Blöcke, sie reicht bis zum Ende des Jahres 2199
+    private static final int CACHE_BLOCKANZAHL = 108;
+
+    // Die zwischengespeicherten Exemplare nach Epochentag. Die Einträge eines
+    // Blocks werden ohne Synchronisation gesetzt. Da Datum unveränderlich ist,
+    // kann ein Wettlauf höchstens ein zweites, gleiches Exemplar erzeugen.
+    private static final AtomicReferenceArray<Datum[]> CACHE = new AtomicReferenceArray<Datum[]>(
+            CACHE_BLOCKANZAHL);
+
+    // Die Uhr, die das heutige Datum liefert
+    private static volatile Uhr _uhr = new Systemuhr();
 
     // Dieses Feld ist das Jahr
     private final int _jahr;
@@ -30,13 +77,8 @@ public final class Datum implements Comparable<Datum>
     // Dieses Feld ist der Tag im Monat (1..31)
     private final int _tag;
 
-    // "Static initializer", initialisiert Klassenvariablen nach der Erzeugung
-    // des Klassenobjekts.
-    static
-    {
-        CALENDAR.setLenient(false);
-        CALENDAR.setTimeZone(TimeZone.getTimeZone("GMT"));
-    }
+    // Dieses Feld ist die Anzahl der Tage seit dem 1.1.1970
+    private final int _epochTag;
 
     /**
      * Wählt ein Datum aus (tag, monat, jahr).
@@ -59,25 +101,94 @@ public final class Datum implements Comparable<Datum>
         _tag = tag;
         _monat = monat;
         _jahr = jahr;
+        _epochTag = berechneEpochTag(tag, monat, jahr);
     }
 
     /**
-     * Liefert das heutige Datum zurück.
+     * Liefert das Datum (tag, monat, jahr). Für häufig verwendete Jahre wird
+     * ein zwischengespeichertes Exemplar geliefert.
+     * 
+     * @param tag Der Tag im Monat (1..31)
+     * @param monat Der Monat im Jahr (1..12)
+     * @param jahr Das Jahr
+     * 
+     * @require istGueltig(tag, monat, jahr)
+     * 
+     * @ensure result.getTag() == tag
+     * @ensure result.getMonat() == monat
+     * @ensure result.getJahr() == jahr
+     */
+    public static Datum of(int tag, int monat, int jahr)
+    {
+        assert istGueltig(tag, monat,
+                jahr) : "Vorbedingung verletzt: istGueltig(tag, monat, jahr)";
+
+        return ausEpochTag(berechneEpochTag(tag, monat, jahr));
+    }
+
+    /**
+     * Wählt das Datum aus, das die angegebene Anzahl Tage nach dem 1.1.1970
+     * liegt.
+     */
+    private Datum(int epochTag)
+    {
+        // Nach Howard Hinnant, "chrono-Compatible Low-Level Date Algorithms".
+        // Das Jahr beginnt intern am 1. März, damit der Schalttag am Ende
+        // liegt.
+        int tage = epochTag + TAGE_BIS_1970
+                + VERSCHIEBUNG_ZYKLEN * TAGE_PRO_ZYKLUS;
+        int zyklus = tage / TAGE_PRO_ZYKLUS;
+        int tagImZyklus = tage - zyklus * TAGE_PRO_ZYKLUS;
+        int jahrImZyklus = (tagImZyklus - tagImZyklus / 1460
+                + tagImZyklus / 36524 - tagImZyklus / 146096) / 365;
+        int tagImJahr = tagImZyklus - (365 * jahrImZyklus + jahrImZyklus / 4
+                - jahrImZyklus / 100);
+        // Monat ab März gezählt (0..11)
+        int monatAbMaerz = (5 * tagImJahr + 2) / 153;
+        // 1 für Januar und Februar, sonst 0
+        int folgejahr = monatAbMaerz / 10;
+
+        _tag = tagImJahr - (153 * monatAbMaerz + 2) / 5 + 1;
+        _monat = monatAbMaerz + 3 - 12 * folgejahr;
+        _jahr = jahrImZyklus + (zyklus - VERSCHIEBUNG_ZYKLEN) * 400
+                + folgejahr;
+        _epochTag = epochTag;
+    }
+
+    /**
+     * Liefert das heutige Datum der eingestellten Uhr zurück.
      * 
      * @ensure result != null
      */
     public static Datum heute()
     {
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.setTimeInMillis(System.currentTimeMillis());
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return _uhr.heute();
+    }
+
+    /**
+     * Gibt die Uhr zurück, die heute() verwendet.
+     * 
+     * @ensure result != null
+     */
+    public static Uhr getUhr()
+    {
+        return _uhr;
+    }
+
+    /**
+     * Stellt die Uhr ein, die heute() verwendet. Tests und
+     * Stapelverarbeitungen können so mit einem festen heutigen Datum arbeiten.
+     * 
+     * @param uhr Die neue Uhr.
+     * 
+     * @require uhr != null
+     * 
+     * @ensure getUhr() == uhr
+     */
+    public static void setUhr(Uhr uhr)
+    {
+        assert uhr != null : "Vorbedingung verletzt: uhr != null";
+        _uhr = uhr;
     }
 
     /**
@@ -85,27 +196,52 @@ public final class Datum implements Comparable<Datum>
      * 
      * @param tag Der Tag im Monat (1..31).
      * @param monat Der Monat im Jahr (1..12).
-     * @param jahr Das Jahr.
+     * @param jahr Das Jahr (MIN_JAHR..MAX_JAHR).
      * @return true wenn drei übergebene Zahlen ein gültiges Datum ergeben,
      *         ansonsten false.
      */
     public static boolean istGueltig(int tag, int monat, int jahr)
     {
-        boolean gueltig = ((monat >= 1) && (monat <= 12));
+        boolean gueltig = ((monat >= 1) && (monat <= 12) && (jahr >= MIN_JAHR)
+                && (jahr <= MAX_JAHR));
         if (gueltig)
         {
-            synchronized (CALENDAR)
+            int tageImMonat = TAGE_IM_MONAT[monat - 1];
+            if (monat == 2 && istSchaltjahr(jahr))
             {
-                CALENDAR.clear();
-                CALENDAR.set(Calendar.YEAR, jahr);
-                CALENDAR.set(Calendar.MONTH, monat - 1);
-                gueltig = ((tag >= 1) && (tag <= CALENDAR
-                    .getActualMaximum(Calendar.DAY_OF_MONTH)));
+                tageImMonat++;
             }
+            gueltig = ((tag >= 1) && (tag <= tageImMonat));
         }
         return gueltig;
     }
 
+    /**
+     * Prüft, ob ein Jahr im gregorianischen Kalender ein Schaltjahr ist.
+     */
+    private static boolean istSchaltjahr(int jahr)
+    {
+        return (jahr % 4 == 0) && ((jahr % 100 != 0) || (jahr % 400 == 0));
+    }
+
+    /**
+     * Berechnet die Anzahl der Tage seit dem 1.1.1970 für ein gültiges Datum.
+     */
+    private static int berechneEpochTag(int tag, int monat, int jahr)
+    {
+        // 1 für Januar und Februar, sonst 0
+        int vorjahr = (14 - monat) / 12;
+        int jahrAbMaerz = jahr - vorjahr + VERSCHIEBUNG_ZYKLEN * 400;
+        int monatAbMaerz = monat + 12 * vorjahr - 3;
+        int zyklus = jahrAbMaerz / 400;
+        int jahrImZyklus = jahrAbMaerz - zyklus * 400;
+        int tagImJahr = (153 * monatAbMaerz + 2) / 5 + tag - 1;
+        int tagImZyklus = jahrImZyklus * 365 + jahrImZyklus / 4
+                - jahrImZyklus / 100 + tagImJahr;
+        return (zyklus - VERSCHIEBUNG_ZYKLEN) * TAGE_PRO_ZYKLUS + tagImZyklus
+                - TAGE_BIS_1970;
+    }
+
     /**
      * Vergleicht dieses Datum mit einem anderen Datum.
      * 
@@ -133,9 +269,7 @@ public final class Datum implements Comparable<Datum>
         if (o instanceof Datum)
         {
             Datum vergleichsdatum = (Datum) o;
-            result = ((getTag() == vergleichsdatum.getTag())
-                    && (getMonat() == vergleichsdatum.getMonat())
-                    && (getJahr() == vergleichsdatum.getJahr()));
+            result = (_epochTag == vergleichsdatum._epochTag);
         }
         return result;
     }
@@ -143,8 +277,7 @@ public final class Datum implements Comparable<Datum>
     @Override
     public int hashCode()
     {
-        // Hash-Code ist ca. die Anzahl der Tage seit dem Jahr 0
-        return getJahr() * 365 + getMonat() * 31 + getTag();
+        return _epochTag;
     }
 
     /**
@@ -184,17 +317,7 @@ public final class Datum implements Comparable<Datum>
     public Datum minus(int tage)
     {
         assert tage >= 0 : "Vorbedingung verletzt: tage >= 0";
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            CALENDAR.add(Calendar.DAY_OF_MONTH, -tage);
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return ausEpochTag(_epochTag - tage);
     }
 
     /**
@@ -210,17 +333,7 @@ public final class Datum implements Comparable<Datum>
     public Datum plus(int tage)
     {
         assert tage >= 0 : "Vorbedingung verletzt: tage >= 0";
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            CALENDAR.add(Calendar.DAY_OF_MONTH, tage);
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return ausEpochTag(_epochTag + tage);
     }
 
     /**
@@ -255,24 +368,58 @@ public final class Datum implements Comparable<Datum>
     {
         assert startDatum != null : "Vorbedingung verletzt: startDatum != null";
 
-        long startMillis = startDatum.inMillisekunden();
-        long endMillis = this.inMillisekunden();
+        return _epochTag - startDatum._epochTag;
+    }
 
-        return (int) ((endMillis - startMillis) / MILLISECONDS_IN_ONE_DAY);
+    /**
+     * Gibt die Anzahl der Tage seit dem 1.1.1970 zurück. Für frühere Daten ist
+     * das Ergebnis negativ.
+     */
+    public int getEpochTag()
+    {
+        return _epochTag;
     }
 
     /**
-     * Gibt dieses Datum in Millisekunden zurück.
+     * Liefert das Datum, das die angegebene Anzahl Tage nach dem 1.1.1970
+     * liegt. Für häufig verwendete Jahre wird ein zwischengespeichertes
+     * Exemplar geliefert.
+     * 
+     * @param epochTag Die Anzahl der Tage seit dem 1.1.1970, darf negativ
+     *            sein.
+     * 
+     * @require ausEpochTag(epochTag) liegt zwischen MIN_JAHR und MAX_JAHR
+     * 
+     * @ensure result.getEpochTag() == epochTag
      */
-    private long inMillisekunden()
+    public static Datum ausEpochTag(int epochTag)
     {
-        synchronized (CALENDAR)
+        int index = epochTag - CACHE_ANFANG;
+        int blockNummer = index >>> CACHE_BLOCKBITS;
+        if (blockNummer >= CACHE_BLOCKANZAHL)
+        {
+            // Auch negative Indizes landen hier
+            Datum datum = new Datum(epochTag);
+            assert datum._jahr >= MIN_JAHR
+                    && datum._jahr <= MAX_JAHR : "Vorbedingung verletzt: ausEpochTag(epochTag) liegt zwischen MIN_JAHR und MAX_JAHR";
+            return datum;
+        }
+
+        Datum[] block = CACHE.get(blockNummer);
+        if (block == null)
         {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            long endMillis = CALENDAR.getTimeInMillis();
-            return endMillis;
+            CACHE.compareAndSet(blockNummer, null,
+                    new Datum[1 << CACHE_BLOCKBITS]);
+            block = CACHE.get(blockNummer);
         }
+        int position = index & ((1 << CACHE_BLOCKBITS) - 1);
+        Datum datum = block[position];
+        if (datum == null)
+        {
+            datum = new Datum(epochTag);
+            block[position] = datum;
+        }
+        return datum;
     }
 
     /**
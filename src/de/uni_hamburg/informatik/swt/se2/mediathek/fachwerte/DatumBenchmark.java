@@ -0,0 +1,157 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Misst den Durchsatz typischer Datumsrechnungen mit mehreren Threads: die
+ * Ausleihdauer (heute().tageSeit(ausleihdatum)), einen Vergleich und ein
+ * plus(). Zum Vergleich wird dieselbe Rechnung mit einem gemeinsamen,
+ * synchronisierten Calendar ausgeführt, wie ihn Datum früher verwendet hat.
+ * 
+ * Aufruf: java DatumBenchmark [maximale Threadanzahl]
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class DatumBenchmark
+{
+    // Anzahl der Rechnungen pro Thread und Messung
+    private static final int RECHNUNGEN = 2000000;
+
+    // Anzahl der Messungen vor der eigentlichen Messung
+    private static final int AUFWAERMEN = 3;
+
+    private static final long MILLISEKUNDEN_PRO_TAG = 24 * 60 * 60 * 1000L;
+
+    private static final Calendar CALENDAR = Calendar
+        .getInstance(TimeZone.getTimeZone("GMT"));
+
+    /**
+     * Führt die Messungen für 1, 2, 4, ... Threads aus und gibt die
+     * Ergebnisse auf der Konsole aus.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0])
+                : Math.max(4, Runtime.getRuntime()
+                    .availableProcessors());
+
+        for (int i = 0; i < AUFWAERMEN; i++)
+        {
+            messe(1, false);
+            messe(1, true);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2)
+        {
+            double kalender = messe(threads, true);
+            double epochTag = messe(threads, false);
+            System.out.println(String.format(
+                    "%2d Threads: Calendar %,8.1f Mio/s, Epochentag %,8.1f Mio/s",
+                    threads, kalender, epochTag));
+        }
+    }
+
+    /**
+     * Misst den Gesamtdurchsatz in Millionen Rechnungen pro Sekunde.
+     */
+    private static double messe(int threads, final boolean kalender)
+            throws InterruptedException
+    {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch fertig = new CountDownLatch(threads);
+        final AtomicLong pruefsumme = new AtomicLong();
+        for (int t = 0; t < threads; t++)
+        {
+            final Datum ausleihdatum = new Datum(1, 1 + t % 12, 2021);
+            new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    long summe = kalender ? rechneMitCalendar(ausleihdatum)
+                            : rechneMitEpochTag(ausleihdatum);
+                    pruefsumme.addAndGet(summe);
+                    fertig.countDown();
+                }
+            }.start();
+        }
+        long anfang = System.nanoTime();
+        start.countDown();
+        fertig.await();
+        long dauer = System.nanoTime() - anfang;
+        if (pruefsumme.get() == 42)
+        {
+            System.out.println();
+        }
+        return (double) threads * RECHNUNGEN * 1000 / dauer;
+    }
+
+    private static long rechneMitEpochTag(Datum ausleihdatum)
+    {
+        long summe = 0;
+        Datum heute = Datum.heute();
+        for (int i = 0; i < RECHNUNGEN; i++)
+        {
+            summe += heute.tageSeit(ausleihdatum);
+            summe += ausleihdatum.compareTo(heute);
+            summe += ausleihdatum.plus(i & 63)
+                .getTag();
+        }
+        return summe;
+    }
+
+    private static long rechneMitCalendar(Datum ausleihdatum)
+    {
+        long summe = 0;
+        Datum heute = Datum.heute();
+        for (int i = 0; i < RECHNUNGEN; i++)
+        {
+            summe += tageSeitMitCalendar(heute, ausleihdatum);
+            summe += tageSeitMitCalendar(ausleihdatum, heute);
+            summe += plusMitCalendar(ausleihdatum, i & 63);
+        }
+        return summe;
+    }
+
+    private static int tageSeitMitCalendar(Datum datum, Datum startDatum)
+    {
+        return (int) ((inMillisekunden(datum) - inMillisekunden(startDatum))
+                / MILLISEKUNDEN_PRO_TAG);
+    }
+
+    private static long inMillisekunden(Datum datum)
+    {
+        synchronized (CALENDAR)
+        {
+            CALENDAR.clear();
+            CALENDAR.set(datum.getJahr(), datum.getMonat() - 1,
+                    datum.getTag());
+            return CALENDAR.getTimeInMillis();
+        }
+    }
+
+    private static int plusMitCalendar(Datum datum, int tage)
+    {
+        synchronized (CALENDAR)
+        {
+            CALENDAR.clear();
+            CALENDAR.set(datum.getJahr(), datum.getMonat() - 1,
+                    datum.getTag());
+            CALENDAR.add(Calendar.DAY_OF_MONTH, tage);
+            return new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
+                    CALENDAR.get(Calendar.MONTH) + 1,
+                    CALENDAR.get(Calendar.YEAR)).getTag();
+        }
+    }
+}
@@ -3,8 +3,13 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
 import org.junit.Test;
 
 public class DatumTest
@@ -114,4 +119,83 @@ public class DatumTest
     {
         assertNotNull(Datum.heute());
     }
+
+    @Test
+    public void testEpochTag()
+    {
+        assertEquals(0, new Datum(1, 1, 1970).getEpochTag());
+        assertEquals(-1, new Datum(31, 12, 1969).getEpochTag());
+        assertEquals(19091, new Datum(9, 4, 2022).getEpochTag());
+
+        assertEquals(new Datum(1, 1, 1970), Datum.ausEpochTag(0));
+        assertEquals(new Datum(31, 12, 1969), Datum.ausEpochTag(-1));
+        assertEquals(new Datum(29, 2, 2000),
+                Datum.ausEpochTag(new Datum(29, 2, 2000).getEpochTag()));
+    }
+
+    @Test
+    public void testeSchaltjahre()
+    {
+        assertTrue(Datum.istGueltig(29, 2, 2000));
+        assertTrue(Datum.istGueltig(29, 2, 2024));
+        assertFalse(Datum.istGueltig(29, 2, 1900));
+        assertFalse(Datum.istGueltig(29, 2, 2023));
+        assertEquals(new Datum(1, 3, 2024), new Datum(29, 2, 2024).plus(1));
+        assertEquals(new Datum(28, 2, 2023), new Datum(1, 3, 2023).minus(1));
+        assertEquals(366, new Datum(1, 1, 2025).tageSeit(new Datum(1, 1, 2024)));
+    }
+
+    @Test
+    public void testeUebereinstimmungMitCalendar()
+    {
+        // Vor 1582 rechnet GregorianCalendar julianisch, daher erst ab 1600
+        Calendar calendar = new GregorianCalendar(
+                TimeZone.getTimeZone("GMT"));
+        calendar.clear();
+        calendar.set(1600, Calendar.JANUARY, 1);
+        Datum datum = new Datum(1, 1, 1600);
+        int epochTag = datum.getEpochTag();
+        while (calendar.get(Calendar.YEAR) < 2500)
+        {
+            Datum erwartet = new Datum(calendar.get(Calendar.DAY_OF_MONTH),
+                    calendar.get(Calendar.MONTH) + 1,
+                    calendar.get(Calendar.YEAR));
+            assertEquals(erwartet.toString(), datum.toString());
+            assertEquals(epochTag, erwartet.getEpochTag());
+            assertEquals(calendar.getTimeInMillis() / (24 * 60 * 60 * 1000L),
+                    epochTag);
+
+            datum = datum.naechsterTag();
+            epochTag++;
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void testeGrenzjahre()
+    {
+        Datum min = new Datum(1, 1, Datum.MIN_JAHR);
+        Datum max = new Datum(31, 12, Datum.MAX_JAHR);
+        assertEquals(min, Datum.ausEpochTag(min.getEpochTag()));
+        assertEquals(max, Datum.ausEpochTag(max.getEpochTag()));
+        assertFalse(Datum.istGueltig(1, 1, Datum.MAX_JAHR + 1));
+    }
+
+    @Test
+    public void testeOfLiefertZwischengespeicherteExemplare()
+    {
+        Datum datum = Datum.of(9, 4, 2022);
+        assertSame(datum, Datum.of(9, 4, 2022));
+        assertSame(datum, Datum.ausEpochTag(datum.getEpochTag()));
+        assertSame(datum, Datum.of(8, 4, 2022).naechsterTag());
+        assertEquals(new Datum(9, 4, 2022), datum);
+
+        assertSame(Datum.of(1, 1, 1900), Datum.of(1, 1, 1900));
+        assertSame(Datum.of(31, 12, 2199), Datum.of(31, 12, 2199));
+
+        // Außerhalb des Zwischenspeichers entstehen gleiche, neue Exemplare
+        assertEquals(Datum.of(31, 12, 1899), Datum.of(31, 12, 1899));
+        assertEquals(Datum.of(1, 1, 2200), Datum.of(1, 1, 2200));
+        assertEquals(new Datum(1, 1, 2200), Datum.of(1, 1, 2200));
+    }
 }
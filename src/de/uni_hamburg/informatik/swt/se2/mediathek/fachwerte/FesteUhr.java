@@ -0,0 +1,48 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+/**
+ * Eine Uhr mit einem fest eingestellten heutigen Datum, etwa für Tests oder
+ * Stapelverarbeitungen zu einem Stichtag.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class FesteUhr implements Uhr
+{
+    private volatile Datum _heute;
+
+    /**
+     * Initialisiert eine neue Uhr mit dem angegebenen Datum.
+     * 
+     * @param heute Das Datum, das heute() liefert.
+     * 
+     * @require heute != null
+     * 
+     * @ensure heute() == heute
+     */
+    public FesteUhr(Datum heute)
+    {
+        setHeute(heute);
+    }
+
+    @Override
+    public Datum heute()
+    {
+        return _heute;
+    }
+
+    /**
+     * Stellt die Uhr auf ein anderes Datum.
+     * 
+     * @param heute Das Datum, das heute() ab jetzt liefert.
+     * 
+     * @require heute != null
+     * 
+     * @ensure heute() == heute
+     */
+    public void setHeute(Datum heute)
+    {
+        assert heute != null : "Vorbedingung verletzt: heute != null";
+        _heute = heute;
+    }
+}
@@ -1,16 +1,23 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 
 /**
- * Ein Geldbetrag in Euro, gespeichert als ganze Euro- und ganze Cent-Beträge.
+ * Ein Geldbetrag in Euro, gespeichert als ganze Euro-Cent in einem long.
+ * 
+ * Geldbeträge können addiert und mit einem Faktor multipliziert werden. Für
+ * Summen über viele Beträge gibt es sum(Iterable) und die veränderbare
+ * Geldsumme, die ohne Zwischenobjekte addiert.
  * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Geldbetrag
 {
+    /**
+     * Der Geldbetrag 0,00.
+     */
+    public static final Geldbetrag NULL = new Geldbetrag(0);
 
-    private final int _euroAnteil;
-    private final int _centAnteil;
+    private final long _eurocent;
 
     /**
      * Wählt einen Geldbetrag aus.
@@ -19,11 +26,41 @@ public final class Geldbetrag
      * 
      * @require eurocent >= 0;
      */
-    public Geldbetrag(int eurocent)
+    public Geldbetrag(long eurocent)
     {
         assert eurocent >= 0 : "Vorbedingung verletzt: eurocent >= 0";
-        _euroAnteil = eurocent / 100;
-        _centAnteil = eurocent % 100;
+        _eurocent = eurocent;
+    }
+
+    /**
+     * Addiert die Geldbeträge.
+     * 
+     * @param betraege Die zu addierenden Geldbeträge.
+     * @return Die Summe, Geldbetrag.NULL für keine Beträge.
+     * 
+     * @require betraege != null
+     * @require betraege enthält kein null
+     * 
+     * @ensure result != null
+     */
+    public static Geldbetrag sum(Iterable<Geldbetrag> betraege)
+    {
+        assert betraege != null : "Vorbedingung verletzt: betraege != null";
+
+        Geldsumme summe = new Geldsumme();
+        for (Geldbetrag betrag : betraege)
+        {
+            summe.addiere(betrag);
+        }
+        return summe.getGeldbetrag();
+    }
+
+    /**
+     * Gibt den Betrag in ganzen Euro-Cent zurück.
+     */
+    public long getEurocent()
+    {
+        return _eurocent;
     }
 
     /**
@@ -31,9 +68,9 @@ public final class Geldbetrag
      * 
      * @return Den Eurobetrag ohne Cent.
      */
-    public int getEuroAnteil()
+    public long getEuroAnteil()
     {
-        return _euroAnteil;
+        return _eurocent / 100;
     }
 
     /**
@@ -41,7 +78,39 @@ public final class Geldbetrag
      */
     public int getCentAnteil()
     {
-        return _centAnteil;
+        return (int) (_eurocent % 100);
+    }
+
+    /**
+     * Addiert einen Geldbetrag zu diesem Geldbetrag.
+     * 
+     * @param betrag Der zu addierende Geldbetrag.
+     * @return Die Summe beider Geldbeträge.
+     * 
+     * @require betrag != null
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag plus(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+        return new Geldbetrag(_eurocent + betrag._eurocent);
+    }
+
+    /**
+     * Multipliziert diesen Geldbetrag mit einem Faktor.
+     * 
+     * @param faktor Der Faktor.
+     * @return Das faktor-fache dieses Geldbetrags.
+     * 
+     * @require faktor >= 0
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag times(int faktor)
+    {
+        assert faktor >= 0 : "Vorbedingung verletzt: faktor >= 0";
+        return new Geldbetrag(_eurocent * faktor);
     }
 
     /**
@@ -52,7 +121,7 @@ public final class Geldbetrag
      */
     public String getFormatiertenString()
     {
-        return _euroAnteil + "," + getFormatiertenCentAnteil();
+        return getEuroAnteil() + "," + getFormatiertenCentAnteil();
     }
 
     /**
@@ -63,22 +132,18 @@ public final class Geldbetrag
     private String getFormatiertenCentAnteil()
     {
         String result = "";
-        if (_centAnteil < 10)
+        if (getCentAnteil() < 10)
         {
             result += "0";
         }
-        result += _centAnteil;
+        result += getCentAnteil();
         return result;
     }
 
     @Override
     public int hashCode()
     {
-        final int prime = 31;
-        int result = 1;
-        result = prime + _centAnteil;
-        result = prime * result + _euroAnteil;
-        return result;
+        return (int) (_eurocent ^ (_eurocent >>> 32));
     }
 
     @Override
@@ -88,8 +153,7 @@ public final class Geldbetrag
         if (obj instanceof Geldbetrag)
         {
             Geldbetrag other = (Geldbetrag) obj;
-            result = (_centAnteil == other._centAnteil)
-                    && (_euroAnteil == other._euroAnteil);
+            result = (_eurocent == other._eurocent);
         }
         return result;
     }
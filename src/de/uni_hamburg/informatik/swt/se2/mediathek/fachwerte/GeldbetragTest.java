@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.Test;
 
 /**
@@ -54,4 +57,45 @@ public class GeldbetragTest
         assertFalse(betrag1.equals(betrag4));
         assertFalse(betrag1.hashCode() == betrag4.hashCode());
     }
+
+    @Test
+    public final void testeRechnen()
+    {
+        Geldbetrag betrag = new Geldbetrag(150);
+        assertEquals(new Geldbetrag(250), betrag.plus(new Geldbetrag(100)));
+        assertEquals(new Geldbetrag(450), betrag.times(3));
+        assertEquals(Geldbetrag.NULL, betrag.times(0));
+        assertEquals(new Geldbetrag(175),
+                Geldbetrag.sum(Arrays.asList(new Geldbetrag(100),
+                        new Geldbetrag(50), new Geldbetrag(25))));
+        assertEquals(Geldbetrag.NULL,
+                Geldbetrag.sum(new ArrayList<Geldbetrag>()));
+    }
+
+    @Test
+    public final void testeGrosseBetraege()
+    {
+        Geldbetrag betrag = new Geldbetrag(Integer.MAX_VALUE).times(10);
+        assertEquals(21474836470L, betrag.getEurocent());
+        assertEquals(214748364, betrag.getEuroAnteil());
+        assertEquals(70, betrag.getCentAnteil());
+        assertEquals("214748364,70", betrag.getFormatiertenString());
+    }
+
+    @Test
+    public final void testeGeldsumme()
+    {
+        Geldsumme summe = new Geldsumme();
+        summe.addiere(new Geldbetrag(100));
+        summe.addiere(250);
+        Geldsumme andere = new Geldsumme();
+        andere.addiere(5);
+        summe.addiere(andere);
+        assertEquals(355, summe.getEurocent());
+        assertEquals(new Geldbetrag(355), summe.getGeldbetrag());
+        assertEquals("3,55", summe.toString());
+
+        summe.setzeZurueck();
+        assertEquals(0, summe.getEurocent());
+    }
 }
@@ -0,0 +1,120 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+/**
+ * Eine veränderbare Summe von Geldbeträgen. Anders als Geldbetrag ist eine
+ * Geldsumme kein Wert, sondern ein Zähler für Auswertungen über viele
+ * Beträge: Beim Addieren entstehen keine Zwischenobjekte.
+ * 
+ * Eine Geldsumme ist nicht threadsicher. Bei paralleler Auswertung hat jeder
+ * Thread eine eigene Geldsumme, die am Ende mit addiere(Geldsumme)
+ * zusammengeführt werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Geldsumme
+{
+    private long _eurocent;
+
+    /**
+     * Initialisiert eine neue Geldsumme mit dem Wert 0.
+     * 
+     * @ensure getEurocent() == 0
+     */
+    public Geldsumme()
+    {
+        _eurocent = 0;
+    }
+
+    /**
+     * Addiert einen Geldbetrag.
+     * 
+     * @param betrag Der zu addierende Geldbetrag.
+     * 
+     * @require betrag != null
+     */
+    public void addiere(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+        _eurocent += betrag.getEurocent();
+    }
+
+    /**
+     * Addiert einen Betrag in Euro-Cent.
+     * 
+     * @param eurocent Der zu addierende Betrag in ganzen Euro-Cent.
+     * 
+     * @require eurocent >= 0
+     */
+    public void addiere(long eurocent)
+    {
+        assert eurocent >= 0 : "Vorbedingung verletzt: eurocent >= 0";
+        _eurocent += eurocent;
+    }
+
+    /**
+     * Addiert eine andere Geldsumme, etwa die eines anderen Threads.
+     * 
+     * @param summe Die zu addierende Geldsumme.
+     * 
+     * @require summe != null
+     */
+    public void addiere(Geldsumme summe)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+        _eurocent += summe._eurocent;
+    }
+
+    /**
+     * Zieht einen Betrag in Euro-Cent ab, etwa wenn ein zuvor addierter Betrag
+     * wieder herausgerechnet wird.
+     * 
+     * @param eurocent Der abzuziehende Betrag in ganzen Euro-Cent.
+     * 
+     * @require eurocent >= 0
+     * @require eurocent <= getEurocent()
+     */
+    public void subtrahiere(long eurocent)
+    {
+        assert eurocent >= 0 : "Vorbedingung verletzt: eurocent >= 0";
+        assert eurocent <= _eurocent : "Vorbedingung verletzt: eurocent <= getEurocent()";
+        _eurocent -= eurocent;
+    }
+
+    /**
+     * Setzt die Summe auf 0 zurück.
+     * 
+     * @ensure getEurocent() == 0
+     */
+    public void setzeZurueck()
+    {
+        _eurocent = 0;
+    }
+
+    /**
+     * Gibt die Summe in ganzen Euro-Cent zurück.
+     */
+    public long getEurocent()
+    {
+        return _eurocent;
+    }
+
+    /**
+     * Gibt die Summe als Geldbetrag zurück.
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getGeldbetrag()
+    {
+        return new Geldbetrag(_eurocent);
+    }
+
+    /**
+     * Gibt die Summe in der Form "10,21" zurück.
+     */
+    @Override
+    public String toString()
+    {
+        return getGeldbetrag().toString();
+    }
+}
@@ -1,14 +1,36 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Mit Kundennummern können Kunden eindeutig indentifiziert werden. Jede
  * Kundennummer ist 6 Zeichen lang.
  * 
+ * Mit Kundennummer.of(int) wird für jede Zahl dasselbe, zwischengespeicherte
+ * Exemplar geliefert.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Kundennummer
 {
+    // Die kleinste gültige Kundennummer
+    private static final int KLEINSTE = 100000;
+
+    // Die Anzahl der gültigen Kundennummern
+    private static final int ANZAHL = 900000;
+
+    // Der Zwischenspeicher ist in Blöcke zu 2^10 Nummern aufgeteilt, die erst
+    // bei Bedarf angelegt werden
+    private static final int CACHE_BLOCKBITS = 10;
+
+    // Die zwischengespeicherten Exemplare nach Nummer - KLEINSTE. Die
+    // Einträge eines Blocks werden ohne Synchronisation gesetzt. Da
+    // Kundennummer unveränderlich ist, kann ein Wettlauf höchstens ein
+    // zweites, gleiches Exemplar erzeugen.
+    private static final AtomicReferenceArray<Kundennummer[]> CACHE = new AtomicReferenceArray<Kundennummer[]>(
+            (ANZAHL >> CACHE_BLOCKBITS) + 1);
+
     /**
      * int-Repräsentation der Kundenummer
      */
@@ -29,18 +51,86 @@ public final class Kundennummer
         _kundennummer = kundennummer;
     }
 
+    /**
+     * Liefert die Kundennummer mit der angegebenen Zahl. Für dieselbe Zahl
+     * wird immer dasselbe Exemplar geliefert.
+     * 
+     * @param kundennummer Eine gültige Zahl.
+     * 
+     * @require istGueltig(kundennummer)
+     * 
+     * @ensure result.getNummer() == kundennummer
+     */
+    public static Kundennummer of(int kundennummer)
+    {
+        assert istGueltig(
+                kundennummer) : "Vorbedingung verletzt: istGueltig(kundennummer)";
+
+        int index = kundennummer - KLEINSTE;
+        int blockNummer = index >> CACHE_BLOCKBITS;
+        Kundennummer[] block = CACHE.get(blockNummer);
+        if (block == null)
+        {
+            CACHE.compareAndSet(blockNummer, null,
+                    new Kundennummer[1 << CACHE_BLOCKBITS]);
+            block = CACHE.get(blockNummer);
+        }
+        int position = index & ((1 << CACHE_BLOCKBITS) - 1);
+        Kundennummer result = block[position];
+        if (result == null)
+        {
+            result = new Kundennummer(kundennummer);
+            block[position] = result;
+        }
+        return result;
+    }
+
     /**
      * Prüft, ob eine gegebene Zahl eine gültige Kundennummer ist. Eine
-     * Kundennummer ist gültig, wenn sie 6-stellig (dezimal) ist. Der verwendete
-     * Reguläre Ausdruck zur Überprüfung lautet:"[0-9]{6}"
+     * Kundennummer ist gültig, wenn sie 6-stellig (dezimal) ist, also
+     * zwischen 100000 und 999999 liegt.
      * 
      * @param kundennummer Ein zu übeprüfende Zahl.
-     * @return true, wenn der Reguläre Ausdruck passt, ansonsten false.
+     * @return true, wenn die Zahl 6-stellig ist, ansonsten false.
      */
     public static boolean istGueltig(int kundennummer)
     {
-        return String.valueOf(kundennummer)
-            .matches("[0-9]{6}");
+        // Ein Vergleich ohne Vorzeichen deckt beide Grenzen ab
+        return (kundennummer - KLEINSTE) + Integer.MIN_VALUE < ANZAHL
+                + Integer.MIN_VALUE;
+    }
+
+    /**
+     * Prüft die ersten anzahl Zahlen eines Arrays auf einmal, etwa eine ganze
+     * Spalte einer eingelesenen Datei.
+     * 
+     * @param kundennummern Die zu überprüfenden Zahlen.
+     * @param anzahl Die Anzahl der zu überprüfenden Zahlen.
+     * @param gueltig Das Ergebnis: gueltig[i] == istGueltig(kundennummern[i]).
+     * @return Die Anzahl der gültigen Zahlen.
+     * 
+     * @require kundennummern != null
+     * @require gueltig != null
+     * @require 0 <= anzahl && anzahl <= kundennummern.length
+     * @require anzahl <= gueltig.length
+     */
+    public static int pruefeAlle(int[] kundennummern, int anzahl,
+            boolean[] gueltig)
+    {
+        assert kundennummern != null : "Vorbedingung verletzt: kundennummern != null";
+        assert gueltig != null : "Vorbedingung verletzt: gueltig != null";
+        assert 0 <= anzahl
+                && anzahl <= kundennummern.length : "Vorbedingung verletzt: 0 <= anzahl && anzahl <= kundennummern.length";
+        assert anzahl <= gueltig.length : "Vorbedingung verletzt: anzahl <= gueltig.length";
+
+        int gueltige = 0;
+        for (int i = 0; i < anzahl; i++)
+        {
+            boolean ergebnis = istGueltig(kundennummern[i]);
+            gueltig[i] = ergebnis;
+            gueltige += ergebnis ? 1 : 0;
+        }
+        return gueltige;
     }
 
     /**
@@ -62,6 +152,14 @@ public final class Kundennummer
         return result;
     }
 
+    /**
+     * Gibt die Kundennummer als Zahl zurück.
+     */
+    public int getNummer()
+    {
+        return _kundennummer;
+    }
+
     @Override
     public int hashCode()
     {
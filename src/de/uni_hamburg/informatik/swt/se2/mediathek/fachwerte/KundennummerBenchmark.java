@@ -0,0 +1,118 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+import java.util.Random;
+
+/**
+ * Vergleicht die Prüfung von Kundennummern über den regulären Ausdruck
+ * "[0-9]{6}", wie sie Kundennummer.istGueltig früher verwendet hat, mit der
+ * Bereichsprüfung in istGueltig und der Prüfung ganzer Spalten mit
+ * pruefeAlle.
+ * 
+ * Aufruf: java KundennummerBenchmark
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class KundennummerBenchmark
+{
+    // Anzahl der geprüften Zahlen, etwa eine Spalte eines großen
+    // Kundenstamms
+    private static final int ANZAHL = 1000000;
+
+    // Anzahl der Wiederholungen pro Messung
+    private static final int WIEDERHOLUNGEN = 10;
+
+    /**
+     * Führt den Vergleich aus und gibt die Ergebnisse auf der Konsole aus.
+     */
+    public static void main(String[] args)
+    {
+        // Überwiegend gültige Nummern, dazu einige zu kurze, zu lange und
+        // negative Zahlen
+        Random random = new Random(42);
+        int[] kundennummern = new int[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++)
+        {
+            kundennummern[i] = random.nextInt(1200000) - 100000;
+        }
+        boolean[] gueltig = new boolean[ANZAHL];
+
+        for (int runde = 0; runde < 3; runde++)
+        {
+            long regex = messeRegex(kundennummern);
+            long einzeln = messeEinzeln(kundennummern);
+            long spalte = messeSpalte(kundennummern, gueltig);
+            System.out.println(String.format(
+                    "%,d Zahlen: Regex %,8d µs, istGueltig %,6d µs, pruefeAlle %,6d µs",
+                    ANZAHL, regex / 1000, einzeln / 1000, spalte / 1000));
+        }
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer der Prüfung mit dem regulären
+     * Ausdruck.
+     */
+    private static long messeRegex(int[] kundennummern)
+    {
+        // Der reguläre Ausdruck ist teuer, daher nur eine Wiederholung
+        int gueltige = 0;
+        long start = System.nanoTime();
+        for (int kundennummer : kundennummern)
+        {
+            if (String.valueOf(kundennummer)
+                .matches("[0-9]{6}"))
+            {
+                gueltige++;
+            }
+        }
+        long dauer = System.nanoTime() - start;
+        assert gueltige == Kundennummer.pruefeAlle(kundennummern,
+                kundennummern.length, new boolean[kundennummern.length]);
+        return dauer;
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer der Prüfung mit istGueltig.
+     */
+    private static long messeEinzeln(int[] kundennummern)
+    {
+        int gueltige = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < WIEDERHOLUNGEN; i++)
+        {
+            for (int kundennummer : kundennummern)
+            {
+                if (Kundennummer.istGueltig(kundennummer))
+                {
+                    gueltige++;
+                }
+            }
+        }
+        long dauer = System.nanoTime() - start;
+        if (gueltige == 42)
+        {
+            System.out.println();
+        }
+        return dauer / WIEDERHOLUNGEN;
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer der Prüfung mit pruefeAlle.
+     */
+    private static long messeSpalte(int[] kundennummern, boolean[] gueltig)
+    {
+        int gueltige = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < WIEDERHOLUNGEN; i++)
+        {
+            gueltige += Kundennummer.pruefeAlle(kundennummern,
+                    kundennummern.length, gueltig);
+        }
+        long dauer = System.nanoTime() - start;
+        if (gueltige == 42)
+        {
+            System.out.println();
+        }
+        return dauer / WIEDERHOLUNGEN;
+    }
+}
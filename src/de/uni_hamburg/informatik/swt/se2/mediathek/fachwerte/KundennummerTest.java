@@ -2,6 +2,7 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -36,4 +37,42 @@ public class KundennummerTest
         assertFalse(Kundennummer.istGueltig(0));
         assertFalse(Kundennummer.istGueltig(1111111));
     }
+
+    @Test
+    public void testeOfLiefertDasselbeExemplar()
+    {
+        assertSame(Kundennummer.of(123456), Kundennummer.of(123456));
+        assertSame(Kundennummer.of(100000), Kundennummer.of(100000));
+        assertSame(Kundennummer.of(999999), Kundennummer.of(999999));
+        assertEquals(new Kundennummer(123456), Kundennummer.of(123456));
+        assertEquals(123457, Kundennummer.of(123457)
+            .getNummer());
+    }
+
+    @Test
+    public void testeIstGueltigAnDenGrenzen()
+    {
+        assertTrue(Kundennummer.istGueltig(100000));
+        assertTrue(Kundennummer.istGueltig(999999));
+        assertFalse(Kundennummer.istGueltig(99999));
+        assertFalse(Kundennummer.istGueltig(1000000));
+        assertFalse(Kundennummer.istGueltig(-123456));
+        assertFalse(Kundennummer.istGueltig(Integer.MIN_VALUE));
+        assertFalse(Kundennummer.istGueltig(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testePruefeAlle()
+    {
+        int[] kundennummern = {123456, 12345, 999999, -123456, 100000, 42};
+        boolean[] gueltig = new boolean[kundennummern.length];
+        assertEquals(3, Kundennummer.pruefeAlle(kundennummern, 5, gueltig));
+        assertTrue(gueltig[0]);
+        assertFalse(gueltig[1]);
+        assertTrue(gueltig[2]);
+        assertFalse(gueltig[3]);
+        assertTrue(gueltig[4]);
+        // Nicht geprüfte Einträge bleiben unverändert
+        assertFalse(gueltig[5]);
+    }
 }
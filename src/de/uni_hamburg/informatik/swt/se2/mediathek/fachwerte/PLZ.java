@@ -1,31 +1,36 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * PLZ ist eine Postleitzahl mit einer Länge von 5 Zeichen und optional "D-"
  * oder "d-" davor.
  * 
+ * Die fünf Ziffern und das Präfix werden zusammen in einem int gespeichert.
+ * Vergleich und Hash-Code arbeiten nur auf den Ziffern.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class PLZ
 {
-    // der benutzte reguläre Ausdruck zur Überprüfung der Gültigkeit von
-    // Postleitzahlen.
-    private static final Pattern PLZ_PATTERN = Pattern
-        .compile("([dD]-)?([0-9]{5})");
+    // Die Kennungen für das Präfix in den oberen Bits
+    private static final int OHNE_PRAEFIX = 0;
+    private static final int PRAEFIX_GROSS = 1;
+    private static final int PRAEFIX_KLEIN = 2;
 
-    /**
-     * Die Postleitzahl als Stringrepräsentation (z.B. 22761)
-     */
-    private final String _plz;
+    // Die Anzahl der Bits für die Ziffern (99999 < 2^17)
+    private static final int ZIFFERNBITS = 17;
+
+    // Die Maske für die Ziffern
+    private static final int ZIFFERNMASKE = (1 << ZIFFERNBITS) - 1;
+
+    // Das Ergebnis von kodiere() für ungültige Postleitzahlen
+    private static final int UNGUELTIG = -1;
 
     /**
-     * Ein möglicher, erlaubter prefix;
+     * Die Ziffern als Zahl in den unteren 17 Bits, darüber die Kennung des
+     * Präfixes.
      */
-    private final String _prefix;
+    private final int _kodiert;
 
     /**
      * Wählt eine PLZ aus.
@@ -37,10 +42,7 @@ public final class PLZ
     public PLZ(String plz)
     {
         assert istGueltig(plz) : "Vorbedingung verletzt: istGueltig(plz) ";
-        Matcher m = PLZ_PATTERN.matcher(plz);
-        m.matches();
-        _prefix = m.group(1);
-        _plz = m.group(2);
+        _kodiert = kodiere(plz);
     }
 
     /**
@@ -53,8 +55,59 @@ public final class PLZ
      */
     public static boolean istGueltig(String plz)
     {
-        Matcher m = PLZ_PATTERN.matcher(plz);
-        return m.matches();
+        return kodiere(plz) != UNGUELTIG;
+    }
+
+    /**
+     * Zerlegt eine Postleitzahl in Präfix und Ziffern.
+     * 
+     * @return Die kodierte Postleitzahl oder UNGUELTIG.
+     */
+    private static int kodiere(String plz)
+    {
+        int laenge = plz.length();
+        int praefix = OHNE_PRAEFIX;
+        if (laenge == 7 && plz.charAt(1) == '-')
+        {
+            char d = plz.charAt(0);
+            if (d == 'D')
+            {
+                praefix = PRAEFIX_GROSS;
+            }
+            else if (d == 'd')
+            {
+                praefix = PRAEFIX_KLEIN;
+            }
+            else
+            {
+                return UNGUELTIG;
+            }
+        }
+        else if (laenge != 5)
+        {
+            return UNGUELTIG;
+        }
+
+        int ziffern = 0;
+        for (int i = laenge - 5; i < laenge; i++)
+        {
+            int ziffer = plz.charAt(i) - '0';
+            if (ziffer < 0 || ziffer > 9)
+            {
+                return UNGUELTIG;
+            }
+            ziffern = ziffern * 10 + ziffer;
+        }
+        return (praefix << ZIFFERNBITS) | ziffern;
+    }
+
+    /**
+     * Gibt die fünf Ziffern als Zahl zurück (0..99999), etwa als Schlüssel
+     * für Auswertungen nach Postleitzahl.
+     */
+    public int getZahl()
+    {
+        return _kodiert & ZIFFERNMASKE;
     }
 
     /**
@@ -72,7 +125,7 @@ public final class PLZ
         if (obj instanceof PLZ)
         {
             PLZ vergleichsPLZ = (PLZ) obj;
-            result = _plz.equals(vergleichsPLZ._plz);
+            result = getZahl() == vergleichsPLZ.getZahl();
         }
         return result;
     }
@@ -80,18 +133,27 @@ public final class PLZ
     @Override
     public int hashCode()
     {
-        return _plz.hashCode();
+        return getZahl();
     }
 
     @Override
     public String toString()
     {
-        String result = "";
-        if (_prefix != null)
+        char[] zeichen = new char[7];
+        int anfang = 2;
+        int praefix = _kodiert >>> ZIFFERNBITS;
+        if (praefix != OHNE_PRAEFIX)
         {
-            result += _prefix;
+            zeichen[0] = praefix == PRAEFIX_GROSS ? 'D' : 'd';
+            zeichen[1] = '-';
+            anfang = 0;
         }
-        result += _plz;
-        return result;
+        int ziffern = getZahl();
+        for (int i = 6; i >= 2; i--)
+        {
+            zeichen[i] = (char) ('0' + ziffern % 10);
+            ziffern /= 10;
+        }
+        return new String(zeichen, anfang, 7 - anfang);
     }
 }
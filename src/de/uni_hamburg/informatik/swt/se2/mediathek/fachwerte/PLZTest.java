@@ -34,4 +34,28 @@ public class PLZTest
         assertFalse(plz1.equals(plz3));
         assertFalse(plz1.hashCode() == plz3.hashCode());
     }
+
+    @Test
+    public void istGueltigTest()
+    {
+        assertTrue(PLZ.istGueltig("00000"));
+        assertTrue(PLZ.istGueltig("d-99999"));
+        assertFalse(PLZ.istGueltig("2276"));
+        assertFalse(PLZ.istGueltig("227601"));
+        assertFalse(PLZ.istGueltig("X-22760"));
+        assertFalse(PLZ.istGueltig("D_22760"));
+        assertFalse(PLZ.istGueltig("D-2276a"));
+        assertFalse(PLZ.istGueltig("D-"));
+        assertFalse(PLZ.istGueltig(""));
+    }
+
+    @Test
+    public void zahlUndFuehrendeNullenTest()
+    {
+        PLZ plz = new PLZ("d-01067");
+        assertEquals(1067, plz.getZahl());
+        assertEquals("d-01067", plz.toString());
+        assertEquals("01067", new PLZ("01067").toString());
+        assertEquals(new PLZ("01067"), plz);
+    }
 }
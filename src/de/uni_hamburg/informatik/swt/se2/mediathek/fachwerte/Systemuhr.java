@@ -0,0 +1,53 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+/**
+ * Eine Uhr, die das heutige Datum aus der Systemzeit (UTC) bestimmt.
+ * 
+ * Das Datum wird zwischengespeichert und erst beim ersten Aufruf nach
+ * Mitternacht neu erzeugt. Bis dahin liefert heute() immer dasselbe
+ * Exemplar, ohne ein neues Objekt anzulegen. Wird die Systemzeit
+ * zurückgestellt, wird das Datum ebenfalls neu bestimmt.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Systemuhr implements Uhr
+{
+    // Die Anzahl von Millisekunden an einem Tag
+    private static final long MILLISEKUNDEN_PRO_TAG = 24L * 60 * 60 * 1000;
+
+    // Der zwischengespeicherte Tag, null vor dem ersten Aufruf
+    private volatile Tag _tag;
+
+    @Override
+    public Datum heute()
+    {
+        long jetzt = System.currentTimeMillis();
+        Tag tag = _tag;
+        if (tag == null || jetzt < tag._anfang || jetzt >= tag._ende)
+        {
+            tag = new Tag(jetzt);
+            _tag = tag;
+        }
+        return tag._datum;
+    }
+
+    /**
+     * Ein Datum mit dem Zeitraum in Millisekunden, in dem es das heutige
+     * Datum ist.
+     */
+    private static final class Tag
+    {
+        private final Datum _datum;
+        private final long _anfang;
+        private final long _ende;
+
+        Tag(long jetzt)
+        {
+            long epochTag = jetzt / MILLISEKUNDEN_PRO_TAG;
+            _datum = Datum.ausEpochTag((int) epochTag);
+            _anfang = epochTag * MILLISEKUNDEN_PRO_TAG;
+            _ende = _anfang + MILLISEKUNDEN_PRO_TAG;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+/**
+ * Eine Uhr liefert das heutige Datum. Über Datum.setUhr(Uhr) wird festgelegt,
+ * welche Uhr Datum.heute() und damit Verleih- und Vormerkkarten verwenden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public interface Uhr
+{
+    /**
+     * Liefert das heutige Datum zurück.
+     * 
+     * @ensure result != null
+     */
+    Datum heute();
+}
@@ -0,0 +1,49 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class UhrTest
+{
+    @Test
+    public void testeSystemuhrLiefertDenselbenTag()
+    {
+        Uhr uhr = new Systemuhr();
+        long vorher = System.currentTimeMillis() / (24 * 60 * 60 * 1000L);
+        Datum heute = uhr.heute();
+        long nachher = System.currentTimeMillis() / (24 * 60 * 60 * 1000L);
+        assertTrue(heute.getEpochTag() == vorher
+                || heute.getEpochTag() == nachher);
+        if (vorher == nachher)
+        {
+            assertSame(heute, uhr.heute());
+        }
+    }
+
+    @Test
+    public void testeFesteUhr()
+    {
+        FesteUhr uhr = new FesteUhr(new Datum(1, 3, 2021));
+        assertEquals(new Datum(1, 3, 2021), uhr.heute());
+        uhr.setHeute(new Datum(2, 3, 2021));
+        assertEquals(new Datum(2, 3, 2021), uhr.heute());
+    }
+
+    @Test
+    public void testeDatumVerwendetEingestellteUhr()
+    {
+        Uhr uhr = Datum.getUhr();
+        try
+        {
+            Datum.setUhr(new FesteUhr(new Datum(24, 12, 2020)));
+            assertEquals(new Datum(24, 12, 2020), Datum.heute());
+        }
+        finally
+        {
+            Datum.setUhr(uhr);
+        }
+    }
+}
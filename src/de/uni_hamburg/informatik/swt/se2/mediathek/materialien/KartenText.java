@@ -0,0 +1,98 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
+
+import java.io.IOException;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+
+/**
+ * Der formatierte Text einer Verleih- oder Vormerkkarte, zusammen mit den
+ * formatierten Strings von Medium und Kunde, aus denen er erzeugt wurde.
+ * 
+ * Medium und Kunde speichern ihren formatierten String zwischen und liefern
+ * bis zur nächsten Änderung dasselbe String-Exemplar. Eine Karte kann ihren
+ * KartenText deshalb wiederverwenden, solange passtZu mit den aktuellen
+ * Strings von Medium und Kunde true liefert. Weil ein KartenText
+ * unveränderlich ist, kann eine Karte ihn ohne Synchronisation austauschen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class KartenText
+{
+    private final String _medium;
+    private final String _kunde;
+    private final String _text;
+
+    /**
+     * Erzeugt den Text einer Karte in der Form "medium am datum vermerk\n
+     * kunde".
+     * 
+     * @param medium Der formatierte String des Mediums.
+     * @param datum Das Datum der Karte.
+     * @param vermerk Der Vermerk nach dem Datum, etwa "verliehen an".
+     * @param kunde Der formatierte String des Kunden.
+     * 
+     * @require medium != null
+     * @require datum != null
+     * @require vermerk != null
+     * @require kunde != null
+     */
+    KartenText(String medium, Datum datum, String vermerk, String kunde)
+    {
+        _medium = medium;
+        _kunde = kunde;
+        StringBuilder builder = new StringBuilder(
+                medium.length() + kunde.length() + 32);
+        try
+        {
+            schreibe(builder, medium, datum, vermerk, kunde);
+        }
+        catch (IOException e)
+        {
+            // Ein StringBuilder wirft keine IOException
+            throw new AssertionError(e);
+        }
+        _text = builder.toString();
+    }
+
+    /**
+     * Schreibt den Text einer Karte in ein Ziel, ohne ihn vorher als String zu
+     * erzeugen.
+     * 
+     * @param ziel Das Ziel, an das der Text angehängt wird.
+     * @param medium Der formatierte String des Mediums.
+     * @param datum Das Datum der Karte.
+     * @param vermerk Der Vermerk nach dem Datum.
+     * @param kunde Der formatierte String des Kunden.
+     * 
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     */
+    static void schreibe(Appendable ziel, String medium, Datum datum,
+            String vermerk, String kunde) throws IOException
+    {
+        ziel.append(medium)
+            .append("am ")
+            .append(datum.toString())
+            .append(' ')
+            .append(vermerk)
+            .append('\n')
+            .append(kunde);
+    }
+
+    /**
+     * Prüft, ob dieser Text aus den angegebenen Strings erzeugt wurde. Es wird
+     * auf Identität geprüft.
+     */
+    boolean passtZu(String medium, String kunde)
+    {
+        return _medium == medium && _kunde == kunde;
+    }
+
+    /**
+     * Gibt den Text der Karte zurück.
+     */
+    String getText()
+    {
+        return _text;
+    }
+}
@@ -0,0 +1,132 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Ein UTF-8-kodierter Text in einem Bereich eines Byte-Puffers, der erst beim
+ * ersten Zugriff dekodiert wird. Danach wird nur noch der String gehalten und
+ * der Puffer freigegeben.
+ * 
+ * Der Puffer wird nur über Duplikate gelesen und darf nach der Erzeugung
+ * nicht mehr verändert werden. Damit können mehrere Texte
+ * denselben Puffer gemeinsam und threadsicher verwenden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class KodierterText implements CharSequence
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Der Puffer mit den Bytes, null sobald der Text dekodiert ist
+    private ByteBuffer _puffer;
+    private final int _anfang;
+    private final int _laenge;
+
+    // Der dekodierte Text, null solange noch nicht dekodiert wurde
+    private volatile String _text;
+
+    /**
+     * Initialisiert einen neuen Text für den Bereich [anfang, anfang + laenge)
+     * des Puffers.
+     * 
+     * @param puffer Der Puffer mit den UTF-8-kodierten Bytes.
+     * @param anfang Der Index des ersten Bytes.
+     * @param laenge Die Anzahl der Bytes.
+     * 
+     * @require puffer != null
+     * @require anfang >= 0 && laenge >= 0
+     * @require anfang + laenge <= puffer.limit()
+     */
+    public KodierterText(ByteBuffer puffer, int anfang, int laenge)
+    {
+        assert puffer != null : "Vorbedingung verletzt: puffer != null";
+        assert anfang >= 0
+                && laenge >= 0 : "Vorbedingung verletzt: anfang >= 0 && laenge >= 0";
+        assert anfang + laenge <= puffer
+            .limit() : "Vorbedingung verletzt: anfang + laenge <= puffer.limit()";
+
+        _puffer = puffer;
+        _anfang = anfang;
+        _laenge = laenge;
+    }
+
+    /**
+     * Gibt einen Text zurück, der sich nicht mehr ändern kann: Strings und
+     * kodierte Texte unverändert, andere CharSequences (etwa ein
+     * StringBuilder) als Kopie.
+     * 
+     * @param text Der Text, darf null sein.
+     * 
+     * @ensure text == null || result.toString().contentEquals(text)
+     */
+    public static CharSequence unveraenderlich(CharSequence text)
+    {
+        if (text == null || text instanceof String
+                || text instanceof KodierterText)
+        {
+            return text;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Gibt an, ob der Text bereits dekodiert wurde.
+     */
+    public boolean istDekodiert()
+    {
+        return _text != null;
+    }
+
+    @Override
+    public int length()
+    {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int anfang, int ende)
+    {
+        return toString().subSequence(anfang, ende);
+    }
+
+    /**
+     * Gibt den dekodierten Text zurück. Beim ersten Aufruf werden die Bytes
+     * dekodiert.
+     * 
+     * @ensure result != null
+     */
+    @Override
+    public String toString()
+    {
+        String text = _text;
+        if (text == null)
+        {
+            text = dekodiere();
+        }
+        return text;
+    }
+
+    private synchronized String dekodiere()
+    {
+        if (_text == null)
+        {
+            byte[] bytes = new byte[_laenge];
+            // Eine Kopie der Zeiger, damit der gemeinsame Puffer unverändert
+            // bleibt
+            ByteBuffer kopie = _puffer.duplicate();
+            kopie.position(_anfang);
+            kopie.get(bytes);
+            _text = new String(bytes, UTF_8);
+            _puffer = null;
+        }
+        return _text;
+    }
+}
@@ -0,0 +1,66 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+
+public class KodierterTextTest
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testeDekodiertErstBeimZugriff()
+    {
+        ByteBuffer puffer = ByteBuffer.wrap("Klaus;Müller;".getBytes(UTF_8));
+        KodierterText text = new KodierterText(puffer, 6, 7);
+        assertFalse(text.istDekodiert());
+        assertEquals("Müller", text.toString());
+        assertTrue(text.istDekodiert());
+        assertSame(text.toString(), text.toString());
+        assertEquals(6, text.length());
+        assertEquals('ü', text.charAt(1));
+    }
+
+    @Test
+    public void testePufferWirdNichtVeraendert()
+    {
+        ByteBuffer puffer = ByteBuffer.wrap("abc".getBytes(UTF_8));
+        new KodierterText(puffer, 1, 2).toString();
+        assertEquals(0, puffer.position());
+        assertEquals(3, puffer.limit());
+    }
+
+    @Test
+    public void testeKundeMitKodiertemText()
+    {
+        ByteBuffer puffer = ByteBuffer.wrap("KlausMüller".getBytes(UTF_8));
+        Kunde kunde = Kunde.eingelesen(new Kundennummer(123456),
+                new KodierterText(puffer, 0, 5),
+                new KodierterText(puffer, 5, 7), null,
+                new KodierterText(puffer, 0, 0));
+        assertEquals("Klaus", kunde.getVorname());
+        assertEquals("Müller", kunde.getNachname());
+        assertEquals("", kunde.getWohnort());
+        assertEquals(null, kunde.getStrasse());
+    }
+
+    @Test
+    public void testeVeraenderlicherTextWirdKopiert()
+    {
+        StringBuilder vorname = new StringBuilder("Klaus");
+        Kunde kunde = Kunde.eingelesen(new Kundennummer(123456), vorname,
+                "Müller", null, null);
+        String formatiert = kunde.getFormatiertenString();
+        vorname.append("-Peter");
+        assertEquals("Klaus", kunde.getVorname());
+        assertEquals(formatiert, kunde.getFormatiertenString());
+    }
+}
@@ -1,5 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
 
+import java.io.IOException;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.PLZ;
 
@@ -8,6 +10,12 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.PLZ;
  * Jeder Kunde hat mindestens einen Vornamen, einen Nachnamen und eine
  * Kundennummer.
  * 
+ * Beim Einlesen können die Texte mit eingelesen() als KodierterText übergeben
+ * werden. Sie werden erst beim ersten Zugriff in einen String umgewandelt.
+ * 
+ * Der formatierte String wird beim ersten Aufruf von getFormatiertenString()
+ * erzeugt und bis zur nächsten Änderung durch einen Setter wiederverwendet.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -18,12 +26,15 @@ public class Kunde
 
     // Zustandsfelder für Kundendaten
     private Kundennummer _kundennummer;
-    private String _nachname;
+    private CharSequence _nachname;
     private PLZ _plz;
-    private String _strasse;
+    private CharSequence _strasse;
     private String _telefonnummer;
-    private String _vorname;
-    private String _wohnort;
+    private CharSequence _vorname;
+    private CharSequence _wohnort;
+
+    // Zwischengespeicherter formatierter String, null nach einer Änderung
+    private String _formatierterString;
 
     /**
      * Konstruktor für einen Kunden.
@@ -41,17 +52,50 @@ public class Kunde
      * @ensure getNachname() == nachname
      */
     public Kunde(Kundennummer kundennummer, String vorname, String nachname)
+    {
+        this(kundennummer, (CharSequence) vorname, nachname);
+    }
+
+    private Kunde(Kundennummer kundennummer, CharSequence vorname,
+            CharSequence nachname)
     {
         assert kundennummer != null : "Vorbedingung verletzt: kundennummer != null";
         assert vorname != null : "Vorbedingung verletzt: vorname != null";
         assert nachname != null : "Vorbedingung verletzt: nachname != null";
 
-        _vorname = vorname;
-        _nachname = nachname;
+        _vorname = KodierterText.unveraenderlich(vorname);
+        _nachname = KodierterText.unveraenderlich(nachname);
         _kundennummer = kundennummer;
 
     }
 
+    /**
+     * Erzeugt einen eingelesenen Kunden, dessen Texte auch als KodierterText
+     * übergeben werden können. Andere veränderliche Texte werden kopiert.
+     * 
+     * @param kundennummer Eine Kundennummer.
+     * @param vorname Ein Vorname des Kunden.
+     * @param nachname Ein Nachname des Kunden.
+     * @param strasse Die Straße, darf null sein.
+     * @param wohnort Der Wohnort, darf null sein.
+     * 
+     * @require kundennummer != null
+     * @require vorname != null
+     * @require nachname != null
+     * 
+     * @ensure result.getVorname().contentEquals(vorname)
+     * @ensure result.getNachname().contentEquals(nachname)
+     */
+    public static Kunde eingelesen(Kundennummer kundennummer,
+            CharSequence vorname, CharSequence nachname, CharSequence strasse,
+            CharSequence wohnort)
+    {
+        Kunde kunde = new Kunde(kundennummer, vorname, nachname);
+        kunde._strasse = KodierterText.unveraenderlich(strasse);
+        kunde._wohnort = KodierterText.unveraenderlich(wohnort);
+        return kunde;
+    }
+
     /**
      * Gibt einen String mit allen Informationen zum Kunden zurück.
      * 
@@ -60,14 +104,49 @@ public class Kunde
      */
     public String getFormatiertenString()
     {
-        String result = SPACE + "Kundennummer: " + getKundennummer().toString()
-                + "\n";
-        result += SPACE + "Name: " + getVorname() + " " + getNachname() + "\n";
-        result += SPACE + "Telefon: " + getTelefonnummer() + "\n";
-        result += SPACE + "Anschrift:\n" + getAnschrift() + "\n";
+        String result = _formatierterString;
+        if (result == null)
+        {
+            StringBuilder builder = new StringBuilder(160);
+            builder.append(SPACE)
+                .append("Kundennummer: ")
+                .append(getKundennummer())
+                .append('\n');
+            builder.append(SPACE)
+                .append("Name: ")
+                .append(getVorname())
+                .append(' ')
+                .append(getNachname())
+                .append('\n');
+            builder.append(SPACE)
+                .append("Telefon: ")
+                .append(getTelefonnummer())
+                .append('\n');
+            builder.append(SPACE)
+                .append("Anschrift:\n");
+            haengeAnschriftAn(builder);
+            builder.append('\n');
+            result = builder.toString();
+            _formatierterString = result;
+        }
         return result;
     }
 
+    /**
+     * Schreibt den formatierten String mit allen Informationen zum Kunden in
+     * ein Ziel, ohne Zwischenergebnisse zu erzeugen.
+     * 
+     * @param ziel Das Ziel, an das der Text angehängt wird.
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     * 
+     * @require ziel != null
+     */
+    public void schreibeFormatiert(Appendable ziel) throws IOException
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+        ziel.append(getFormatiertenString());
+    }
+
     /**
      * Gibt die Kundenummer zurück.
      * 
@@ -87,7 +166,9 @@ public class Kunde
      */
     public String getNachname()
     {
-        return _nachname;
+        String nachname = _nachname.toString();
+        _nachname = nachname;
+        return nachname;
     }
 
     /**
@@ -107,7 +188,13 @@ public class Kunde
      */
     public String getStrasse()
     {
-        return _strasse;
+        String strasse = null;
+        if (_strasse != null)
+        {
+            strasse = _strasse.toString();
+            _strasse = strasse;
+        }
+        return strasse;
     }
 
     /**
@@ -137,7 +224,9 @@ public class Kunde
      */
     public String getVorname()
     {
-        return _vorname;
+        String vorname = _vorname.toString();
+        _vorname = vorname;
+        return vorname;
     }
 
     /**
@@ -147,7 +236,13 @@ public class Kunde
      */
     public String getWohnort()
     {
-        return _wohnort;
+        String wohnort = null;
+        if (_wohnort != null)
+        {
+            wohnort = _wohnort.toString();
+            _wohnort = wohnort;
+        }
+        return wohnort;
     }
 
     /**
@@ -158,6 +253,7 @@ public class Kunde
     public void setPLZ(PLZ plz)
     {
         _plz = plz;
+        _formatierterString = null;
     }
 
     /**
@@ -168,6 +264,7 @@ public class Kunde
     public void setStrasse(String strasse)
     {
         _strasse = strasse;
+        _formatierterString = null;
     }
 
     /**
@@ -178,6 +275,7 @@ public class Kunde
     public void setTelefonnummer(String telefonnummer)
     {
         _telefonnummer = telefonnummer;
+        _formatierterString = null;
     }
 
     /**
@@ -188,6 +286,7 @@ public class Kunde
     public void setWohnort(String wohnort)
     {
         _wohnort = wohnort;
+        _formatierterString = null;
     }
 
     @Override
@@ -197,32 +296,34 @@ public class Kunde
     }
 
     /**
-     * Gibt eine String-Darstellung der Anschrift des Kundens (ohne
-     * Zeilenumbrüche) zurück.
-     * 
-     * @return Eine String-Repräsentation der Anschrift ohne Zeilenumbrüche.
+     * Hängt die Anschrift des Kunden an, "unbekannt" wenn weder Straße noch
+     * PLZ noch Wohnort bekannt sind.
      * 
-     * @ensure result != null
+     * @param builder Der StringBuilder, an den die Anschrift angehängt wird.
      */
-    private String getAnschrift()
+    private void haengeAnschriftAn(StringBuilder builder)
     {
-        String result = "";
+        int anfang = builder.length();
         if ((getStrasse() != null))
         {
-            result += SPACE + getStrasse() + "\n";
+            builder.append(SPACE)
+                .append(getStrasse())
+                .append('\n');
         }
         if (getPLZ() != null)
         {
-            result += SPACE + getPLZ() + " ";
+            builder.append(SPACE)
+                .append(getPLZ())
+                .append(' ');
         }
         if (getWohnort() != null)
         {
-            result += getWohnort();
+            builder.append(getWohnort());
         }
-        if (result.length() == 0)
+        if (builder.length() == anfang)
         {
-            result += SPACE + "unbekannt";
+            builder.append(SPACE)
+                .append("unbekannt");
         }
-        return result;
     }
 }
@@ -2,6 +2,7 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -85,4 +86,46 @@ public class KundeTest
         assertEquals("Klaus", kunde.getVorname());
         assertEquals("Schmidt", kunde.getNachname());
     }
+
+    @Test
+    public void testeFormatierterString() throws Exception
+    {
+        String formatiert = kunde.getFormatiertenString();
+        assertEquals("    Kundennummer: 123456\n" + "    Name: Klaus Schmidt\n"
+                + "    Telefon: 123/456789\n" + "    Anschrift:\n"
+                + "    Sonnenallee 20\n" + "    22761 Hamburg\n", formatiert);
+        assertSame(formatiert, kunde.getFormatiertenString());
+
+        kunde.setStrasse(null);
+        kunde.setPLZ(null);
+        kunde.setWohnort(null);
+        assertEquals("    Kundennummer: 123456\n" + "    Name: Klaus Schmidt\n"
+                + "    Telefon: 123/456789\n" + "    Anschrift:\n"
+                + "    unbekannt\n", kunde.getFormatiertenString());
+
+        StringBuilder builder = new StringBuilder();
+        kunde.schreibeFormatiert(builder);
+        assertEquals(kunde.getFormatiertenString(), builder.toString());
+    }
+
+    @Test
+    public void testeFormatierterStringNachAenderungDerStrasse()
+    {
+        String formatiert = kunde.getFormatiertenString();
+        kunde.getStrasse();
+        kunde.getWohnort();
+        assertSame(formatiert, kunde.getFormatiertenString());
+
+        kunde.setStrasse("Adlerweg 2");
+        assertEquals("    Kundennummer: 123456\n" + "    Name: Klaus Schmidt\n"
+                + "    Telefon: 123/456789\n" + "    Anschrift:\n"
+                + "    Adlerweg 2\n" + "    22761 Hamburg\n",
+                kunde.getFormatiertenString());
+
+        kunde.setWohnort("Altona");
+        assertEquals("    Kundennummer: 123456\n" + "    Name: Klaus Schmidt\n"
+                + "    Telefon: 123/456789\n" + "    Anschrift:\n"
+                + "    Adlerweg 2\n" + "    22761 Altona\n",
+                kunde.getFormatiertenString());
+    }
 }
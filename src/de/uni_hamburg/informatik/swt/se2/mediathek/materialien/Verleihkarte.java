@@ -1,7 +1,12 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldsumme;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 
 /**
@@ -25,6 +30,9 @@ public class Verleihkarte
     private final Kunde _entleiher;
     private final Medium _medium;
 
+    // Zwischengespeicherter Text für getFormatiertenString()
+    private KartenText _kartenText;
+
     /**
      * Initialisert eine neue Verleihkarte mit den gegebenen Daten.
      * 
@@ -87,9 +95,45 @@ public class Verleihkarte
      */
     public String getFormatiertenString()
     {
-        return _medium.getFormatiertenString() + "am "
-                + _ausleihdatum.toString() + " verliehen an\n"
-                + _entleiher.getFormatiertenString();
+        String medium = _medium.getFormatiertenString();
+        String entleiher = _entleiher.getFormatiertenString();
+        KartenText kartenText = _kartenText;
+        if (kartenText == null || !kartenText.passtZu(medium, entleiher))
+        {
+            kartenText = new KartenText(medium, _ausleihdatum, "verliehen an",
+                    entleiher);
+            _kartenText = kartenText;
+        }
+        return kartenText.getText();
+    }
+
+    /**
+     * Schreibt die String-Darstellung der Verleihkarte, wie sie
+     * getFormatiertenString() liefert, in ein Ziel. Ist sie nicht schon
+     * zwischengespeichert, wird sie direkt aus den Strings von Medium und
+     * Kunde geschrieben.
+     * 
+     * @param ziel Das Ziel, an das der Text angehängt wird.
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     * 
+     * @require ziel != null
+     */
+    public void schreibeFormatiert(Appendable ziel) throws IOException
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        String medium = _medium.getFormatiertenString();
+        String entleiher = _entleiher.getFormatiertenString();
+        KartenText kartenText = _kartenText;
+        if (kartenText != null && kartenText.passtZu(medium, entleiher))
+        {
+            ziel.append(kartenText.getText());
+        }
+        else
+        {
+            KartenText.schreibe(ziel, medium, _ausleihdatum, "verliehen an",
+                    entleiher);
+        }
     }
 
     /**
@@ -113,7 +157,84 @@ public class Verleihkarte
      */
     public Geldbetrag getMietgebuehr()
     {
-        return _medium.berechneMietgebuehr(getAusleihdauer());
+        return getMietgebuehr(Datum.heute());
+    }
+
+    /**
+     * Gibt die Mietgebühr bis zu einem Stichtag zurück.
+     * 
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @return Die Mietgebühr bis zum Stichtag.
+     * 
+     * @require stichtag != null
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getMietgebuehr(Datum stichtag)
+    {
+        return _medium.berechneMietgebuehr(getAusleihdauer(stichtag));
+    }
+
+    /**
+     * Berechnet die Mietgebühren mehrerer Verleihkarten bis zu einem
+     * gemeinsamen Stichtag in einem Durchlauf. Die Gebühren werden direkt aus
+     * den Tariftabellen der Medien gelesen.
+     * 
+     * @param verleihkarten Die Verleihkarten
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @return Die Mietgebühren in der Reihenfolge der Verleihkarten.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * @require Der stichtag liegt nicht vor einem Ausleihdatum.
+     * 
+     * @ensure result.size() == verleihkarten.size()
+     */
+    public static List<Geldbetrag> berechneMietgebuehren(
+            List<Verleihkarte> verleihkarten, Datum stichtag)
+    {
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+
+        int stichtagEpoch = stichtag.getEpochTag();
+        List<Geldbetrag> result = new ArrayList<Geldbetrag>(
+                verleihkarten.size());
+        for (Verleihkarte karte : verleihkarten)
+        {
+            result.add(karte._medium.getTarif()
+                .getMietgebuehr(karte.getAusleihdauer(stichtagEpoch)));
+        }
+        return result;
+    }
+
+    /**
+     * Addiert die Mietgebühren mehrerer Verleihkarten bis zu einem
+     * gemeinsamen Stichtag zu einer Geldsumme, ohne Zwischenbeträge zu
+     * erzeugen.
+     * 
+     * @param verleihkarten Die Verleihkarten
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @param summe Die Geldsumme, zu der addiert wird.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * @require summe != null
+     * @require Der stichtag liegt nicht vor einem Ausleihdatum.
+     */
+    public static void summiereMietgebuehren(
+            Iterable<Verleihkarte> verleihkarten, Datum stichtag,
+            Geldsumme summe)
+    {
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+
+        int stichtagEpoch = stichtag.getEpochTag();
+        for (Verleihkarte karte : verleihkarten)
+        {
+            summe.addiere(karte._medium.getTarif()
+                .getEurocent(karte.getAusleihdauer(stichtagEpoch)));
+        }
     }
 
     /**
@@ -124,8 +245,31 @@ public class Verleihkarte
      */
     public int getAusleihdauer()
     {
-        return Datum.heute()
-            .tageSeit(getAusleihdatum()) + 1;
+        return getAusleihdauer(Datum.heute());
+    }
+
+    /**
+     * Berechnet die Ausleihdauer in Tagen bis zu einem Stichtag. Der erste
+     * Tag der Ausleihe und der Stichtag zählen vollständig als Ausleihtage.
+     * 
+     * @param stichtag Der letzte Ausleihtag.
+     * @return Die Ausleihdauer in Tagen.
+     * 
+     * @require stichtag != null
+     */
+    public int getAusleihdauer(Datum stichtag)
+    {
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        return stichtag.tageSeit(getAusleihdatum()) + 1;
+    }
+
+    /**
+     * Berechnet die Ausleihdauer bis zu einem Stichtag, der als Epochentag
+     * gegeben ist.
+     */
+    private int getAusleihdauer(int stichtagEpoch)
+    {
+        return stichtagEpoch - _ausleihdatum.getEpochTag() + 1;
     }
 
     @Override
@@ -4,14 +4,22 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.FesteUhr;
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldsumme;
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Uhr;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.KonsolenVideospiel;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 
 public class VerleihkarteTest
@@ -91,4 +99,74 @@ public class VerleihkarteTest
         assertNotSame(_karte.hashCode(), karte2.hashCode());
 
     }
+
+    @Test
+    public void testeAusleihdauerBisStichtag()
+    {
+        Verleihkarte karte = new Verleihkarte(_kunde, _medium,
+                new Datum(1, 3, 2021));
+        assertEquals(1, karte.getAusleihdauer(new Datum(1, 3, 2021)));
+        assertEquals(31, karte.getAusleihdauer(new Datum(31, 3, 2021)));
+        assertEquals(new Geldbetrag(300 * 31),
+                karte.getMietgebuehr(new Datum(31, 3, 2021)));
+    }
+
+    @Test
+    public void testeAusleihdauerMitFesterUhr()
+    {
+        Uhr uhr = Datum.getUhr();
+        try
+        {
+            Datum.setUhr(new FesteUhr(new Datum(10, 3, 2021)));
+            Verleihkarte karte = new Verleihkarte(_kunde, _medium,
+                    new Datum(1, 3, 2021));
+            assertEquals(10, karte.getAusleihdauer());
+            assertEquals(new Geldbetrag(300 * 10), karte.getMietgebuehr());
+        }
+        finally
+        {
+            Datum.setUhr(uhr);
+        }
+    }
+
+    @Test
+    public void testeMietgebuehrenFuerMehrereKarten()
+    {
+        Datum stichtag = new Datum(10, 3, 2021);
+        Verleihkarte cdKarte = new Verleihkarte(_kunde, _medium,
+                new Datum(1, 3, 2021));
+        Verleihkarte spielKarte = new Verleihkarte(_kunde,
+                new KonsolenVideospiel("Spiel", "", "System"),
+                new Datum(5, 3, 2021));
+        List<Verleihkarte> karten = Arrays.asList(cdKarte, spielKarte);
+
+        List<Geldbetrag> gebuehren = Verleihkarte.berechneMietgebuehren(karten,
+                stichtag);
+        assertEquals(Arrays.asList(cdKarte.getMietgebuehr(stichtag),
+                spielKarte.getMietgebuehr(stichtag)), gebuehren);
+
+        Geldsumme summe = new Geldsumme();
+        Verleihkarte.summiereMietgebuehren(karten, stichtag, summe);
+        assertEquals(300 * 10 + 200 + 2 * 700, summe.getEurocent());
+    }
+
+    @Test
+    public void testeFormatierterStringFolgtAenderungen() throws Exception
+    {
+        String formatiert = _karte.getFormatiertenString();
+        assertSame(formatiert, _karte.getFormatiertenString());
+        assertTrue(formatiert.startsWith(_medium.getFormatiertenString()
+                + "am " + _datum + " verliehen an\n"));
+
+        _kunde.setTelefonnummer("040/123456");
+        assertTrue(_karte.getFormatiertenString()
+            .endsWith(_kunde.getFormatiertenString()));
+        _medium.setTitel("Anderer Titel");
+        assertTrue(_karte.getFormatiertenString()
+            .startsWith(_medium.getFormatiertenString()));
+
+        StringBuilder builder = new StringBuilder();
+        _karte.schreibeFormatiert(builder);
+        assertEquals(_karte.getFormatiertenString(), builder.toString());
+    }
 }
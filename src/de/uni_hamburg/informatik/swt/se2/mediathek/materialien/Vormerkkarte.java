@@ -1,5 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien;
 
+import java.io.IOException;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 
@@ -15,6 +17,9 @@ public class Vormerkkarte
     private Kunde _vormerker;
     private Datum _vormerkdatum;
     private Medium _medium;
+
+    // Zwischengespeicherter Text für getFormatiertenString()
+    private KartenText _kartenText;
     
     /**
      * Initialisert eine neue Vormerkkarte mit den gegebenen Daten.
@@ -78,9 +83,45 @@ public class Vormerkkarte
      */
     public String getFormatiertenString()
     {
-        return _medium.getFormatiertenString() + "am "
-                + _vormerkdatum.toString() + " vorgemerkt von\n"
-                + _vormerker.getFormatiertenString();
+        String medium = _medium.getFormatiertenString();
+        String vormerker = _vormerker.getFormatiertenString();
+        KartenText kartenText = _kartenText;
+        if (kartenText == null || !kartenText.passtZu(medium, vormerker))
+        {
+            kartenText = new KartenText(medium, _vormerkdatum, "vorgemerkt von",
+                    vormerker);
+            _kartenText = kartenText;
+        }
+        return kartenText.getText();
+    }
+
+    /**
+     * Schreibt die String-Darstellung der Vormerkkarte, wie sie
+     * getFormatiertenString() liefert, in ein Ziel. Ist sie nicht schon
+     * zwischengespeichert, wird sie direkt aus den Strings von Medium und
+     * Kunde geschrieben.
+     * 
+     * @param ziel Das Ziel, an das der Text angehängt wird.
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     * 
+     * @require ziel != null
+     */
+    public void schreibeFormatiert(Appendable ziel) throws IOException
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        String medium = _medium.getFormatiertenString();
+        String vormerker = _vormerker.getFormatiertenString();
+        KartenText kartenText = _kartenText;
+        if (kartenText != null && kartenText.passtZu(medium, vormerker))
+        {
+            ziel.append(kartenText.getText());
+        }
+        else
+        {
+            KartenText.schreibe(ziel, medium, _vormerkdatum, "vorgemerkt von",
+                    vormerker);
+        }
     }
 
     /**
@@ -103,8 +144,22 @@ public class Vormerkkarte
      */
     public int getVormerkdauer()
     {
-        return Datum.heute()
-            .tageSeit(getVormerkdatum()) + 1;
+        return getVormerkdauer(Datum.heute());
+    }
+
+    /**
+     * Berechnet die Vormerkdauer in Tagen bis zu einem Stichtag. Der erste Tag
+     * der Vormerkung und der Stichtag zählen vollständig als Vormerktage.
+     * 
+     * @param stichtag Der letzte Vormerktag.
+     * @return Die Vormerkdauer in Tagen.
+     * 
+     * @require stichtag != null
+     */
+    public int getVormerkdauer(Datum stichtag)
+    {
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        return stichtag.tageSeit(getVormerkdatum()) + 1;
     }
 
     @Override
@@ -1,10 +1,22 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 
+import java.io.IOException;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.KodierterText;
 
 /**
  * Ein AbstractMedium bietet eine Standardimplementation für ein Medium an.
  * 
+ * Beim Einlesen können die Texte über die Fabrikmethoden eingelesen() der
+ * Unterklassen als KodierterText übergeben werden. Sie werden erst beim
+ * ersten Zugriff in einen String umgewandelt.
+ * 
+ * Der formatierte String wird beim ersten Aufruf von getFormatiertenString()
+ * erzeugt und bis zur nächsten Änderung wiederverwendet. Unterklassen hängen
+ * ihre Eigenschaften in haengeEigenschaftenAn an und rufen in ihren Settern
+ * verwerfeFormatiertenString() auf.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -14,20 +26,43 @@ abstract class AbstractMedium implements Medium
     protected static final String SPACE = "    ";
 
     /**
-     * Gebühr für einen Tag
+     * Gebühr für einen Tag in Cent
      */
-    private final int _tagesmietgebuehr;
+    private static final int TAGESMIETGEBUEHR = 300;
+
+    /**
+     * Der Tarif für Medien, die pro Tag abgerechnet werden
+     */
+    private static final Tarif TAGESTARIF = new Tarif()
+    {
+        @Override
+        protected long berechneEurocent(int mietTage)
+        {
+            return (long) TAGESMIETGEBUEHR * mietTage;
+        }
+    };
 
     /**
      * Ein Kommentar zum Medium
      */
-    private String _kommentar;
+    private CharSequence _kommentar;
 
     /**
      * Der Titel des Mediums
      * 
      */
-    private String _titel;
+    private CharSequence _titel;
+
+    /**
+     * Zwischengespeicherter formatierter String, null nach einer Änderung
+     */
+    private String _formatierterString;
+
+    /**
+     * Die Mediennummer im Medienbestand, -1 solange keine vergeben wurde. Sie
+     * erscheint nicht im formatierten String.
+     */
+    private volatile int _mediennummer = -1;
 
     /**
      * Initialisiert ein neues Exemplar.
@@ -42,12 +77,30 @@ abstract class AbstractMedium implements Medium
      * @ensure getKommentar() == kommentar
      */
     public AbstractMedium(String titel, String kommentar)
+    {
+        this((CharSequence) titel, kommentar);
+    }
+
+    /**
+     * Initialisiert ein neues Exemplar mit eingelesenen Texten, die auch als
+     * KodierterText übergeben werden können. Andere veränderliche Texte
+     * werden kopiert.
+     * 
+     * @param titel Der Titel des Mediums
+     * @param kommentar Ein Kommentar zum Medium
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * 
+     * @ensure getTitel().contentEquals(titel)
+     * @ensure getKommentar().contentEquals(kommentar)
+     */
+    AbstractMedium(CharSequence titel, CharSequence kommentar)
     {
         assert titel != null : "Vorbedingung verletzt: titel != null";
         assert kommentar != null : "Vorbedingung verletzt: kommentar != null";
-        _titel = titel;
-        _kommentar = kommentar;
-        _tagesmietgebuehr = 300;
+        _titel = KodierterText.unveraenderlich(titel);
+        _kommentar = KodierterText.unveraenderlich(kommentar);
     }
 
     @Override
@@ -55,20 +108,73 @@ abstract class AbstractMedium implements Medium
     {
         assert mietTage > 0 : "Vorbedingung verletzt: mietTage > 0";
 
-        return new Geldbetrag(_tagesmietgebuehr * mietTage);
+        return getTarif().getMietgebuehr(mietTage);
+    }
+
+    @Override
+    public Tarif getTarif()
+    {
+        return TAGESTARIF;
     }
 
     @Override
     public String getFormatiertenString()
     {
-        return getMedienBezeichnung() + ":\n" + SPACE + "Titel: " + _titel
-                + "\n" + SPACE + "Kommentar: " + _kommentar + "\n";
+        String result = _formatierterString;
+        if (result == null)
+        {
+            StringBuilder builder = new StringBuilder(128);
+            haengeEigenschaftenAn(builder);
+            result = builder.toString();
+            _formatierterString = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void schreibeFormatiert(Appendable ziel) throws IOException
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+        ziel.append(getFormatiertenString());
+    }
+
+    /**
+     * Hängt alle Eigenschaften des Mediums in der Form von
+     * getFormatiertenString() an. Unterklassen rufen zuerst die Operation der
+     * Oberklasse auf und hängen danach ihre eigenen Eigenschaften an.
+     * 
+     * @param builder Der StringBuilder, an den angehängt wird.
+     */
+    protected void haengeEigenschaftenAn(StringBuilder builder)
+    {
+        builder.append(getMedienBezeichnung())
+            .append(":\n");
+        builder.append(SPACE)
+            .append("Titel: ")
+            .append(getTitel())
+            .append('\n');
+        builder.append(SPACE)
+            .append("Kommentar: ")
+            .append(getKommentar())
+            .append('\n');
+    }
+
+    /**
+     * Verwirft den zwischengespeicherten formatierten String. Muss nach jeder
+     * Änderung einer Eigenschaft aufgerufen werden, die in
+     * getFormatiertenString() erscheint.
+     */
+    protected void verwerfeFormatiertenString()
+    {
+        _formatierterString = null;
     }
 
     @Override
     public String getKommentar()
     {
-        return _kommentar;
+        String kommentar = _kommentar.toString();
+        _kommentar = kommentar;
+        return kommentar;
     }
 
     /**
@@ -83,12 +189,15 @@ abstract class AbstractMedium implements Medium
     {
         assert kommentar != null : "Vorbedingung verletzt: kommentar != null";
         _kommentar = kommentar;
+        verwerfeFormatiertenString();
     }
 
     @Override
     public String getTitel()
     {
-        return _titel;
+        String titel = _titel.toString();
+        _titel = titel;
+        return titel;
     }
 
     /**
@@ -103,6 +212,20 @@ abstract class AbstractMedium implements Medium
     {
         assert titel != null : "Vorbedingung verletzt: titel != null";
         _titel = titel;
+        verwerfeFormatiertenString();
+    }
+
+    @Override
+    public int getMediennummer()
+    {
+        return _mediennummer;
+    }
+
+    @Override
+    public void setMediennummer(int mediennummer)
+    {
+        assert mediennummer >= 0 : "Vorbedingung verletzt: mediennummer >= 0";
+        _mediennummer = mediennummer;
     }
 
 }
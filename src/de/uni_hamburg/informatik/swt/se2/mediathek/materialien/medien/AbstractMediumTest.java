@@ -3,6 +3,7 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -68,6 +69,22 @@ public abstract class AbstractMediumTest
         assertNotNull(medium.getFormatiertenString());
     }
 
+    @Test
+    public final void testeFormatierterStringWirdBeiAenderungNeuErzeugt()
+            throws Exception
+    {
+        Medium medium = getMedium();
+        String formatiert = medium.getFormatiertenString();
+        assertSame(formatiert, medium.getFormatiertenString());
+
+        medium.setTitel("Neuer Titel");
+        assertTrue(medium.getFormatiertenString()
+            .contains("Titel: Neuer Titel\n"));
+        StringBuilder builder = new StringBuilder();
+        medium.schreibeFormatiert(builder);
+        assertEquals(medium.getFormatiertenString(), builder.toString());
+    }
+
     @Test
     public final void testMediumSetter()
     {
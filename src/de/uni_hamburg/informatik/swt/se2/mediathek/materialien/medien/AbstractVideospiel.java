@@ -1,6 +1,6 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 
-import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.KodierterText;
 
 /**
  * Ein AbstractVideospiel bietet seine Standardimplemntation für Videospiele an.
@@ -13,12 +13,12 @@ abstract class AbstractVideospiel extends AbstractMedium
     /**
      * Basispreis eines Videospiels in Cent
      */
-    private static final int BASISPREIS = 200;
+    protected static final int BASISPREIS = 200;
 
     /**
      * Das System, auf dem das Spiel lauffähig ist
      */
-    private String _system;
+    private CharSequence _system;
 
     /**
      * Initialisiert ein neues Videospiel.
@@ -37,23 +37,42 @@ abstract class AbstractVideospiel extends AbstractMedium
      */
     public AbstractVideospiel(String titel, String kommentar, String system)
     {
-        super(titel, kommentar);
-
-        assert system != null : "Vorbedingung verletzt: system != null";
-        _system = system;
+        this((CharSequence) titel, kommentar, system);
     }
 
-    @Override
-    public Geldbetrag berechneMietgebuehr(int mietTage)
+    /**
+     * Initialisiert ein neues Videospiel mit eingelesenen Texten, siehe
+     * AbstractMedium.
+     * 
+     * @param titel Der Titel des Spiels
+     * @param system Die Bezeichnung des System
+     * @param kommentar Ein Kommentar zum Spiel
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * @require system != null
+     * 
+     * @ensure getTitel().contentEquals(titel)
+     * @ensure getKommentar().contentEquals(kommentar)
+     * @ensure getSystem().contentEquals(system)
+     */
+    AbstractVideospiel(CharSequence titel, CharSequence kommentar,
+            CharSequence system)
     {
-        return new Geldbetrag(BASISPREIS + getPreisNachTagen(mietTage));
+        super(titel, kommentar);
+
+        assert system != null : "Vorbedingung verletzt: system != null";
+        _system = KodierterText.unveraenderlich(system);
     }
 
     @Override
-    public String getFormatiertenString()
+    protected void haengeEigenschaftenAn(StringBuilder builder)
     {
-        return super.getFormatiertenString() + SPACE + "System: " + getSystem()
-                + "\n";
+        super.haengeEigenschaftenAn(builder);
+        builder.append(SPACE)
+            .append("System: ")
+            .append(getSystem())
+            .append('\n');
     }
 
     /**
@@ -66,7 +85,9 @@ abstract class AbstractVideospiel extends AbstractMedium
     public String getSystem()
     {
         assert _system != null : "Nachbedingung verletzt: result != null";
-        return _system;
+        String system = _system.toString();
+        _system = system;
+        return system;
     }
 
     /**
@@ -81,13 +102,22 @@ abstract class AbstractVideospiel extends AbstractMedium
     {
         assert system != null : "Vorbedingung verletzt: system != null";
         _system = system;
+        verwerfeFormatiertenString();
     }
 
     /**
-     * Berechnet den Preis für ein Videospiel mit einer Verleihdauer von tage.
+     * Berechnet den Preis für ein Videospiel mit einer Verleihdauer von tage,
+     * ohne den Basispreis.
      * 
      * @param tage Verleihdauer des Videospiels in Tagen.
      */
     protected abstract int getPreisNachTagen(int tage);
 
+    /**
+     * Gibt den Tarif der Spieleart zurück. Er enthält den Basispreis und den
+     * Preis nach getPreisNachTagen.
+     */
+    @Override
+    public abstract Tarif getTarif();
+
 }
@@ -1,5 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.KodierterText;
+
 /**
  * Eine CD ist ein Medium. Zusätzlich zu den Eigenschaften eines Mediums erfasst
  * sie Informationen zu Spiellänge und Interpret.
@@ -12,7 +14,7 @@ public class CD extends AbstractMedium implements Medium
     /**
      * Der Interpret der CD
      */
-    private String _interpret;
+    private CharSequence _interpret;
 
     /**
      * Die Spiellänge der CD in Minuten
@@ -38,20 +40,56 @@ public class CD extends AbstractMedium implements Medium
      * @ensure getSpiellaenge() == spiellaenge
      */
     public CD(String titel, String kommentar, String interpret, int spiellaenge)
+    {
+        this((CharSequence) titel, kommentar, interpret, spiellaenge);
+    }
+
+    private CD(CharSequence titel, CharSequence kommentar,
+            CharSequence interpret, int spiellaenge)
     {
         super(titel, kommentar);
         assert spiellaenge > 0 : "Vorbedingung verletzt: spiellaenge > 0";
         assert interpret != null : "Vorbedingung verletzt: interpret != null";
         _spiellaenge = spiellaenge;
-        _interpret = interpret;
+        _interpret = KodierterText.unveraenderlich(interpret);
+    }
+
+    /**
+     * Erzeugt eine eingelesene CD, deren Texte auch als KodierterText
+     * übergeben werden können. Andere veränderliche Texte werden kopiert.
+     * 
+     * @param titel Der Titel der CD
+     * @param kommentar Ein Kommentar zu der CD
+     * @param interpret Der Interpret der CD
+     * @param spiellaenge Die Spiellaenge der CD in Minuten
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * @require interpret != null
+     * @require spiellaenge > 0
+     * 
+     * @ensure result.getTitel().contentEquals(titel)
+     * @ensure result.getKommentar().contentEquals(kommentar)
+     * @ensure result.getInterpret().contentEquals(interpret)
+     */
+    public static CD eingelesen(CharSequence titel, CharSequence kommentar,
+            CharSequence interpret, int spiellaenge)
+    {
+        return new CD(titel, kommentar, interpret, spiellaenge);
     }
 
     @Override
-    public String getFormatiertenString()
+    protected void haengeEigenschaftenAn(StringBuilder builder)
     {
-        return super.getFormatiertenString() + SPACE + "Interpret: "
-                + _interpret + "\n" + SPACE + "Spiellänge: " + _spiellaenge
-                + "\n";
+        super.haengeEigenschaftenAn(builder);
+        builder.append(SPACE)
+            .append("Interpret: ")
+            .append(getInterpret())
+            .append('\n');
+        builder.append(SPACE)
+            .append("Spiellänge: ")
+            .append(_spiellaenge)
+            .append('\n');
     }
 
     /**
@@ -63,7 +101,9 @@ public class CD extends AbstractMedium implements Medium
      */
     public String getInterpret()
     {
-        return _interpret;
+        String interpret = _interpret.toString();
+        _interpret = interpret;
+        return interpret;
     }
 
     /**
@@ -78,6 +118,7 @@ public class CD extends AbstractMedium implements Medium
     {
         assert interpret != null : "Vorbedingung verletzt: interpret != null";
         _interpret = interpret;
+        verwerfeFormatiertenString();
     }
 
     @Override
@@ -110,6 +151,7 @@ public class CD extends AbstractMedium implements Medium
     {
         assert spiellaenge > 0 : "Vorbedingung verletzt: spiellaenge > 0";
         _spiellaenge = spiellaenge;
+        verwerfeFormatiertenString();
     }
 
     @Override
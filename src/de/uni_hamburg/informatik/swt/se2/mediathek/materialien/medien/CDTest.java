@@ -24,6 +24,17 @@ public class CDTest extends AbstractMediumTest
         assertEquals(CD_BEZEICHNUNG, _cd1.getMedienBezeichnung());
     }
 
+    @Test
+    public void testeFormatierterStringNachSetter()
+    {
+        String formatiert = _cd1.getFormatiertenString();
+        _cd1.setInterpret("Anderer Interpret");
+        _cd1.setSpiellaenge(42);
+        assertEquals(formatiert.replace(INTERPRET, "Anderer Interpret")
+            .replace("Spiellänge: " + LAENGE, "Spiellänge: 42"),
+                _cd1.getFormatiertenString());
+    }
+
     @Test
     public void testCD()
     {
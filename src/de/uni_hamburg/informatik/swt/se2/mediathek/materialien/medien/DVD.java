@@ -1,5 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.KodierterText;
+
 /**
  * Eine DVD ist ein Medium. Zusätzlich zu den Eigenschaften eines Mediums
  * erfasst sie Informationen zum Regisseur und zur Laufzeit.
@@ -18,7 +20,7 @@ public class DVD extends AbstractMedium implements Medium
     /**
      * Der Regisseur des Inhalts der DVD.
      */
-    private String _regisseur;
+    private CharSequence _regisseur;
 
     /**
      * Initialisiert eine neue DVD mit den gegebenen Daten.
@@ -39,19 +41,56 @@ public class DVD extends AbstractMedium implements Medium
      * @ensure getLaufzeit() == laufzeit
      */
     public DVD(String titel, String kommentar, String regisseur, int laufzeit)
+    {
+        this((CharSequence) titel, kommentar, regisseur, laufzeit);
+    }
+
+    private DVD(CharSequence titel, CharSequence kommentar,
+            CharSequence regisseur, int laufzeit)
     {
         super(titel, kommentar);
         assert laufzeit > 0 : "Vorbedingung verletzt: laufzeit > 0";
         assert regisseur != null : "Vorbedingung verletzt: regisseur != null";
-        _regisseur = regisseur;
+        _regisseur = KodierterText.unveraenderlich(regisseur);
         _laufzeit = laufzeit;
     }
 
+    /**
+     * Erzeugt eine eingelesene DVD, deren Texte auch als KodierterText
+     * übergeben werden können. Andere veränderliche Texte werden kopiert.
+     * 
+     * @param titel Der Titel der DVD.
+     * @param kommentar Ein Kommentar zu der DVD.
+     * @param regisseur Der Regisseur des Inhalts der DVD.
+     * @param laufzeit Die Laufzeit des Hauptteils der DVD in Minuten.
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * @require regisseur != null
+     * @require laufzeit > 0
+     * 
+     * @ensure result.getTitel().contentEquals(titel)
+     * @ensure result.getKommentar().contentEquals(kommentar)
+     * @ensure result.getRegisseur().contentEquals(regisseur)
+     */
+    public static DVD eingelesen(CharSequence titel, CharSequence kommentar,
+            CharSequence regisseur, int laufzeit)
+    {
+        return new DVD(titel, kommentar, regisseur, laufzeit);
+    }
+
     @Override
-    public String getFormatiertenString()
+    protected void haengeEigenschaftenAn(StringBuilder builder)
     {
-        return super.getFormatiertenString() + SPACE + "Regisseur: "
-                + _regisseur + "\n" + SPACE + "Laufzeit: " + _laufzeit + "\n";
+        super.haengeEigenschaftenAn(builder);
+        builder.append(SPACE)
+            .append("Regisseur: ")
+            .append(getRegisseur())
+            .append('\n');
+        builder.append(SPACE)
+            .append("Laufzeit: ")
+            .append(_laufzeit)
+            .append('\n');
     }
 
     /**
@@ -78,6 +117,7 @@ public class DVD extends AbstractMedium implements Medium
     {
         assert laufzeit > 0 : "Vorbedingung verletzt: laufzeit > 0";
         _laufzeit = laufzeit;
+        verwerfeFormatiertenString();
     }
 
     @Override
@@ -96,7 +136,9 @@ public class DVD extends AbstractMedium implements Medium
     public String getRegisseur()
     {
         assert _regisseur != null : "Nachbedingung verletzt: result !=null";
-        return _regisseur;
+        String regisseur = _regisseur.toString();
+        _regisseur = regisseur;
+        return regisseur;
     }
 
     /**
@@ -111,6 +153,7 @@ public class DVD extends AbstractMedium implements Medium
     {
         assert regisseur != null : "Vorbedingung verletzt: regisseur != null";
         _regisseur = regisseur;
+        verwerfeFormatiertenString();
     }
 
     @Override
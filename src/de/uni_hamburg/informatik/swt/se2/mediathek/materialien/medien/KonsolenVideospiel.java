@@ -10,6 +10,17 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
  */
 public class KonsolenVideospiel extends AbstractVideospiel implements Medium
 {
+    /**
+     * Der Tarif für Konsolen-Videospiele
+     */
+    private static final Tarif TARIF = new Tarif()
+    {
+        @Override
+        protected long berechneEurocent(int mietTage)
+        {
+            return BASISPREIS + berechnePreisNachTagen(mietTage);
+        }
+    };
 
     /**
      * Initialisiert ein neues KonsolenVideospiel.
@@ -31,6 +42,35 @@ public class KonsolenVideospiel extends AbstractVideospiel implements Medium
         super(titel, kommentar, system);
     }
 
+    private KonsolenVideospiel(CharSequence titel, CharSequence kommentar,
+            CharSequence system)
+    {
+        super(titel, kommentar, system);
+    }
+
+    /**
+     * Erzeugt ein eingelesenes KonsolenVideospiel, dessen Texte auch als
+     * KodierterText übergeben werden können. Andere veränderliche Texte
+     * werden kopiert.
+     * 
+     * @param titel Der Titel des Videospiels
+     * @param kommentar Ein Kommentar zum Videospiel
+     * @param system Das System, auf dem das Spiel lauffähig ist
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * @require system != null
+     * 
+     * @ensure result.getTitel().contentEquals(titel)
+     * @ensure result.getKommentar().contentEquals(kommentar)
+     * @ensure result.getSystem().contentEquals(system)
+     */
+    public static KonsolenVideospiel eingelesen(CharSequence titel,
+            CharSequence kommentar, CharSequence system)
+    {
+        return new KonsolenVideospiel(titel, kommentar, system);
+    }
+
     @Override
     public String getMedienBezeichnung()
     {
@@ -40,7 +80,21 @@ public class KonsolenVideospiel extends AbstractVideospiel implements Medium
     @Override
     protected int getPreisNachTagen(int tage)
     {
-        return (int) (Math.floor(tage / 3.0) * 700);
+        return berechnePreisNachTagen(tage);
+    }
+
+    @Override
+    public Tarif getTarif()
+    {
+        return TARIF;
+    }
+
+    /**
+     * Jeder volle Block von 3 Tagen kostet 7 Euro.
+     */
+    private static int berechnePreisNachTagen(int tage)
+    {
+        return tage / 3 * 700;
     }
 
     @Override
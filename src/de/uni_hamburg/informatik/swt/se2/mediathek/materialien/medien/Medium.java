@@ -1,5 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
 
+import java.io.IOException;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
 
 /**
@@ -25,6 +27,16 @@ public interface Medium
      */
     Geldbetrag berechneMietgebuehr(int mietTage);
 
+    /**
+     * Gibt den Tarif zurück, nach dem die Mietgebühr dieses Mediums berechnet
+     * wird. Alle Medien einer Medienart teilen sich denselben Tarif.
+     * 
+     * @return Der Tarif dieses Mediums
+     * 
+     * @ensure result != null
+     */
+    Tarif getTarif();
+
     /**
      * Gibt einen formatierten Text mit allen Eigenschaften des Mediums zurück.
      * Jedes Attribute steht in einer eigenen Zeile mit der Form "Attributename:
@@ -37,6 +49,17 @@ public interface Medium
      */
     String getFormatiertenString();
 
+    /**
+     * Schreibt den formatierten Text mit allen Eigenschaften des Mediums, wie
+     * ihn getFormatiertenString() liefert, in ein Ziel.
+     * 
+     * @param ziel Das Ziel, an das der Text angehängt wird.
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     * 
+     * @require ziel != null
+     */
+    void schreibeFormatiert(Appendable ziel) throws IOException;
+
     /**
      * Gibt den Kommentar zu diesem Medium zurück.
      * 
@@ -84,4 +107,25 @@ public interface Medium
      */
     public void setTitel(String titel);
 
+    /**
+     * Gibt die Mediennummer zurück, unter der das Medium im Medienbestand
+     * geführt wird. Sie wird beim Einfügen in den Bestand vergeben, mit ihm
+     * gespeichert und ändert sich danach nicht mehr, auch wenn andere Medien
+     * entfernt oder eingefügt werden.
+     * 
+     * @return Die Mediennummer oder -1, solange keine vergeben wurde.
+     */
+    int getMediennummer();
+
+    /**
+     * Setzt die Mediennummer des Mediums. Wird vom Medienbestand und beim
+     * Einlesen eines gespeicherten Bestands aufgerufen.
+     * 
+     * @param mediennummer Die Mediennummer
+     * 
+     * @require mediennummer >= 0
+     * @ensure getMediennummer() == mediennummer
+     */
+    void setMediennummer(int mediennummer);
+
 }
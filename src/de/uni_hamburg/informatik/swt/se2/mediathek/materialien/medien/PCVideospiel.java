@@ -10,6 +10,18 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
  */
 public class PCVideospiel extends AbstractVideospiel implements Medium
 {
+    /**
+     * Der Tarif für PC-Videospiele
+     */
+    private static final Tarif TARIF = new Tarif()
+    {
+        @Override
+        protected long berechneEurocent(int mietTage)
+        {
+            return BASISPREIS + berechnePreisNachTagen(mietTage);
+        }
+    };
+
     /**
      * Konstruktor. Initialisiert ein neues Exemplar von PCVideospiel.
      * 
@@ -30,6 +42,35 @@ public class PCVideospiel extends AbstractVideospiel implements Medium
         super(titel, kommentar, system);
     }
 
+    private PCVideospiel(CharSequence titel, CharSequence kommentar,
+            CharSequence system)
+    {
+        super(titel, kommentar, system);
+    }
+
+    /**
+     * Erzeugt ein eingelesenes PCVideospiel, dessen Texte auch als
+     * KodierterText übergeben werden können. Andere veränderliche Texte
+     * werden kopiert.
+     * 
+     * @param titel Der Titel des Videospiels
+     * @param kommentar Ein Kommentar zum Videospiel
+     * @param system Das System, auf dem das Spiel lauffähig ist
+     * 
+     * @require titel != null
+     * @require kommentar != null
+     * @require system != null
+     * 
+     * @ensure result.getTitel().contentEquals(titel)
+     * @ensure result.getKommentar().contentEquals(kommentar)
+     * @ensure result.getSystem().contentEquals(system)
+     */
+    public static PCVideospiel eingelesen(CharSequence titel,
+            CharSequence kommentar, CharSequence system)
+    {
+        return new PCVideospiel(titel, kommentar, system);
+    }
+
     @Override
     public String getMedienBezeichnung()
     {
@@ -38,9 +79,24 @@ public class PCVideospiel extends AbstractVideospiel implements Medium
 
     @Override
     protected int getPreisNachTagen(int tage)
+    {
+        return berechnePreisNachTagen(tage);
+    }
+
+    @Override
+    public Tarif getTarif()
+    {
+        return TARIF;
+    }
+
+    /**
+     * Die ersten 7 Tage sind frei, danach kostet jeder angefangene Block von 5
+     * Tagen 5 Euro.
+     */
+    private static int berechnePreisNachTagen(int tage)
     {
         int kostenpflichtigeTage = Math.max(0, tage - 7);
-        return (int) (Math.ceil(kostenpflichtigeTage / 5.0) * 500);
+        return (kostenpflichtigeTage + 4) / 5 * 500;
     }
 
     @Override
@@ -0,0 +1,108 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+
+/**
+ * Ein Tarif legt fest, welche Mietgebühr für eine Mietdauer in Tagen anfällt.
+ * 
+ * Jede Medienart hat genau einen Tarif. Die Gebühren für 1 bis
+ * TABELLENLAENGE Tage werden beim Erzeugen einmal vorberechnet, so dass eine
+ * Preisabfrage in diesem Bereich nur ein Tabellenzugriff ist und immer
+ * dasselbe Geldbetrag-Exemplar liefert. Für längere Mietdauern wird die
+ * Gebühr mit berechneEurocent direkt berechnet.
+ * 
+ * Unterklassen implementieren berechneEurocent als geschlossene Formel ohne
+ * Fließkommazahlen. Die Methode wird bereits im Konstruktor aufgerufen und
+ * darf deshalb keine Exemplarvariablen der Unterklasse verwenden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public abstract class Tarif
+{
+    /**
+     * Die Anzahl der Tage, für die die Gebühren vorberechnet werden.
+     */
+    public static final int TABELLENLAENGE = 366;
+
+    /**
+     * Die vorberechneten Gebühren in Euro-Cent, Index ist die Mietdauer.
+     * Index 0 bleibt ungenutzt.
+     */
+    private final long[] _eurocent;
+
+    /**
+     * Die vorberechneten Gebühren als Geldbetrag, Index ist die Mietdauer.
+     * Index 0 bleibt ungenutzt.
+     */
+    private final Geldbetrag[] _betraege;
+
+    /**
+     * Initialisiert einen Tarif und berechnet die Gebührentabelle vor.
+     */
+    protected Tarif()
+    {
+        _eurocent = new long[TABELLENLAENGE + 1];
+        _betraege = new Geldbetrag[TABELLENLAENGE + 1];
+        for (int tage = 1; tage <= TABELLENLAENGE; tage++)
+        {
+            _eurocent[tage] = berechneEurocent(tage);
+            _betraege[tage] = new Geldbetrag(_eurocent[tage]);
+        }
+    }
+
+    /**
+     * Gibt die Mietgebühr für eine Mietdauer zurück.
+     * 
+     * @param mietTage Die Anzahl der Ausleihtage
+     * @return Die Mietgebühr als Geldbetrag
+     * 
+     * @require mietTage > 0
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getMietgebuehr(int mietTage)
+    {
+        assert mietTage > 0 : "Vorbedingung verletzt: mietTage > 0";
+
+        if (mietTage <= TABELLENLAENGE)
+        {
+            return _betraege[mietTage];
+        }
+        return new Geldbetrag(berechneEurocent(mietTage));
+    }
+
+    /**
+     * Gibt die Mietgebühr für eine Mietdauer in Euro-Cent zurück. Anders als
+     * getMietgebuehr wird dabei nie ein Geldbetrag erzeugt.
+     * 
+     * @param mietTage Die Anzahl der Ausleihtage
+     * @return Die Mietgebühr in ganzen Euro-Cent
+     * 
+     * @require mietTage > 0
+     * 
+     * @ensure result >= 0
+     */
+    public long getEurocent(int mietTage)
+    {
+        assert mietTage > 0 : "Vorbedingung verletzt: mietTage > 0";
+
+        if (mietTage <= TABELLENLAENGE)
+        {
+            return _eurocent[mietTage];
+        }
+        return berechneEurocent(mietTage);
+    }
+
+    /**
+     * Berechnet die Mietgebühr für eine Mietdauer ohne Tabelle.
+     * 
+     * @param mietTage Die Anzahl der Ausleihtage
+     * @return Die Mietgebühr in ganzen Euro-Cent
+     * 
+     * @require mietTage > 0
+     * 
+     * @ensure result >= 0
+     */
+    protected abstract long berechneEurocent(int mietTage);
+}
@@ -0,0 +1,44 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+
+/**
+ * @author SE2-Team
+ */
+public class TarifTest
+{
+    @Test
+    public void testeTarifeStimmenMitFormelUeberein()
+    {
+        Medium cd = new CD("Titel", "Kommentar", "Interpret", 60);
+        Medium pc = new PCVideospiel("Titel", "Kommentar", "System");
+        Medium konsole = new KonsolenVideospiel("Titel", "Kommentar", "System");
+        for (int tage = 1; tage <= Tarif.TABELLENLAENGE + 50; tage++)
+        {
+            assertEquals(new Geldbetrag(300L * tage),
+                    cd.berechneMietgebuehr(tage));
+            long pcPreis = 200
+                    + (long) (Math.ceil(Math.max(0, tage - 7) / 5.0) * 500);
+            assertEquals(new Geldbetrag(pcPreis), pc.berechneMietgebuehr(tage));
+            assertEquals(pcPreis, pc.getTarif()
+                .getEurocent(tage));
+            long konsolenPreis = 200 + (long) (Math.floor(tage / 3.0) * 700);
+            assertEquals(new Geldbetrag(konsolenPreis),
+                    konsole.berechneMietgebuehr(tage));
+        }
+    }
+
+    @Test
+    public void testeTabelleLiefertGemeinsameBetraege()
+    {
+        Medium dvd1 = new DVD("Titel", "Kommentar", "Regisseur", 90);
+        Medium dvd2 = new DVD("Anderer Titel", "Kommentar", "Regisseur", 90);
+        assertSame(dvd1.getTarif(), dvd2.getTarif());
+        assertSame(dvd1.berechneMietgebuehr(5), dvd2.berechneMietgebuehr(5));
+    }
+}
@@ -1,7 +1,6 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Eine abstrakt Implementation des ObservableService Interfaces, die die
@@ -14,26 +13,24 @@ public abstract class AbstractObservableService implements ObservableService
 {
 
     /**
-     * Die Liste der registrierten Beobachter.
+     * Die Liste der registrierten Beobachter. Kann während einer
+     * Benachrichtigung aus anderen Threads geändert werden.
      */
-    private List<ServiceObserver> _beobachterListe;
+    private final CopyOnWriteArrayList<ServiceObserver> _beobachterListe;
 
     /**
      * Initialisiert einen neuen AbstractObservableService.
      */
     public AbstractObservableService()
     {
-        _beobachterListe = new ArrayList<ServiceObserver>();
+        _beobachterListe = new CopyOnWriteArrayList<ServiceObserver>();
     }
 
     @Override
     public void registriereBeobachter(ServiceObserver beobachter)
     {
         assert beobachter != null : "Vorbedingung verletzt: beobachter != null";
-        if (!_beobachterListe.contains(beobachter))
-        {
-            _beobachterListe.add(beobachter);
-        }
+        _beobachterListe.addIfAbsent(beobachter);
     }
 
     @Override
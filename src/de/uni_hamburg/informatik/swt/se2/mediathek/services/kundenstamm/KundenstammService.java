@@ -47,15 +47,18 @@ public interface KundenstammService extends ObservableService
      * @param neuerKunde Ein neuer Kunde.
      * 
      * @require !enthaeltKunden(neuerKunde)
+     * @require getKunden(neuerKunde.getKundennummer()) == null
      * @ensure enthaeltKunden(neuerKunde)
      */
     void fuegeKundenEin(Kunde neuerKunde);
 
     /**
-     * Liefert alle vorhandenen Kunden. Wenn es keine Kunden gibt, wird eine
-     * leere Liste zurückgegeben.
+     * Liefert alle vorhandenen Kunden in der Reihenfolge ihres Einfügens. Wenn
+     * es keine Kunden gibt, wird eine leere Liste zurückgegeben.
      * 
-     * @return Eine Kopie der Liste mit allen vorhandenen Kunden.
+     * @return Eine unveränderliche Liste mit allen vorhandenen Kunden.
+     *         Spätere Änderungen am Kundenstamm wirken sich nicht auf sie
+     *         aus.
      * 
      * @ensure result != null
      */
@@ -1,7 +1,10 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
@@ -11,6 +14,10 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.services.AbstractObservableSe
  * Ein Kundenstamm ist ein Service, der die Menge von Kunden verwaltet. Auf
  * Kunden kann über ihre Kundennummer zugegriffen werden.
  * 
+ * Die Operationen sind synchronisiert, damit etwa der DatenSchreiber die
+ * Kunden aus seinem eigenen Thread abfragen kann. Die Beobachter werden
+ * außerhalb der Synchronisation informiert.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -19,21 +26,36 @@ public class KundenstammServiceImpl extends AbstractObservableService
 {
 
     /**
-     * Eine Liste, die alle Kunden enthält.
+     * Eine Map, die alle Kunden unter ihrer Kundennummer enthält. Die
+     * Iterationsreihenfolge entspricht der Reihenfolge des Einfügens.
+     */
+    private Map<Kundennummer, Kunde> _kundenstamm;
+
+    /**
+     * Eine unveränderliche Momentaufnahme des Kundenstamms, wie sie von
+     * getKunden() geliefert wird. Jede Änderung am Kundenstamm verwirft sie,
+     * die nächste Anfrage erzeugt eine neue. Ist null, wenn seit der letzten
+     * Änderung noch keine erzeugt wurde.
      */
-    private List<Kunde> _kundenstamm;
+    private List<Kunde> _momentaufnahme;
 
     /**
      * Konstruktor. Initialisiert einen Kundenstamm.
      * 
-     * @param kunden Der initiale Kundenstamm.
+     * @param kunden Der initiale Kundenstamm. Enthält die Liste mehrere
+     *            Kunden mit derselben Kundennummer, wird nur der letzte
+     *            übernommen.
      * 
      * @require kunden != null
      */
     public KundenstammServiceImpl(List<Kunde> kunden)
     {
         assert kunden != null : "Vorbedingung verletzt: kunden != null";
-        _kundenstamm = new ArrayList<Kunde>(kunden);
+        _kundenstamm = new LinkedHashMap<Kundennummer, Kunde>();
+        for (Kunde kunde : kunden)
+        {
+            _kundenstamm.put(kunde.getKundennummer(), kunde);
+        }
     }
 
     @Override
@@ -41,15 +63,19 @@ public class KundenstammServiceImpl extends AbstractObservableService
     {
         assert enthaeltKunden(
                 kunde) : "Vorbedingung verletzt: enthaeltKunden(kunde) ";
-        _kundenstamm.remove(kunde);
+        synchronized (this)
+        {
+            _kundenstamm.remove(kunde.getKundennummer());
+            _momentaufnahme = null;
+        }
         informiereUeberAenderung();
     }
 
     @Override
-    public boolean enthaeltKunden(Kunde kunde)
+    public synchronized boolean enthaeltKunden(Kunde kunde)
     {
         assert kunde != null : "Vorbedingung verletzt: kunde != null";
-        return _kundenstamm.contains(kunde);
+        return kunde.equals(_kundenstamm.get(kunde.getKundennummer()));
     }
 
     @Override
@@ -57,32 +83,33 @@ public class KundenstammServiceImpl extends AbstractObservableService
     {
         assert !enthaeltKunden(
                 neuerKunde) : "Vorbedingung verletzt: !enthaelt(kunden)";
-        _kundenstamm.add(neuerKunde);
+        assert getKunden(neuerKunde
+            .getKundennummer()) == null : "Vorbedingung verletzt: getKunden(neuerKunde.getKundennummer()) == null";
+        synchronized (this)
+        {
+            _kundenstamm.put(neuerKunde.getKundennummer(), neuerKunde);
+            _momentaufnahme = null;
+        }
         informiereUeberAenderung();
     }
 
     @Override
-    public List<Kunde> getKunden()
+    public synchronized List<Kunde> getKunden()
     {
-        return new ArrayList<Kunde>(_kundenstamm);
+        if (_momentaufnahme == null)
+        {
+            _momentaufnahme = Collections
+                .unmodifiableList(new ArrayList<Kunde>(_kundenstamm.values()));
+        }
+        return _momentaufnahme;
     }
 
     @Override
-    public Kunde getKunden(Kundennummer kundennummer)
+    public synchronized Kunde getKunden(Kundennummer kundennummer)
     {
         assert kundennummer != null : "Vorbedingung verletzt: kundennummer != null";
 
-        Kunde result = null;
-        for (Kunde kunde : _kundenstamm)
-        {
-            if (kunde.getKundennummer()
-                .equals(kundennummer))
-            {
-                result = kunde;
-                break;
-            }
-        }
-        return result;
+        return _kundenstamm.get(kundennummer);
     }
 
 }
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -122,4 +123,36 @@ public class KundenstammServiceImplTest
         assertNull(kunde);
     }
 
+    @Test
+    public void testgetKundenBehaeltReihenfolge()
+    {
+        _kundenstamm.fuegeKundenEin(_susi);
+        _kundenstamm.fuegeKundenEin(_klaus);
+        assertEquals(Arrays.asList(_susi, _klaus), _kundenstamm.getKunden());
+
+        _kundenstamm.entferneKunden(_susi);
+        _kundenstamm.fuegeKundenEin(_susi);
+        assertEquals(Arrays.asList(_klaus, _susi), _kundenstamm.getKunden());
+    }
+
+    @Test
+    public void testKundenMitGleicherKundennummer()
+    {
+        Kunde klausZwilling = new Kunde(new Kundennummer(123456), "Klaus",
+                "Schmidt");
+        _kundenstamm.fuegeKundenEin(_klaus);
+        assertFalse(_kundenstamm.enthaeltKunden(klausZwilling));
+
+        try
+        {
+            _kundenstamm.fuegeKundenEin(klausZwilling);
+            fail("Kundennummer bereits vergeben");
+        }
+        catch (AssertionError e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        assertEquals(_klaus, _kundenstamm.getKunden(_klaus.getKundennummer()));
+    }
+
 }
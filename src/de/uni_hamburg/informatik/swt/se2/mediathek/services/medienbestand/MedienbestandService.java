@@ -58,14 +58,28 @@ public interface MedienbestandService extends ObservableService
     boolean enthaeltMedium(Medium medium);
 
     /**
-     * Liefert alle vorhandenen Medien.
+     * Liefert alle vorhandenen Medien in der Reihenfolge ihres Einfügens.
      * 
-     * @return Eine Kopie der Liste mit allen vorhandenen Medien.
+     * @return Eine unveränderliche Liste mit allen vorhandenen Medien. Spätere
+     *         Änderungen am Bestand wirken sich nicht auf sie aus.
      * 
      * @ensure result != null
      */
     List<Medium> getMedien();
 
+    /**
+     * Liefert das Medium mit der angegebenen Mediennummer. Die Mediennummern
+     * werden beim Einfügen vergeben und bleiben stabil, wenn andere Medien
+     * entfernt oder eingefügt werden.
+     * 
+     * @param mediennummer Eine Mediennummer
+     * @return Das Medium oder null, wenn kein Medium im Bestand diese
+     *         Mediennummer hat.
+     * 
+     * @ensure result == null || result.getMediennummer() == mediennummer
+     */
+    Medium getMedium(int mediennummer);
+
     /**
      * Informiert diesen Service darüber, dass Medien von einem Werkzeug
      * geändert wurden. Eine Implementation wird daraufhin wahrscheinlich alle
@@ -1,7 +1,12 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.AbstractObservableService;
@@ -12,6 +17,15 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.services.AbstractObservableSe
  * bestimmten Titel kann es mehrere Medien-Objekte im Bestand geben. So kann
  * z.B. die gleiche CD mehrfach vorhanden sein.
  * 
+ * Jedes Medium erhält beim Einfügen eine Mediennummer, die mit dem Bestand
+ * gespeichert wird. Eingelesene Medien behalten ihre Nummer, alle anderen
+ * erhalten die nächste freie. Eine Nummer wird nicht erneut vergeben, solange
+ * der Bestand besteht.
+ * 
+ * Die Operationen sind synchronisiert, damit etwa der DatenSchreiber die
+ * Medien aus seinem eigenen Thread abfragen kann. Die Beobachter werden
+ * außerhalb der Synchronisation informiert.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -20,12 +34,40 @@ public class MedienbestandServiceImpl extends AbstractObservableService
 {
 
     /**
-     * Eine Liste aller Medien
+     * Eine Menge aller Medien. Die Iterationsreihenfolge entspricht der
+     * Reihenfolge des Einfügens.
+     * 
+     * Medien überschreiben equals und hashCode nicht, die Menge unterscheidet
+     * sie also nach ihrer Identität. Ändert ein Werkzeug z.B. den Titel eines
+     * Mediums, bleibt es daher weiterhin auffindbar.
+     */
+    private Set<Medium> _medienbestand;
+
+    /**
+     * Eine unveränderliche Momentaufnahme des Medienbestands, wie sie von
+     * getMedien() geliefert wird. Jede Änderung am Bestand verwirft sie, die
+     * nächste Anfrage erzeugt eine neue. Solange sich nichts ändert, erhalten
+     * alle Aufrufer dieselbe Liste, ohne dass kopiert werden muss. Ist null,
+     * wenn seit der letzten Änderung noch keine erzeugt wurde.
      */
-    private List<Medium> _medienbestand;
+    private List<Medium> _momentaufnahme;
 
     /**
-     * Initialisiert einen neuen Medienbestand.
+     * Die Medien des Bestands nach ihrer Mediennummer.
+     */
+    private Map<Integer, Medium> _medienNachNummer;
+
+    /**
+     * Die Mediennummer, die als nächste vergeben wird. Ist größer als alle
+     * bisher vergebenen.
+     */
+    private int _naechsteMediennummer;
+
+    /**
+     * Initialisiert einen neuen Medienbestand. Medien, die bereits eine
+     * eindeutige Mediennummer haben, behalten sie. Alle anderen erhalten in
+     * der Reihenfolge der Liste neue Nummern, die größer als alle
+     * vorhandenen sind.
      * 
      * @param medien Der initiale Medienbestand.
      * 
@@ -34,7 +76,38 @@ public class MedienbestandServiceImpl extends AbstractObservableService
     public MedienbestandServiceImpl(List<Medium> medien)
     {
         assert medien != null : "Vorbedingung verletzt: medien != null";
-        _medienbestand = new ArrayList<Medium>(medien);
+        _medienbestand = new LinkedHashSet<Medium>(medien);
+        _medienNachNummer = new HashMap<Integer, Medium>();
+        List<Medium> ohneNummer = new ArrayList<Medium>();
+        for (Medium medium : _medienbestand)
+        {
+            int mediennummer = medium.getMediennummer();
+            if (mediennummer >= 0
+                    && !_medienNachNummer.containsKey(mediennummer))
+            {
+                _medienNachNummer.put(mediennummer, medium);
+                _naechsteMediennummer = Math.max(_naechsteMediennummer,
+                        mediennummer + 1);
+            }
+            else
+            {
+                ohneNummer.add(medium);
+            }
+        }
+        for (Medium medium : ohneNummer)
+        {
+            vergibMediennummer(medium);
+        }
+    }
+
+    /**
+     * Vergibt die nächste freie Mediennummer an ein Medium.
+     */
+    private void vergibMediennummer(Medium medium)
+    {
+        int mediennummer = _naechsteMediennummer++;
+        medium.setMediennummer(mediennummer);
+        _medienNachNummer.put(mediennummer, medium);
     }
 
     @Override
@@ -42,13 +115,18 @@ public class MedienbestandServiceImpl extends AbstractObservableService
     {
         assert enthaeltMedium(
                 medium) : "Vorbedingung verletzt: enthaeltMedium(medium)";
-        _medienbestand.remove(medium);
+        synchronized (this)
+        {
+            _medienbestand.remove(medium);
+            _medienNachNummer.remove(medium.getMediennummer());
+            _momentaufnahme = null;
+        }
 
         informiereUeberAenderung();
     }
 
     @Override
-    public boolean enthaeltMedium(Medium medium)
+    public synchronized boolean enthaeltMedium(Medium medium)
     {
         assert medium != null : "Vorbedingung verletzt: medium != null";
         return _medienbestand.contains(medium);
@@ -59,15 +137,31 @@ public class MedienbestandServiceImpl extends AbstractObservableService
     {
         assert !enthaeltMedium(
                 neuesMedium) : "Vorbedingung verletzt: !enthaeltMedium(medium)";
-        _medienbestand.add(neuesMedium);
+        synchronized (this)
+        {
+            _medienbestand.add(neuesMedium);
+            vergibMediennummer(neuesMedium);
+            _momentaufnahme = null;
+        }
 
         informiereUeberAenderung();
     }
 
     @Override
-    public List<Medium> getMedien()
+    public synchronized List<Medium> getMedien()
+    {
+        if (_momentaufnahme == null)
+        {
+            _momentaufnahme = Collections
+                .unmodifiableList(new ArrayList<Medium>(_medienbestand));
+        }
+        return _momentaufnahme;
+    }
+
+    @Override
+    public synchronized Medium getMedium(int mediennummer)
     {
-        return new ArrayList<Medium>(_medienbestand);
+        return _medienNachNummer.get(mediennummer);
     }
 
     @Override
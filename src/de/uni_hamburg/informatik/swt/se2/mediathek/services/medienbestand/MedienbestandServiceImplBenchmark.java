@@ -0,0 +1,104 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Vergleicht die Dauer von enthaeltMedium im MedienbestandServiceImpl mit
+ * einer Suche über List.contains, wie sie der Medienbestand früher verwendet
+ * hat. Gemessen wird für Bestände mit 10.000, 100.000 und 1.000.000 Medien.
+ * 
+ * Aufruf: java -ea MedienbestandServiceImplBenchmark
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class MedienbestandServiceImplBenchmark
+{
+    private static final int[] BESTANDSGROESSEN = {10000, 100000, 1000000};
+
+    // Anzahl der Anfragen pro Messung, entspricht einer Ausleihe von 20
+    // Medien
+    private static final int ANFRAGEN = 20;
+
+    // Anzahl der Wiederholungen pro Messung
+    private static final int WIEDERHOLUNGEN = 50;
+
+    /**
+     * Führt den Vergleich aus und gibt die Ergebnisse auf der Konsole aus.
+     */
+    public static void main(String[] args)
+    {
+        for (int groesse : BESTANDSGROESSEN)
+        {
+            List<Medium> medien = new ArrayList<Medium>(groesse);
+            for (int i = 0; i < groesse; i++)
+            {
+                medien.add(new CD("Titel " + i, "", "Interpret", 60));
+            }
+            MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                    medien);
+
+            // Gesucht werden die zuletzt eingefügten Medien, der ungünstigste
+            // Fall für die lineare Suche.
+            List<Medium> anfragen = medien.subList(groesse - ANFRAGEN,
+                    groesse);
+
+            long listeNanos = messeListe(medien, anfragen);
+            long serviceNanos = messeService(medienbestand, anfragen);
+            System.out.println(String.format(
+                    "%,9d Medien: List.contains %,12d ns, enthaeltMedium %,8d ns",
+                    groesse, listeNanos, serviceNanos));
+        }
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer von ANFRAGEN Aufrufen von
+     * List.contains.
+     */
+    private static long messeListe(List<Medium> medien, List<Medium> anfragen)
+    {
+        int treffer = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < WIEDERHOLUNGEN; i++)
+        {
+            for (Medium medium : anfragen)
+            {
+                if (medien.contains(medium))
+                {
+                    treffer++;
+                }
+            }
+        }
+        long dauer = System.nanoTime() - start;
+        assert treffer == WIEDERHOLUNGEN * ANFRAGEN;
+        return dauer / WIEDERHOLUNGEN;
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer von ANFRAGEN Aufrufen von
+     * enthaeltMedium.
+     */
+    private static long messeService(MedienbestandService medienbestand,
+            List<Medium> anfragen)
+    {
+        int treffer = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < WIEDERHOLUNGEN; i++)
+        {
+            for (Medium medium : anfragen)
+            {
+                if (medienbestand.enthaeltMedium(medium))
+                {
+                    treffer++;
+                }
+            }
+        }
+        long dauer = System.nanoTime() - start;
+        assert treffer == WIEDERHOLUNGEN * ANFRAGEN;
+        return dauer / WIEDERHOLUNGEN;
+    }
+}
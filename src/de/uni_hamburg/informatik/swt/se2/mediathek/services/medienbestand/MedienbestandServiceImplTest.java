@@ -2,9 +2,12 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -104,4 +107,54 @@ public class MedienbestandServiceImplTest
             .size());
         assertTrue(_medienbestand.enthaeltMedium(_cd2));
     }
+
+    @Test
+    public void getMedienBehaeltReihenfolgeTest()
+    {
+        _medienbestand.fuegeMediumEin(_cd2);
+        _medienbestand.fuegeMediumEin(_cd1);
+        assertEquals(Arrays.asList(_cd2, _cd1), _medienbestand.getMedien());
+    }
+
+    @Test
+    public void enthaeltGeaendertesMediumTest()
+    {
+        _medienbestand.fuegeMediumEin(_cd1);
+        _cd1.setTitel("Ein neuer Titel");
+        assertTrue(_medienbestand.enthaeltMedium(_cd1));
+
+        _medienbestand.entferneMedium(_cd1);
+        assertFalse(_medienbestand.enthaeltMedium(_cd1));
+    }
+
+    @Test
+    public void mediennummernBleibenNachEntfernenStabilTest()
+    {
+        _medienbestand.fuegeMediumEin(_cd1);
+        _medienbestand.fuegeMediumEin(_cd2);
+        int mediennummer = _cd2.getMediennummer();
+
+        _medienbestand.entferneMedium(_cd1);
+        assertEquals(mediennummer, _cd2.getMediennummer());
+        assertSame(_cd2, _medienbestand.getMedium(mediennummer));
+        assertNull(_medienbestand.getMedium(_cd1.getMediennummer()));
+
+        Medium cd3 = new CD("Titel", "Kommentar", "Interpret", 53);
+        _medienbestand.fuegeMediumEin(cd3);
+        assertTrue(cd3.getMediennummer() > mediennummer);
+    }
+
+    @Test
+    public void eingeleseneMediennummernBleibenErhaltenTest()
+    {
+        _cd1.setMediennummer(7);
+        CD cd3 = new CD("Titel", "Kommentar", "Interpret", 53);
+        cd3.setMediennummer(7);
+        MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                Arrays.<Medium> asList(_cd2, _cd1, cd3));
+
+        assertSame(_cd1, medienbestand.getMedium(7));
+        assertEquals(8, _cd2.getMediennummer());
+        assertEquals(9, cd3.getMediennummer());
+    }
 }
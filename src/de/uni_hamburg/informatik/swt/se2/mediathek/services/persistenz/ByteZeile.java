@@ -0,0 +1,339 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.KodierterText;
+
+/**
+ * Eine Zeile der Bestandsdateien in einem Byte-Puffer. Die Zeile wird an den
+ * Semikolons in Felder zerlegt, ohne dafür Strings zu erzeugen. Datum,
+ * Kundennummer und Zahlen werden direkt aus den Bytes gelesen.
+ * 
+ * Leere Felder werden wie beim StringTokenizer übersprungen. Texte werden
+ * entweder sofort im angegebenen Zeichensatz dekodiert oder, wenn verzögert
+ * dekodiert wird, als KodierterText auf den Puffer zurückgegeben. Der
+ * Zeichensatz muss ASCII-kompatibel sein (etwa UTF-8 oder ISO-8859-1), damit
+ * Semikolons als einzelne Bytes erkannt werden.
+ * 
+ * Ein Exemplar wird für alle Zeilen eines Einlesevorgangs wiederverwendet.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class ByteZeile
+{
+    private static final byte TRENNZEICHEN = ';';
+
+    private final Charset _zeichensatz;
+    private final boolean _verzoegert;
+
+    /**
+     * Anfang und Ende der Felder der aktuellen Zeile.
+     */
+    private int[] _feldAnfang;
+    private int[] _feldEnde;
+    private int _feldAnzahl;
+
+    /**
+     * Der Puffer und die Grenzen der aktuellen Zeile.
+     */
+    private ByteBuffer _puffer;
+    private int _zeilenAnfang;
+    private int _zeilenEnde;
+
+    /**
+     * Initialisiert eine neue ByteZeile.
+     * 
+     * @param zeichensatz Der Zeichensatz der Texte.
+     * @param verzoegert true, wenn Texte erst beim Zugriff dekodiert werden
+     *            sollen. Der Puffer darf dann nach dem Einlesen nicht mehr
+     *            verändert werden.
+     * 
+     * @require zeichensatz != null
+     * @require !verzoegert || zeichensatz ist UTF-8
+     */
+    ByteZeile(Charset zeichensatz, boolean verzoegert)
+    {
+        assert zeichensatz != null : "Vorbedingung verletzt: zeichensatz != null";
+        assert !verzoegert || zeichensatz.name()
+            .equals("UTF-8") : "Vorbedingung verletzt: !verzoegert || zeichensatz ist UTF-8";
+
+        _zeichensatz = zeichensatz;
+        _verzoegert = verzoegert;
+        _feldAnfang = new int[8];
+        _feldEnde = new int[8];
+    }
+
+    /**
+     * Gibt an, ob Texte erst beim Zugriff dekodiert werden.
+     */
+    boolean istVerzoegert()
+    {
+        return _verzoegert;
+    }
+
+    /**
+     * Bestimmt die Grenzen der nicht leeren Felder im Bereich [anfang, ende)
+     * des Puffers.
+     * 
+     * @require puffer != null
+     */
+    void zerlege(ByteBuffer puffer, int anfang, int ende)
+    {
+        assert puffer != null : "Vorbedingung verletzt: puffer != null";
+
+        _puffer = puffer;
+        _zeilenAnfang = anfang;
+        _zeilenEnde = ende;
+        _feldAnzahl = 0;
+        int feldAnfang = anfang;
+        for (int i = anfang; i <= ende; i++)
+        {
+            if (i == ende || puffer.get(i) == TRENNZEICHEN)
+            {
+                if (i > feldAnfang)
+                {
+                    if (_feldAnzahl == _feldAnfang.length)
+                    {
+                        int[] anfaenge = new int[_feldAnzahl * 2];
+                        int[] enden = new int[_feldAnzahl * 2];
+                        System.arraycopy(_feldAnfang, 0, anfaenge, 0,
+                                _feldAnzahl);
+                        System.arraycopy(_feldEnde, 0, enden, 0, _feldAnzahl);
+                        _feldAnfang = anfaenge;
+                        _feldEnde = enden;
+                    }
+                    _feldAnfang[_feldAnzahl] = feldAnfang;
+                    _feldEnde[_feldAnzahl] = i;
+                    _feldAnzahl++;
+                }
+                feldAnfang = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der nicht leeren Felder der Zeile zurück.
+     */
+    int getFeldAnzahl()
+    {
+        return _feldAnzahl;
+    }
+
+    /**
+     * Prüft, ob ein Feld genau die angegebenen Bytes enthält.
+     */
+    boolean istFeld(int feld, byte[] erwartet)
+    {
+        int anfang = _feldAnfang[feld];
+        if (_feldEnde[feld] - anfang != erwartet.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < erwartet.length; i++)
+        {
+            if (_puffer.get(anfang + i) != erwartet[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob ein Feld aus einem einzelnen Leerzeichen besteht. Das steht in
+     * den Bestandsdateien für einen leeren oder fehlenden Text.
+     */
+    boolean istLeer(int feld)
+    {
+        int anfang = _feldAnfang[feld];
+        return _feldEnde[feld] - anfang == 1 && _puffer.get(anfang) == ' ';
+    }
+
+    /**
+     * Gibt ein Feld als Text zurück. Ein einzelnes Leerzeichen steht für einen
+     * leeren Text.
+     * 
+     * @ensure result != null
+     */
+    CharSequence leseText(int feld)
+    {
+        if (istLeer(feld))
+        {
+            return "";
+        }
+        int anfang = _feldAnfang[feld];
+        int laenge = _feldEnde[feld] - anfang;
+        if (_verzoegert)
+        {
+            return new KodierterText(_puffer, anfang, laenge);
+        }
+        return dekodiere(anfang, laenge);
+    }
+
+    /**
+     * Dekodiert ein Feld sofort zu einem String.
+     * 
+     * @ensure result != null
+     */
+    String leseString(int feld)
+    {
+        int anfang = _feldAnfang[feld];
+        return dekodiere(anfang, _feldEnde[feld] - anfang);
+    }
+
+    /**
+     * Liest eine ganze Zahl mit optionalem Vorzeichen wie Integer.parseInt.
+     * 
+     * @throws NumberFormatException wenn das Feld keine Zahl enthält.
+     */
+    int leseZahl(int feld)
+    {
+        int i = _feldAnfang[feld];
+        int ende = _feldEnde[feld];
+        boolean negativ = false;
+        byte vorzeichen = _puffer.get(i);
+        if (vorzeichen == '-' || vorzeichen == '+')
+        {
+            negativ = vorzeichen == '-';
+            i++;
+        }
+        if (i == ende || ende - i > 10)
+        {
+            throw new NumberFormatException(leseString(feld));
+        }
+        long zahl = 0;
+        for (; i < ende; i++)
+        {
+            int ziffer = _puffer.get(i) - '0';
+            if (ziffer < 0 || ziffer > 9)
+            {
+                throw new NumberFormatException(leseString(feld));
+            }
+            zahl = zahl * 10 + ziffer;
+        }
+        if (negativ)
+        {
+            zahl = -zahl;
+        }
+        if (zahl < Integer.MIN_VALUE || zahl > Integer.MAX_VALUE)
+        {
+            throw new NumberFormatException(leseString(feld));
+        }
+        return (int) zahl;
+    }
+
+    /**
+     * Liest ein Datum der Form T.M.JJJJ mit ein- oder zweistelligem Tag und
+     * Monat.
+     * 
+     * @return Das Datum oder null, wenn das Feld kein gültiges Datum enthält.
+     */
+    Datum leseDatum(int feld)
+    {
+        int i = _feldAnfang[feld];
+        int ende = _feldEnde[feld];
+
+        int tag = 0;
+        int tagAnfang = i;
+        while (i < ende && istZiffer(_puffer.get(i)))
+        {
+            tag = tag * 10 + _puffer.get(i++) - '0';
+        }
+        if (i - tagAnfang < 1 || i - tagAnfang > 2 || i == ende
+                || _puffer.get(i++) != '.')
+        {
+            return null;
+        }
+
+        int monat = 0;
+        int monatAnfang = i;
+        while (i < ende && istZiffer(_puffer.get(i)))
+        {
+            monat = monat * 10 + _puffer.get(i++) - '0';
+        }
+        if (i - monatAnfang < 1 || i - monatAnfang > 2 || i == ende
+                || _puffer.get(i++) != '.')
+        {
+            return null;
+        }
+
+        if (ende - i != 4)
+        {
+            return null;
+        }
+        int jahr = 0;
+        for (; i < ende; i++)
+        {
+            if (!istZiffer(_puffer.get(i)))
+            {
+                return null;
+            }
+            jahr = jahr * 10 + _puffer.get(i) - '0';
+        }
+
+        Datum ergebnis = null;
+        if (Datum.istGueltig(tag, monat, jahr))
+        {
+            ergebnis = Datum.of(tag, monat, jahr);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Liest eine sechsstellige Kundennummer.
+     * 
+     * @return Die Kundennummer oder 0, wenn das Feld keine gültige
+     *         Kundennummer enthält.
+     */
+    int leseKundennummer(int feld)
+    {
+        int anfang = _feldAnfang[feld];
+        if (_feldEnde[feld] - anfang != 6)
+        {
+            return 0;
+        }
+        int nummer = 0;
+        for (int i = anfang; i < anfang + 6; i++)
+        {
+            byte b = _puffer.get(i);
+            if (!istZiffer(b))
+            {
+                return 0;
+            }
+            nummer = nummer * 10 + b - '0';
+        }
+        return Kundennummer.istGueltig(nummer) ? nummer : 0;
+    }
+
+    /**
+     * Gibt die ganze Zeile als String zurück, etwa für Fehlermeldungen.
+     */
+    @Override
+    public String toString()
+    {
+        return dekodiere(_zeilenAnfang, _zeilenEnde - _zeilenAnfang);
+    }
+
+    private String dekodiere(int anfang, int laenge)
+    {
+        if (_puffer.hasArray())
+        {
+            return new String(_puffer.array(), _puffer.arrayOffset() + anfang,
+                    laenge, _zeichensatz);
+        }
+        byte[] bytes = new byte[laenge];
+        ByteBuffer kopie = _puffer.duplicate();
+        kopie.position(anfang);
+        kopie.get(bytes);
+        return new String(bytes, _zeichensatz);
+    }
+
+    private static boolean istZiffer(byte b)
+    {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,41 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.IOException;
+
+/**
+ * Eine DateiSchreibException signalisiert, dass das Schreiben in eine Datei
+ * nicht geklappt hat.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class DateiSchreibException extends IOException
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Initialisiert eine neue DateiSchreibException mit der übergebenen
+     * Fehlermeldung.
+     * 
+     * @param message Eine beschreibung des Fehlers.
+     * 
+     */
+    public DateiSchreibException(String message)
+    {
+        super(message);
+    }
+
+    /**
+     * Initialisiert eine neue DateiSchreibException mit der übergebenen
+     * Fehlermeldung und Ursache.
+     * 
+     * @param message Eine beschreibung des Fehlers.
+     * @param cause Der Fehler, durch den das Schreiben gescheitert ist.
+     * 
+     */
+    public DateiSchreibException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+}
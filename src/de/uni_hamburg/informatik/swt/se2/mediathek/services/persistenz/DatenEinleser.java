@@ -1,10 +1,12 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
 
 import java.io.File;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
@@ -14,11 +16,47 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
  * Ein DatenEinleser kann verwendet werden um Kunden, Medien und Verleihkarten
  * einzulesen.
  * 
+ * In allen Verfahren werden die Dateien unabhängig vom Standardzeichensatz der
+ * Plattform als UTF-8 gelesen (siehe ZEICHENSATZ), in dem auch der
+ * DatenSchreiber sie schreibt.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public class DatenEinleser
 {
+    /**
+     * Die Verfahren, mit denen die Dateien eingelesen werden können.
+     */
+    public enum Modus
+    {
+        /**
+         * Erst die Kunden, dann die Medien, jeweils in einem Durchlauf.
+         */
+        SEQUENZIELL,
+
+        /**
+         * Beide Dateien gleichzeitig, zerlegt in Abschnitte auf dem
+         * gemeinsamen ForkJoinPool.
+         */
+        PARALLEL,
+
+        /**
+         * Beide Dateien in den Speicher abgebildet, die Texte werden als
+         * UTF-8 erst beim ersten Zugriff dekodiert.
+         */
+        SPEICHERABBILD
+    }
+
+    /**
+     * Der Zeichensatz der Kunden- und Mediendateien.
+     */
+    static final Charset ZEICHENSATZ = Charset.forName("UTF-8");
+
+    /**
+     * Der Pool, auf dem im Modus PARALLEL eingelesen wird.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool();
 
     /**
      * Die Datei in der die Medien gespeichert sind.
@@ -30,6 +68,11 @@ public class DatenEinleser
      */
     private final File _kundenDatei;
 
+    /**
+     * Das Verfahren, mit dem eingelesen wird.
+     */
+    private final Modus _modus;
+
     /**
      * Die eingelesenen Kunden, ist null wenn noch nicht eingelesen wurde.
      */
@@ -57,12 +100,31 @@ public class DatenEinleser
      * @require kundenDatei != null
      */
     public DatenEinleser(File medienDatei, File kundenDatei)
+    {
+        this(medienDatei, kundenDatei, Modus.SEQUENZIELL);
+    }
+
+    /**
+     * Initialisiert einen neuen DatenEinleser, der mit dem angegebenen
+     * Verfahren aus den angebenen Dateien einliest.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @param kundenDatei Die Datei in der die Kunden gespeichert sind.
+     * @param modus Das Verfahren, mit dem eingelesen wird.
+     * 
+     * @require medienDatei != null
+     * @require kundenDatei != null
+     * @require modus != null
+     */
+    public DatenEinleser(File medienDatei, File kundenDatei, Modus modus)
     {
         assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
         assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        assert modus != null : "Vorbedingung verletzt: modus != null";
 
         _medienDatei = medienDatei;
         _kundenDatei = kundenDatei;
+        _modus = modus;
     }
 
     /**
@@ -78,11 +140,31 @@ public class DatenEinleser
      */
     public void leseDaten() throws DateiLeseException
     {
-        KundenEinleser kundenEinleser = new KundenEinleser();
-        _kunden = kundenEinleser.leseKundenEin(_kundenDatei);
-        MedienEinleser medienEinleser = new MedienEinleser();
-        Map<Medium, Verleihkarte> medienMap = medienEinleser
-            .leseMedienEin(_kunden, _medienDatei);
+        List<Kunde> kunden;
+        Map<Medium, Verleihkarte> medienMap;
+        if (_modus == Modus.PARALLEL)
+        {
+            ParallelerDatenEinleser einleser = new ParallelerDatenEinleser(
+                    POOL);
+            einleser.leseDaten(_kundenDatei, _medienDatei);
+            kunden = einleser.getKunden();
+            medienMap = einleser.getMedien();
+        }
+        else if (_modus == Modus.SPEICHERABBILD)
+        {
+            SpeicherabbildEinleser einleser = new SpeicherabbildEinleser();
+            einleser.leseDaten(_kundenDatei, _medienDatei);
+            kunden = einleser.getKunden();
+            medienMap = einleser.getMedien();
+        }
+        else
+        {
+            KundenEinleser kundenEinleser = new KundenEinleser();
+            kunden = kundenEinleser.leseKundenEin(_kundenDatei);
+            MedienEinleser medienEinleser = new MedienEinleser();
+            medienMap = medienEinleser.leseMedienEin(kunden, _medienDatei);
+        }
+        _kunden = kunden;
         _medien = new ArrayList<Medium>(medienMap.keySet());
         _verleihkarten = new ArrayList<Verleihkarte>();
         for (Entry<Medium, Verleihkarte> entry : medienMap.entrySet())
@@ -0,0 +1,452 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.DVD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.KonsolenVideospiel;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.PCVideospiel;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.ServiceObserver;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihService;
+
+/**
+ * Schreibt den Medienbestand samt Verleihkarten und den Kundenstamm in
+ * Textdateien, die der DatenEinleser wieder einlesen kann. Die Dateien werden
+ * wie die mitgelieferten Bestandsdateien in UTF-8 geschrieben, dem
+ * Zeichensatz, in dem der DatenEinleser in allen Verfahren liest.
+ * 
+ * Der DatenSchreiber beobachtet die drei Services. Bei jeder Änderung merkt er
+ * sich nur, dass sich etwas geändert hat; das geschieht in dem Thread, der die
+ * Änderung vornimmt, und kostet weder Ein- oder Ausgabe noch das Erzeugen von
+ * Listen. Die unveränderlichen Listen der Services holt erst der schreibende
+ * Thread, entweder periodisch (siehe starte()) oder auf Anforderung (siehe
+ * schreibeDaten()). Jede Datei wird zunächst in eine temporäre Datei
+ * geschrieben und dann atomar umbenannt, sodass immer eine vollständige Datei
+ * vorliegt.
+ * 
+ * Schlägt das periodische Schreiben fehl, wird der Fehler festgehalten (siehe
+ * getLetztenFehler()) und beim nächsten Mal erneut geschrieben.
+ * 
+ * Zeichen, die das Dateiformat stören (Semikolons und Zeilenumbrüche), werden
+ * beim Schreiben durch Kommas bzw. Leerzeichen ersetzt. Leere Texte werden wie
+ * im Einleseformat als einzelnes Leerzeichen geschrieben. Die Telefonnummer
+ * eines Kunden ist nicht Teil des Formats. Als letztes Feld einer Medienzeile
+ * wird die Mediennummer geschrieben, damit das Medium beim Einlesen dieselbe
+ * Nummer erhält.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class DatenSchreiber
+{
+    private static final String ZEILENENDE = "\r\n";
+
+    private static final String LEERZEICHEN = " ";
+
+    private final File _medienDatei;
+    private final File _kundenDatei;
+    private final MedienbestandService _medienbestand;
+    private final KundenstammService _kundenstamm;
+    private final VerleihService _verleihService;
+
+    /**
+     * Ist true, wenn sich seit dem letzten Schreiben einer der Services
+     * geändert hat.
+     */
+    private final AtomicBoolean _geaendert;
+
+    /**
+     * Der Fehler des letzten periodischen Schreibens, null wenn es gelungen
+     * ist.
+     */
+    private volatile DateiSchreibException _letzterFehler;
+
+    /**
+     * Führt die Schreibvorgänge aus, ist null, solange starte() nicht
+     * aufgerufen wurde.
+     */
+    private ScheduledExecutorService _ausfuehrer;
+
+    /**
+     * Initialisiert einen neuen DatenSchreiber und registriert ihn als
+     * Beobachter der Services.
+     * 
+     * @param medienDatei Die Datei, in die der Medienbestand geschrieben wird.
+     * @param kundenDatei Die Datei, in die der Kundenstamm geschrieben wird.
+     * @param medienbestand Der Medienbestand.
+     * @param kundenstamm Der Kundenstamm.
+     * @param verleihService Der VerleihService.
+     * 
+     * @require medienDatei != null
+     * @require kundenDatei != null
+     * @require medienbestand != null
+     * @require kundenstamm != null
+     * @require verleihService != null
+     */
+    public DatenSchreiber(File medienDatei, File kundenDatei,
+            MedienbestandService medienbestand, KundenstammService kundenstamm,
+            VerleihService verleihService)
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        assert medienbestand != null : "Vorbedingung verletzt: medienbestand != null";
+        assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
+        assert verleihService != null : "Vorbedingung verletzt: verleihService != null";
+
+        _medienDatei = medienDatei;
+        _kundenDatei = kundenDatei;
+        _medienbestand = medienbestand;
+        _kundenstamm = kundenstamm;
+        _verleihService = verleihService;
+
+        _geaendert = new AtomicBoolean(true);
+        ServiceObserver beobachter = new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                _geaendert.set(true);
+            }
+        };
+        _medienbestand.registriereBeobachter(beobachter);
+        _kundenstamm.registriereBeobachter(beobachter);
+        _verleihService.registriereBeobachter(beobachter);
+    }
+
+    /**
+     * Startet das periodische Schreiben in einem eigenen Thread. Es wird nur
+     * geschrieben, wenn sich seit dem letzten Schreiben etwas geändert hat.
+     * Ein Fehler beim Schreiben wird festgehalten, beim nächsten Mal wird es
+     * erneut versucht.
+     * 
+     * @param periode Der Abstand zwischen zwei Schreibvorgängen.
+     * @param einheit Die Zeiteinheit der Periode.
+     * 
+     * @require periode > 0
+     * @require einheit != null
+     * @require !istGestartet()
+     */
+    public synchronized void starte(long periode, TimeUnit einheit)
+    {
+        assert periode > 0 : "Vorbedingung verletzt: periode > 0";
+        assert einheit != null : "Vorbedingung verletzt: einheit != null";
+        assert !istGestartet() : "Vorbedingung verletzt: !istGestartet()";
+
+        _ausfuehrer = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "DatenSchreiber");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        _ausfuehrer.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    schreibeGeaenderteDaten();
+                    _letzterFehler = null;
+                }
+                catch (DateiSchreibException e)
+                {
+                    _letzterFehler = e;
+                }
+            }
+        }, periode, periode, einheit);
+    }
+
+    /**
+     * Gibt den Fehler zurück, an dem das letzte periodische Schreiben
+     * gescheitert ist.
+     * 
+     * @return Der Fehler oder null, wenn das letzte periodische Schreiben
+     *         gelungen ist oder noch keines stattgefunden hat.
+     */
+    public DateiSchreibException getLetztenFehler()
+    {
+        return _letzterFehler;
+    }
+
+    /**
+     * Prüft, ob das periodische Schreiben gestartet wurde.
+     */
+    public synchronized boolean istGestartet()
+    {
+        return _ausfuehrer != null;
+    }
+
+    /**
+     * Beendet das periodische Schreiben, falls es gestartet wurde, und
+     * schreibt den aktuellen Bestand, falls er sich geändert hat.
+     * 
+     * @throws DateiSchreibException wenn der Bestand nicht geschrieben werden
+     *             konnte.
+     */
+    public void beende() throws DateiSchreibException
+    {
+        ScheduledExecutorService ausfuehrer;
+        synchronized (this)
+        {
+            ausfuehrer = _ausfuehrer;
+            _ausfuehrer = null;
+        }
+        if (ausfuehrer != null)
+        {
+            ausfuehrer.shutdown();
+            try
+            {
+                ausfuehrer.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread()
+                    .interrupt();
+            }
+        }
+        schreibeGeaenderteDaten();
+    }
+
+    /**
+     * Schreibt den aktuellen Bestand der Services in die beiden Dateien.
+     * 
+     * @throws DateiSchreibException wenn eine der Dateien nicht geschrieben
+     *             werden konnte.
+     */
+    public synchronized void schreibeDaten() throws DateiSchreibException
+    {
+        // Vor dem Abfragen zurücksetzen, damit eine gleichzeitige Änderung
+        // beim nächsten Mal geschrieben wird
+        _geaendert.set(false);
+        try
+        {
+            schreibeKunden(_kundenstamm.getKunden());
+            schreibeMedien(_medienbestand.getMedien(),
+                    _verleihService.getVerleihkarten());
+        }
+        catch (DateiSchreibException e)
+        {
+            _geaendert.set(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Schreibt den aktuellen Bestand, falls er sich seit dem letzten
+     * Schreiben geändert hat.
+     */
+    private synchronized void schreibeGeaenderteDaten()
+            throws DateiSchreibException
+    {
+        if (_geaendert.get())
+        {
+            schreibeDaten();
+        }
+    }
+
+    /**
+     * Schreibt die Kunden im Format des KundenEinlesers.
+     */
+    private void schreibeKunden(List<Kunde> kunden)
+            throws DateiSchreibException
+    {
+        File temporaer = temporaereDatei(_kundenDatei);
+        try
+        {
+            FileOutputStream ausgabe = new FileOutputStream(temporaer);
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(ausgabe,
+                            DatenEinleser.ZEICHENSATZ));
+            try
+            {
+                for (Kunde kunde : kunden)
+                {
+                    writer.write(kunde.getKundennummer()
+                        .toString());
+                    schreibeFeld(writer, kunde.getVorname());
+                    schreibeFeld(writer, kunde.getNachname());
+                    schreibeFeld(writer, kunde.getStrasse());
+                    schreibeFeld(writer, kunde.getPLZ() == null ? null
+                            : kunde.getPLZ()
+                                .toString());
+                    schreibeFeld(writer, kunde.getWohnort());
+                    writer.write(ZEILENENDE);
+                }
+                writer.flush();
+                ausgabe.getFD()
+                    .sync();
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Kundenstamm konnte nicht geschrieben werden.", e);
+        }
+        ersetze(temporaer, _kundenDatei);
+    }
+
+    /**
+     * Schreibt die Medien mit ihren Verleihkarten im Format des
+     * MedienEinlesers.
+     */
+    private void schreibeMedien(List<Medium> medien,
+            List<Verleihkarte> verleihkarten) throws DateiSchreibException
+    {
+        Map<Medium, Verleihkarte> verleihkartenFuerMedien = new HashMap<Medium, Verleihkarte>();
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            verleihkartenFuerMedien.put(verleihkarte.getMedium(),
+                    verleihkarte);
+        }
+
+        File temporaer = temporaereDatei(_medienDatei);
+        try
+        {
+            FileOutputStream ausgabe = new FileOutputStream(temporaer);
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(ausgabe,
+                            DatenEinleser.ZEICHENSATZ));
+            try
+            {
+                for (Medium medium : medien)
+                {
+                    Verleihkarte verleihkarte = verleihkartenFuerMedien
+                        .get(medium);
+                    if (verleihkarte == null)
+                    {
+                        writer.write(LEERZEICHEN);
+                        schreibeFeld(writer, null);
+                    }
+                    else
+                    {
+                        writer.write(verleihkarte.getAusleihdatum()
+                            .toString());
+                        schreibeFeld(writer, verleihkarte.getEntleiher()
+                            .getKundennummer()
+                            .toString());
+                    }
+                    schreibeFeld(writer, medium.getMedienBezeichnung());
+                    schreibeFeld(writer, medium.getTitel());
+                    schreibeFeld(writer, medium.getKommentar());
+                    schreibeMedienFelder(writer, medium);
+                    schreibeFeld(writer,
+                            String.valueOf(medium.getMediennummer()));
+                    writer.write(ZEILENENDE);
+                }
+                writer.flush();
+                ausgabe.getFD()
+                    .sync();
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Medienbestand konnte nicht geschrieben werden.", e);
+        }
+        ersetze(temporaer, _medienDatei);
+    }
+
+    /**
+     * Schreibt die Felder, die nur der konkrete Medientyp hat.
+     */
+    private static void schreibeMedienFelder(Writer writer, Medium medium)
+            throws IOException
+    {
+        if (medium instanceof CD)
+        {
+            CD cd = (CD) medium;
+            schreibeFeld(writer, cd.getInterpret());
+            schreibeFeld(writer, String.valueOf(cd.getSpiellaenge()));
+        }
+        else if (medium instanceof DVD)
+        {
+            DVD dvd = (DVD) medium;
+            schreibeFeld(writer, dvd.getRegisseur());
+            schreibeFeld(writer, String.valueOf(dvd.getLaufzeit()));
+        }
+        else if (medium instanceof KonsolenVideospiel)
+        {
+            schreibeFeld(writer, ((KonsolenVideospiel) medium).getSystem());
+        }
+        else if (medium instanceof PCVideospiel)
+        {
+            schreibeFeld(writer, ((PCVideospiel) medium).getSystem());
+        }
+    }
+
+    /**
+     * Schreibt ein Semikolon und den kodierten Text.
+     */
+    private static void schreibeFeld(Writer writer, String text)
+            throws IOException
+    {
+        writer.write(';');
+        if (text == null || text.isEmpty())
+        {
+            writer.write(LEERZEICHEN);
+        }
+        else
+        {
+            writer.write(text.replace(';', ',')
+                .replace('\r', ' ')
+                .replace('\n', ' '));
+        }
+    }
+
+    private static File temporaereDatei(File datei)
+    {
+        return new File(datei.getPath() + ".tmp");
+    }
+
+    /**
+     * Ersetzt die Zieldatei atomar durch die temporäre Datei.
+     */
+    private static void ersetze(File temporaer, File ziel)
+            throws DateiSchreibException
+    {
+        try
+        {
+            Files.move(temporaer.toPath(), ziel.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Die Datei " + ziel + " konnte nicht ersetzt werden.", e);
+        }
+    }
+}
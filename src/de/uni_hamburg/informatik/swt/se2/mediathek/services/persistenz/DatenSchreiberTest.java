@@ -0,0 +1,223 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.PLZ;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.DVD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.PCVideospiel;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollierException;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihServiceImpl;
+
+/**
+ * @author SE2-Team
+ */
+public class DatenSchreiberTest
+{
+    private final File _medienDatei;
+    private final File _kundenDatei;
+    private final Kunde _kunde;
+    private final Kunde _kundeOhneAnschrift;
+    private final MedienbestandService _medienbestand;
+    private final KundenstammService _kundenstamm;
+    private final ProtokollSchreiber _protokollSchreiber;
+    private final VerleihService _verleihService;
+    private final DatenSchreiber _schreiber;
+
+    public DatenSchreiberTest() throws IOException
+    {
+        _medienDatei = File.createTempFile("medienbestand", ".txt");
+        _medienDatei.deleteOnExit();
+        _kundenDatei = File.createTempFile("kundenstamm", ".txt");
+        _kundenDatei.deleteOnExit();
+        File protokoll = File.createTempFile("verleihProtokoll", ".txt");
+        protokoll.deleteOnExit();
+
+        _kunde = new Kunde(new Kundennummer(123456), "Susi", "Sonnenschein");
+        _kunde.setStrasse("Sonnenallee 20");
+        _kunde.setPLZ(new PLZ("D-22760"));
+        _kunde.setWohnort("Hamburg");
+        _kundeOhneAnschrift = new Kunde(new Kundennummer(123457), "Kai",
+                "Konrad");
+        _kundenstamm = new KundenstammServiceImpl(
+                Arrays.asList(_kunde, _kundeOhneAnschrift));
+        _medienbestand = new MedienbestandServiceImpl(Arrays.<Medium> asList(
+                new CD("Garden State", "Soundtrack", "Various", 56),
+                new DVD("Titel; mit Semikolon", "", "Regie", 120),
+                new PCVideospiel("Spiel", "Kommentar", "Windows")));
+        _protokollSchreiber = new ProtokollSchreiber(protokoll,
+                ProtokollSchreiber.Modus.BESTAETIGT,
+                ProtokollSchreiber.Synchronisation.KEINE);
+        _verleihService = new VerleihServiceImpl(_kundenstamm,
+                _medienbestand, new ArrayList<Verleihkarte>(),
+                _protokollSchreiber);
+        _schreiber = new DatenSchreiber(_medienDatei, _kundenDatei,
+                _medienbestand, _kundenstamm, _verleihService);
+    }
+
+    @After
+    public void schliesseProtokoll() throws ProtokollierException
+    {
+        _protokollSchreiber.schliesse();
+    }
+
+    @Test
+    public void testeGeschriebeneDatenKoennenEingelesenWerden()
+            throws Exception
+    {
+        Datum datum = new Datum(2, 4, 2021);
+        _verleihService.verleiheAn(_kunde,
+                _medienbestand.getMedien().subList(2, 3), datum);
+        _schreiber.schreibeDaten();
+
+        DatenEinleser einleser = new DatenEinleser(_medienDatei, _kundenDatei);
+        einleser.leseDaten();
+
+        List<Kunde> kunden = einleser.getKunden();
+        assertEquals(2, kunden.size());
+        assertEquals(_kunde.getFormatiertenString(), kunden.get(0)
+            .getFormatiertenString());
+        assertNull(kunden.get(1)
+            .getPLZ());
+        assertNull(kunden.get(1)
+            .getStrasse());
+
+        List<Medium> medien = einleser.getMedien();
+        assertEquals(3, medien.size());
+        for (int i = 0; i < medien.size(); i++)
+        {
+            assertEquals(
+                    _medienbestand.getMedien()
+                        .get(i)
+                        .getFormatiertenString()
+                        .replace(';', ','),
+                    medien.get(i)
+                        .getFormatiertenString());
+        }
+
+        List<Verleihkarte> verleihkarten = einleser.getVerleihkarten();
+        assertEquals(1, verleihkarten.size());
+        assertEquals(datum, verleihkarten.get(0)
+            .getAusleihdatum());
+        assertEquals(_kunde.getKundennummer(), verleihkarten.get(0)
+            .getEntleiher()
+            .getKundennummer());
+        assertEquals("Spiel", verleihkarten.get(0)
+            .getMedium()
+            .getTitel());
+    }
+
+    @Test
+    public void testeUmlauteWerdenAlsUtf8Geschrieben() throws Exception
+    {
+        _kunde.setWohnort("Lübeck");
+        _medienbestand.getMedien()
+            .get(0)
+            .setTitel("Größte Hits");
+        _schreiber.schreibeDaten();
+
+        for (DatenEinleser.Modus modus : DatenEinleser.Modus.values())
+        {
+            DatenEinleser einleser = new DatenEinleser(_medienDatei,
+                    _kundenDatei, modus);
+            einleser.leseDaten();
+
+            assertEquals("Lübeck", einleser.getKunden()
+                .get(0)
+                .getWohnort());
+            assertEquals("Größte Hits", einleser.getMedien()
+                .get(0)
+                .getTitel());
+        }
+    }
+
+    @Test
+    public void testeMediennummernBleibenErhalten() throws Exception
+    {
+        _medienbestand.entferneMedium(_medienbestand.getMedien()
+            .get(0));
+        _schreiber.schreibeDaten();
+
+        DatenEinleser einleser = new DatenEinleser(_medienDatei, _kundenDatei);
+        einleser.leseDaten();
+
+        List<Medium> medien = einleser.getMedien();
+        assertEquals(2, medien.size());
+        for (int i = 0; i < medien.size(); i++)
+        {
+            assertEquals(_medienbestand.getMedien()
+                .get(i)
+                .getMediennummer(), medien.get(i)
+                    .getMediennummer());
+        }
+    }
+
+    @Test
+    public void testeFehlerBeimPeriodischenSchreibenWirdFestgehalten()
+            throws Exception
+    {
+        // Ein Verzeichnis an Stelle der temporären Datei verhindert das
+        // Schreiben des Kundenstamms
+        File temporaer = new File(_kundenDatei.getPath() + ".tmp");
+        assertTrue(temporaer.mkdir());
+        _schreiber.starte(10, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 500 && _schreiber.getLetztenFehler() == null; i++)
+        {
+            Thread.sleep(10);
+        }
+        assertNotNull(_schreiber.getLetztenFehler());
+
+        // Der nächste Versuch schreibt den Bestand
+        assertTrue(temporaer.delete());
+        for (int i = 0; i < 500 && _schreiber.getLetztenFehler() != null; i++)
+        {
+            Thread.sleep(10);
+        }
+        assertNull(_schreiber.getLetztenFehler());
+        _schreiber.beende();
+    }
+
+    @Test
+    public void testeBeendenSchreibtNurGeaenderteDaten() throws Exception
+    {
+        _schreiber.starte(1, TimeUnit.HOURS);
+        _schreiber.beende();
+        assertFalse(_schreiber.istGestartet());
+        long laenge = _medienDatei.length();
+
+        _medienDatei.delete();
+        _schreiber.beende();
+        assertFalse(_medienDatei.exists());
+
+        _verleihService.verleiheAn(_kunde,
+                _medienbestand.getMedien().subList(0, 1), new Datum(1, 1, 2021));
+        _schreiber.beende();
+        assertEquals(laenge + "1.1.2021;123456".length() - " ; ".length(),
+                _medienDatei.length());
+    }
+}
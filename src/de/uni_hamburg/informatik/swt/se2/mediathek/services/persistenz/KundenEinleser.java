@@ -2,9 +2,10 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -21,12 +22,37 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
  * 
  * Kundennummer; Vorname; Nachname; Strasse; PLZ; Ort
  * 
+ * Ein einzelnes Leerzeichen steht für eine unbekannte Strasse, PLZ oder einen
+ * unbekannten Ort.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 class KundenEinleser
 {
 
+    private static String LEERZEICHEN = " ";
+
+    // Anzahl der Zeilen, deren Kundennummern gemeinsam geprüft werden
+    private static final int BLOCKGROESSE = 1024;
+
+    /**
+     * Dekodiert den übergebenen String.
+     * 
+     * @param text Ein String der dekodiert werden soll.
+     * @require text != null
+     * @return Der String oder null, wenn er für einen unbekannten Wert steht.
+     */
+    private static String dekodiere(String text)
+    {
+        String ergebnis = text;
+        if (text.equals(LEERZEICHEN))
+        {
+            ergebnis = null;
+        }
+        return ergebnis;
+    }
+
     /**
      * Liest Kunden aus einer Textdatei ein und gibt alle eingelesenen Kunden
      * zurück.
@@ -42,36 +68,15 @@ class KundenEinleser
     public List<Kunde> leseKundenEin(File kundenDatei) throws DateiLeseException
     {
         assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
-        List<Kunde> eingeleseneKunden = new ArrayList<Kunde>();
+        List<Kunde> eingeleseneKunden;
         BufferedReader reader = null;
         try
         {
-            reader = new BufferedReader(new FileReader(kundenDatei));
-
-            String line = null;
-            // liest Datei Zeile für Zeile
-            while ((line = reader.readLine()) != null)
-            {
-                StringTokenizer tokenizer = new StringTokenizer(line, ";");
-                int kundennummer = Integer.valueOf(tokenizer.nextToken());
-                String vorname = tokenizer.nextToken();
-                String nachname = tokenizer.nextToken();
-                String strasse = tokenizer.nextToken();
-                String plz = tokenizer.nextToken();
-                String ort = tokenizer.nextToken();
-
-                if (Kundennummer.istGueltig(kundennummer)
-                        && PLZ.istGueltig(plz))
-                {
-                    Kunde kunde = new Kunde(new Kundennummer(kundennummer),
-                            vorname, nachname);
-                    kunde.setStrasse(strasse);
-                    kunde.setWohnort(ort);
-                    kunde.setPLZ(new PLZ(plz));
+            reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(kundenDatei),
+                            DatenEinleser.ZEICHENSATZ));
 
-                    eingeleseneKunden.add(kunde);
-                }
-            }
+            eingeleseneKunden = leseKundenEin(reader);
             reader.close();
         }
         catch (FileNotFoundException e)
@@ -103,4 +108,85 @@ class KundenEinleser
         }
         return eingeleseneKunden;
     }
+
+    /**
+     * Liest Kunden zeilenweise aus einem Reader ein. Die Zeilen werden in
+     * Blöcken gesammelt, deren Kundennummern gemeinsam geprüft werden.
+     * 
+     * @param reader Der Reader, der die Zeilen liefert.
+     * @return Die eingelesenen Kunden in der Reihenfolge der Zeilen.
+     * @throws IOException wenn der Reader nicht gelesen werden konnte.
+     * 
+     * @require reader != null
+     * 
+     * @ensure result != null
+     */
+    List<Kunde> leseKundenEin(BufferedReader reader) throws IOException
+    {
+        assert reader != null : "Vorbedingung verletzt: reader != null";
+        List<Kunde> eingeleseneKunden = new ArrayList<Kunde>();
+        int[] kundennummern = new int[BLOCKGROESSE];
+        String[][] felder = new String[BLOCKGROESSE][];
+        boolean[] gueltig = new boolean[BLOCKGROESSE];
+        int anzahl = 0;
+        String line = null;
+        // liest Datei Zeile für Zeile
+        while ((line = reader.readLine()) != null)
+        {
+            StringTokenizer tokenizer = new StringTokenizer(line, ";");
+            kundennummern[anzahl] = Integer.valueOf(tokenizer.nextToken());
+            String[] zeile = new String[5];
+            for (int i = 0; i < zeile.length; i++)
+            {
+                zeile[i] = tokenizer.nextToken();
+            }
+            felder[anzahl] = zeile;
+            anzahl++;
+
+            if (anzahl == BLOCKGROESSE)
+            {
+                erzeugeKunden(kundennummern, felder, gueltig, anzahl,
+                        eingeleseneKunden);
+                anzahl = 0;
+            }
+        }
+        erzeugeKunden(kundennummern, felder, gueltig, anzahl,
+                eingeleseneKunden);
+        return eingeleseneKunden;
+    }
+
+    /**
+     * Prüft die Kundennummern eines Blocks und erzeugt die Kunden der
+     * gültigen Zeilen.
+     * 
+     * @param kundennummern Die Kundennummern der Zeilen.
+     * @param felder Vorname, Nachname, Strasse, PLZ und Ort der Zeilen.
+     * @param gueltig Ein Array für das Prüfergebnis.
+     * @param anzahl Die Anzahl der Zeilen im Block.
+     * @param eingeleseneKunden Die Liste, in die die Kunden eingefügt werden.
+     */
+    private static void erzeugeKunden(int[] kundennummern, String[][] felder,
+            boolean[] gueltig, int anzahl, List<Kunde> eingeleseneKunden)
+    {
+        Kundennummer.pruefeAlle(kundennummern, anzahl, gueltig);
+        for (int i = 0; i < anzahl; i++)
+        {
+            String[] zeile = felder[i];
+            felder[i] = null;
+            String plz = dekodiere(zeile[3]);
+            if (gueltig[i] && (plz == null || PLZ.istGueltig(plz)))
+            {
+                Kunde kunde = new Kunde(Kundennummer.of(kundennummern[i]),
+                        zeile[0], zeile[1]);
+                kunde.setStrasse(dekodiere(zeile[2]));
+                kunde.setWohnort(dekodiere(zeile[4]));
+                if (plz != null)
+                {
+                    kunde.setPLZ(new PLZ(plz));
+                }
+
+                eingeleseneKunden.add(kunde);
+            }
+        }
+    }
 }
@@ -0,0 +1,440 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.DVD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.KonsolenVideospiel;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.PCVideospiel;
+
+/**
+ * Liest Medien im Format des MedienEinlesers direkt aus einem Byte-Puffer
+ * ein. Die Zeilen werden mit einer ByteZeile im Puffer zerlegt, Strings
+ * entstehen nur für die Texte der Medien.
+ * 
+ * Das Ergebnis entspricht dem des zeilenweisen Einlesens: Leere Felder werden
+ * wie beim StringTokenizer übersprungen, ein einzelnes Leerzeichen steht für
+ * einen leeren Text. Leere Zeilen werden ignoriert, eine unvollständige Zeile
+ * führt zu einer DateiLeseException.
+ * 
+ * Standardmäßig werden die Texte sofort im Zeichensatz der Bestandsdateien
+ * (UTF-8, siehe DatenEinleser.ZEICHENSATZ) dekodiert. Ein anderer Zeichensatz
+ * muss ASCII-kompatibel sein (etwa ISO-8859-1), damit Semikolons und
+ * Zeilenenden als einzelne Bytes erkannt werden. Alternativ können die Texte
+ * als UTF-8 erst beim ersten Zugriff dekodiert werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class MedienByteParser
+{
+    private static final int PUFFERGROESSE = 64 * 1024;
+
+    private static final byte[] CD_BEZEICHNUNG = ascii("CD");
+    private static final byte[] DVD_BEZEICHNUNG = ascii("DVD");
+    private static final byte[] KONSOLENVIDEOSPIEL_BEZEICHNUNG = ascii(
+            "KonsolenVideospiel");
+    private static final byte[] PCVIDEOSPIEL_BEZEICHNUNG = ascii(
+            "PCVideospiel");
+
+    private final ByteZeile _zeile;
+
+    /**
+     * Initialisiert einen neuen MedienByteParser, der die Texte sofort im
+     * Zeichensatz der Bestandsdateien dekodiert.
+     */
+    MedienByteParser()
+    {
+        this(DatenEinleser.ZEICHENSATZ, false);
+    }
+
+    /**
+     * Initialisiert einen neuen MedienByteParser.
+     * 
+     * @param zeichensatz Der Zeichensatz der Texte.
+     * @param verzoegert true, wenn die Texte erst beim ersten Zugriff
+     *            dekodiert werden sollen. Die eingelesenen Puffer dürfen
+     *            danach nicht mehr verändert werden.
+     * 
+     * @require zeichensatz != null
+     * @require !verzoegert || zeichensatz ist UTF-8
+     */
+    MedienByteParser(Charset zeichensatz, boolean verzoegert)
+    {
+        _zeile = new ByteZeile(zeichensatz, verzoegert);
+    }
+
+    private static byte[] ascii(String text)
+    {
+        return text.getBytes(Charset.forName("US-ASCII"));
+    }
+
+    /**
+     * Liest Medien aus einer Textdatei ein und gibt alle eingelesenen Medien
+     * und eventuell dazugehörende Verleihkarten zurück.
+     * 
+     * @param kundenstamm Ein Kundenstamm, um Kunden anhand ihrer Kundennummer
+     *            zu finden.
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @return Eine Map der Medien und zugehöriger Verleihkarten (falls
+     *         existent). Die Medien stehen in der Reihenfolge der Datei.
+     * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
+     *             werden konnte.
+     * 
+     * @require kundenstamm != null
+     * @require medienDatei != null
+     * @require Texte werden nicht verzögert dekodiert
+     * 
+     * @ensure result != null
+     */
+    Map<Medium, Verleihkarte> leseMedienEin(List<Kunde> kundenstamm,
+            File medienDatei) throws DateiLeseException
+    {
+        assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        // Der Lesepuffer wird wiederverwendet und kann daher nicht verzögert
+        // dekodiert werden
+        assert !_zeile
+            .istVerzoegert() : "Vorbedingung verletzt: Texte werden nicht verzögert dekodiert";
+
+        Abschnitt abschnitt = new Abschnitt();
+        InputStream eingabe = null;
+        try
+        {
+            eingabe = new FileInputStream(medienDatei);
+            leseZeilen(eingabe, abschnitt);
+            eingabe.close();
+        }
+        catch (FileNotFoundException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        }
+        catch (DateiLeseException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        finally
+        {
+            if (eingabe != null)
+            {
+                try
+                {
+                    eingabe.close();
+                }
+                catch (IOException e)
+                {
+                    // Diese Exception wird geschluckt.
+                }
+            }
+        }
+
+        Map<Medium, Verleihkarte> eingeleseneMedien = new LinkedHashMap<Medium, Verleihkarte>();
+        abschnitt.uebertrageIn(eingeleseneMedien, erzeugeKundenMap(kundenstamm));
+        return eingeleseneMedien;
+    }
+
+    /**
+     * Liest die Medien aus den vollständigen Zeilen im Bereich [anfang, ende)
+     * eines Byte-Arrays. Die Verleihkarten werden erst beim Übertragen des
+     * Abschnitts erzeugt, sodass dafür der Kundenstamm noch nicht vorliegen
+     * muss.
+     * 
+     * @param daten Die Bytes der Datei oder eines Teils davon.
+     * @param anfang Der Anfang des Bereichs, muss ein Zeilenanfang sein.
+     * @param ende Das Ende des Bereichs, muss ein Zeilenende sein.
+     * @return Die eingelesenen Medien des Bereichs.
+     * @throws DateiLeseException wenn eine Zeile unvollständig ist.
+     * 
+     * @require daten != null
+     * @require 0 <= anfang && anfang <= ende && ende <= daten.length
+     * 
+     * @ensure result != null
+     */
+    Abschnitt leseAbschnitt(byte[] daten, int anfang, int ende)
+            throws DateiLeseException
+    {
+        assert daten != null : "Vorbedingung verletzt: daten != null";
+
+        return leseAbschnitt(ByteBuffer.wrap(daten), anfang, ende);
+    }
+
+    /**
+     * Liest die Medien aus den vollständigen Zeilen im Bereich [anfang, ende)
+     * eines Byte-Puffers, etwa einer in den Speicher abgebildeten Datei. Der
+     * Puffer wird nur mit absoluten Zugriffen gelesen.
+     * 
+     * @param daten Die Bytes der Datei oder eines Teils davon.
+     * @param anfang Der Anfang des Bereichs, muss ein Zeilenanfang sein.
+     * @param ende Das Ende des Bereichs, muss ein Zeilenende sein.
+     * @return Die eingelesenen Medien des Bereichs.
+     * @throws DateiLeseException wenn eine Zeile unvollständig ist.
+     * 
+     * @require daten != null
+     * @require 0 <= anfang && anfang <= ende && ende <= daten.limit()
+     * 
+     * @ensure result != null
+     */
+    Abschnitt leseAbschnitt(ByteBuffer daten, int anfang, int ende)
+            throws DateiLeseException
+    {
+        assert daten != null : "Vorbedingung verletzt: daten != null";
+        assert 0 <= anfang && anfang <= ende && ende <= daten
+            .limit() : "Vorbedingung verletzt: 0 <= anfang && anfang <= ende && ende <= daten.limit()";
+
+        Abschnitt abschnitt = new Abschnitt();
+        int zeilenAnfang = anfang;
+        for (int i = anfang; i < ende; i++)
+        {
+            byte b = daten.get(i);
+            if (b == '\n' || b == '\r')
+            {
+                verarbeiteZeile(daten, zeilenAnfang, i, abschnitt);
+                zeilenAnfang = i + 1;
+            }
+        }
+        verarbeiteZeile(daten, zeilenAnfang, ende, abschnitt);
+        return abschnitt;
+    }
+
+    /**
+     * Erzeugt eine Map der Kunden nach ihrer Kundennummer.
+     * 
+     * @require kundenstamm != null
+     * 
+     * @ensure result != null
+     */
+    static Map<Integer, Kunde> erzeugeKundenMap(List<Kunde> kundenstamm)
+    {
+        Map<Integer, Kunde> kunden = new HashMap<Integer, Kunde>();
+        for (Kunde kunde : kundenstamm)
+        {
+            kunden.put(kunde.getKundennummer()
+                .getNummer(), kunde);
+        }
+        return kunden;
+    }
+
+    /**
+     * Liest den Stream blockweise in einen Puffer und verarbeitet jede
+     * vollständige Zeile direkt im Puffer. Der Rest einer angebrochenen Zeile
+     * wird an den Anfang des Puffers verschoben. Passt eine Zeile nicht in den
+     * Puffer, wird er vergrößert.
+     */
+    private void leseZeilen(InputStream eingabe, Abschnitt abschnitt)
+            throws IOException
+    {
+        byte[] puffer = new byte[PUFFERGROESSE];
+        ByteBuffer zeilen = ByteBuffer.wrap(puffer);
+        int zeilenAnfang = 0;
+        int gefuellt = 0;
+        int gelesen;
+        while ((gelesen = eingabe.read(puffer, gefuellt,
+                puffer.length - gefuellt)) != -1)
+        {
+            int suchAnfang = gefuellt;
+            gefuellt += gelesen;
+            for (int i = suchAnfang; i < gefuellt; i++)
+            {
+                byte b = puffer[i];
+                if (b == '\n' || b == '\r')
+                {
+                    verarbeiteZeile(zeilen, zeilenAnfang, i, abschnitt);
+                    zeilenAnfang = i + 1;
+                }
+            }
+
+            int rest = gefuellt - zeilenAnfang;
+            if (zeilenAnfang == 0 && rest == puffer.length)
+            {
+                byte[] groesser = new byte[puffer.length * 2];
+                System.arraycopy(puffer, 0, groesser, 0, rest);
+                puffer = groesser;
+                zeilen = ByteBuffer.wrap(puffer);
+            }
+            else if (zeilenAnfang > 0)
+            {
+                System.arraycopy(puffer, zeilenAnfang, puffer, 0, rest);
+            }
+            zeilenAnfang = 0;
+            gefuellt = rest;
+        }
+        verarbeiteZeile(zeilen, 0, gefuellt, abschnitt);
+    }
+
+    /**
+     * Verarbeitet die Zeile im Bereich [anfang, ende) des Puffers und fügt das
+     * Medium dem Abschnitt hinzu.
+     */
+    private void verarbeiteZeile(ByteBuffer puffer, int anfang, int ende,
+            Abschnitt abschnitt) throws DateiLeseException
+    {
+        _zeile.zerlege(puffer, anfang, ende);
+        if (_zeile.getFeldAnzahl() == 0)
+        {
+            // Leere Zeile oder zweites Zeichen eines \r\n
+            return;
+        }
+        pruefeFeldAnzahl(3);
+
+        Datum ausleihDatum = _zeile.leseDatum(0);
+        int kundennummer = _zeile.leseKundennummer(1);
+        Medium medium = leseMedium();
+
+        if (medium != null)
+        {
+            abschnitt.fuegeHinzu(medium, ausleihDatum, kundennummer);
+        }
+    }
+
+    private void pruefeFeldAnzahl(int anzahl) throws DateiLeseException
+    {
+        if (_zeile.getFeldAnzahl() < anzahl)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da eine Zeile unvollständig ist: "
+                            + _zeile);
+        }
+    }
+
+    /**
+     * Liest das Medium aus den Feldern ab Feld 2. Folgt den Feldern des
+     * Medientyps noch ein Feld, enthält es die Mediennummer.
+     * 
+     * @return das Medium oder null, wenn die Medienbezeichnung unbekannt ist.
+     */
+    private Medium leseMedium() throws DateiLeseException
+    {
+        Medium medium = null;
+        int feldAnzahl = 0;
+        if (_zeile.istFeld(2, CD_BEZEICHNUNG))
+        {
+            feldAnzahl = 7;
+            pruefeFeldAnzahl(feldAnzahl);
+            medium = CD.eingelesen(_zeile.leseText(3), _zeile.leseText(4),
+                    _zeile.leseText(5), _zeile.leseZahl(6));
+        }
+        else if (_zeile.istFeld(2, DVD_BEZEICHNUNG))
+        {
+            feldAnzahl = 7;
+            pruefeFeldAnzahl(feldAnzahl);
+            medium = DVD.eingelesen(_zeile.leseText(3), _zeile.leseText(4),
+                    _zeile.leseText(5), _zeile.leseZahl(6));
+        }
+        else if (_zeile.istFeld(2, KONSOLENVIDEOSPIEL_BEZEICHNUNG))
+        {
+            feldAnzahl = 6;
+            pruefeFeldAnzahl(feldAnzahl);
+            medium = KonsolenVideospiel.eingelesen(_zeile.leseText(3),
+                    _zeile.leseText(4), _zeile.leseText(5));
+        }
+        else if (_zeile.istFeld(2, PCVIDEOSPIEL_BEZEICHNUNG))
+        {
+            feldAnzahl = 6;
+            pruefeFeldAnzahl(feldAnzahl);
+            medium = PCVideospiel.eingelesen(_zeile.leseText(3),
+                    _zeile.leseText(4), _zeile.leseText(5));
+        }
+        if (medium != null && _zeile.getFeldAnzahl() > feldAnzahl)
+        {
+            int mediennummer = _zeile.leseZahl(feldAnzahl);
+            if (mediennummer >= 0)
+            {
+                medium.setMediennummer(mediennummer);
+            }
+        }
+        return medium;
+    }
+
+    /**
+     * Die eingelesenen Medien eines zusammenhängenden Teils der Datei, in der
+     * Reihenfolge der Datei. Zu jedem Medium werden Ausleihdatum und
+     * Kundennummer (0 für nicht verliehen) gespeichert.
+     */
+    static class Abschnitt
+    {
+        private final List<Medium> _medien;
+        private final List<Datum> _ausleihdaten;
+        private int[] _kundennummern;
+
+        Abschnitt()
+        {
+            _medien = new ArrayList<Medium>();
+            _ausleihdaten = new ArrayList<Datum>();
+            _kundennummern = new int[16];
+        }
+
+        private void fuegeHinzu(Medium medium, Datum ausleihDatum,
+                int kundennummer)
+        {
+            int index = _medien.size();
+            if (index == _kundennummern.length)
+            {
+                _kundennummern = Arrays.copyOf(_kundennummern, index * 2);
+            }
+            _medien.add(medium);
+            _ausleihdaten.add(ausleihDatum);
+            _kundennummern[index] = kundennummer;
+        }
+
+        /**
+         * Gibt die Anzahl der Medien im Abschnitt zurück.
+         */
+        int getAnzahl()
+        {
+            return _medien.size();
+        }
+
+        /**
+         * Fügt die Medien des Abschnitts mit ihren Verleihkarten in die Map
+         * ein.
+         * 
+         * @param eingeleseneMedien Die Map der Medien und Verleihkarten.
+         * @param kunden Die Kunden nach Kundennummer, siehe
+         *            erzeugeKundenMap().
+         * 
+         * @require eingeleseneMedien != null
+         * @require kunden != null
+         */
+        void uebertrageIn(Map<Medium, Verleihkarte> eingeleseneMedien,
+                Map<Integer, Kunde> kunden)
+        {
+            assert eingeleseneMedien != null : "Vorbedingung verletzt: eingeleseneMedien != null";
+            assert kunden != null : "Vorbedingung verletzt: kunden != null";
+
+            for (int i = 0; i < _medien.size(); i++)
+            {
+                Medium medium = _medien.get(i);
+                Verleihkarte verleihkarte = null;
+                if (_kundennummern[i] != 0)
+                {
+                    Kunde kunde = kunden.get(_kundennummern[i]);
+                    verleihkarte = new Verleihkarte(kunde, medium,
+                            _ausleihdaten.get(i));
+                }
+                eingeleseneMedien.put(medium, verleihkarte);
+            }
+        }
+    }
+}
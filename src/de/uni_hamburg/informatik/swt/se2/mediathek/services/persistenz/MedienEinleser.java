@@ -2,10 +2,12 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -26,11 +28,31 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.PCVideospi
  * Liest Medien aus einer Textdatei ein. Der MedienEinleser kann CDs, DVDs,
  * KonsolenVideospiele und PCVideospiele einlesen.
  * 
+ * Standardmäßig wird die Datei mit dem MedienByteParser direkt aus einem
+ * Byte-Puffer gelesen. Das zeilenweise Einlesen über BufferedReader und
+ * StringTokenizer bleibt als Vergleich erhalten.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 class MedienEinleser
 {
+    /**
+     * Das Verfahren, mit dem die Datei eingelesen wird.
+     */
+    enum Verfahren
+    {
+        /**
+         * Zeilenweise über BufferedReader, StringTokenizer und reguläre
+         * Ausdrücke.
+         */
+        ZEILENWEISE,
+
+        /**
+         * Direkt aus einem Byte-Puffer, siehe MedienByteParser.
+         */
+        BYTEPUFFER;
+    }
 
     // Dieses Pattern dient der Überprüfung eines Datums
     private static final Pattern DATUM_PATTERN = Pattern
@@ -44,6 +66,30 @@ class MedienEinleser
 
     private static String LEERZEICHEN = " ";
 
+    private final Verfahren _verfahren;
+
+    /**
+     * Initialisiert einen neuen MedienEinleser, der mit dem Verfahren
+     * BYTEPUFFER einliest.
+     */
+    MedienEinleser()
+    {
+        this(Verfahren.BYTEPUFFER);
+    }
+
+    /**
+     * Initialisiert einen neuen MedienEinleser.
+     * 
+     * @param verfahren Das Verfahren, mit dem eingelesen wird.
+     * 
+     * @require verfahren != null
+     */
+    MedienEinleser(Verfahren verfahren)
+    {
+        assert verfahren != null : "Vorbedingung verletzt: verfahren != null";
+        _verfahren = verfahren;
+    }
+
     /**
      * Dekodiert den übergebenen String.
      * 
@@ -78,7 +124,7 @@ class MedienEinleser
             int jahr = Integer.parseInt(m.group(3), 10);
             if (Datum.istGueltig(tag, monat, jahr))
             {
-                ergebnis = new Datum(tag, monat, jahr);
+                ergebnis = Datum.of(tag, monat, jahr);
             }
         }
         return ergebnis;
@@ -99,7 +145,7 @@ class MedienEinleser
             int nummer = Integer.parseInt(m.group(1), 10);
             if (Kundennummer.istGueltig(nummer))
             {
-                ergebnis = new Kundennummer(nummer);
+                ergebnis = Kundennummer.of(nummer);
             }
         }
         return ergebnis;
@@ -113,7 +159,7 @@ class MedienEinleser
      *            zu finden.
      * @param medienDatei Die Datei in der die Medien gespeichert sind.
      * @return Eine Map der Medien und zugehöriger Verleihkarten (falls
-     *         existent).
+     *         existent). Die Medien stehen in der Reihenfolge der Datei.
      * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
      *             werden konnte.
      * 
@@ -127,7 +173,13 @@ class MedienEinleser
     {
         assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
         assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
-        Map<Medium, Verleihkarte> eingeleseneMedien = new HashMap<Medium, Verleihkarte>();
+        if (_verfahren == Verfahren.BYTEPUFFER)
+        {
+            return new MedienByteParser().leseMedienEin(kundenstamm,
+                    medienDatei);
+        }
+
+        Map<Medium, Verleihkarte> eingeleseneMedien = new LinkedHashMap<Medium, Verleihkarte>();
 
         BufferedReader reader = null;
         try
@@ -137,7 +189,9 @@ class MedienEinleser
             {
                 kundenMap.put(kunde.getKundennummer(), kunde);
             }
-            reader = new BufferedReader(new FileReader(medienDatei));
+            reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(medienDatei),
+                            DatenEinleser.ZEICHENSATZ));
 
             String line = null;
             // liest die Datei Zeile für Zeile
@@ -198,7 +252,8 @@ class MedienEinleser
 
     /**
      * Liest die Daten für ein Medium aus dem übergebenen StringTokenizer aus
-     * und erzeugt ein konkretes Objekt eines Subtyps von Medium.
+     * und erzeugt ein konkretes Objekt eines Subtyps von Medium. Folgt den
+     * Daten des Medientyps noch ein Token, enthält es die Mediennummer.
      * 
      * @param tokenizer Ein StringTokenizer, der die Daten liefert.
      * @return ein neu erzeugtes Medium oder null, wenn kein Medium erzeugt
@@ -240,6 +295,15 @@ class MedienEinleser
                 medium = new PCVideospiel(titel, kommentar, system);
             }
         }
+        if (medium != null && tokenizer.hasMoreTokens())
+        {
+            int mediennummer = Integer.parseInt(naechsterToken(tokenizer)
+                .trim());
+            if (mediennummer >= 0)
+            {
+                medium.setMediennummer(mediennummer);
+            }
+        }
         return medium;
     }
 
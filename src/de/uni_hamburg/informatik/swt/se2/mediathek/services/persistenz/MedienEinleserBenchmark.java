@@ -0,0 +1,135 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+
+/**
+ * Vergleicht die Dauer des zeilenweisen Einlesens eines Medienbestands mit
+ * dem Einlesen über den MedienByteParser. Die Datei wird vorher mit der
+ * angegebenen Anzahl an Zeilen (Standard: 1.000.000) erzeugt, jede vierte
+ * Zeile enthält eine Verleihkarte. Jedes Verfahren wird zunächst zum
+ * Aufwärmen und dann WIEDERHOLUNGEN mal gemessen.
+ * 
+ * Aufruf: java -ea MedienEinleserBenchmark [Zeilen]
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class MedienEinleserBenchmark
+{
+    private static final int STANDARD_ZEILEN = 1000000;
+
+    private static final int KUNDEN = 1000;
+
+    // Anzahl der Wiederholungen pro Messung
+    private static final int WIEDERHOLUNGEN = 5;
+
+    /**
+     * Führt den Vergleich aus und gibt die Ergebnisse auf der Konsole aus.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int zeilen = args.length > 0 ? Integer.parseInt(args[0])
+                : STANDARD_ZEILEN;
+
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        for (int i = 0; i < KUNDEN; i++)
+        {
+            kunden.add(new Kunde(new Kundennummer(100000 + i), "Vorname",
+                    "Nachname"));
+        }
+        File datei = erzeugeDatei(zeilen);
+        try
+        {
+            for (MedienEinleser.Verfahren verfahren : MedienEinleser.Verfahren
+                .values())
+            {
+                long nanos = messe(new MedienEinleser(verfahren), kunden,
+                        datei);
+                System.out.println(String.format("%,9d Zeilen: %-11s %,8d ms",
+                        zeilen, verfahren, nanos / 1000000));
+            }
+        }
+        finally
+        {
+            datei.delete();
+        }
+    }
+
+    /**
+     * Misst die durchschnittliche Dauer des Einlesens.
+     */
+    private static long messe(MedienEinleser einleser, List<Kunde> kunden,
+            File datei) throws DateiLeseException
+    {
+        int medien = einleser.leseMedienEin(kunden, datei)
+            .size();
+        long start = System.nanoTime();
+        for (int i = 0; i < WIEDERHOLUNGEN; i++)
+        {
+            medien += einleser.leseMedienEin(kunden, datei)
+                .size();
+        }
+        long dauer = System.nanoTime() - start;
+        assert medien > 0;
+        return dauer / WIEDERHOLUNGEN;
+    }
+
+    /**
+     * Erzeugt eine temporäre Datei mit der angegebenen Anzahl an Medien.
+     */
+    private static File erzeugeDatei(int zeilen) throws IOException
+    {
+        File datei = File.createTempFile("medienbestand", ".txt");
+        datei.deleteOnExit();
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(datei)));
+        try
+        {
+            for (int i = 0; i < zeilen; i++)
+            {
+                if (i % 4 == 0)
+                {
+                    writer.write((i % 28 + 1) + "." + (i % 12 + 1) + ".2021;"
+                            + (100000 + i % KUNDEN) + ";");
+                }
+                else
+                {
+                    writer.write(" ; ;");
+                }
+                switch (i % 4)
+                {
+                case 0:
+                    writer.write("CD;Greatest Hits " + i
+                            + ";2 wundervolle Scheiben;Billy Joel;140");
+                    break;
+                case 1:
+                    writer.write("DVD;Film " + i + "; ;Regisseur;120");
+                    break;
+                case 2:
+                    writer.write("KonsolenVideospiel;Spiel " + i
+                            + ";Wie fit ist ihr Gehirn?;Nintendo DS");
+                    break;
+                default:
+                    writer.write("PCVideospiel;Spiel " + i + ";Größe;Windows");
+                    break;
+                }
+                writer.write("\r\n");
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        return datei;
+    }
+}
@@ -0,0 +1,150 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * @author SE2-Team
+ */
+public class MedienEinleserTest
+{
+    private final List<Kunde> _kunden;
+
+    public MedienEinleserTest()
+    {
+        _kunden = Arrays.asList(
+                new Kunde(new Kundennummer(123456), "Susi", "Sonnenschein"),
+                new Kunde(new Kundennummer(123457), "Kai", "Konrad"));
+    }
+
+    private File schreibeDatei(String inhalt) throws IOException
+    {
+        File datei = File.createTempFile("medienbestand", ".txt");
+        datei.deleteOnExit();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(datei));
+        writer.write(inhalt);
+        writer.close();
+        return datei;
+    }
+
+    private Map<Medium, Verleihkarte> lese(MedienEinleser.Verfahren verfahren,
+            File datei) throws DateiLeseException
+    {
+        return new MedienEinleser(verfahren).leseMedienEin(_kunden, datei);
+    }
+
+    private void pruefeGleichesErgebnis(File datei) throws DateiLeseException
+    {
+        List<String> zeilenweise = beschreibe(
+                lese(MedienEinleser.Verfahren.ZEILENWEISE, datei));
+        List<String> bytepuffer = beschreibe(
+                lese(MedienEinleser.Verfahren.BYTEPUFFER, datei));
+        assertEquals(zeilenweise, bytepuffer);
+    }
+
+    private List<String> beschreibe(Map<Medium, Verleihkarte> medien)
+    {
+        List<String> result = new ArrayList<String>();
+        for (Entry<Medium, Verleihkarte> eintrag : medien.entrySet())
+        {
+            Verleihkarte verleihkarte = eintrag.getValue();
+            result.add(eintrag.getKey()
+                .getFormatiertenString()
+                    + (verleihkarte == null ? "-"
+                            : verleihkarte.getFormatiertenString()));
+        }
+        return result;
+    }
+
+    @Test
+    public void testeBeideVerfahrenLiefernGleichesErgebnis() throws Exception
+    {
+        File datei = schreibeDatei(
+                "2.4.2021;123457;CD;Greatest Hits;2 Scheiben;Billy Joel;140\r\n"
+                        + " ; ;CD;Garden State;Soundtrack;Various;56\r\n"
+                        + "12.10.2020;123456;DVD;Film; ;Regisseur;+90\n"
+                        + " ; ;Buch;Unbekannter Typ;Kommentar\n"
+                        + "31.2.2021; ;;KonsolenVideospiel;Gehirn Jogging; Wie fit ist ihr Gehirn?;Nintendo DS\r"
+                        + "1.1.2021;0123456;PCVideospiel;Über;Größe;Windows");
+        pruefeGleichesErgebnis(datei);
+        assertEquals(5, lese(MedienEinleser.Verfahren.BYTEPUFFER, datei)
+            .size());
+    }
+
+    @Test
+    public void testeZeilenLaengerAlsDerPuffer() throws Exception
+    {
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < 20000; i++)
+        {
+            inhalt.append("1.2.2021;123456;CD;Titel ")
+                .append(i + 1)
+                .append("; ;Interpret;")
+                .append(i + 1)
+                .append("\r\n");
+        }
+        char[] langerKommentar = new char[200000];
+        Arrays.fill(langerKommentar, 'x');
+        inhalt.append(" ; ;PCVideospiel;Titel;")
+            .append(langerKommentar)
+            .append(";Linux\r\n");
+        File datei = schreibeDatei(inhalt.toString());
+        pruefeGleichesErgebnis(datei);
+
+        Map<Medium, Verleihkarte> medien = lese(
+                MedienEinleser.Verfahren.BYTEPUFFER, datei);
+        assertEquals(20001, medien.size());
+        Medium erstes = medien.keySet()
+            .iterator()
+            .next();
+        assertEquals(new Datum(1, 2, 2021), medien.get(erstes)
+            .getAusleihdatum());
+    }
+
+    @Test
+    public void testeUngueltigeKundennummerErzeugtKeineVerleihkarte()
+            throws Exception
+    {
+        File datei = schreibeDatei("2.4.2021;12345;CD;Titel;Kommentar;I;1\n");
+        Map<Medium, Verleihkarte> medien = lese(
+                MedienEinleser.Verfahren.BYTEPUFFER, datei);
+        assertNull(medien.values()
+            .iterator()
+            .next());
+    }
+
+    @Test
+    public void testeLeereZeilenWerdenIgnoriert() throws Exception
+    {
+        File datei = schreibeDatei(
+                "\r\n ; ;CD;Titel;Kommentar;I;1\r\n\r\n\n ; ;CD;T;K;I;2\r\n");
+        assertEquals(2, lese(MedienEinleser.Verfahren.BYTEPUFFER, datei)
+            .size());
+    }
+
+    @Test(expected = DateiLeseException.class)
+    public void testeUnvollstaendigeZeile() throws Exception
+    {
+        lese(MedienEinleser.Verfahren.BYTEPUFFER,
+                schreibeDatei("2.4.2021;123456;CD;Titel;Kommentar\n"));
+    }
+}
@@ -0,0 +1,415 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Liest Kunden- und Mediendatei gleichzeitig auf einem ForkJoinPool ein.
+ * Beide Dateien werden in Abschnitte zerlegt, die an Zeilenenden beginnen und
+ * enden. Jeder Abschnitt wird von einer eigenen Aufgabe gelesen und
+ * eingelesen: Kundenabschnitte wie im KundenEinleser, Medienabschnitte mit
+ * dem MedienByteParser. Zum Schluss werden die Ergebnisse in der Reihenfolge
+ * der Dateien zusammengeführt und die Verleihkarten erzeugt.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class ParallelerDatenEinleser
+{
+    // Abschnitte werden nicht kleiner als diese Anzahl an Bytes
+    private static final int MINDESTGROESSE = 1024 * 1024;
+
+    // Anzahl der Abschnitte pro Thread, damit ungleich schnelle Abschnitte
+    // ausgeglichen werden
+    private static final int ABSCHNITTE_PRO_THREAD = 4;
+
+    // Größe der Blöcke, in denen nach einem Zeilenende gesucht wird
+    private static final int SUCHBLOCK = 4096;
+
+    private final ForkJoinPool _pool;
+
+    private final int _mindestgroesse;
+
+    private List<Kunde> _kunden;
+    private Map<Medium, Verleihkarte> _medien;
+
+    /**
+     * Initialisiert einen neuen ParallelerDatenEinleser.
+     * 
+     * @param pool Der Pool, auf dem die Abschnitte eingelesen werden.
+     * 
+     * @require pool != null
+     */
+    ParallelerDatenEinleser(ForkJoinPool pool)
+    {
+        this(pool, MINDESTGROESSE);
+    }
+
+    /**
+     * Initialisiert einen neuen ParallelerDatenEinleser mit einer eigenen
+     * Mindestgröße für die Abschnitte.
+     * 
+     * @param pool Der Pool, auf dem die Abschnitte eingelesen werden.
+     * @param mindestgroesse Die Mindestgröße eines Abschnitts in Bytes.
+     * 
+     * @require pool != null
+     * @require mindestgroesse > 0
+     */
+    ParallelerDatenEinleser(ForkJoinPool pool, int mindestgroesse)
+    {
+        assert pool != null : "Vorbedingung verletzt: pool != null";
+        assert mindestgroesse > 0 : "Vorbedingung verletzt: mindestgroesse > 0";
+        _pool = pool;
+        _mindestgroesse = mindestgroesse;
+    }
+
+    /**
+     * Liest beide Dateien ein. Das Ergebnis kann mit getKunden() und
+     * getMedien() abgefragt werden.
+     * 
+     * @param kundenDatei Die Datei in der die Kunden gespeichert sind.
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @throws DateiLeseException wenn eine der Dateien nicht gelesen werden
+     *             konnte.
+     * 
+     * @require kundenDatei != null
+     * @require medienDatei != null
+     */
+    void leseDaten(File kundenDatei, File medienDatei)
+            throws DateiLeseException
+    {
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+
+        FileChannel kundenKanal = oeffne(kundenDatei,
+                "Der Kundenstamm konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        FileChannel medienKanal = null;
+        try
+        {
+            medienKanal = oeffne(medienDatei,
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+
+            final List<KundenAbschnitt> kundenAbschnitte = new ArrayList<KundenAbschnitt>();
+            for (long[] grenzen : teile(kundenKanal))
+            {
+                kundenAbschnitte.add(
+                        new KundenAbschnitt(kundenKanal, grenzen[0], grenzen[1]));
+            }
+            final List<MedienAbschnitt> medienAbschnitte = new ArrayList<MedienAbschnitt>();
+            for (long[] grenzen : teile(medienKanal))
+            {
+                medienAbschnitte.add(
+                        new MedienAbschnitt(medienKanal, grenzen[0], grenzen[1]));
+            }
+
+            _pool.invoke(new RecursiveAction()
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute()
+                {
+                    List<ForkJoinTask<?>> aufgaben = new ArrayList<ForkJoinTask<?>>();
+                    aufgaben.addAll(kundenAbschnitte);
+                    aufgaben.addAll(medienAbschnitte);
+                    invokeAll(aufgaben);
+                }
+            });
+
+            fuehreZusammen(kundenAbschnitte, medienAbschnitte);
+        }
+        catch (DateiLeseException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Die Daten konnten nicht eingelesen werden, da eine Datei nicht gelesen werden konnte.");
+        }
+        catch (RuntimeException e)
+        {
+            throw entpacke(e);
+        }
+        finally
+        {
+            schliesse(kundenKanal);
+            schliesse(medienKanal);
+        }
+    }
+
+    /**
+     * Gibt die eingelesenen Kunden in der Reihenfolge der Datei zurück.
+     */
+    List<Kunde> getKunden()
+    {
+        return _kunden;
+    }
+
+    /**
+     * Gibt die eingelesenen Medien mit ihren Verleihkarten in der Reihenfolge
+     * der Datei zurück.
+     */
+    Map<Medium, Verleihkarte> getMedien()
+    {
+        return _medien;
+    }
+
+    /**
+     * Führt die Ergebnisse der Abschnitte in Dateireihenfolge zusammen.
+     */
+    private void fuehreZusammen(List<KundenAbschnitt> kundenAbschnitte,
+            List<MedienAbschnitt> medienAbschnitte)
+    {
+        _kunden = new ArrayList<Kunde>();
+        for (KundenAbschnitt abschnitt : kundenAbschnitte)
+        {
+            _kunden.addAll(abschnitt.getRawResult());
+        }
+
+        int anzahl = 0;
+        for (MedienAbschnitt abschnitt : medienAbschnitte)
+        {
+            anzahl += abschnitt.getRawResult()
+                .getAnzahl();
+        }
+        Map<Integer, Kunde> kundenMap = MedienByteParser
+            .erzeugeKundenMap(_kunden);
+        _medien = new LinkedHashMap<Medium, Verleihkarte>(anzahl * 4 / 3 + 1);
+        for (MedienAbschnitt abschnitt : medienAbschnitte)
+        {
+            abschnitt.getRawResult()
+                .uebertrageIn(_medien, kundenMap);
+        }
+    }
+
+    /**
+     * Zerlegt eine Datei in Abschnitte, die jeweils direkt nach einem
+     * Zeilenende beginnen.
+     * 
+     * @return Paare aus Anfang (einschließlich) und Ende (ausschließlich).
+     */
+    private List<long[]> teile(FileChannel kanal) throws IOException
+    {
+        long laenge = kanal.size();
+        long anzahl = Math.max(1, Math.min(
+                (long) _pool.getParallelism() * ABSCHNITTE_PRO_THREAD,
+                laenge / _mindestgroesse));
+        long zielgroesse = Math.min(Integer.MAX_VALUE / 2,
+                Math.max(1, laenge / anzahl));
+
+        List<long[]> result = new ArrayList<long[]>();
+        long anfang = 0;
+        while (anfang < laenge)
+        {
+            long ende = naechsterZeilenanfang(kanal, anfang + zielgroesse,
+                    laenge);
+            result.add(new long[] {anfang, ende});
+            anfang = ende;
+        }
+        return result;
+    }
+
+    /**
+     * Sucht ab einer Position den Anfang der nächsten Zeile.
+     * 
+     * @return Die Position nach dem nächsten '\n' oder das Dateiende.
+     */
+    private static long naechsterZeilenanfang(FileChannel kanal, long position,
+            long laenge) throws IOException
+    {
+        ByteBuffer puffer = ByteBuffer.allocate(SUCHBLOCK);
+        while (position < laenge)
+        {
+            puffer.clear();
+            int gelesen = kanal.read(puffer, position);
+            if (gelesen <= 0)
+            {
+                break;
+            }
+            for (int i = 0; i < gelesen; i++)
+            {
+                if (puffer.get(i) == '\n')
+                {
+                    return position + i + 1;
+                }
+            }
+            position += gelesen;
+        }
+        return laenge;
+    }
+
+    /**
+     * Liest den Bereich [anfang, ende) der Datei in ein Byte-Array.
+     */
+    private static byte[] lese(FileChannel kanal, long anfang, long ende)
+            throws IOException
+    {
+        ByteBuffer puffer = ByteBuffer.allocate((int) (ende - anfang));
+        while (puffer.hasRemaining())
+        {
+            if (kanal.read(puffer, anfang + puffer.position()) < 0)
+            {
+                throw new IOException("Unerwartetes Dateiende");
+            }
+        }
+        return puffer.array();
+    }
+
+    private static FileChannel oeffne(File datei, String fehlermeldung)
+            throws DateiLeseException
+    {
+        try
+        {
+            return new FileInputStream(datei).getChannel();
+        }
+        catch (FileNotFoundException e)
+        {
+            throw new DateiLeseException(fehlermeldung);
+        }
+    }
+
+    private static void schliesse(FileChannel kanal)
+    {
+        if (kanal != null)
+        {
+            try
+            {
+                kanal.close();
+            }
+            catch (IOException e)
+            {
+                // Diese Exception wird geschluckt.
+            }
+        }
+    }
+
+    /**
+     * Sucht in der Kette der Ursachen eine DateiLeseException. Der
+     * ForkJoinPool kann die Exception einer Aufgabe beim Weiterreichen in
+     * eine neue Exception desselben Typs verpacken.
+     */
+    private static DateiLeseException entpacke(RuntimeException e)
+    {
+        Throwable ursache = e;
+        while (ursache != null)
+        {
+            if (ursache instanceof DateiLeseException)
+            {
+                return (DateiLeseException) ursache;
+            }
+            ursache = ursache.getCause();
+        }
+        throw e;
+    }
+
+    /**
+     * Eine Exception, die eine DateiLeseException aus einer Aufgabe
+     * heraustransportiert.
+     */
+    private static class AbschnittFehler extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        AbschnittFehler(DateiLeseException ursache)
+        {
+            super(ursache);
+        }
+    }
+
+    /**
+     * Liest einen Abschnitt der Kundendatei ein.
+     */
+    private static class KundenAbschnitt extends RecursiveTask<List<Kunde>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel _kanal;
+        private final long _anfang;
+        private final long _ende;
+
+        KundenAbschnitt(FileChannel kanal, long anfang, long ende)
+        {
+            _kanal = kanal;
+            _anfang = anfang;
+            _ende = ende;
+        }
+
+        @Override
+        protected List<Kunde> compute()
+        {
+            try
+            {
+                byte[] daten = lese(_kanal, _anfang, _ende);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(new ByteArrayInputStream(daten),
+                                DatenEinleser.ZEICHENSATZ));
+                return new KundenEinleser().leseKundenEin(reader);
+            }
+            catch (IOException e)
+            {
+                throw new AbschnittFehler(new DateiLeseException(
+                        "Der Kundenstamm konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte."));
+            }
+        }
+    }
+
+    /**
+     * Liest einen Abschnitt der Mediendatei ein.
+     */
+    private static class MedienAbschnitt
+            extends RecursiveTask<MedienByteParser.Abschnitt>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel _kanal;
+        private final long _anfang;
+        private final long _ende;
+
+        MedienAbschnitt(FileChannel kanal, long anfang, long ende)
+        {
+            _kanal = kanal;
+            _anfang = anfang;
+            _ende = ende;
+        }
+
+        @Override
+        protected MedienByteParser.Abschnitt compute()
+        {
+            try
+            {
+                byte[] daten = lese(_kanal, _anfang, _ende);
+                return new MedienByteParser().leseAbschnitt(daten, 0,
+                        daten.length);
+            }
+            catch (DateiLeseException e)
+            {
+                throw new AbschnittFehler(e);
+            }
+            catch (IOException e)
+            {
+                throw new AbschnittFehler(new DateiLeseException(
+                        "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte."));
+            }
+        }
+    }
+}
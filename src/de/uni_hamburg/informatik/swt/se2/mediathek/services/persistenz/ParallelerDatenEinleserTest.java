@@ -0,0 +1,171 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * @author SE2-Team
+ */
+public class ParallelerDatenEinleserTest
+{
+    private final ForkJoinPool _pool = new ForkJoinPool(4);
+
+    private File schreibeDatei(String inhalt) throws IOException
+    {
+        File datei = File.createTempFile("bestand", ".txt");
+        datei.deleteOnExit();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(datei));
+        writer.write(inhalt);
+        writer.close();
+        return datei;
+    }
+
+    private File schreibeKunden(int anzahl) throws IOException
+    {
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < anzahl; i++)
+        {
+            inhalt.append(100000 + i)
+                .append(";Vorname")
+                .append(i)
+                .append(";Nachname; ;22760;Hamburg\r\n");
+        }
+        return schreibeDatei(inhalt.toString());
+    }
+
+    private File schreibeMedien(int anzahl) throws IOException
+    {
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < anzahl; i++)
+        {
+            if (i % 3 == 0)
+            {
+                inhalt.append("2.4.2021;")
+                    .append(100000 + i % 500)
+                    .append(";CD;Titel ")
+                    .append(i)
+                    .append(";Kommentar;Interpret;")
+                    .append(i + 1)
+                    .append("\r\n");
+            }
+            else
+            {
+                inhalt.append(" ; ;DVD;Titel ")
+                    .append(i)
+                    .append("; ;Regie;90\r\n");
+            }
+        }
+        return schreibeDatei(inhalt.toString());
+    }
+
+    private List<String> beschreibe(Map<Medium, Verleihkarte> medien)
+    {
+        List<String> result = new ArrayList<String>();
+        for (Entry<Medium, Verleihkarte> eintrag : medien.entrySet())
+        {
+            Verleihkarte verleihkarte = eintrag.getValue();
+            result.add(eintrag.getKey()
+                .getFormatiertenString()
+                    + (verleihkarte == null ? "-"
+                            : verleihkarte.getFormatiertenString()));
+        }
+        return result;
+    }
+
+    @Test
+    public void testeAbschnitteLiefernGleichesErgebnisWieSequenziell()
+            throws Exception
+    {
+        File kundenDatei = schreibeKunden(500);
+        File medienDatei = schreibeMedien(3000);
+
+        // Kleine Abschnitte, damit beide Dateien mehrfach zerlegt werden
+        ParallelerDatenEinleser einleser = new ParallelerDatenEinleser(_pool,
+                100);
+        einleser.leseDaten(kundenDatei, medienDatei);
+
+        List<Kunde> kunden = new KundenEinleser().leseKundenEin(kundenDatei);
+        Map<Medium, Verleihkarte> medien = new MedienEinleser()
+            .leseMedienEin(kunden, medienDatei);
+
+        assertEquals(kunden.size(), einleser.getKunden()
+            .size());
+        for (int i = 0; i < kunden.size(); i++)
+        {
+            assertEquals(kunden.get(i)
+                .getFormatiertenString(),
+                    einleser.getKunden()
+                        .get(i)
+                        .getFormatiertenString());
+        }
+        assertEquals(beschreibe(medien), beschreibe(einleser.getMedien()));
+    }
+
+    @Test
+    public void testeVerleihkartenVerweisenAufEingeleseneKunden()
+            throws Exception
+    {
+        ParallelerDatenEinleser einleser = new ParallelerDatenEinleser(_pool,
+                64);
+        einleser.leseDaten(schreibeKunden(500), schreibeMedien(600));
+        for (Verleihkarte verleihkarte : einleser.getMedien()
+            .values())
+        {
+            if (verleihkarte != null)
+            {
+                Kunde entleiher = verleihkarte.getEntleiher();
+                assertSame(entleiher, einleser.getKunden()
+                    .get(entleiher.getKundennummer()
+                        .getNummer() - 100000));
+            }
+        }
+    }
+
+    @Test
+    public void testeLeereDateien() throws Exception
+    {
+        ParallelerDatenEinleser einleser = new ParallelerDatenEinleser(_pool);
+        einleser.leseDaten(schreibeDatei(""), schreibeDatei(""));
+        assertEquals(0, einleser.getKunden()
+            .size());
+        assertEquals(0, einleser.getMedien()
+            .size());
+    }
+
+    @Test(expected = DateiLeseException.class)
+    public void testeFehlerInEinemAbschnittWirdGemeldet() throws Exception
+    {
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+        {
+            inhalt.append(" ; ;CD;Titel;Kommentar;Interpret;1\r\n");
+        }
+        inhalt.append("2.4.2021;100000;CD;Titel;Kommentar\r\n");
+        new ParallelerDatenEinleser(_pool, 64).leseDaten(schreibeKunden(1),
+                schreibeDatei(inhalt.toString()));
+    }
+
+    @Test(expected = DateiLeseException.class)
+    public void testeFehlendeDatei() throws Exception
+    {
+        new ParallelerDatenEinleser(_pool).leseDaten(schreibeKunden(1),
+                new File("gibtEsNicht.txt"));
+    }
+}
@@ -0,0 +1,207 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.PLZ;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Liest Kunden- und Mediendatei ein, indem beide Dateien mit FileChannel.map
+ * in den Speicher abgebildet werden. Die Zeilen werden direkt in der
+ * Abbildung zerlegt. Die Texte der Kunden und Medien werden nicht kopiert,
+ * sondern als KodierterText erst beim ersten Zugriff aus UTF-8 dekodiert.
+ * 
+ * Wie bei den anderen Verfahren hängt das Ergebnis nicht vom
+ * Standardzeichensatz der Plattform ab: Die Dateien werden immer als UTF-8
+ * gelesen.
+ * 
+ * Eine Abbildung bleibt bestehen, bis alle Texte dekodiert sind und der
+ * Garbage Collector sie freigibt. Unter Windows kann die Datei so lange nicht
+ * ersetzt werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class SpeicherabbildEinleser
+{
+    private static final Charset UTF_8 = DatenEinleser.ZEICHENSATZ;
+
+    private List<Kunde> _kunden;
+    private Map<Medium, Verleihkarte> _medien;
+
+    /**
+     * Liest beide Dateien ein. Das Ergebnis kann mit getKunden() und
+     * getMedien() abgefragt werden.
+     * 
+     * @param kundenDatei Die Datei in der die Kunden gespeichert sind.
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @throws DateiLeseException wenn eine der Dateien nicht gelesen werden
+     *             konnte.
+     * 
+     * @require kundenDatei != null
+     * @require medienDatei != null
+     */
+    void leseDaten(File kundenDatei, File medienDatei)
+            throws DateiLeseException
+    {
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+
+        ByteBuffer kunden = bilde(kundenDatei, "Der Kundenstamm");
+        ByteBuffer medien = bilde(medienDatei, "Der Medien-Datenbestand");
+
+        _kunden = leseKunden(kunden);
+        MedienByteParser.Abschnitt abschnitt = new MedienByteParser(UTF_8, true)
+            .leseAbschnitt(medien, 0, medien.limit());
+        _medien = new LinkedHashMap<Medium, Verleihkarte>(
+                abschnitt.getAnzahl() * 4 / 3 + 1);
+        abschnitt.uebertrageIn(_medien,
+                MedienByteParser.erzeugeKundenMap(_kunden));
+    }
+
+    /**
+     * Gibt die eingelesenen Kunden in der Reihenfolge der Datei zurück.
+     */
+    List<Kunde> getKunden()
+    {
+        return _kunden;
+    }
+
+    /**
+     * Gibt die eingelesenen Medien mit ihren Verleihkarten in der Reihenfolge
+     * der Datei zurück.
+     */
+    Map<Medium, Verleihkarte> getMedien()
+    {
+        return _medien;
+    }
+
+    /**
+     * Bildet eine Datei lesend in den Speicher ab. Der Kanal wird sofort
+     * wieder geschlossen, die Abbildung bleibt davon unberührt.
+     * 
+     * @param bestand Der Name des Bestands für Fehlermeldungen.
+     */
+    private static ByteBuffer bilde(File datei, String bestand)
+            throws DateiLeseException
+    {
+        FileInputStream eingabe = null;
+        try
+        {
+            eingabe = new FileInputStream(datei);
+            FileChannel kanal = eingabe.getChannel();
+            if (kanal.size() > Integer.MAX_VALUE)
+            {
+                throw new DateiLeseException(bestand
+                        + " konnte nicht eingelesen werden, da die Datei größer als 2 GiB ist.");
+            }
+            return kanal.map(FileChannel.MapMode.READ_ONLY, 0, kanal.size());
+        }
+        catch (FileNotFoundException e)
+        {
+            throw new DateiLeseException(bestand
+                    + " konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        }
+        catch (DateiLeseException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(bestand
+                    + " konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        finally
+        {
+            if (eingabe != null)
+            {
+                try
+                {
+                    eingabe.close();
+                }
+                catch (IOException e)
+                {
+                    // Diese Exception wird geschluckt.
+                }
+            }
+        }
+    }
+
+    /**
+     * Liest die Kunden im Format des KundenEinlesers aus dem Puffer. Kunden
+     * mit ungültiger Kundennummer oder Postleitzahl werden übersprungen.
+     */
+    private static List<Kunde> leseKunden(ByteBuffer daten)
+            throws DateiLeseException
+    {
+        List<Kunde> eingeleseneKunden = new ArrayList<Kunde>();
+        ByteZeile zeile = new ByteZeile(UTF_8, true);
+        int zeilenAnfang = 0;
+        int ende = daten.limit();
+        for (int i = 0; i <= ende; i++)
+        {
+            if (i == ende || daten.get(i) == '\n' || daten.get(i) == '\r')
+            {
+                zeile.zerlege(daten, zeilenAnfang, i);
+                zeilenAnfang = i + 1;
+                if (zeile.getFeldAnzahl() == 0)
+                {
+                    // Leere Zeile oder zweites Zeichen eines \r\n
+                    continue;
+                }
+                if (zeile.getFeldAnzahl() < 6)
+                {
+                    throw new DateiLeseException(
+                            "Der Kundenstamm konnte nicht eingelesen werden, da eine Zeile unvollständig ist: "
+                                    + zeile);
+                }
+                Kunde kunde = leseKunde(zeile);
+                if (kunde != null)
+                {
+                    eingeleseneKunden.add(kunde);
+                }
+            }
+        }
+        return eingeleseneKunden;
+    }
+
+    /**
+     * Erzeugt einen Kunden aus einer zerlegten Zeile.
+     * 
+     * @return Den Kunden oder null, wenn Kundennummer oder Postleitzahl
+     *         ungültig sind.
+     */
+    private static Kunde leseKunde(ByteZeile zeile)
+    {
+        int kundennummer = zeile.leseZahl(0);
+        String plz = zeile.istLeer(4) ? null : zeile.leseString(4);
+
+        Kunde kunde = null;
+        if (Kundennummer.istGueltig(kundennummer)
+                && (plz == null || PLZ.istGueltig(plz)))
+        {
+            kunde = Kunde.eingelesen(Kundennummer.of(kundennummer),
+                    zeile.leseText(1), zeile.leseText(2),
+                    zeile.istLeer(3) ? null : zeile.leseText(3),
+                    zeile.istLeer(5) ? null : zeile.leseText(5));
+            if (plz != null)
+            {
+                kunde.setPLZ(new PLZ(plz));
+            }
+        }
+        return kunde;
+    }
+}
@@ -0,0 +1,139 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.PLZ;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * @author SE2-Team
+ */
+public class SpeicherabbildEinleserTest
+{
+    private static final String KUNDEN = "123456;Susi;Sonnenschein;Sonnenallee 20;22760;Hamburg\r\n"
+            + "123457;Kai;Konrad; ; ; \r\n"
+            + "12345;Zu;Kurz;Weg;22760;Hamburg\r\n"
+            + "123458;Klaus;Müller;Müllerweg 1;D-22760;Hamburg\r\n";
+
+    private static final String MEDIEN = "2.4.2021;123457;CD;Greatest Hits;2 Scheiben;Billy Joel;140\r\n"
+            + " ; ;CD;Garden State;Soundtrack;Various;56\r\n"
+            + "12.10.2020;123458;DVD;Film; ;Regisseur;+90\n"
+            + " ; ;Buch;Unbekannter Typ;Kommentar\n"
+            + "1.1.2021;123456;PCVideospiel;Über;Größe;Windows";
+
+    private File schreibeDatei(String inhalt) throws IOException
+    {
+        File datei = File.createTempFile("bestand", ".txt");
+        datei.deleteOnExit();
+        OutputStream ausgabe = new FileOutputStream(datei);
+        ausgabe.write(inhalt.getBytes("UTF-8"));
+        ausgabe.close();
+        return datei;
+    }
+
+    private List<String> beschreibe(Map<Medium, Verleihkarte> medien)
+    {
+        List<String> result = new ArrayList<String>();
+        for (Entry<Medium, Verleihkarte> eintrag : medien.entrySet())
+        {
+            Verleihkarte verleihkarte = eintrag.getValue();
+            result.add(eintrag.getKey()
+                .getFormatiertenString()
+                    + (verleihkarte == null ? "-"
+                            : verleihkarte.getFormatiertenString()));
+        }
+        return result;
+    }
+
+    @Test
+    public void testeKundenUndMedien() throws Exception
+    {
+        SpeicherabbildEinleser einleser = new SpeicherabbildEinleser();
+        einleser.leseDaten(schreibeDatei(KUNDEN), schreibeDatei(MEDIEN));
+
+        List<Kunde> kunden = einleser.getKunden();
+        assertEquals(3, kunden.size());
+        Kunde kai = kunden.get(1);
+        assertNull(kai.getStrasse());
+        assertNull(kai.getPLZ());
+        assertNull(kai.getWohnort());
+        Kunde klaus = kunden.get(2);
+        assertEquals("Müller", klaus.getNachname());
+        assertEquals("Müllerweg 1", klaus.getStrasse());
+        assertEquals(new PLZ("D-22760"), klaus.getPLZ());
+
+        Map<Medium, Verleihkarte> medien = einleser.getMedien();
+        assertEquals(4, medien.size());
+        Medium erstes = medien.keySet()
+            .iterator()
+            .next();
+        assertEquals("Billy Joel", ((CD) erstes).getInterpret());
+        assertEquals(kai, medien.get(erstes)
+            .getEntleiher());
+    }
+
+    @Test
+    public void testeUnabhaengigVomStandardzeichensatz() throws Exception
+    {
+        SpeicherabbildEinleser einleser = new SpeicherabbildEinleser();
+        einleser.leseDaten(schreibeDatei(KUNDEN), schreibeDatei(MEDIEN));
+        List<String> texte = new ArrayList<String>();
+        for (Medium medium : einleser.getMedien()
+            .keySet())
+        {
+            texte.add(medium.getTitel() + "/" + medium.getKommentar());
+        }
+        assertEquals("Über/Größe", texte.get(3));
+    }
+
+    @Test
+    public void testeGleichesErgebnisWieMedienEinleser() throws Exception
+    {
+        String medien = MEDIEN.replace("Über;Größe", "Ueber;Groesse");
+        File kundenDatei = schreibeDatei(KUNDEN.replace("ü", "ue"));
+        File medienDatei = schreibeDatei(medien);
+
+        SpeicherabbildEinleser einleser = new SpeicherabbildEinleser();
+        einleser.leseDaten(kundenDatei, medienDatei);
+        List<Kunde> kunden = new KundenEinleser().leseKundenEin(kundenDatei);
+        assertEquals(
+                beschreibe(new MedienEinleser(
+                        MedienEinleser.Verfahren.ZEILENWEISE)
+                            .leseMedienEin(kunden, medienDatei)),
+                beschreibe(einleser.getMedien()));
+    }
+
+    @Test
+    public void testeLeereDateien() throws Exception
+    {
+        SpeicherabbildEinleser einleser = new SpeicherabbildEinleser();
+        einleser.leseDaten(schreibeDatei(""), schreibeDatei(""));
+        assertEquals(0, einleser.getKunden()
+            .size());
+        assertEquals(0, einleser.getMedien()
+            .size());
+    }
+
+    @Test(expected = DateiLeseException.class)
+    public void testeUnvollstaendigeKundenzeile() throws Exception
+    {
+        new SpeicherabbildEinleser().leseDaten(
+                schreibeDatei("123456;Susi;Sonnenschein\r\n"),
+                schreibeDatei(""));
+    }
+}
@@ -0,0 +1,141 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.util.Collections;
+import java.util.Map;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+
+/**
+ * Ein Gebührenbericht fasst die Mietgebühren aller offenen Ausleihen bis zu
+ * einem Stichtag zusammen: insgesamt, je Kunde und je Medienart. Medien, die
+ * erst nach dem Stichtag ausgeliehen wurden, werden nicht berücksichtigt.
+ * 
+ * Ein Gebührenbericht ist eine unveränderliche Momentaufnahme. Spätere
+ * Verleihvorgänge wirken sich nicht auf ihn aus.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Gebuehrenbericht
+{
+    private final Datum _stichtag;
+    private final Geldbetrag _gesamtbetrag;
+    private final Map<Kunde, Geldbetrag> _betraegeFuerKunden;
+    private final Map<String, Geldbetrag> _betraegeFuerMedienarten;
+
+    /**
+     * Initialisiert einen neuen Gebührenbericht.
+     * 
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @param gesamtbetrag Die Summe aller Mietgebühren.
+     * @param betraegeFuerKunden Die Mietgebühren je Kunde.
+     * @param betraegeFuerMedienarten Die Mietgebühren je Medienbezeichnung.
+     * 
+     * @require stichtag != null
+     * @require gesamtbetrag != null
+     * @require betraegeFuerKunden != null
+     * @require betraegeFuerMedienarten != null
+     */
+    Gebuehrenbericht(Datum stichtag, Geldbetrag gesamtbetrag,
+            Map<Kunde, Geldbetrag> betraegeFuerKunden,
+            Map<String, Geldbetrag> betraegeFuerMedienarten)
+    {
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        assert gesamtbetrag != null : "Vorbedingung verletzt: gesamtbetrag != null";
+        assert betraegeFuerKunden != null : "Vorbedingung verletzt: betraegeFuerKunden != null";
+        assert betraegeFuerMedienarten != null : "Vorbedingung verletzt: betraegeFuerMedienarten != null";
+
+        _stichtag = stichtag;
+        _gesamtbetrag = gesamtbetrag;
+        _betraegeFuerKunden = Collections.unmodifiableMap(betraegeFuerKunden);
+        _betraegeFuerMedienarten = Collections
+            .unmodifiableMap(betraegeFuerMedienarten);
+    }
+
+    /**
+     * Gibt den Stichtag des Berichts zurück.
+     * 
+     * @ensure result != null
+     */
+    public Datum getStichtag()
+    {
+        return _stichtag;
+    }
+
+    /**
+     * Gibt die Summe aller Mietgebühren zurück.
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getGesamtbetrag()
+    {
+        return _gesamtbetrag;
+    }
+
+    /**
+     * Gibt die Mietgebühren eines Kunden zurück.
+     * 
+     * @param kunde Ein Kunde.
+     * @return Die Summe der Mietgebühren des Kunden, Geldbetrag.NULL wenn er
+     *         nichts ausgeliehen hat.
+     * 
+     * @require kunde != null
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getBetragFuer(Kunde kunde)
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+        Geldbetrag betrag = _betraegeFuerKunden.get(kunde);
+        return betrag == null ? Geldbetrag.NULL : betrag;
+    }
+
+    /**
+     * Gibt die Mietgebühren einer Medienart zurück.
+     * 
+     * @param medienBezeichnung Die Medienbezeichnung, wie sie
+     *            Medium.getMedienBezeichnung() liefert.
+     * @return Die Summe der Mietgebühren aller verliehenen Medien dieser Art,
+     *         Geldbetrag.NULL wenn keines verliehen ist.
+     * 
+     * @require medienBezeichnung != null
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag getBetragFuerMedienart(String medienBezeichnung)
+    {
+        assert medienBezeichnung != null : "Vorbedingung verletzt: medienBezeichnung != null";
+        Geldbetrag betrag = _betraegeFuerMedienarten.get(medienBezeichnung);
+        return betrag == null ? Geldbetrag.NULL : betrag;
+    }
+
+    /**
+     * Gibt eine unveränderliche Map der Mietgebühren je Kunde zurück. Kunden
+     * ohne offene Ausleihen sind nicht enthalten.
+     * 
+     * @ensure result != null
+     */
+    public Map<Kunde, Geldbetrag> getBetraegeFuerKunden()
+    {
+        return _betraegeFuerKunden;
+    }
+
+    /**
+     * Gibt eine unveränderliche Map der Mietgebühren je Medienbezeichnung
+     * zurück. Medienarten ohne offene Ausleihen sind nicht enthalten.
+     * 
+     * @ensure result != null
+     */
+    public Map<String, Geldbetrag> getBetraegeFuerMedienarten()
+    {
+        return _betraegeFuerMedienarten;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Gebührenbericht zum " + _stichtag + ": " + _gesamtbetrag;
+    }
+}
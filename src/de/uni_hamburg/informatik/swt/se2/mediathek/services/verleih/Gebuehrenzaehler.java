@@ -0,0 +1,299 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldsumme;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Summiert die Mietgebühren von Verleihkarten bis zu einem festen Stichtag,
+ * insgesamt, je Kunde und je Medienart. Aus einem Gebührenzähler wird ein
+ * Gebuehrenbericht erzeugt.
+ * 
+ * Ein Gebührenzähler kann auf einmal über alle Verleihkarten gefüllt werden
+ * (zaehle) oder laufend mitgeführt werden, indem jede neue und jede
+ * entfernte Verleihkarte hinzugefügt bzw. abgezogen wird. Er ist nicht
+ * threadsicher; beim parallelen Zählen hat jede Teilaufgabe einen eigenen
+ * Zähler, die anschließend zusammengeführt werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Gebuehrenzaehler
+{
+    // Teilaufgaben werden nicht kleiner als diese Anzahl an Verleihkarten
+    private static final int MINDESTGROESSE = 4096;
+
+    /**
+     * Der Pool, auf dem parallel gezählt wird.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    private final Datum _stichtag;
+    private final int _stichtagEpoch;
+    private final Geldsumme _gesamt;
+    private final Map<Kunde, Geldsumme> _fuerKunden;
+    private final Map<String, Geldsumme> _fuerMedienarten;
+
+    /**
+     * Initialisiert einen leeren Gebührenzähler.
+     * 
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * 
+     * @require stichtag != null
+     */
+    Gebuehrenzaehler(Datum stichtag)
+    {
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        _stichtag = stichtag;
+        _stichtagEpoch = stichtag.getEpochTag();
+        _gesamt = new Geldsumme();
+        _fuerKunden = new HashMap<Kunde, Geldsumme>();
+        _fuerMedienarten = new HashMap<String, Geldsumme>();
+    }
+
+    /**
+     * Zählt die Mietgebühren aller angegebenen Verleihkarten. Große Listen
+     * werden in Teilen parallel gezählt.
+     * 
+     * @param verleihkarten Die Verleihkarten, die nicht verändert werden
+     *            dürfen, solange gezählt wird.
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * 
+     * @ensure result != null
+     */
+    static Gebuehrenzaehler zaehle(List<Verleihkarte> verleihkarten,
+            Datum stichtag)
+    {
+        return zaehle(verleihkarten, stichtag, MINDESTGROESSE);
+    }
+
+    /**
+     * Zählt wie zaehle(verleihkarten, stichtag), mit einer eigenen
+     * Mindestgröße für die Teilaufgaben.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * @require mindestgroesse > 0
+     * 
+     * @ensure result != null
+     */
+    static Gebuehrenzaehler zaehle(List<Verleihkarte> verleihkarten,
+            Datum stichtag, int mindestgroesse)
+    {
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+        assert mindestgroesse > 0 : "Vorbedingung verletzt: mindestgroesse > 0";
+
+        if (verleihkarten.size() <= mindestgroesse)
+        {
+            Gebuehrenzaehler zaehler = new Gebuehrenzaehler(stichtag);
+            zaehler.addiereAlle(verleihkarten, 0, verleihkarten.size());
+            return zaehler;
+        }
+        return POOL.invoke(new Teilzaehlung(verleihkarten, 0,
+                verleihkarten.size(), stichtag, mindestgroesse));
+    }
+
+    /**
+     * Gibt den Stichtag dieses Zählers zurück.
+     */
+    Datum getStichtag()
+    {
+        return _stichtag;
+    }
+
+    /**
+     * Fügt die Mietgebühr einer Verleihkarte hinzu. Ist das Medium erst nach
+     * dem Stichtag ausgeliehen worden, ändert sich nichts.
+     * 
+     * @require verleihkarte != null
+     */
+    void addiere(Verleihkarte verleihkarte)
+    {
+        assert verleihkarte != null : "Vorbedingung verletzt: verleihkarte != null";
+
+        long eurocent = berechneEurocent(verleihkarte);
+        if (eurocent > 0)
+        {
+            _gesamt.addiere(eurocent);
+            summeFuer(_fuerKunden, verleihkarte.getEntleiher())
+                .addiere(eurocent);
+            summeFuer(_fuerMedienarten, verleihkarte.getMedium()
+                .getMedienBezeichnung()).addiere(eurocent);
+        }
+    }
+
+    /**
+     * Zieht die Mietgebühr einer zuvor hinzugefügten Verleihkarte wieder ab.
+     * 
+     * @require verleihkarte != null
+     * @require verleihkarte wurde zuvor hinzugefügt
+     */
+    void subtrahiere(Verleihkarte verleihkarte)
+    {
+        assert verleihkarte != null : "Vorbedingung verletzt: verleihkarte != null";
+
+        long eurocent = berechneEurocent(verleihkarte);
+        if (eurocent > 0)
+        {
+            _gesamt.subtrahiere(eurocent);
+            subtrahiere(_fuerKunden, verleihkarte.getEntleiher(), eurocent);
+            subtrahiere(_fuerMedienarten, verleihkarte.getMedium()
+                .getMedienBezeichnung(), eurocent);
+        }
+    }
+
+    /**
+     * Fügt die Summen eines anderen Zählers mit demselben Stichtag hinzu.
+     * 
+     * @require zaehler != null
+     * @require zaehler.getStichtag().equals(getStichtag())
+     */
+    void addiere(Gebuehrenzaehler zaehler)
+    {
+        assert zaehler != null : "Vorbedingung verletzt: zaehler != null";
+        assert zaehler._stichtagEpoch == _stichtagEpoch : "Vorbedingung verletzt: zaehler.getStichtag().equals(getStichtag())";
+
+        _gesamt.addiere(zaehler._gesamt);
+        fuehreZusammen(_fuerKunden, zaehler._fuerKunden);
+        fuehreZusammen(_fuerMedienarten, zaehler._fuerMedienarten);
+    }
+
+    /**
+     * Erzeugt einen Gebührenbericht mit den aktuellen Summen.
+     * 
+     * @ensure result != null
+     */
+    Gebuehrenbericht erzeugeBericht()
+    {
+        return new Gebuehrenbericht(_stichtag, _gesamt.getGeldbetrag(),
+                alsBetraege(_fuerKunden), alsBetraege(_fuerMedienarten));
+    }
+
+    /**
+     * Addiert die Verleihkarten von Index von (inklusive) bis bis (exklusive).
+     */
+    private void addiereAlle(List<Verleihkarte> verleihkarten, int von,
+            int bis)
+    {
+        for (int i = von; i < bis; i++)
+        {
+            addiere(verleihkarten.get(i));
+        }
+    }
+
+    /**
+     * Berechnet die Mietgebühr einer Verleihkarte bis zum Stichtag in
+     * Euro-Cent, 0 wenn sie erst nach dem Stichtag beginnt.
+     */
+    private long berechneEurocent(Verleihkarte verleihkarte)
+    {
+        Medium medium = verleihkarte.getMedium();
+        int mietTage = _stichtagEpoch - verleihkarte.getAusleihdatum()
+            .getEpochTag() + 1;
+        return mietTage > 0 ? medium.getTarif()
+            .getEurocent(mietTage) : 0;
+    }
+
+    private static <K> Geldsumme summeFuer(Map<K, Geldsumme> summen,
+            K schluessel)
+    {
+        Geldsumme summe = summen.get(schluessel);
+        if (summe == null)
+        {
+            summe = new Geldsumme();
+            summen.put(schluessel, summe);
+        }
+        return summe;
+    }
+
+    private static <K> void subtrahiere(Map<K, Geldsumme> summen,
+            K schluessel, long eurocent)
+    {
+        Geldsumme summe = summen.get(schluessel);
+        summe.subtrahiere(eurocent);
+        if (summe.getEurocent() == 0)
+        {
+            summen.remove(schluessel);
+        }
+    }
+
+    private static <K> void fuehreZusammen(Map<K, Geldsumme> ziel,
+            Map<K, Geldsumme> quelle)
+    {
+        for (Map.Entry<K, Geldsumme> eintrag : quelle.entrySet())
+        {
+            summeFuer(ziel, eintrag.getKey()).addiere(eintrag.getValue());
+        }
+    }
+
+    private static <K> Map<K, Geldbetrag> alsBetraege(
+            Map<K, Geldsumme> summen)
+    {
+        Map<K, Geldbetrag> result = new HashMap<K, Geldbetrag>(
+                summen.size() * 4 / 3 + 1);
+        for (Map.Entry<K, Geldsumme> eintrag : summen.entrySet())
+        {
+            result.put(eintrag.getKey(), eintrag.getValue()
+                .getGeldbetrag());
+        }
+        return result;
+    }
+
+    /**
+     * Zählt einen Teil der Verleihkarten. Teile über der Mindestgröße werden
+     * halbiert und die Ergebnisse beider Hälften zusammengeführt.
+     */
+    private static class Teilzaehlung extends RecursiveTask<Gebuehrenzaehler>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Verleihkarte> _verleihkarten;
+        private final int _von;
+        private final int _bis;
+        private final Datum _stichtag;
+        private final int _mindestgroesse;
+
+        Teilzaehlung(List<Verleihkarte> verleihkarten, int von, int bis,
+                Datum stichtag, int mindestgroesse)
+        {
+            _verleihkarten = verleihkarten;
+            _von = von;
+            _bis = bis;
+            _stichtag = stichtag;
+            _mindestgroesse = mindestgroesse;
+        }
+
+        @Override
+        protected Gebuehrenzaehler compute()
+        {
+            if (_bis - _von <= _mindestgroesse)
+            {
+                Gebuehrenzaehler zaehler = new Gebuehrenzaehler(_stichtag);
+                zaehler.addiereAlle(_verleihkarten, _von, _bis);
+                return zaehler;
+            }
+            int mitte = (_von + _bis) >>> 1;
+            Teilzaehlung links = new Teilzaehlung(_verleihkarten, _von, mitte,
+                    _stichtag, _mindestgroesse);
+            Teilzaehlung rechts = new Teilzaehlung(_verleihkarten, mitte,
+                    _bis, _stichtag, _mindestgroesse);
+            links.fork();
+            Gebuehrenzaehler result = rechts.compute();
+            result.addiere(links.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.KonsolenVideospiel;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.PCVideospiel;
+
+/**
+ * @author SE2-Team
+ */
+public class GebuehrenzaehlerTest
+{
+    @Test
+    public void testeParallelesZaehlenStimmtMitEinzelgebuehrenUeberein()
+    {
+        Datum stichtag = new Datum(1, 6, 2021);
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        for (int i = 0; i < 7; i++)
+        {
+            kunden.add(new Kunde(new Kundennummer(100000 + i), "Vorname",
+                    "Nachname"));
+        }
+        List<Verleihkarte> karten = new ArrayList<Verleihkarte>();
+        for (int i = 0; i < 1000; i++)
+        {
+            Medium medium;
+            switch (i % 3)
+            {
+            case 0:
+                medium = new CD("CD " + i, "", "Interpret", 60);
+                break;
+            case 1:
+                medium = new PCVideospiel("PC " + i, "", "System");
+                break;
+            default:
+                medium = new KonsolenVideospiel("Konsole " + i, "", "System");
+            }
+            karten.add(new Verleihkarte(kunden.get(i % kunden.size()), medium,
+                    stichtag.minus(i % 400)));
+        }
+
+        Gebuehrenbericht bericht = Gebuehrenzaehler
+            .zaehle(karten, stichtag, 16)
+            .erzeugeBericht();
+        Gebuehrenbericht sequenziell = Gebuehrenzaehler.zaehle(karten, stichtag)
+            .erzeugeBericht();
+
+        long gesamt = 0;
+        for (Verleihkarte karte : karten)
+        {
+            gesamt += karte.getMietgebuehr(stichtag)
+                .getEurocent();
+        }
+        assertEquals(gesamt, bericht.getGesamtbetrag()
+            .getEurocent());
+        assertEquals(sequenziell.getGesamtbetrag(), bericht.getGesamtbetrag());
+        assertEquals(sequenziell.getBetraegeFuerKunden(),
+                bericht.getBetraegeFuerKunden());
+        assertEquals(sequenziell.getBetraegeFuerMedienarten(),
+                bericht.getBetraegeFuerMedienarten());
+        assertEquals(3, bericht.getBetraegeFuerMedienarten()
+            .size());
+    }
+}
@@ -0,0 +1,200 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.nio.ByteBuffer;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+
+/**
+ * Ein Eintrag im binären Verleihjournal. Ein Eintrag hält ein Ereignis mit
+ * Datum, Kundennummer und Mediennummer fest. Die Mediennummer ist die mit dem
+ * Medienbestand gespeicherte Nummer des Mediums (siehe
+ * Medium.getMediennummer()).
+ * 
+ * Im Journal wird jeder Eintrag als Satz fester Länge gespeichert:
+ * 
+ * Nutzlänge (1 Byte); Ereignis (1 Byte); Epochtag (4 Byte); Kundennummer (4
+ * Byte); Mediennummer (4 Byte)
+ * 
+ * Alle Zahlen werden in Big-Endian-Reihenfolge geschrieben. Die Nutzlänge
+ * zählt die folgenden Bytes, sodass ein Leser später angefügte Felder
+ * überspringen kann.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class JournalEintrag
+{
+    /**
+     * Die Anzahl der Bytes nach dem Längenfeld.
+     */
+    public static final int NUTZLAENGE = 13;
+
+    /**
+     * Die Anzahl der Bytes eines Satzes einschließlich des Längenfelds.
+     */
+    public static final int SATZLAENGE = NUTZLAENGE + 1;
+
+    private final VerleihEreignis _ereignis;
+    private final int _epochTag;
+    private final int _kundennummer;
+    private final int _mediennummer;
+
+    /**
+     * Initialisiert einen neuen JournalEintrag.
+     * 
+     * @param ereignis Das Ereignis.
+     * @param datum Das Datum der Verleih- oder Vormerkkarte.
+     * @param kundennummer Die Kundennummer des Entleihers oder Vormerkers.
+     * @param mediennummer Die Mediennummer des Mediums.
+     * 
+     * @require ereignis != null
+     * @require datum != null
+     * @require kundennummer != null
+     * @require mediennummer >= 0
+     */
+    public JournalEintrag(VerleihEreignis ereignis, Datum datum,
+            Kundennummer kundennummer, int mediennummer)
+    {
+        this(ereignis, datum.getEpochTag(), kundennummer.getNummer(),
+                mediennummer);
+    }
+
+    private JournalEintrag(VerleihEreignis ereignis, int epochTag,
+            int kundennummer, int mediennummer)
+    {
+        assert ereignis != null : "Vorbedingung verletzt: ereignis != null";
+        assert mediennummer >= 0 : "Vorbedingung verletzt: mediennummer >= 0";
+
+        _ereignis = ereignis;
+        _epochTag = epochTag;
+        _kundennummer = kundennummer;
+        _mediennummer = mediennummer;
+    }
+
+    /**
+     * Liest einen Eintrag aus der Nutzlast eines Satzes, also den Bytes nach
+     * dem Längenfeld.
+     * 
+     * @param nutzlast Ein Puffer, dessen Position auf dem Ereignis-Byte steht.
+     * @return Der gelesene Eintrag oder null, wenn das Ereignis oder die
+     *         Kundennummer ungültig ist.
+     * 
+     * @require nutzlast != null
+     * @require nutzlast.remaining() >= NUTZLAENGE
+     */
+    static JournalEintrag lese(ByteBuffer nutzlast)
+    {
+        int ordinal = nutzlast.get() & 0xFF;
+        int epochTag = nutzlast.getInt();
+        int kundennummer = nutzlast.getInt();
+        int mediennummer = nutzlast.getInt();
+
+        JournalEintrag result = null;
+        if (ordinal < VerleihEreignis.values().length
+                && Kundennummer.istGueltig(kundennummer) && mediennummer >= 0)
+        {
+            result = new JournalEintrag(VerleihEreignis.values()[ordinal],
+                    epochTag, kundennummer, mediennummer);
+        }
+        return result;
+    }
+
+    /**
+     * Gibt diesen Eintrag als Satz des Journals zurück.
+     * 
+     * @ensure result.length == SATZLAENGE
+     */
+    public byte[] kodiere()
+    {
+        return ByteBuffer.allocate(SATZLAENGE)
+            .put((byte) NUTZLAENGE)
+            .put((byte) _ereignis.ordinal())
+            .putInt(_epochTag)
+            .putInt(_kundennummer)
+            .putInt(_mediennummer)
+            .array();
+    }
+
+    /**
+     * Gibt das Ereignis zurück.
+     * 
+     * @ensure result != null
+     */
+    public VerleihEreignis getEreignis()
+    {
+        return _ereignis;
+    }
+
+    /**
+     * Gibt das Datum der Verleih- oder Vormerkkarte als Anzahl der Tage seit
+     * dem 1.1.1970 zurück.
+     */
+    public int getEpochTag()
+    {
+        return _epochTag;
+    }
+
+    /**
+     * Gibt das Datum der Verleih- oder Vormerkkarte zurück.
+     * 
+     * @ensure result != null
+     */
+    public Datum getDatum()
+    {
+        return Datum.ausEpochTag(_epochTag);
+    }
+
+    /**
+     * Gibt die Kundennummer des Entleihers oder Vormerkers zurück.
+     * 
+     * @ensure result != null
+     */
+    public Kundennummer getKundennummer()
+    {
+        return Kundennummer.of(_kundennummer);
+    }
+
+    /**
+     * Gibt die Mediennummer des Mediums zurück.
+     * 
+     * @ensure result >= 0
+     */
+    public int getMediennummer()
+    {
+        return _mediennummer;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        boolean result = false;
+        if (obj instanceof JournalEintrag)
+        {
+            JournalEintrag other = (JournalEintrag) obj;
+            result = _ereignis == other._ereignis
+                    && _epochTag == other._epochTag
+                    && _kundennummer == other._kundennummer
+                    && _mediennummer == other._mediennummer;
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = _ereignis.hashCode();
+        result = prime * result + _epochTag;
+        result = prime * result + _kundennummer;
+        result = prime * result + _mediennummer;
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return _ereignis.getText() + " " + getDatum() + " " + _kundennummer
+                + " " + _mediennummer;
+    }
+}
@@ -0,0 +1,174 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Gestreifte Sperren für Medien. Jedes Medium ist über seinen Hashcode genau
+ * einer von ANZAHL Sperren zugeordnet. Vorgänge auf verschiedenen Medien
+ * blockieren sich dadurch meist nicht gegenseitig, Vorgänge auf demselben
+ * Medium laufen nacheinander ab.
+ * 
+ * Sperren für mehrere Medien werden immer in aufsteigender Reihenfolge
+ * gesperrt, damit sich zwei Vorgänge nicht gegenseitig blockieren. Aus
+ * demselben Grund darf sperreAlle() nicht aufgerufen werden, während der
+ * Thread schon eine der Sperren hält.
+ * 
+ * Die Sperren sind wiedereintrittsfähig. Gesperrt wird immer in der Form:
+ * 
+ * <pre>
+ * int[] gesperrt = sperren.sperre(medien);
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     sperren.entsperre(gesperrt);
+ * }
+ * </pre>
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class MedienSperren
+{
+    // Anzahl der Sperren, muss eine Zweierpotenz sein
+    private static final int ANZAHL = 64;
+
+    private final ReentrantLock[] _sperren;
+
+    /**
+     * Die Indizes aller Sperren in aufsteigender Reihenfolge.
+     */
+    private final int[] _alle;
+
+    /**
+     * Initialisiert neue, nicht gesperrte MedienSperren.
+     */
+    MedienSperren()
+    {
+        _sperren = new ReentrantLock[ANZAHL];
+        _alle = new int[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++)
+        {
+            _sperren[i] = new ReentrantLock();
+            _alle[i] = i;
+        }
+    }
+
+    /**
+     * Sperrt die Sperre eines Mediums.
+     * 
+     * @param medium Das Medium.
+     * @return Die gesperrten Sperren, zu übergeben an entsperre().
+     * 
+     * @require medium != null
+     */
+    int[] sperre(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        int[] indizes = {index(medium)};
+        sperre(indizes);
+        return indizes;
+    }
+
+    /**
+     * Sperrt die Sperren aller angegebenen Medien in aufsteigender
+     * Reihenfolge. Jede Sperre wird nur einmal gesperrt, auch wenn mehrere
+     * Medien ihr zugeordnet sind.
+     * 
+     * @param medien Die Medien.
+     * @return Die gesperrten Sperren, zu übergeben an entsperre().
+     * 
+     * @require medien != null
+     */
+    int[] sperre(List<Medium> medien)
+    {
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+
+        int[] indizes = new int[medien.size()];
+        for (int i = 0; i < indizes.length; i++)
+        {
+            indizes[i] = index(medien.get(i));
+        }
+        Arrays.sort(indizes);
+        int anzahl = 0;
+        for (int i = 0; i < indizes.length; i++)
+        {
+            if (anzahl == 0 || indizes[anzahl - 1] != indizes[i])
+            {
+                indizes[anzahl++] = indizes[i];
+            }
+        }
+        indizes = Arrays.copyOf(indizes, anzahl);
+        sperre(indizes);
+        return indizes;
+    }
+
+    /**
+     * Sperrt alle Sperren, etwa um einen in sich stimmigen Zustand aller
+     * Medien zu lesen.
+     * 
+     * @return Die gesperrten Sperren, zu übergeben an entsperre().
+     * 
+     * @require !haeltSperre()
+     */
+    int[] sperreAlle()
+    {
+        assert !haeltSperre() : "Vorbedingung verletzt: !haeltSperre()";
+
+        sperre(_alle);
+        return _alle;
+    }
+
+    /**
+     * Gibt die Sperren wieder frei, in umgekehrter Reihenfolge.
+     * 
+     * @param indizes Das Ergebnis von sperre() oder sperreAlle().
+     * 
+     * @require indizes != null
+     */
+    void entsperre(int[] indizes)
+    {
+        assert indizes != null : "Vorbedingung verletzt: indizes != null";
+
+        for (int i = indizes.length - 1; i >= 0; i--)
+        {
+            _sperren[indizes[i]].unlock();
+        }
+    }
+
+    /**
+     * Prüft, ob der aktuelle Thread eine der Sperren hält.
+     */
+    boolean haeltSperre()
+    {
+        for (ReentrantLock sperre : _sperren)
+        {
+            if (sperre.isHeldByCurrentThread())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sperre(int[] indizes)
+    {
+        for (int index : indizes)
+        {
+            _sperren[index].lock();
+        }
+    }
+
+    private static int index(Medium medium)
+    {
+        int h = medium.hashCode();
+        return (h ^ (h >>> 16)) & (ANZAHL - 1);
+    }
+}
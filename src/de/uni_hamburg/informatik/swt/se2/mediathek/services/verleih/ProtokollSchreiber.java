@@ -0,0 +1,768 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Ein ProtokollSchreiber hängt Einträge an eine Protokolldatei an. Die Datei
+ * bleibt dabei geöffnet, die Einträge werden in einer Warteschlange gesammelt
+ * und von einem eigenen Thread gruppenweise geschrieben (Group Commit).
+ *
+ * Im Modus ASYNCHRON kehrt schreibe() sofort zurück. Ein Schreibfehler wird
+ * dann beim nächsten Aufruf von schreibe() oder leereWarteschlange() als
+ * ProtokollierException gemeldet. Im Modus BESTAETIGT wartet schreibe(), bis
+ * die Gruppe mit dem Eintrag geschrieben wurde, und meldet einen Fehler
+ * sofort.
+ *
+ * Mit der Synchronisation wird festgelegt, ob nach jeder Gruppe die Daten bis
+ * auf das Speichermedium geschrieben werden (fsync) oder ob es genügt, sie an
+ * das Betriebssystem zu übergeben.
+ *
+ * Schlägt das Schreiben einer Gruppe fehl, wird die Datei auf ihre Länge vor
+ * der Gruppe zurückgesetzt, sodass keiner der fehlgeschlagenen Einträge darin
+ * verbleibt. Gelingt auch das nicht, gelten die Aufträge, deren Einträge
+ * vollständig in der Datei stehen, als geschrieben; als fehlgeschlagen werden
+ * nur die übrigen gemeldet.
+ *
+ * Das Format gibt an, ob die Datei das textuelle Verleihprotokoll oder das
+ * binäre Verleihjournal (siehe JournalEintrag) enthält. Der Schreiber selbst
+ * hängt nur Bytes an, das Format wertet der VerleihProtokollierer aus.
+ *
+ * Statt die Datei mit kuerzeDatei() zu leeren, kann sie mit archiviereDatei()
+ * umbenannt werden. Die bisherigen Einträge bleiben so erhalten, und weil das
+ * Umbenennen atomar ist, steht jeder Eintrag auch nach einem Absturz entweder
+ * im Archiv oder in der Datei.
+ *
+ * Mit schliesse() werden die ausstehenden Einträge geschrieben, der
+ * Schreib-Thread beendet und die Datei geschlossen. Danach nimmt der Schreiber
+ * keine Einträge mehr an.
+ *
+ * Bricht der Schreib-Thread durch einen unerwarteten Fehler (etwa eine
+ * RuntimeException) ab, schlagen die Aufträge der aktuellen Gruppe und alle
+ * wartenden Aufträge fehl. Danach lehnt der Schreiber jeden weiteren Auftrag
+ * sofort mit einer ProtokollierException ab, statt ihn unbearbeitet warten zu
+ * lassen.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class ProtokollSchreiber
+{
+    /**
+     * Legt fest, ob schreibe() auf das Schreiben des Eintrags wartet.
+     */
+    public enum Modus
+    {
+        /**
+         * schreibe() kehrt sofort zurück.
+         */
+        ASYNCHRON,
+
+        /**
+         * schreibe() wartet, bis der Eintrag geschrieben wurde.
+         */
+        BESTAETIGT;
+    }
+
+    /**
+     * Legt fest, wann die geschriebenen Daten auf das Speichermedium
+     * synchronisiert werden.
+     */
+    public enum Synchronisation
+    {
+        /**
+         * Die Daten werden nur an das Betriebssystem übergeben.
+         */
+        KEINE,
+
+        /**
+         * Nach jeder geschriebenen Gruppe wird synchronisiert.
+         */
+        PRO_GRUPPE;
+    }
+
+    /**
+     * Das Format der Einträge in der Protokolldatei.
+     */
+    public enum Format
+    {
+        /**
+         * Mehrzeilige Einträge in Textform.
+         */
+        TEXT,
+
+        /**
+         * Binäre Sätze fester Länge, siehe JournalEintrag.
+         */
+        JOURNAL;
+    }
+
+    // Die maximale Anzahl an Aufträgen, die in einer Gruppe geschrieben werden
+    private static final int MAX_GRUPPENGROESSE = 256;
+
+    private final File _datei;
+    private final Modus _modus;
+    private final Synchronisation _synchronisation;
+    private final Format _format;
+
+    /**
+     * Die Warteschlange der noch zu schreibenden Aufträge.
+     */
+    private final BlockingQueue<Auftrag> _warteschlange;
+
+    /**
+     * Der geöffnete Kanal zur Protokolldatei, ist null, wenn die Datei (noch)
+     * nicht geöffnet ist. Wird nur vom Schreib-Thread verwendet.
+     */
+    private FileChannel _kanal;
+
+    /**
+     * Ein Fehler, der im Modus ASYNCHRON beim Schreiben aufgetreten ist und
+     * noch nicht gemeldet wurde, sonst null.
+     */
+    private volatile IOException _fehler;
+
+    /**
+     * Der Auftrag, mit dem der Schreiber geschlossen wird, sonst null. Nach
+     * ihm werden keine Aufträge mehr in die Warteschlange gestellt.
+     */
+    private Auftrag _schlussAuftrag;
+
+    /**
+     * Der Fehler, durch den der Schreib-Thread abgebrochen ist, sonst null.
+     * Wird nur unter der Sperre des Schreibers gesetzt.
+     */
+    private volatile IOException _abbruch;
+
+    /**
+     * Initialisiert einen neuen ProtokollSchreiber für das textuelle
+     * Verleihprotokoll und startet seinen Schreib-Thread.
+     *
+     * @param datei Die Datei, an die die Einträge angehängt werden.
+     * @param modus Der Modus des Schreibers.
+     * @param synchronisation Die Synchronisation nach jeder Gruppe.
+     *
+     * @require datei != null
+     * @require modus != null
+     * @require synchronisation != null
+     */
+    public ProtokollSchreiber(File datei, Modus modus,
+            Synchronisation synchronisation)
+    {
+        this(datei, modus, synchronisation, Format.TEXT);
+    }
+
+    /**
+     * Initialisiert einen neuen ProtokollSchreiber und startet seinen
+     * Schreib-Thread.
+     *
+     * @param datei Die Datei, an die die Einträge angehängt werden.
+     * @param modus Der Modus des Schreibers.
+     * @param synchronisation Die Synchronisation nach jeder Gruppe.
+     * @param format Das Format der Einträge.
+     *
+     * @require datei != null
+     * @require modus != null
+     * @require synchronisation != null
+     * @require format != null
+     */
+    public ProtokollSchreiber(File datei, Modus modus,
+            Synchronisation synchronisation, Format format)
+    {
+        assert datei != null : "Vorbedingung verletzt: datei != null";
+        assert modus != null : "Vorbedingung verletzt: modus != null";
+        assert synchronisation != null : "Vorbedingung verletzt: synchronisation != null";
+        assert format != null : "Vorbedingung verletzt: format != null";
+
+        _datei = datei;
+        _modus = modus;
+        _synchronisation = synchronisation;
+        _format = format;
+        _warteschlange = new LinkedBlockingQueue<Auftrag>();
+
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                schreibeGruppen();
+            }
+        }, "ProtokollSchreiber " + datei.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gibt das Format der Einträge zurück.
+     *
+     * @ensure result != null
+     */
+    public Format getFormat()
+    {
+        return _format;
+    }
+
+    /**
+     * Hängt einen Eintrag an die Protokolldatei an.
+     *
+     * @param eintrag Der Eintrag.
+     *
+     * @throws ProtokollierException wenn der Eintrag (im Modus BESTAETIGT)
+     *             oder ein vorheriger Eintrag (im Modus ASYNCHRON) nicht
+     *             geschrieben werden konnte.
+     *
+     * @require eintrag != null
+     */
+    public void schreibe(byte[] eintrag) throws ProtokollierException
+    {
+        assert eintrag != null : "Vorbedingung verletzt: eintrag != null";
+
+        schreibe(Collections.singletonList(eintrag));
+    }
+
+    /**
+     * Hängt mehrere Einträge gemeinsam an die Protokolldatei an. Sie werden in
+     * derselben Gruppe geschrieben.
+     *
+     * @param eintraege Die Einträge.
+     *
+     * @throws ProtokollierException wenn die Einträge (im Modus BESTAETIGT)
+     *             oder ein vorheriger Eintrag (im Modus ASYNCHRON) nicht
+     *             geschrieben werden konnten.
+     *
+     * @require eintraege != null
+     */
+    public void schreibe(List<byte[]> eintraege) throws ProtokollierException
+    {
+        assert eintraege != null : "Vorbedingung verletzt: eintraege != null";
+
+        meldeFehler();
+        Auftrag auftrag = new Auftrag(eintraege);
+        stelleEin(auftrag);
+        if (_modus == Modus.BESTAETIGT)
+        {
+            warteAuf(auftrag);
+            if (auftrag._fehler != null)
+            {
+                throw new ProtokollierException(
+                        "Beim Schreiben des Verleihprotokolls ist ein Fehler aufgetreten.");
+            }
+        }
+    }
+
+    /**
+     * Wartet, bis alle bisher übergebenen Einträge geschrieben wurden.
+     *
+     * @throws ProtokollierException wenn im Modus ASYNCHRON ein Eintrag nicht
+     *             geschrieben werden konnte oder der Schreiber bereits
+     *             geschlossen ist.
+     */
+    public void leereWarteschlange() throws ProtokollierException
+    {
+        Auftrag auftrag = new Auftrag(Collections.<byte[]> emptyList());
+        stelleEin(auftrag);
+        warteAuf(auftrag);
+        meldeFehler();
+    }
+
+    /**
+     * Wartet, bis alle bisher übergebenen Einträge geschrieben wurden, und
+     * kürzt die Protokolldatei dann auf die Länge 0. Danach übergebene
+     * Einträge werden wieder ab dem Anfang der Datei geschrieben.
+     *
+     * @throws ProtokollierException wenn die Datei nicht gekürzt werden konnte
+     *             oder im Modus ASYNCHRON ein Eintrag nicht geschrieben werden
+     *             konnte.
+     */
+    public void kuerzeDatei() throws ProtokollierException
+    {
+        kuerzeDatei(null);
+    }
+
+    /**
+     * Wartet, bis alle bisher übergebenen Einträge geschrieben wurden, und
+     * benennt die Protokolldatei dann in die Archivdatei um. Danach übergebene
+     * Einträge werden in eine neue, leere Protokolldatei geschrieben. Ist die
+     * Protokolldatei leer, wird kein Archiv angelegt.
+     *
+     * @param archiv Die Archivdatei, sie darf noch nicht existieren.
+     *
+     * @throws ProtokollierException wenn die Datei nicht umbenannt werden
+     *             konnte oder im Modus ASYNCHRON ein Eintrag nicht geschrieben
+     *             werden konnte.
+     *
+     * @require archiv != null
+     */
+    public void archiviereDatei(File archiv) throws ProtokollierException
+    {
+        assert archiv != null : "Vorbedingung verletzt: archiv != null";
+
+        kuerzeDatei(archiv);
+    }
+
+    /**
+     * Stellt einen Auftrag zum Kürzen oder, falls archiv nicht null ist, zum
+     * Archivieren der Datei ein und wartet auf ihn.
+     */
+    private void kuerzeDatei(File archiv) throws ProtokollierException
+    {
+        meldeFehler();
+        Auftrag auftrag = new Auftrag(Collections.<byte[]> emptyList());
+        auftrag._kuerzen = true;
+        auftrag._archiv = archiv;
+        stelleEin(auftrag);
+        warteAuf(auftrag);
+        if (auftrag._fehler != null)
+        {
+            _fehler = null;
+            throw new ProtokollierException(
+                    "Das Verleihprotokoll konnte nicht gekürzt werden.");
+        }
+    }
+
+    /**
+     * Schreibt alle ausstehenden Einträge, beendet den Schreib-Thread und
+     * schließt die Datei. Weitere Aufrufe haben keine Wirkung.
+     *
+     * @throws ProtokollierException wenn im Modus ASYNCHRON ein Eintrag nicht
+     *             geschrieben werden konnte oder der Schreib-Thread
+     *             abgebrochen ist.
+     *
+     * @ensure istGeschlossen()
+     */
+    public void schliesse() throws ProtokollierException
+    {
+        Auftrag auftrag;
+        synchronized (this)
+        {
+            if (_schlussAuftrag == null)
+            {
+                _schlussAuftrag = new Auftrag(
+                        Collections.<byte[]> emptyList());
+                _schlussAuftrag._schliessen = true;
+                if (_abbruch != null)
+                {
+                    // Es gibt keinen Schreib-Thread mehr, der ihn ausführt
+                    _schlussAuftrag._erledigt.countDown();
+                }
+                else
+                {
+                    _warteschlange.add(_schlussAuftrag);
+                }
+            }
+            auftrag = _schlussAuftrag;
+        }
+        warteAuf(auftrag);
+        meldeFehler();
+    }
+
+    /**
+     * Prüft, ob der Schreiber geschlossen ist.
+     */
+    public synchronized boolean istGeschlossen()
+    {
+        return _schlussAuftrag != null;
+    }
+
+    /**
+     * Sorgt dafür, dass der Schreiber beim Beenden der Anwendung geschlossen
+     * wird, sodass noch ausstehende Einträge geschrieben werden. Schlägt das
+     * fehl, endet der Thread des Shutdown-Hooks mit einer
+     * IllegalStateException, die an dessen UncaughtExceptionHandler geht.
+     */
+    public void schliesseBeimBeenden()
+    {
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        schliesse();
+                    }
+                    catch (ProtokollierException e)
+                    {
+                        throw new IllegalStateException(
+                                "Das Verleihprotokoll konnte beim Beenden nicht vollständig geschrieben werden.",
+                                e);
+                    }
+                }
+            });
+    }
+
+    /**
+     * Stellt einen Auftrag in die Warteschlange, sofern der Schreiber nicht
+     * geschlossen und der Schreib-Thread nicht abgebrochen ist.
+     */
+    private synchronized void stelleEin(Auftrag auftrag)
+            throws ProtokollierException
+    {
+        meldeAbbruch();
+        if (_schlussAuftrag != null)
+        {
+            throw new ProtokollierException(
+                    "Das Verleihprotokoll ist bereits geschlossen.");
+        }
+        _warteschlange.add(auftrag);
+    }
+
+    /**
+     * Wartet auf die Ausführung eines Auftrags. Ist der Schreib-Thread dabei
+     * abgebrochen, wird das gemeldet.
+     */
+    private void warteAuf(Auftrag auftrag) throws ProtokollierException
+    {
+        try
+        {
+            auftrag._erledigt.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread()
+                .interrupt();
+            throw new ProtokollierException(
+                    "Das Warten auf das Verleihprotokoll wurde unterbrochen.");
+        }
+        meldeAbbruch();
+    }
+
+    /**
+     * Meldet, dass der Schreib-Thread abgebrochen ist.
+     */
+    private void meldeAbbruch() throws ProtokollierException
+    {
+        IOException abbruch = _abbruch;
+        if (abbruch != null)
+        {
+            throw new ProtokollierException(
+                    "Der Schreib-Thread des Verleihprotokolls ist abgebrochen.",
+                    abbruch.getCause());
+        }
+    }
+
+    /**
+     * Meldet einen im Modus ASYNCHRON aufgetretenen Fehler genau einmal.
+     */
+    private void meldeFehler() throws ProtokollierException
+    {
+        if (_fehler != null)
+        {
+            _fehler = null;
+            throw new ProtokollierException(
+                    "Beim Schreiben des Verleihprotokolls ist ein Fehler aufgetreten.");
+        }
+    }
+
+    /**
+     * Die Schleife des Schreib-Threads: Holt alle wartenden Aufträge aus der
+     * Warteschlange und schreibt sie als eine Gruppe.
+     */
+    private void schreibeGruppen()
+    {
+        List<Auftrag> gruppe = new ArrayList<Auftrag>();
+        while (true)
+        {
+            try
+            {
+                gruppe.add(_warteschlange.take());
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            _warteschlange.drainTo(gruppe, MAX_GRUPPENGROESSE - 1);
+
+            IOException fehler = null;
+            try
+            {
+                schreibeGruppe(gruppe);
+            }
+            catch (IOException e)
+            {
+                fehler = e;
+                schliesseKanal();
+            }
+            catch (Throwable t)
+            {
+                brecheAb(gruppe, t);
+                return;
+            }
+            // Der Schlussauftrag ist immer der letzte Auftrag
+            boolean schliessen = gruppe.get(gruppe.size() - 1)._schliessen;
+            if (schliessen)
+            {
+                schliesseKanal();
+            }
+            for (Auftrag auftrag : gruppe)
+            {
+                if (fehler != null && !auftrag._geschrieben)
+                {
+                    auftrag._fehler = fehler;
+                    if (_modus == Modus.ASYNCHRON)
+                    {
+                        _fehler = fehler;
+                    }
+                }
+                auftrag._erledigt.countDown();
+            }
+            gruppe.clear();
+            if (schliessen)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Beendet den Schreib-Thread nach einem unerwarteten Fehler: Die Aufträge
+     * der Gruppe und alle wartenden Aufträge schlagen fehl, weitere werden
+     * nicht mehr angenommen.
+     */
+    private void brecheAb(List<Auftrag> gruppe, Throwable ursache)
+    {
+        IOException fehler = new IOException(
+                "Der Schreib-Thread ist abgebrochen.", ursache);
+        synchronized (this)
+        {
+            // Danach stellt stelleEin keine Aufträge mehr ein
+            _abbruch = fehler;
+        }
+        List<Auftrag> offen = new ArrayList<Auftrag>(gruppe);
+        _warteschlange.drainTo(offen);
+        schliesseKanal();
+        for (Auftrag auftrag : offen)
+        {
+            auftrag._fehler = fehler;
+            auftrag._erledigt.countDown();
+        }
+    }
+
+    /**
+     * Schreibt die Einträge aller Aufträge einer Gruppe. Aufträge zum Kürzen
+     * der Datei werden an ihrer Position in der Gruppe ausgeführt. Jeder
+     * Auftrag, dessen Einträge in der Datei stehen, wird als geschrieben
+     * markiert, auch wenn danach ein Fehler auftritt.
+     */
+    private void schreibeGruppe(List<Auftrag> gruppe) throws IOException
+    {
+        int anfang = 0;
+        for (int i = 0; i < gruppe.size(); i++)
+        {
+            if (gruppe.get(i)._kuerzen)
+            {
+                schreibeEintraege(gruppe.subList(anfang, i));
+                kuerze(gruppe.get(i)._archiv);
+                gruppe.get(i)._geschrieben = true;
+                anfang = i + 1;
+            }
+        }
+        schreibeEintraege(gruppe.subList(anfang, gruppe.size()));
+    }
+
+    /**
+     * Kürzt die Datei auf die Länge 0. Ist archiv nicht null, wird eine nicht
+     * leere Datei stattdessen in archiv umbenannt; der Kanal wird bei der
+     * nächsten Gruppe für eine neue Datei geöffnet.
+     */
+    private void kuerze(File archiv) throws IOException
+    {
+        if (archiv != null && _datei.length() > 0)
+        {
+            schliesseKanal();
+            Files.move(_datei.toPath(), archiv.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        oeffneKanal();
+        _kanal.truncate(0);
+        if (_synchronisation == Synchronisation.PRO_GRUPPE)
+        {
+            _kanal.force(false);
+        }
+    }
+
+    /**
+     * Öffnet den Kanal zur Datei, falls er nicht bereits geöffnet ist.
+     */
+    private void oeffneKanal() throws IOException
+    {
+        if (_kanal == null)
+        {
+            _kanal = oeffne(_datei);
+        }
+    }
+
+    /**
+     * Öffnet einen Kanal, der an die Datei anhängt. Tests können diese Methode
+     * überschreiben, um Schreibfehler zu simulieren.
+     */
+    FileChannel oeffne(File datei) throws IOException
+    {
+        return new FileOutputStream(datei, true).getChannel();
+    }
+
+    /**
+     * Schreibt die Einträge mehrerer Aufträge mit einem Zugriff auf die Datei.
+     * Schlägt das Schreiben fehl, wird die Datei auf ihre vorherige Länge
+     * zurückgesetzt; gelingt das nicht, werden die Aufträge als geschrieben
+     * markiert, deren Einträge vollständig in der Datei stehen.
+     */
+    private void schreibeEintraege(List<Auftrag> auftraege) throws IOException
+    {
+        // Das Ende der Einträge jedes Auftrags im Puffer
+        int[] enden = new int[auftraege.size()];
+        int laenge = 0;
+        for (int i = 0; i < auftraege.size(); i++)
+        {
+            for (byte[] eintrag : auftraege.get(i)._eintraege)
+            {
+                laenge += eintrag.length;
+            }
+            enden[i] = laenge;
+        }
+        if (laenge == 0)
+        {
+            markiereGeschrieben(auftraege, enden, 0);
+            return;
+        }
+
+        ByteBuffer puffer = ByteBuffer.allocate(laenge);
+        for (Auftrag auftrag : auftraege)
+        {
+            for (byte[] eintrag : auftrag._eintraege)
+            {
+                puffer.put(eintrag);
+            }
+        }
+        puffer.flip();
+
+        oeffneKanal();
+        long anfang = _kanal.size();
+        try
+        {
+            while (puffer.hasRemaining())
+            {
+                _kanal.write(puffer);
+            }
+            if (_synchronisation == Synchronisation.PRO_GRUPPE)
+            {
+                _kanal.force(false);
+            }
+        }
+        catch (IOException e)
+        {
+            setzeZurueck(anfang);
+            markiereGeschrieben(auftraege, enden,
+                    geschriebeneLaenge(anfang, puffer.position()));
+            throw e;
+        }
+        markiereGeschrieben(auftraege, enden, laenge);
+    }
+
+    /**
+     * Versucht, die Datei nach einem Schreibfehler auf die angegebene Länge
+     * zurückzusetzen.
+     */
+    private void setzeZurueck(long laenge)
+    {
+        try
+        {
+            _kanal.truncate(laenge);
+            if (_synchronisation == Synchronisation.PRO_GRUPPE)
+            {
+                _kanal.force(false);
+            }
+        }
+        catch (IOException e)
+        {
+            // Diese Exception wird geschluckt, geschriebeneLaenge bestimmt,
+            // was in der Datei verblieben ist.
+        }
+    }
+
+    /**
+     * Bestimmt nach einem Schreibfehler, wie viele Bytes ab anfang in der
+     * Datei stehen. Ist die Größe der Datei nicht bestimmbar, wird die Anzahl
+     * der bestätigt geschriebenen Bytes angenommen.
+     */
+    private long geschriebeneLaenge(long anfang, int bestaetigt)
+    {
+        try
+        {
+            return _kanal.size() - anfang;
+        }
+        catch (IOException e)
+        {
+            return bestaetigt;
+        }
+    }
+
+    /**
+     * Markiert die Aufträge als geschrieben, deren Einträge innerhalb der
+     * ersten laenge Bytes liegen.
+     */
+    private void markiereGeschrieben(List<Auftrag> auftraege, int[] enden,
+            long laenge)
+    {
+        for (int i = 0; i < auftraege.size(); i++)
+        {
+            if (enden[i] <= laenge)
+            {
+                auftraege.get(i)._geschrieben = true;
+            }
+        }
+    }
+
+    /**
+     * Schließt den Kanal nach einem Fehler, damit er bei der nächsten Gruppe
+     * neu geöffnet wird, oder beim Schließen des Schreibers.
+     */
+    private void schliesseKanal()
+    {
+        if (_kanal != null)
+        {
+            try
+            {
+                _kanal.close();
+            }
+            catch (IOException e)
+            {
+                // Diese Exception wird geschluckt.
+            }
+            _kanal = null;
+        }
+    }
+
+    /**
+     * Ein Auftrag an den Schreib-Thread.
+     */
+    private static class Auftrag
+    {
+        private final List<byte[]> _eintraege;
+        private final CountDownLatch _erledigt;
+        private volatile IOException _fehler;
+        private boolean _kuerzen;
+        private File _archiv;
+        private boolean _schliessen;
+        private boolean _geschrieben;
+
+        Auftrag(List<byte[]> eintraege)
+        {
+            _eintraege = eintraege;
+            _erledigt = new CountDownLatch(1);
+        }
+    }
+}
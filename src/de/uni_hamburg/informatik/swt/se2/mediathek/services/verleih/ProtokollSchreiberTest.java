@@ -0,0 +1,477 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber.Modus;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber.Synchronisation;
+
+public class ProtokollSchreiberTest
+{
+    private File _datei;
+
+    public ProtokollSchreiberTest() throws IOException
+    {
+        _datei = File.createTempFile("verleihProtokoll", ".txt");
+        _datei.deleteOnExit();
+    }
+
+    @Test
+    public void testeBestaetigtesSchreiben() throws Exception
+    {
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(_datei,
+                Modus.BESTAETIGT, Synchronisation.PRO_GRUPPE);
+        schreiber.schreibe("eins\n".getBytes());
+        assertEquals("eins\n", leseDatei());
+        schreiber.schreibe("zwei\n".getBytes());
+        assertEquals("eins\nzwei\n", leseDatei());
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeArchivierenBehaeltEintraege() throws Exception
+    {
+        File archiv = new File(_datei.getPath() + ".1");
+        archiv.deleteOnExit();
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(_datei,
+                Modus.BESTAETIGT, Synchronisation.KEINE);
+        schreiber.schreibe("eins\n".getBytes());
+        schreiber.archiviereDatei(archiv);
+        schreiber.schreibe("zwei\n".getBytes());
+        schreiber.schliesse();
+
+        assertEquals("eins\n",
+                new String(Files.readAllBytes(archiv.toPath())));
+        assertEquals("zwei\n", leseDatei());
+    }
+
+    @Test
+    public void testeAsynchronesSchreibenBehaeltReihenfolge() throws Exception
+    {
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(_datei,
+                Modus.ASYNCHRON, Synchronisation.KEINE);
+        StringBuilder erwartet = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            String eintrag = "Eintrag " + i + "\n";
+            erwartet.append(eintrag);
+            schreiber.schreibe(eintrag.getBytes());
+        }
+        schreiber.leereWarteschlange();
+        assertEquals(erwartet.toString(), leseDatei());
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeSchliessenSchreibtAusstehendeEintraege() throws Exception
+    {
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(_datei,
+                Modus.ASYNCHRON, Synchronisation.KEINE);
+        schreiber.schreibe("eins\n".getBytes());
+        schreiber.schreibe("zwei\n".getBytes());
+        assertFalse(schreiber.istGeschlossen());
+
+        schreiber.schliesse();
+        assertTrue(schreiber.istGeschlossen());
+        assertEquals("eins\nzwei\n", leseDatei());
+        // Wiederholtes Schließen hat keine Wirkung
+        schreiber.schliesse();
+
+        try
+        {
+            schreiber.schreibe("drei\n".getBytes());
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        assertEquals("eins\nzwei\n", leseDatei());
+    }
+
+    @Test
+    public void testeFehlerImBestaetigtenModus() throws Exception
+    {
+        // Ein Verzeichnis kann nicht als Datei geöffnet werden
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(
+                _datei.getParentFile(), Modus.BESTAETIGT,
+                Synchronisation.KEINE);
+        try
+        {
+            schreiber.schreibe("eins\n".getBytes());
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeFehlerImAsynchronenModus() throws Exception
+    {
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(
+                _datei.getParentFile(), Modus.ASYNCHRON,
+                Synchronisation.KEINE);
+        schreiber.schreibe("eins\n".getBytes());
+        try
+        {
+            schreiber.leereWarteschlange();
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        // Der Fehler wird nur einmal gemeldet
+        schreiber.leereWarteschlange();
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeFehlgeschlageneGruppeWirdZurueckgesetzt()
+            throws Exception
+    {
+        final FehlerKanal kanal = new FehlerKanal(_datei);
+        ProtokollSchreiber schreiber = erzeugeSchreiber(kanal);
+        schreiber.schreibe("eins\n".getBytes());
+
+        kanal._schreibbar = 2;
+        try
+        {
+            schreiber.schreibe("zwei\n".getBytes());
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        // Der angefangene Eintrag wurde wieder entfernt
+        assertEquals("eins\n", leseDatei());
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeNurNichtGeschriebeneAuftraegeSchlagenFehl()
+            throws Exception
+    {
+        final FehlerKanal kanal = new FehlerKanal(_datei);
+        kanal._blockiert = new CountDownLatch(1);
+        final ProtokollSchreiber schreiber = erzeugeSchreiber(kanal);
+        final AtomicReference<Exception> fehlerZwei = new AtomicReference<Exception>();
+        final AtomicReference<Exception> fehlerDrei = new AtomicReference<Exception>();
+
+        // Der Schreib-Thread wartet im ersten Auftrag, damit die beiden
+        // folgenden Aufträge als eine Gruppe geschrieben werden.
+        Thread eins = schreibeIn(schreiber, "eins\n",
+                new AtomicReference<Exception>());
+        kanal._betreten.await();
+        Thread zwei = schreibeIn(schreiber, "zwei\n", fehlerZwei);
+        Thread drei = schreibeIn(schreiber, "drei\n", fehlerDrei);
+        warteBisWartend(zwei);
+        warteBisWartend(drei);
+
+        // "zwei" passt noch vollständig, "drei" nur teilweise, und die Datei
+        // kann nicht zurückgesetzt werden.
+        kanal._schreibbar = 5 + 5 + 2;
+        kanal._kuerzbar = false;
+        kanal._blockiert.countDown();
+        eins.join();
+        zwei.join();
+        drei.join();
+
+        // Welcher der beiden Aufträge zuerst in der Gruppe steht, bestimmt
+        // der Schreib-Thread. Nur der vollständig geschriebene gilt als
+        // geschrieben.
+        String inhalt = leseDatei();
+        assertTrue(inhalt.startsWith("eins\n"));
+        assertEquals(5 + 5 + 2, inhalt.length());
+        if (inhalt.startsWith("eins\nzwei\n"))
+        {
+            assertEquals(null, fehlerZwei.get());
+            assertTrue(fehlerDrei.get() instanceof ProtokollierException);
+        }
+        else
+        {
+            assertEquals(null, fehlerDrei.get());
+            assertTrue(fehlerZwei.get() instanceof ProtokollierException);
+        }
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeAbgebrochenerSchreibThreadLaesstKeinenWarten()
+            throws Exception
+    {
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(_datei,
+                Modus.BESTAETIGT, Synchronisation.KEINE)
+        {
+            @Override
+            FileChannel oeffne(File datei)
+            {
+                throw new IllegalStateException("Test");
+            }
+        };
+        try
+        {
+            schreiber.schreibe("eins\n".getBytes());
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // Spätere Aufträge schlagen sofort fehl
+        try
+        {
+            schreiber.schreibe("zwei\n".getBytes());
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try
+        {
+            schreiber.leereWarteschlange();
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        // Auch das Schliessen meldet den Abbruch, statt zu warten
+        try
+        {
+            schreiber.schliesse();
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+    }
+
+    private ProtokollSchreiber erzeugeSchreiber(final FehlerKanal kanal)
+    {
+        return new ProtokollSchreiber(_datei, Modus.BESTAETIGT,
+                Synchronisation.KEINE)
+        {
+            @Override
+            FileChannel oeffne(File datei)
+            {
+                return kanal;
+            }
+        };
+    }
+
+    private Thread schreibeIn(final ProtokollSchreiber schreiber,
+            final String eintrag, final AtomicReference<Exception> fehler)
+            throws InterruptedException
+    {
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    schreiber.schreibe(eintrag.getBytes());
+                }
+                catch (ProtokollierException e)
+                {
+                    fehler.set(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void warteBisWartend(Thread thread) throws InterruptedException
+    {
+        while (thread.getState() != Thread.State.WAITING)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Ein Kanal zu einer Datei, der nach einer einstellbaren Anzahl an Bytes
+     * Schreibfehler meldet.
+     */
+    private static class FehlerKanal extends FileChannel
+    {
+        private final FileChannel _kanal;
+        private volatile long _schreibbar = Long.MAX_VALUE;
+        private volatile boolean _kuerzbar = true;
+        private volatile CountDownLatch _blockiert;
+        private final CountDownLatch _betreten = new CountDownLatch(1);
+
+        FehlerKanal(File datei) throws IOException
+        {
+            _kanal = new FileOutputStream(datei, true).getChannel();
+        }
+
+        @Override
+        public int write(ByteBuffer quelle) throws IOException
+        {
+            _betreten.countDown();
+            if (_blockiert != null)
+            {
+                try
+                {
+                    _blockiert.await();
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IOException(e);
+                }
+                _blockiert = null;
+            }
+            if (_schreibbar <= 0)
+            {
+                throw new IOException("Datenträger voll");
+            }
+            ByteBuffer teil = quelle.duplicate();
+            teil.limit(teil.position()
+                    + (int) Math.min(teil.remaining(), _schreibbar));
+            int geschrieben = _kanal.write(teil);
+            quelle.position(quelle.position() + geschrieben);
+            _schreibbar -= geschrieben;
+            return geschrieben;
+        }
+
+        @Override
+        public FileChannel truncate(long laenge) throws IOException
+        {
+            if (!_kuerzbar)
+            {
+                throw new IOException("Datenträger defekt");
+            }
+            _kanal.truncate(laenge);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException
+        {
+            return _kanal.size();
+        }
+
+        @Override
+        public void force(boolean metaDaten) throws IOException
+        {
+            _kanal.force(metaDaten);
+        }
+
+        @Override
+        public int read(ByteBuffer ziel) throws IOException
+        {
+            return _kanal.read(ziel);
+        }
+
+        @Override
+        public long read(ByteBuffer[] ziele, int offset, int anzahl)
+                throws IOException
+        {
+            return _kanal.read(ziele, offset, anzahl);
+        }
+
+        @Override
+        public long write(ByteBuffer[] quellen, int offset, int anzahl)
+                throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException
+        {
+            return _kanal.position();
+        }
+
+        @Override
+        public FileChannel position(long position) throws IOException
+        {
+            _kanal.position(position);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long anzahl,
+                WritableByteChannel ziel) throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel quelle, long position,
+                long anzahl) throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer ziel, long position) throws IOException
+        {
+            return _kanal.read(ziel, position);
+        }
+
+        @Override
+        public int write(ByteBuffer quelle, long position) throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode modus, long position, long anzahl)
+                throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long anzahl, boolean geteilt)
+                throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long anzahl, boolean geteilt)
+                throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException
+        {
+            _kanal.close();
+        }
+    }
+
+    private String leseDatei() throws IOException
+    {
+        return new String(Files.readAllBytes(_datei.toPath()));
+    }
+}
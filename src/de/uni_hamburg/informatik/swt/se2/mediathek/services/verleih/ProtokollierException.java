@@ -21,4 +21,16 @@ public class ProtokollierException extends Exception
     {
         super(message);
     }
+
+    /**
+     * Initilaisert eine neue Exception mit der übergebenen Fehlermeldung und
+     * Ursache.
+     * 
+     * @param message Eine Fehlerbeschreibung.
+     * @param cause Die Ursache des Fehlers.
+     */
+    public ProtokollierException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
 }
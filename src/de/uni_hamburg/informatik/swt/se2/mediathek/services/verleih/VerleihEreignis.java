@@ -0,0 +1,55 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+/**
+ * Die Ereignisse, die im Verleihprotokoll festgehalten werden.
+ * 
+ * Die Reihenfolge der Konstanten darf nicht verändert werden, da ihre
+ * Ordinalzahl im Verleihjournal gespeichert wird. Neue Ereignisse werden am
+ * Ende angefügt.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public enum VerleihEreignis
+{
+    AUSLEIHE("Ausleihe"), RUECKGABE("Rückgabe"), VORMERKUNG(
+            "Vormerkung"), VORMERKUNG_ENTFERNT("Vormerkung entfernt");
+
+    private final String _text;
+
+    private VerleihEreignis(String text)
+    {
+        _text = text;
+    }
+
+    /**
+     * Gibt die Textrepräsentation des Ereignisses zurück, wie sie im
+     * textuellen Verleihprotokoll verwendet wird.
+     * 
+     * @ensure result != null
+     */
+    public String getText()
+    {
+        return _text;
+    }
+
+    /**
+     * Liefert das Ereignis zur angegebenen Textrepräsentation.
+     * 
+     * @param text Eine Textrepräsentation.
+     * @return Das Ereignis oder null, wenn es kein passendes Ereignis gibt.
+     */
+    public static VerleihEreignis ausText(String text)
+    {
+        VerleihEreignis result = null;
+        for (VerleihEreignis ereignis : values())
+        {
+            if (ereignis._text.equals(text))
+            {
+                result = ereignis;
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,329 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiLeseException;
+
+/**
+ * Ein VerleihJournal verwaltet das binäre Verleihjournal und eine
+ * Momentaufnahme des Verleihzustands. Aus beiden stellt der
+ * VerleihServiceImpl beim Start seinen Zustand wieder her.
+ * 
+ * Die Momentaufnahme besteht aus einem AUSLEIHE-Eintrag für jede Verleihkarte
+ * und einem VORMERKUNG-Eintrag für jede Vormerkkarte. Sie wird in eine
+ * temporäre Datei geschrieben und dann atomar umbenannt. Danach wird das
+ * Journal gekürzt, sodass beim Start höchstens die Einträge seit der letzten
+ * Momentaufnahme nachgespielt werden müssen.
+ * 
+ * Beim Kürzen wird das Journal nicht geleert, sondern als Archivdatei
+ * umbenannt (siehe getArchivDateien()). Die Archivdateien und das Journal
+ * enthalten zusammen alle jemals geschriebenen Einträge und bilden so die
+ * vollständige Verleihhistorie, die der VerleihJournalKonverter in Textform
+ * umwandeln kann. Für die Wiederherstellung werden die Archivdateien nicht
+ * benötigt.
+ * 
+ * Die Einträge werden bestätigt geschrieben: Ein Vorgang kehrt erst zurück,
+ * wenn seine Einträge in der Journaldatei stehen. Schlägt das Schreiben fehl,
+ * erhält der Vorgang selbst die ProtokollierException und bleibt ohne Wirkung.
+ * Ob jede Gruppe zusätzlich auf das Speichermedium synchronisiert wird, legt
+ * die Synchronisation fest.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class VerleihJournal
+{
+    private final File _journalDatei;
+    private final File _momentaufnahmeDatei;
+    private final int _momentaufnahmeIntervall;
+    private final ProtokollSchreiber _schreiber;
+
+    /**
+     * Initialisiert ein neues VerleihJournal, das jede geschriebene Gruppe
+     * von Einträgen auf das Speichermedium synchronisiert.
+     * 
+     * @param journalDatei Die Datei des Journals.
+     * @param momentaufnahmeDatei Die Datei der Momentaufnahme.
+     * @param momentaufnahmeIntervall Die Anzahl der Journaleinträge, nach der
+     *            eine neue Momentaufnahme geschrieben wird.
+     * 
+     * @require journalDatei != null
+     * @require momentaufnahmeDatei != null
+     * @require momentaufnahmeIntervall > 0
+     */
+    public VerleihJournal(File journalDatei, File momentaufnahmeDatei,
+            int momentaufnahmeIntervall)
+    {
+        this(journalDatei, momentaufnahmeDatei, momentaufnahmeIntervall,
+                ProtokollSchreiber.Synchronisation.PRO_GRUPPE);
+    }
+
+    /**
+     * Initialisiert ein neues VerleihJournal. Die Einträge werden bestätigt
+     * an die Journaldatei angehängt.
+     * 
+     * @param journalDatei Die Datei des Journals.
+     * @param momentaufnahmeDatei Die Datei der Momentaufnahme.
+     * @param momentaufnahmeIntervall Die Anzahl der Journaleinträge, nach der
+     *            eine neue Momentaufnahme geschrieben wird.
+     * @param synchronisation Legt fest, ob geschriebene Einträge auf das
+     *            Speichermedium synchronisiert werden.
+     * 
+     * @require journalDatei != null
+     * @require momentaufnahmeDatei != null
+     * @require momentaufnahmeIntervall > 0
+     * @require synchronisation != null
+     */
+    public VerleihJournal(File journalDatei, File momentaufnahmeDatei,
+            int momentaufnahmeIntervall,
+            ProtokollSchreiber.Synchronisation synchronisation)
+    {
+        assert journalDatei != null : "Vorbedingung verletzt: journalDatei != null";
+        assert momentaufnahmeDatei != null : "Vorbedingung verletzt: momentaufnahmeDatei != null";
+        assert momentaufnahmeIntervall > 0 : "Vorbedingung verletzt: momentaufnahmeIntervall > 0";
+        assert synchronisation != null : "Vorbedingung verletzt: synchronisation != null";
+
+        _journalDatei = journalDatei;
+        _momentaufnahmeDatei = momentaufnahmeDatei;
+        _momentaufnahmeIntervall = momentaufnahmeIntervall;
+        _schreiber = new ProtokollSchreiber(journalDatei,
+                ProtokollSchreiber.Modus.BESTAETIGT, synchronisation,
+                ProtokollSchreiber.Format.JOURNAL);
+    }
+
+    /**
+     * Gibt den Schreiber zurück, der an die Journaldatei anhängt.
+     * 
+     * @ensure result != null
+     */
+    public ProtokollSchreiber getSchreiber()
+    {
+        return _schreiber;
+    }
+
+    /**
+     * Schreibt alle ausstehenden Journaleinträge und schließt die
+     * Journaldatei.
+     * 
+     * @throws ProtokollierException wenn ein Eintrag nicht geschrieben werden
+     *             konnte.
+     */
+    public void schliesse() throws ProtokollierException
+    {
+        _schreiber.schliesse();
+    }
+
+    /**
+     * Gibt die Archivdateien des Journals in der Reihenfolge zurück, in der
+     * sie geschrieben wurden. Sie heißen wie die Journaldatei mit einer
+     * angehängten laufenden Nummer.
+     * 
+     * @ensure result != null
+     */
+    public List<File> getArchivDateien()
+    {
+        return new ArrayList<File>(sucheArchivDateien().values());
+    }
+
+    /**
+     * Sucht die Archivdateien neben der Journaldatei, sortiert nach ihrer
+     * laufenden Nummer.
+     */
+    private SortedMap<Long, File> sucheArchivDateien()
+    {
+        SortedMap<Long, File> result = new TreeMap<Long, File>();
+        String praefix = _journalDatei.getName() + ".";
+        File[] dateien = _journalDatei.getAbsoluteFile()
+            .getParentFile()
+            .listFiles();
+        if (dateien != null)
+        {
+            for (File datei : dateien)
+            {
+                String name = datei.getName();
+                if (name.startsWith(praefix)
+                        && name.length() > praefix.length()
+                        && name.length() - praefix.length() <= 18)
+                {
+                    String nummer = name.substring(praefix.length());
+                    if (istZiffernfolge(nummer))
+                    {
+                        result.put(Long.parseLong(nummer), datei);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean istZiffernfolge(String text)
+    {
+        for (int i = 0; i < text.length(); i++)
+        {
+            char zeichen = text.charAt(i);
+            if (zeichen < '0' || zeichen > '9')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gibt die Datei zurück, in die das Journal beim nächsten Kürzen
+     * umbenannt wird.
+     */
+    private File naechsteArchivDatei()
+    {
+        SortedMap<Long, File> archive = sucheArchivDateien();
+        long nummer = archive.isEmpty() ? 1 : archive.lastKey() + 1;
+        return new File(_journalDatei.getPath() + "." + nummer);
+    }
+
+    /**
+     * Gibt die Anzahl der Journaleinträge zurück, nach der eine neue
+     * Momentaufnahme geschrieben wird.
+     * 
+     * @ensure result > 0
+     */
+    public int getMomentaufnahmeIntervall()
+    {
+        return _momentaufnahmeIntervall;
+    }
+
+    /**
+     * Prüft, ob bereits eine Momentaufnahme geschrieben wurde.
+     */
+    public boolean hatMomentaufnahme()
+    {
+        return _momentaufnahmeDatei.exists();
+    }
+
+    /**
+     * Liest die Einträge der Momentaufnahme.
+     * 
+     * @return Die Einträge, eine leere Liste, wenn es keine Momentaufnahme
+     *         gibt.
+     * 
+     * @throws DateiLeseException wenn die Momentaufnahme nicht gelesen werden
+     *             kann.
+     * 
+     * @ensure result != null
+     */
+    public List<JournalEintrag> leseMomentaufnahme() throws DateiLeseException
+    {
+        return lese(_momentaufnahmeDatei);
+    }
+
+    /**
+     * Liest die Einträge des Journals seit der letzten Momentaufnahme.
+     * 
+     * @return Die Einträge, eine leere Liste, wenn es kein Journal gibt.
+     * 
+     * @throws DateiLeseException wenn das Journal nicht gelesen werden kann.
+     * 
+     * @ensure result != null
+     */
+    public List<JournalEintrag> leseJournal() throws DateiLeseException
+    {
+        return lese(_journalDatei);
+    }
+
+    private List<JournalEintrag> lese(File datei) throws DateiLeseException
+    {
+        List<JournalEintrag> result = new ArrayList<JournalEintrag>();
+        if (datei.exists())
+        {
+            VerleihJournalLeser leser = new VerleihJournalLeser(datei);
+            try
+            {
+                JournalEintrag eintrag;
+                while ((eintrag = leser.naechsterEintrag()) != null)
+                {
+                    result.add(eintrag);
+                }
+            }
+            finally
+            {
+                try
+                {
+                    leser.close();
+                }
+                catch (IOException e)
+                {
+                    // Diese Exception wird geschluckt.
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Schreibt eine neue Momentaufnahme und kürzt anschließend das Journal,
+     * indem es als nächste Archivdatei umbenannt wird. Die Momentaufnahme
+     * muss den Zustand nach allen bisher geschriebenen Journaleinträgen
+     * beschreiben.
+     * 
+     * @param zustand Die Einträge, die den aktuellen Zustand beschreiben.
+     * 
+     * @throws ProtokollierException wenn die Momentaufnahme nicht geschrieben
+     *             oder das Journal nicht gekürzt werden kann.
+     * 
+     * @require zustand != null
+     */
+    public void schreibeMomentaufnahme(List<JournalEintrag> zustand)
+            throws ProtokollierException
+    {
+        assert zustand != null : "Vorbedingung verletzt: zustand != null";
+
+        _schreiber.leereWarteschlange();
+
+        ByteBuffer puffer = ByteBuffer
+            .allocate(zustand.size() * JournalEintrag.SATZLAENGE);
+        for (JournalEintrag eintrag : zustand)
+        {
+            puffer.put(eintrag.kodiere());
+        }
+        puffer.flip();
+
+        File temporaer = new File(_momentaufnahmeDatei.getPath() + ".tmp");
+        try
+        {
+            FileChannel kanal = new FileOutputStream(temporaer).getChannel();
+            try
+            {
+                while (puffer.hasRemaining())
+                {
+                    kanal.write(puffer);
+                }
+                kanal.force(true);
+            }
+            finally
+            {
+                kanal.close();
+            }
+            Files.move(temporaer.toPath(), _momentaufnahmeDatei.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            throw new ProtokollierException(
+                    "Die Momentaufnahme des Verleihzustands konnte nicht geschrieben werden.");
+        }
+
+        // Stürzt die Anwendung vor dem Kürzen ab, werden die Einträge beim
+        // Start erneut nachgespielt. Das Nachspielen ist daher idempotent.
+        _schreiber.archiviereDatei(naechsteArchivDatei());
+    }
+}
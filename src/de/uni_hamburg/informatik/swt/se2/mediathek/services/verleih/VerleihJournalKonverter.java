@@ -0,0 +1,147 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.io.IOException;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Vormerkkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiLeseException;
+
+/**
+ * Ein VerleihJournalKonverter wandelt die Einträge eines binären
+ * Verleihjournals in die Textform des Verleihprotokolls um. Kunden und Medien
+ * werden dabei über Kundenstamm und Medienbestand aufgelöst.
+ * 
+ * Anders als im textuellen Protokoll steht am Anfang eines Eintrags das Datum
+ * der Verleih- bzw. Vormerkkarte, nicht der genaue Zeitpunkt der Protokollierung.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class VerleihJournalKonverter
+{
+    private final KundenstammService _kundenstamm;
+    private final MedienbestandService _medienbestand;
+
+    /**
+     * Initialisiert einen neuen VerleihJournalKonverter.
+     * 
+     * @param kundenstamm Der Kundenstamm zum Auflösen der Kundennummern.
+     * @param medienbestand Der Medienbestand zum Auflösen der Mediennummern.
+     * 
+     * @require kundenstamm != null
+     * @require medienbestand != null
+     */
+    public VerleihJournalKonverter(KundenstammService kundenstamm,
+            MedienbestandService medienbestand)
+    {
+        assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
+        assert medienbestand != null : "Vorbedingung verletzt: medienbestand != null";
+
+        _kundenstamm = kundenstamm;
+        _medienbestand = medienbestand;
+    }
+
+    /**
+     * Gibt einen Journaleintrag in der Textform des Verleihprotokolls zurück.
+     * Ist der Kunde oder das Medium unbekannt, werden stattdessen Kundennummer
+     * bzw. Mediennummer ausgegeben.
+     * 
+     * @param eintrag Der Journaleintrag.
+     * 
+     * @require eintrag != null
+     * 
+     * @ensure result != null
+     */
+    public String konvertiere(JournalEintrag eintrag)
+    {
+        assert eintrag != null : "Vorbedingung verletzt: eintrag != null";
+
+        StringBuilder builder = new StringBuilder(256);
+        try
+        {
+            schreibe(eintrag, builder);
+        }
+        catch (IOException e)
+        {
+            // Ein StringBuilder wirft keine IOException
+            throw new AssertionError(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Liest alle Einträge eines Journals und hängt ihre Textform an ein Ziel
+     * an.
+     * 
+     * @param leser Der Leser des Journals.
+     * @param ziel Das Ziel der Textform.
+     * @return Die Anzahl der konvertierten Einträge.
+     * 
+     * @throws DateiLeseException wenn das Journal nicht gelesen werden kann.
+     * @throws IOException wenn nicht in das Ziel geschrieben werden kann.
+     * 
+     * @require leser != null
+     * @require ziel != null
+     */
+    public int konvertiere(VerleihJournalLeser leser, Appendable ziel)
+            throws IOException
+    {
+        assert leser != null : "Vorbedingung verletzt: leser != null";
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        int anzahl = 0;
+        JournalEintrag eintrag;
+        while ((eintrag = leser.naechsterEintrag()) != null)
+        {
+            schreibe(eintrag, ziel);
+            anzahl++;
+        }
+        return anzahl;
+    }
+
+    /**
+     * Schreibt die Textform eines Journaleintrags direkt in ein Ziel.
+     */
+    private void schreibe(JournalEintrag eintrag, Appendable ziel)
+            throws IOException
+    {
+        Datum datum = eintrag.getDatum();
+        Kunde kunde = _kundenstamm.getKunden(eintrag.getKundennummer());
+        Medium medium = getMedium(eintrag.getMediennummer());
+
+        ziel.append(datum.toString())
+            .append(": ")
+            .append(eintrag.getEreignis()
+                .getText())
+            .append('\n');
+        if (kunde == null || medium == null)
+        {
+            ziel.append("Kundennummer: ")
+                .append(eintrag.getKundennummer()
+                    .toString())
+                .append('\n')
+                .append("Mediennummer: ")
+                .append(String.valueOf(eintrag.getMediennummer()))
+                .append('\n');
+        }
+        else if (eintrag.getEreignis() == VerleihEreignis.AUSLEIHE
+                || eintrag.getEreignis() == VerleihEreignis.RUECKGABE)
+        {
+            new Verleihkarte(kunde, medium, datum).schreibeFormatiert(ziel);
+        }
+        else
+        {
+            new Vormerkkarte(kunde, medium, datum).schreibeFormatiert(ziel);
+        }
+    }
+
+    private Medium getMedium(int mediennummer)
+    {
+        return _medienbestand.getMedium(mediennummer);
+    }
+}
@@ -0,0 +1,136 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiLeseException;
+
+/**
+ * Ein VerleihJournalLeser liest die Einträge eines binären Verleihjournals
+ * nacheinander ein. Ein unvollständiger Satz am Ende des Journals, wie er nach
+ * einem Absturz beim Schreiben entstehen kann, wird ignoriert.
+ * 
+ * Typische Verwendung:
+ * 
+ * <pre>
+ * JournalEintrag eintrag;
+ * while ((eintrag = leser.naechsterEintrag()) != null)
+ * {
+ *     ...
+ * }
+ * leser.close();
+ * </pre>
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class VerleihJournalLeser implements Closeable
+{
+    private static final int PUFFERGROESSE = 64 * 1024;
+
+    private final DataInputStream _eingabe;
+    private final byte[] _nutzlast;
+    private final ByteBuffer _puffer;
+
+    /**
+     * Initialisiert einen neuen VerleihJournalLeser für eine Journaldatei.
+     * 
+     * @param datei Die Journaldatei.
+     * 
+     * @throws DateiLeseException wenn die Datei nicht geöffnet werden kann.
+     * 
+     * @require datei != null
+     */
+    public VerleihJournalLeser(File datei) throws DateiLeseException
+    {
+        this(oeffne(datei));
+    }
+
+    /**
+     * Initialisiert einen neuen VerleihJournalLeser, der aus einem Stream
+     * liest.
+     * 
+     * @param eingabe Der Stream mit den Journaleinträgen.
+     * 
+     * @require eingabe != null
+     */
+    public VerleihJournalLeser(InputStream eingabe)
+    {
+        assert eingabe != null : "Vorbedingung verletzt: eingabe != null";
+
+        _eingabe = new DataInputStream(
+                new BufferedInputStream(eingabe, PUFFERGROESSE));
+        _nutzlast = new byte[255];
+        _puffer = ByteBuffer.wrap(_nutzlast);
+    }
+
+    private static InputStream oeffne(File datei) throws DateiLeseException
+    {
+        assert datei != null : "Vorbedingung verletzt: datei != null";
+        try
+        {
+            return new FileInputStream(datei);
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Das Verleihjournal " + datei + " konnte nicht geöffnet werden.");
+        }
+    }
+
+    /**
+     * Liest den nächsten Eintrag des Journals. Sätze mit unbekanntem Ereignis
+     * oder ungültiger Kundennummer werden übersprungen.
+     * 
+     * @return Der nächste Eintrag oder null, wenn das Ende des Journals
+     *         erreicht ist.
+     * 
+     * @throws DateiLeseException wenn beim Lesen ein Fehler auftritt.
+     */
+    public JournalEintrag naechsterEintrag() throws DateiLeseException
+    {
+        try
+        {
+            while (true)
+            {
+                int laenge = _eingabe.read();
+                if (laenge < 0)
+                {
+                    return null;
+                }
+                _eingabe.readFully(_nutzlast, 0, laenge);
+                if (laenge >= JournalEintrag.NUTZLAENGE)
+                {
+                    _puffer.clear();
+                    JournalEintrag eintrag = JournalEintrag.lese(_puffer);
+                    if (eintrag != null)
+                    {
+                        return eintrag;
+                    }
+                }
+            }
+        }
+        catch (EOFException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Beim Lesen des Verleihjournals ist ein Fehler aufgetreten.");
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        _eingabe.close();
+    }
+}
@@ -0,0 +1,137 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber.Format;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber.Modus;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollSchreiber.Synchronisation;
+
+/**
+ * @author SE2-Team
+ */
+public class VerleihJournalLeserTest
+{
+    private final Datum _datum;
+    private final Kunde _kunde;
+    private final Medium _medium;
+    private final KundenstammService _kundenstamm;
+    private final MedienbestandService _medienbestand;
+
+    public VerleihJournalLeserTest()
+    {
+        _datum = new Datum(9, 4, 2022);
+        _kunde = new Kunde(new Kundennummer(123456), "ich", "du");
+        _medium = new CD("CD2", "baz", "foo", 123);
+        _kundenstamm = new KundenstammServiceImpl(new ArrayList<Kunde>());
+        _kundenstamm.fuegeKundenEin(_kunde);
+        _medienbestand = new MedienbestandServiceImpl(new ArrayList<Medium>());
+        _medienbestand.fuegeMediumEin(new CD("CD1", "baz", "foo", 123));
+        _medienbestand.fuegeMediumEin(_medium);
+    }
+
+    @Test
+    public void testeKodierenUndLesen() throws IOException
+    {
+        JournalEintrag ausleihe = new JournalEintrag(VerleihEreignis.AUSLEIHE,
+                _datum, new Kundennummer(123456), 1);
+        JournalEintrag vormerkung = new JournalEintrag(
+                VerleihEreignis.VORMERKUNG_ENTFERNT, new Datum(31, 12, 1969),
+                new Kundennummer(999999), 0);
+        assertEquals(JournalEintrag.SATZLAENGE, ausleihe.kodiere().length);
+
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        journal.write(ausleihe.kodiere());
+        journal.write(vormerkung.kodiere());
+
+        VerleihJournalLeser leser = new VerleihJournalLeser(
+                new ByteArrayInputStream(journal.toByteArray()));
+        JournalEintrag gelesen = leser.naechsterEintrag();
+        assertEquals(ausleihe, gelesen);
+        assertEquals(_datum, gelesen.getDatum());
+        assertEquals(new Kundennummer(123456), gelesen.getKundennummer());
+        assertEquals(vormerkung, leser.naechsterEintrag());
+        assertNull(leser.naechsterEintrag());
+        leser.close();
+    }
+
+    @Test
+    public void testeUnvollstaendigerSatzAmEndeWirdIgnoriert()
+            throws IOException
+    {
+        byte[] satz = new JournalEintrag(VerleihEreignis.RUECKGABE, _datum,
+                new Kundennummer(123456), 1).kodiere();
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        journal.write(satz);
+        journal.write(satz, 0, 5);
+
+        VerleihJournalLeser leser = new VerleihJournalLeser(
+                new ByteArrayInputStream(journal.toByteArray()));
+        assertEquals(VerleihEreignis.RUECKGABE, leser.naechsterEintrag()
+            .getEreignis());
+        assertNull(leser.naechsterEintrag());
+        leser.close();
+    }
+
+    @Test
+    public void testeServiceSchreibtJournalUndKonverterErzeugtText()
+            throws Exception
+    {
+        File datei = File.createTempFile("verleihJournal", ".bin");
+        datei.deleteOnExit();
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(datei,
+                Modus.BESTAETIGT, Synchronisation.KEINE, Format.JOURNAL);
+        VerleihService service = new VerleihServiceImpl(_kundenstamm,
+                _medienbestand, new ArrayList<Verleihkarte>(), schreiber);
+        List<Medium> medien = Collections.singletonList(_medium);
+        service.verleiheAn(_kunde, medien, _datum);
+        service.nimmZurueck(medien, _datum);
+
+        schreiber.schliesse();
+        assertEquals(2 * JournalEintrag.SATZLAENGE, datei.length());
+
+        VerleihJournalLeser leser = new VerleihJournalLeser(datei);
+        JournalEintrag ausleihe = leser.naechsterEintrag();
+        assertEquals(new JournalEintrag(VerleihEreignis.AUSLEIHE, _datum,
+                _kunde.getKundennummer(), 1), ausleihe);
+        assertEquals(VerleihEreignis.RUECKGABE, leser.naechsterEintrag()
+            .getEreignis());
+        assertNull(leser.naechsterEintrag());
+        leser.close();
+
+        VerleihJournalKonverter konverter = new VerleihJournalKonverter(
+                _kundenstamm, _medienbestand);
+        String text = konverter.konvertiere(ausleihe);
+        assertEquals(_datum + ": Ausleihe\n"
+                + new Verleihkarte(_kunde, _medium, _datum)
+                    .getFormatiertenString(),
+                text);
+
+        StringBuilder alles = new StringBuilder();
+        assertEquals(2, konverter.konvertiere(new VerleihJournalLeser(datei),
+                alles));
+        assertTrue(alles.toString()
+            .contains(": Rückgabe\n"));
+    }
+}
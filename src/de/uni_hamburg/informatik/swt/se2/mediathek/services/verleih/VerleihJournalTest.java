@@ -0,0 +1,281 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.ServiceObserver;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandServiceImpl;
+
+/**
+ * @author SE2-Team
+ */
+public class VerleihJournalTest
+{
+    private final Datum _datum;
+    private final Kunde _kunde1;
+    private final Kunde _kunde2;
+    private final List<Medium> _medien;
+    private final KundenstammService _kundenstamm;
+    private final MedienbestandService _medienbestand;
+    private final File _journalDatei;
+    private final File _momentaufnahmeDatei;
+    private VerleihJournal _journal;
+
+    public VerleihJournalTest() throws IOException
+    {
+        _datum = new Datum(9, 4, 2022);
+        _kunde1 = new Kunde(new Kundennummer(123456), "ich", "du");
+        _kunde2 = new Kunde(new Kundennummer(654321), "er", "sie");
+        _kundenstamm = new KundenstammServiceImpl(
+                Arrays.asList(_kunde1, _kunde2));
+        _medienbestand = new MedienbestandServiceImpl(new ArrayList<Medium>());
+        for (int i = 0; i < 4; i++)
+        {
+            _medienbestand.fuegeMediumEin(new CD("CD" + i, "baz", "foo", 123));
+        }
+        _medien = _medienbestand.getMedien();
+        _journalDatei = File.createTempFile("verleihJournal", ".bin");
+        _journalDatei.deleteOnExit();
+        _momentaufnahmeDatei = new File(_journalDatei.getPath() + ".snap");
+        _momentaufnahmeDatei.deleteOnExit();
+    }
+
+    private VerleihServiceImpl erzeugeService(int intervall)
+            throws IOException
+    {
+        _journal = new VerleihJournal(_journalDatei, _momentaufnahmeDatei,
+                intervall);
+        return new VerleihServiceImpl(_kundenstamm, _medienbestand,
+                new ArrayList<Verleihkarte>(), _journal);
+    }
+
+    @After
+    public void schliesseJournal() throws ProtokollierException
+    {
+        if (_journal != null)
+        {
+            _journal.schliesse();
+            for (File archiv : _journal.getArchivDateien())
+            {
+                archiv.delete();
+            }
+        }
+    }
+
+    private void fuehreVorgaengeAus(VerleihService service) throws Exception
+    {
+        service.verleiheAn(_kunde1, _medien.subList(0, 2), _datum);
+        service.merkeVor(_kunde2, _medien.subList(0, 3), _datum);
+        service.merkeVor(_kunde1, _medien.subList(2, 4), _datum.plus(1));
+        service.nimmZurueck(_medien.subList(0, 1), _datum.plus(2));
+        service.verleiheAn(_kunde2, _medien.subList(0, 1), _datum.plus(3));
+        service.loescheVormerkkarte(_medien.get(3), _datum.plus(3), _kunde1);
+    }
+
+    private void pruefeGleicherZustand(VerleihService erwartet,
+            VerleihService tatsaechlich)
+    {
+        assertEquals(new HashSet<Verleihkarte>(erwartet.getVerleihkarten()),
+                new HashSet<Verleihkarte>(tatsaechlich.getVerleihkarten()));
+        for (Medium medium : _medien)
+        {
+            assertEquals(erwartet.getVormerkkartenFuer(medium),
+                    tatsaechlich.getVormerkkartenFuer(medium));
+        }
+        for (Kunde kunde : Arrays.asList(_kunde1, _kunde2))
+        {
+            assertEquals(
+                    new HashSet<Medium>(erwartet.getVorgemerkteMedienFuer(kunde)),
+                    new HashSet<Medium>(
+                            tatsaechlich.getVorgemerkteMedienFuer(kunde)));
+        }
+    }
+
+    @Test
+    public void testeWiederherstellungNurAusJournal() throws Exception
+    {
+        VerleihServiceImpl service = erzeugeService(1000);
+        fuehreVorgaengeAus(service);
+        schliesseJournal();
+        assertFalse(_momentaufnahmeDatei.exists());
+
+        VerleihServiceImpl wiederhergestellt = erzeugeService(1000);
+        pruefeGleicherZustand(service, wiederhergestellt);
+        assertTrue(wiederhergestellt.istVerliehenAn(_kunde2, _medien.get(0)));
+        assertEquals(_kunde2,
+                wiederhergestellt.getErstvormerkerFuer(_medien.get(2)));
+    }
+
+    @Test
+    public void testeWiederherstellungAusMomentaufnahmeUndJournal()
+            throws Exception
+    {
+        VerleihServiceImpl service = erzeugeService(4);
+        fuehreVorgaengeAus(service);
+        schliesseJournal();
+        assertTrue(_momentaufnahmeDatei.exists());
+        // Das Journal enthält nur die Einträge seit der letzten Momentaufnahme
+        assertTrue(_journalDatei.length() < 4 * JournalEintrag.SATZLAENGE);
+
+        VerleihServiceImpl wiederhergestellt = erzeugeService(4);
+        pruefeGleicherZustand(service, wiederhergestellt);
+    }
+
+    @Test
+    public void testeHistorieVorMomentaufnahmeBleibtErhalten()
+            throws Exception
+    {
+        fuehreVorgaengeAus(erzeugeService(1000));
+        schliesseJournal();
+        byte[] historie = Files.readAllBytes(_journalDatei.toPath());
+        assertTrue(_journalDatei.delete());
+
+        fuehreVorgaengeAus(erzeugeService(4));
+        _journal.schliesse();
+        assertTrue(_journal.getArchivDateien()
+            .size() > 1);
+
+        // Archive und Journal enthalten zusammen alle Einträge
+        ByteArrayOutputStream archiviert = new ByteArrayOutputStream();
+        for (File archiv : _journal.getArchivDateien())
+        {
+            archiviert.write(Files.readAllBytes(archiv.toPath()));
+        }
+        archiviert.write(Files.readAllBytes(_journalDatei.toPath()));
+        assertTrue(Arrays.equals(historie, archiviert.toByteArray()));
+    }
+
+    @Test
+    public void testeNachspielenIstIdempotent() throws Exception
+    {
+        fuehreVorgaengeAus(erzeugeService(1000));
+        schliesseJournal();
+        byte[] eintraege = Files.readAllBytes(_journalDatei.toPath());
+
+        // Beim nächsten Eintrag werden Momentaufnahme geschrieben und Journal
+        // gekürzt
+        VerleihServiceImpl service = erzeugeService(1);
+        service.merkeVor(_kunde2, _medien.subList(3, 4), _datum);
+        assertTrue(_momentaufnahmeDatei.exists());
+        assertEquals(0, _journalDatei.length());
+        schliesseJournal();
+
+        // Absturz vor dem Kürzen: Das Journal enthält noch alle Einträge
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        journal.write(eintraege);
+        journal.write(new JournalEintrag(VerleihEreignis.VORMERKUNG, _datum,
+                _kunde2.getKundennummer(), 3).kodiere());
+        Files.write(_journalDatei.toPath(), journal.toByteArray());
+
+        VerleihServiceImpl wiederhergestellt = erzeugeService(1000);
+        pruefeGleicherZustand(service, wiederhergestellt);
+    }
+
+    @Test
+    public void testeFehlgeschlageneMomentaufnahmeWirdWiederholt()
+            throws Exception
+    {
+        // Ein Verzeichnis an Stelle der temporären Datei verhindert das
+        // Schreiben der Momentaufnahme
+        File temporaer = new File(_momentaufnahmeDatei.getPath() + ".tmp");
+        assertTrue(temporaer.mkdir());
+        final int[] benachrichtigungen = new int[1];
+        VerleihServiceImpl service = erzeugeService(1);
+        service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                benachrichtigungen[0]++;
+            }
+        });
+
+        service.verleiheAn(_kunde1, _medien.subList(0, 1), _datum);
+        assertEquals(1, benachrichtigungen[0]);
+        assertTrue(service.istVerliehenAn(_kunde1, _medien.get(0)));
+        assertFalse(_momentaufnahmeDatei.exists());
+
+        assertTrue(temporaer.delete());
+        service.verleiheAn(_kunde2, _medien.subList(1, 2), _datum);
+        assertEquals(2, benachrichtigungen[0]);
+        assertTrue(_momentaufnahmeDatei.exists());
+        assertEquals(0, _journalDatei.length());
+    }
+
+    @Test
+    public void testeMomentaufnahmeFehlerWirdFestgehaltenUndAufgeschoben()
+            throws Exception
+    {
+        File temporaer = new File(_momentaufnahmeDatei.getPath() + ".tmp");
+        assertTrue(temporaer.mkdir());
+        VerleihServiceImpl service = erzeugeService(1);
+
+        service.verleiheAn(_kunde1, _medien.subList(0, 1), _datum);
+        ProtokollierException ersterFehler = service.getMomentaufnahmeFehler();
+        assertNotNull(ersterFehler);
+
+        // Der zweite Versuch folgt ein Intervall später und schlägt erneut fehl
+        service.verleiheAn(_kunde1, _medien.subList(1, 2), _datum);
+        ProtokollierException zweiterFehler = service
+            .getMomentaufnahmeFehler();
+        assertNotNull(zweiterFehler);
+        assertNotSame(ersterFehler, zweiterFehler);
+
+        // Danach wird zwei Intervalle lang kein Versuch unternommen
+        assertTrue(temporaer.delete());
+        service.verleiheAn(_kunde1, _medien.subList(2, 3), _datum);
+        assertSame(zweiterFehler, service.getMomentaufnahmeFehler());
+        assertFalse(_momentaufnahmeDatei.exists());
+
+        service.verleiheAn(_kunde2, _medien.subList(3, 4), _datum);
+        assertNull(service.getMomentaufnahmeFehler());
+        assertTrue(_momentaufnahmeDatei.exists());
+        assertEquals(0, _journalDatei.length());
+    }
+
+    @Test
+    public void testeNachspielenNachEntfernenEinesMediums() throws Exception
+    {
+        VerleihServiceImpl service = erzeugeService(1000);
+        service.verleiheAn(_kunde1, _medien.subList(0, 1), _datum);
+        service.verleiheAn(_kunde2, _medien.subList(3, 4), _datum);
+        service.nimmZurueck(_medien.subList(0, 1), _datum);
+        schliesseJournal();
+        _medienbestand.entferneMedium(_medien.get(0));
+
+        VerleihServiceImpl wiederhergestellt = erzeugeService(1000);
+        assertTrue(wiederhergestellt.istVerliehenAn(_kunde2, _medien.get(3)));
+        assertEquals(1, wiederhergestellt.getVerleihkarten()
+            .size());
+        // Die Einträge zum entfernten Medium wurden verworfen und das Journal
+        // gekürzt
+        assertTrue(_momentaufnahmeDatei.exists());
+        assertEquals(0, _journalDatei.length());
+    }
+}
@@ -1,15 +1,29 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
 
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.File;
 import java.util.Calendar;
+import java.util.List;
 
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Vormerkkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 
 /**
  * TODO müssen Vormerkungen protokolliert werden?
- * Ein Verleihprotokollierer schreibt alle Verleihvorgänge in eine Datei.
+ * Ein Verleihprotokollierer schreibt alle Verleihvorgänge in eine Datei. Das
+ * Schreiben selbst übernimmt ein ProtokollSchreiber.
+ * 
+ * Hat der Schreiber das Format JOURNAL, wird für jedes Ereignis ein
+ * JournalEintrag geschrieben. Das Medium wird darin über seine Mediennummer
+ * identifiziert, die sich nicht ändert, wenn andere Medien entfernt oder
+ * eingefügt werden.
+ * 
+ * Für Vorgänge mit mehreren Karten werden die Einträge zunächst mit
+ * erzeugeEintrag erzeugt und dann mit protokolliere(List) gemeinsam
+ * geschrieben. Schlägt das Schreiben fehl, wurde keiner der Einträge
+ * bestätigt, und der Vorgang kann als Ganzes verworfen werden.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -39,6 +53,52 @@ class VerleihProtokollierer
      */
     public static final String EREIGNIS_VORMERKUNGENTFERNT = "Vormerkung entfernt";
 
+    /**
+     * Der gemeinsame Schreiber für DATEIPFAD, ist null, solange er nicht
+     * benötigt wurde.
+     */
+    private static ProtokollSchreiber _standardSchreiber;
+
+    /**
+     * Der Schreiber, an den die Einträge übergeben werden.
+     */
+    private final ProtokollSchreiber _schreiber;
+
+    /**
+     * Initialisiert einen neuen VerleihProtokollierer, der über den
+     * angegebenen Schreiber protokolliert.
+     * 
+     * @param schreiber Der ProtokollSchreiber.
+     * 
+     * @require schreiber != null
+     */
+    public VerleihProtokollierer(ProtokollSchreiber schreiber)
+    {
+        assert schreiber != null : "Vorbedingung verletzt: schreiber != null";
+        _schreiber = schreiber;
+    }
+
+    /**
+     * Liefert den gemeinsamen Schreiber für die Datei DATEIPFAD. Er schreibt
+     * asynchron und ohne Synchronisation auf das Speichermedium. Beim Beenden
+     * der Anwendung werden noch ausstehende Einträge geschrieben und die Datei
+     * geschlossen.
+     * 
+     * @ensure result != null
+     */
+    public static synchronized ProtokollSchreiber getStandardSchreiber()
+    {
+        if (_standardSchreiber == null)
+        {
+            ProtokollSchreiber schreiber = new ProtokollSchreiber(
+                    new File(DATEIPFAD), ProtokollSchreiber.Modus.ASYNCHRON,
+                    ProtokollSchreiber.Synchronisation.KEINE);
+            schreiber.schliesseBeimBeenden();
+            _standardSchreiber = schreiber;
+        }
+        return _standardSchreiber;
+    }
+
     /**
      * Schreibt eine übergebene Verleihkarte ins Protokoll.
      * 
@@ -60,22 +120,9 @@ class VerleihProtokollierer
                 ereignis) : "Precondition failed: EREIGNIS_AUSLEIHE.equals(ereignis) || EREIGNIS_RUECKGABE.equals(ereignis)";
         assert verleihkarte != null : "Precondition failed: verleihkarte != null";
 
-        String eintrag = Calendar.getInstance()
-            .getTime()
-            .toString() + ": " + ereignis + "\n"
-                + verleihkarte.getFormatiertenString();
-
-        try (FileWriter writer = new FileWriter(DATEIPFAD, true))
-        {
-            writer.write(eintrag);
-        }
-        catch (IOException e)
-        {
-            throw new ProtokollierException(
-                    "Beim Schreiben des Verleihprotokolls ist ein Fehler aufgetreten.");
-        }
+        protokolliere(VerleihEreignis.ausText(ereignis), verleihkarte);
     }
-    
+
     /**
      * Schreibt eine übergebene Vormerkkarte ins Protokoll.
      * 
@@ -97,50 +144,139 @@ class VerleihProtokollierer
                 ereignis) : "Vorbedingung verletzt : EREIGNIS_VORMERKUNG.equals(ereignis) || EREIGNIS_VORMERKUNGENTFERNT.equals(ereignis)";
         assert vormerkkarte != null : "Vorbedingung verletzt : vormerkkarte != null";
 
-        String eintrag = Calendar.getInstance()
-            .getTime()
-            .toString() + ": " + ereignis + "\n"
-                + vormerkkarte.getFormatiertenString();
-
-        try (FileWriter writer = new FileWriter(DATEIPFAD, true))
-        {
-            writer.write(eintrag);
-        }
-        catch (IOException e)
-        {
-            throw new ProtokollierException(
-                    "Beim Schreiben des Verleihprotokolls ist ein Fehler aufgetreten.");
-        }
+        _schreiber.schreibe(erzeugeEintrag(VerleihEreignis.ausText(ereignis),
+                vormerkkarte));
     }
 
-    /************************************************
-     * Alternative entsprechend Zusatzaufgabe 5.1.7 *
-     ************************************************/
-
-    public enum VerleihEreignis
+    /**
+     * Schreibt eine übergebene Verleihkarte ins Protokoll.
+     * 
+     * @param ereignis Das Verleihereignis
+     * @param verleihkarte eine Verleihkarte, die das Verleihereignis betrifft.
+     * 
+     * @require ereignis == VerleihEreignis.AUSLEIHE || ereignis ==
+     *          VerleihEreignis.RUECKGABE
+     * @require verleihkarte != null
+     * 
+     * @throws ProtokollierException wenn das Protokollieren nicht geklappt hat.
+     */
+    public void protokolliere(VerleihEreignis ereignis,
+            Verleihkarte verleihkarte) throws ProtokollierException
     {
-        AUSLEIHE, RUECKGABE;
+        assert ereignis == VerleihEreignis.AUSLEIHE
+                || ereignis == VerleihEreignis.RUECKGABE : "Vorbedingung verletzt: ereignis == VerleihEreignis.AUSLEIHE || ereignis == VerleihEreignis.RUECKGABE";
+        assert verleihkarte != null : "Vorbedingung verletzt: verleihkarte != null";
+
+        _schreiber.schreibe(erzeugeEintrag(ereignis, verleihkarte));
     }
 
     /**
+     * Schreibt mehrere mit erzeugeEintrag erzeugte Einträge gemeinsam ins
+     * Protokoll.
      * 
+     * @param eintraege Die Einträge in der Reihenfolge der Ereignisse.
      * 
-     * Schreibt eine übergebene Verleihkarte ins Protokoll.
+     * @require eintraege != null
+     * 
+     * @throws ProtokollierException wenn das Protokollieren nicht geklappt hat.
+     */
+    public void protokolliere(List<byte[]> eintraege)
+            throws ProtokollierException
+    {
+        assert eintraege != null : "Vorbedingung verletzt: eintraege != null";
+
+        _schreiber.schreibe(eintraege);
+    }
+
+    /**
+     * Erzeugt den Protokolleintrag für eine Verleihkarte, ohne ihn zu
+     * schreiben.
      * 
      * @param ereignis Das Verleihereignis
      * @param verleihkarte eine Verleihkarte, die das Verleihereignis betrifft.
+     * @return Der Eintrag im Format des Schreibers.
      * 
-     * @require ereignis != null
+     * @require ereignis == VerleihEreignis.AUSLEIHE || ereignis ==
+     *          VerleihEreignis.RUECKGABE
      * @require verleihkarte != null
      * 
-     * @throws ProtokollierException wenn das Protokollieren nicht geklappt hat.
+     * @ensure result != null
      */
-    public void protokolliere(VerleihEreignis ereignis,
-            Verleihkarte verleihkarte) throws ProtokollierException
+    public byte[] erzeugeEintrag(VerleihEreignis ereignis,
+            Verleihkarte verleihkarte)
     {
-        assert ereignis != null : "Precondition failed: ereignis != null";
-        assert verleihkarte != null : "Precondition failed: verleihkarte != null";
+        assert ereignis == VerleihEreignis.AUSLEIHE
+                || ereignis == VerleihEreignis.RUECKGABE : "Vorbedingung verletzt: ereignis == VerleihEreignis.AUSLEIHE || ereignis == VerleihEreignis.RUECKGABE";
+        assert verleihkarte != null : "Vorbedingung verletzt: verleihkarte != null";
+
+        if (istJournal())
+        {
+            return kodiereJournalEintrag(ereignis, verleihkarte.getEntleiher(),
+                    verleihkarte.getMedium(), verleihkarte.getAusleihdatum());
+        }
+        return kodiereTextEintrag(ereignis,
+                verleihkarte.getFormatiertenString());
+    }
 
-        protokolliere(ereignis.name(), verleihkarte);
+    /**
+     * Erzeugt den Protokolleintrag für eine Vormerkkarte, ohne ihn zu
+     * schreiben.
+     * 
+     * @param ereignis Das Vormerkereignis
+     * @param vormerkkarte eine Vormerkkarte, die das Vormerkereignis betrifft.
+     * @return Der Eintrag im Format des Schreibers.
+     * 
+     * @require ereignis == VerleihEreignis.VORMERKUNG || ereignis ==
+     *          VerleihEreignis.VORMERKUNG_ENTFERNT
+     * @require vormerkkarte != null
+     * 
+     * @ensure result != null
+     */
+    public byte[] erzeugeEintrag(VerleihEreignis ereignis,
+            Vormerkkarte vormerkkarte)
+    {
+        assert ereignis == VerleihEreignis.VORMERKUNG
+                || ereignis == VerleihEreignis.VORMERKUNG_ENTFERNT : "Vorbedingung verletzt: ereignis == VerleihEreignis.VORMERKUNG || ereignis == VerleihEreignis.VORMERKUNG_ENTFERNT";
+        assert vormerkkarte != null : "Vorbedingung verletzt: vormerkkarte != null";
+
+        if (istJournal())
+        {
+            return kodiereJournalEintrag(ereignis, vormerkkarte.getVormerker(),
+                    vormerkkarte.getMedium(), vormerkkarte.getVormerkdatum());
+        }
+        return kodiereTextEintrag(ereignis,
+                vormerkkarte.getFormatiertenString());
+    }
+
+    /**
+     * Prüft, ob der Schreiber das Format JOURNAL hat. Dann wird der
+     * formatierte Text der Karte nicht benötigt.
+     */
+    private boolean istJournal()
+    {
+        return _schreiber.getFormat() == ProtokollSchreiber.Format.JOURNAL;
+    }
+
+    /**
+     * Kodiert einen Eintrag im Format JOURNAL.
+     */
+    private byte[] kodiereJournalEintrag(VerleihEreignis ereignis, Kunde kunde,
+            Medium medium, Datum datum)
+    {
+        assert medium.getMediennummer() >= 0 : "Vorbedingung verletzt: medium.getMediennummer() >= 0";
+        return new JournalEintrag(ereignis, datum, kunde.getKundennummer(),
+                medium.getMediennummer()).kodiere();
+    }
+
+    /**
+     * Kodiert einen Eintrag im Textformat.
+     */
+    private byte[] kodiereTextEintrag(VerleihEreignis ereignis,
+            String formatierteKarte)
+    {
+        return (Calendar.getInstance()
+            .getTime()
+            .toString() + ": " + ereignis.getText() + "\n"
+                + formatierteKarte).getBytes();
     }
 }
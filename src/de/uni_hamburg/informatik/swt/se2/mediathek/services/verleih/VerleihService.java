@@ -45,6 +45,28 @@ public interface VerleihService extends ObservableService
     void verleiheAn(Kunde kunde, List<Medium> medien, Datum ausleihDatum)
             throws ProtokollierException;
 
+    /**
+     * Verleiht Medien an einen Kunden, falls istVerleihenMoeglich(kunde,
+     * medien) gilt. Prüfung und Verleih geschehen atomar, sodass kein anderer
+     * Vorgang die Medien dazwischen verleihen oder vormerken kann.
+     * 
+     * @param kunde Ein Kunde, an den die Medien verliehen werden sollen
+     * @param medien Die Medien, die verliehen werden sollen
+     * @param ausleihDatum Der erste Ausleihtag
+     * @return true, wenn die Medien verliehen wurden, sonst false
+     * 
+     * @throws ProtokollierException Wenn beim Protokollieren des
+     *             Verleihvorgangs ein Fehler auftritt.
+     * 
+     * @require kundeImBestand(kunde)
+     * @require medienImBestand(medien)
+     * @require ausleihDatum != null
+     * 
+     * @ensure !result || sindAlleVerliehenAn(kunde, medien)
+     */
+    boolean verleiheAnFallsMoeglich(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum) throws ProtokollierException;
+
     /**
      * Prüft ob die ausgewählten Medium für den Kunde ausleihbar sind
      * 
@@ -88,7 +110,8 @@ public interface VerleihService extends ObservableService
     List<Medium> getAusgelieheneMedienFuer(Kunde kunde);
 
     /**
-     * @return Eine Listenkopie aller Verleihkarten. Für jedes ausgeliehene
+     * @return Eine unveränderliche Liste aller Verleihkarten, auf die sich
+     *         spätere Verleihvorgänge nicht auswirken. Für jedes ausgeliehene
      *         Medium existiert eine Verleihkarte. Ist kein Medium verliehen,
      *         wird eine leere Liste zurückgegeben.
      * 
@@ -229,6 +252,35 @@ public interface VerleihService extends ObservableService
      * @ensure (result != null)
      */
     Verleihkarte getVerleihkarteFuer(Medium medium);
+
+    /**
+     * Berechnet die Mietgebühren aller offenen Ausleihen bis zu einem
+     * Stichtag, insgesamt, je Kunde und je Medienart. Medien, die erst nach
+     * dem Stichtag ausgeliehen wurden, zählen nicht mit.
+     * 
+     * Werden die Gebühren mitgeführt (siehe setGebuehrenMitfuehren), wird
+     * für denselben Stichtag nur beim ersten Aufruf über alle Verleihkarten
+     * gerechnet.
+     * 
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @return Der Gebührenbericht zum Stichtag.
+     * 
+     * @require stichtag != null
+     * 
+     * @ensure result != null
+     * @ensure result.getStichtag().equals(stichtag)
+     */
+    Gebuehrenbericht getGebuehrenbericht(Datum stichtag);
+
+    /**
+     * Legt fest, ob die Summen des zuletzt angeforderten Gebührenberichts bei
+     * jeder Ausleihe und Rückgabe fortgeschrieben werden. Ein erneuter
+     * Bericht zum selben Stichtag muss dann nicht mehr alle Verleihkarten
+     * durchlaufen. Standardmäßig werden die Gebühren nicht mitgeführt.
+     * 
+     * @param mitfuehren true, wenn die Gebühren mitgeführt werden sollen.
+     */
+    void setGebuehrenMitfuehren(boolean mitfuehren);
     
     //-------------------------------------------------------------------------------
     
@@ -252,6 +304,25 @@ public interface VerleihService extends ObservableService
      */
     void merkeVor(Kunde kunde, List<Medium> medien, Datum vormerkDatum)
             throws ProtokollierException;
+
+    /**
+     * Merkt Medien für einen Kunden vor, falls istVormerkenMoeglich(kunde,
+     * medien) gilt. Prüfung und Vormerkung geschehen atomar.
+     * 
+     * @param kunde Ein Kunde, für den die Medien vorgemerkt werden sollen
+     * @param medien Die Medien, die vorgemerkt werden sollen
+     * @param vormerkDatum Der erste Vormerktag
+     * @return true, wenn die Medien vorgemerkt wurden, sonst false
+     * 
+     * @throws ProtokollierException Wenn beim Protokollieren des
+     *             Vormerkvorgangs ein Fehler auftritt.
+     * 
+     * @require kundeImBestand(kunde)
+     * @require medienImBestand(medien)
+     * @require vormerkDatum != null
+     */
+    boolean merkeVorFallsMoeglich(Kunde kunde, List<Medium> medien,
+            Datum vormerkDatum) throws ProtokollierException;
     
     /**
      * Prüft ob die ausgewählten Medium für den Kunde vormerkbar sind
@@ -269,12 +340,13 @@ public interface VerleihService extends ObservableService
     boolean istVormerkenMoeglich(Kunde kunde, List<Medium> medien);
     
     /**
-     * Gibt die Vormerkkarten für das angegebene Medium zurück, oder null wenn
-     * das Medium nicht vorgemerkt ist.
+     * Gibt die Vormerkkarten für das angegebene Medium in der Reihenfolge
+     * der Vormerkungen zurück.
      * 
      * @param medium Ein Medium.
-     * @return Eine Liste von Vormerkkarten des angegebenen Mediums.Wenn keine 
-     *  Vormerkungen bestehen, wird eine leere Liste ausgegeben.
+     * @return Eine unveränderliche Liste von Vormerkkarten des angegebenen
+     *  Mediums. Wenn keine Vormerkungen bestehen, wird eine leere Liste
+     *  ausgegeben.
      * 
      * @ensure (result != null)
      */
@@ -286,11 +358,68 @@ public interface VerleihService extends ObservableService
      * 
      * @param medium Das Medium.
      * 
-     * @return Liste der Kunden, welche das Medium vorgemerkt haben. Wenn keine 
-     *  Vormerkungen bestehen, wird eine leere Liste ausgegeben.
+     * @return Liste der Kunden, welche das Medium vorgemerkt haben, beginnend
+     *  mit dem Erstvormerker. Wenn keine Vormerkungen bestehen, wird eine
+     *  leere Liste ausgegeben.
      * @ensure result != null
      */
     List<Kunde> getVormerkerFuer(Medium medium);
+
+    /**
+     * Liefert einen Ausschnitt der Kunden, die das angegebene Medium
+     * vorgemerkt haben, etwa eine Seite einer Anzeige langer
+     * Vormerkschlangen.
+     * 
+     * @param medium Das Medium.
+     * @param von Die Position des ersten Vormerkers, 0 für den
+     *            Erstvormerker.
+     * @param anzahl Die maximale Anzahl an Vormerkern.
+     * 
+     * @return Die Vormerker an den Positionen von bis von + anzahl - 1 in
+     *         der Reihenfolge der Vormerkschlange, soweit vorhanden.
+     * 
+     * @require mediumImBestand(medium)
+     * @require von >= 0
+     * @require anzahl >= 0
+     * 
+     * @ensure result != null
+     * @ensure result.size() <= anzahl
+     */
+    List<Kunde> getVormerkerFuer(Medium medium, int von, int anzahl);
+
+    /**
+     * Liefert die Anzahl der Vormerkungen für das angegebene Medium.
+     * 
+     * @param medium Das Medium.
+     * 
+     * @require mediumImBestand(medium)
+     * 
+     * @ensure result >= 0
+     */
+    int getAnzahlVormerkungenFuer(Medium medium);
+
+    /**
+     * Liefert die Regeln, nach denen vorgemerkt wird.
+     * 
+     * @ensure result != null
+     */
+    Vormerkregeln getVormerkregeln();
+
+    /**
+     * Legt die Regeln fest, nach denen vorgemerkt wird. Die Kapazitäten
+     * gelten für alle folgenden Vormerkungen, bestehende Vormerkungen bleiben
+     * erhalten. Die Vormerkschlangen werden nach den Prioritäten der Regeln
+     * neu geordnet, bei gleicher Priorität bleibt die bisherige Reihenfolge
+     * erhalten. Die Priorität eines Vormerkers wird bei jeder neuen Vormerkung
+     * aus den Regeln gelesen, spätere Änderungen daran gelten also sofort.
+     * 
+     * @param vormerkregeln Die Vormerkregeln.
+     * 
+     * @require vormerkregeln != null
+     * 
+     * @ensure getVormerkregeln() == vormerkregeln
+     */
+    void setVormerkregeln(Vormerkregeln vormerkregeln);
      
     /**
      * Liefert alle Medien, die von dem gegebenen Kunden vorgemerkt sind.
@@ -307,7 +436,8 @@ public interface VerleihService extends ObservableService
     List<Medium> getVorgemerkteMedienFuer(Kunde kunde);
     
     /**
-     * @return Eine Listenkopie aller Vormerkkarten. Für jede Vormerkung
+     * @return Eine unveränderliche Liste aller Vormerkkarten, auf die sich
+     *         spätere Vormerkungen nicht auswirken. Für jede Vormerkung
      *         existiert eine Vormerkkarte. Ist keine Vormerkung getätigt worden, wird eine leere Liste 
      *         zurückgegeben.
      * 
@@ -456,4 +586,15 @@ public interface VerleihService extends ObservableService
      */
     Kunde getErstvormerkerFuer(Medium medium);
 
+    /**
+     * Gibt den Fehler zurück, mit dem der letzte Versuch fehlgeschlagen ist,
+     * eine Momentaufnahme des Verleihzustands zu schreiben. Der Vorgang, nach
+     * dem der Versuch stattfand, ist davon nicht betroffen, er steht bereits
+     * im Journal. Die Beobachter werden nach dem Versuch informiert.
+     * 
+     * @return Der Fehler oder null, wenn der letzte Versuch gelungen ist oder
+     *         ohne Journal gearbeitet wird.
+     */
+    ProtokollierException getMomentaufnahmeFehler();
+
 }
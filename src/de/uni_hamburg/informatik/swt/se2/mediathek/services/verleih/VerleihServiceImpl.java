@@ -1,9 +1,15 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
@@ -13,11 +19,25 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.AbstractObservableService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiLeseException;
 
 /**
  * Diese Klasse implementiert das Interface VerleihService. Siehe dortiger
  * Kommentar.
  * 
+ * Ein VerleihServiceImpl kann von mehreren Threads gleichzeitig verwendet
+ * werden, etwa von mehreren Ausleihtheken. Die ändernden Operationen sperren
+ * die betroffenen Medien über MedienSperren und prüfen und ändern den Zustand
+ * unter diesen Sperren. Dadurch sind sie je Medium atomar, während Vorgänge
+ * auf verschiedenen Medien parallel laufen. Lesende Operationen sperren nicht;
+ * sie arbeiten auf nebenläufigen Maps und Listen und sehen jeweils einen
+ * abgeschlossenen Stand je Medium.
+ * 
+ * Weil zwischen einer Prüfung wie istVerleihenMoeglich und dem folgenden
+ * verleiheAn ein anderer Thread das Medium verleihen kann, bieten
+ * verleiheAnFallsMoeglich und merkeVorFallsMoeglich Prüfen und Ändern in
+ * einem Schritt an.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -29,12 +49,82 @@ public class VerleihServiceImpl extends AbstractObservableService
      * Verleihkarte. Ein Zugriff auf die Verleihkarte ist dadurch leicht über
      * die Angabe des Mediums möglich. Beispiel: _verleihkarten.get(medium)
      */
-    private Map<Medium, Verleihkarte> _verleihkarten;
+    private final Map<Medium, Verleihkarte> _verleihkarten;
+
+    /**
+     * Sekundärindex auf die Verleihkarten: Diese Map speichert für jeden
+     * Kunden die Verleihkarten seiner aktuell ausgeliehenen Medien. Sie wird
+     * zusammen mit _verleihkarten gepflegt, damit Anfragen für einen Kunden
+     * nicht alle Verleihkarten durchlaufen müssen. Leere Mengen werden nicht
+     * entfernt, damit ein gleichzeitiges Einfügen für denselben Kunden nicht
+     * in einer gerade entfernten Menge landet.
+     */
+    private final ConcurrentMap<Kunde, Set<Verleihkarte>> _verleihkartenFuerKunden;
+
+    /**
+     * Die Regeln für Kapazität und Reihenfolge der Vormerkungen.
+     */
+    private volatile Vormerkregeln _vormerkregeln;
+
+    /**
+     * Map, die für jedes Medium die Schlange seiner Vormerkkarten speichert.
+     * Die Schlangen werden nur unter der Sperre ihres Mediums geändert und
+     * können ohne Sperre gelesen werden.
+     */
+    private final Map<Medium, Vormerkschlange> _vormerkschlangen;
+
+    /**
+     * Sekundärindex auf die Vormerkungen: Diese Map speichert für jeden
+     * Kunden die Medien, die er vorgemerkt hat, in der Reihenfolge der
+     * Vormerkung. Sie wird zusammen mit _vormerkschlangen gepflegt, analog zu
+     * _verleihkartenFuerKunden, damit Anfragen für einen Kunden nur dessen
+     * Vormerkungen betrachten.
+     */
+    private final ConcurrentMap<Kunde, Set<Medium>> _vorgemerkteMedienFuerKunden;
+
+    /**
+     * Die Sperren, unter denen die Karten eines Mediums geändert werden.
+     */
+    private final MedienSperren _sperren;
+
+    /**
+     * Zählt die Änderungen der Verleihkarten. Eine Momentaufnahme ist gültig,
+     * solange sich der Stand seit ihrer Erzeugung nicht geändert hat.
+     */
+    private final AtomicLong _verleihkartenStand;
+
+    /**
+     * Zählt die Änderungen der Vormerkkarten, analog zu _verleihkartenStand.
+     */
+    private final AtomicLong _vormerkkartenStand;
+
+    /**
+     * Unveränderliche Momentaufnahme aller Verleihkarten für
+     * getVerleihkarten(). Wird bei der nächsten Anfrage neu erzeugt, wenn
+     * sich _verleihkartenStand geändert hat. Ist null, solange noch keine
+     * erzeugt wurde.
+     */
+    private volatile Momentaufnahme<Verleihkarte> _verleihkartenMomentaufnahme;
 
     /**
-     * Map, die alle Vormerkkarten einspeichert. Damit ist der Zugriff auf aktuellste Verleihkarte einfach möglich.
+     * Unveränderliche Momentaufnahme aller Vormerkkarten für
+     * getAlleVormerkkarten(), analog zu _verleihkartenMomentaufnahme.
      */
-    private Map<Medium, List<Vormerkkarte>> _vormerkkarten;
+    private volatile Momentaufnahme<Vormerkkarte> _vormerkkartenMomentaufnahme;
+
+    /**
+     * Legt fest, ob _laufendeGebuehren bei Änderungen fortgeschrieben wird.
+     */
+    private volatile boolean _gebuehrenMitfuehren;
+
+    /**
+     * Die Gebühren zum Stichtag des letzten Gebührenberichts, die bei jeder
+     * Ausleihe und Rückgabe fortgeschrieben werden. Ist null, wenn die
+     * Gebühren nicht mitgeführt werden oder noch kein Bericht angefordert
+     * wurde. Zugriffe auf den Zähler sind über ihn selbst synchronisiert.
+     */
+    private volatile Gebuehrenzaehler _laufendeGebuehren;
+
     /**
      * Der Medienbestand.
      */
@@ -51,7 +141,45 @@ public class VerleihServiceImpl extends AbstractObservableService
     private VerleihProtokollierer _protokollierer;
 
     /**
-     * Konstruktor. Erzeugt einen neuen VerleihServiceImpl.
+     * Das Journal, aus dem der Zustand wiederhergestellt wird und für das
+     * Momentaufnahmen geschrieben werden. Ist null, wenn der Service ohne
+     * Journal erzeugt wurde.
+     */
+    private VerleihJournal _journal;
+
+    /**
+     * Die Anzahl der Journaleinträge seit der letzten Momentaufnahme.
+     */
+    private final AtomicInteger _eintraegeSeitMomentaufnahme;
+
+    /**
+     * Ab dieser Anzahl an Einträgen seit der letzten Momentaufnahme wird die
+     * nächste geschrieben. Nach einem Fehler wird sie um _aufschub erhöht,
+     * damit nicht jede Änderung erneut alle Medien sperrt. Wird nur unter
+     * allen Sperren geändert.
+     */
+    private volatile int _momentaufnahmeSchwelle;
+
+    /**
+     * Um wie viele Einträge der nächste Versuch nach einem Fehler verschoben
+     * wird. Verdoppelt sich mit jedem Fehler bis zum
+     * MAX_AUFSCHUB_FAKTOR-fachen des Intervalls.
+     */
+    private int _aufschub;
+
+    /**
+     * Der Fehler des letzten fehlgeschlagenen Versuchs, eine Momentaufnahme
+     * zu schreiben, null, wenn der letzte Versuch gelungen ist.
+     */
+    private volatile ProtokollierException _momentaufnahmeFehler;
+
+    // Wie oft das Intervall eine Momentaufnahme nach Fehlern höchstens
+    // aufgeschoben wird
+    private static final int MAX_AUFSCHUB_FAKTOR = 64;
+
+    /**
+     * Konstruktor. Erzeugt einen neuen VerleihServiceImpl, der über den
+     * gemeinsamen, asynchronen Standard-Schreiber protokolliert.
      * 
      * @param kundenstamm Der KundenstammService.
      * @param medienbestand Der MedienbestandService.
@@ -64,52 +192,480 @@ public class VerleihServiceImpl extends AbstractObservableService
     public VerleihServiceImpl(KundenstammService kundenstamm,
             MedienbestandService medienbestand,
             List<Verleihkarte> initialBestand)
+    {
+        this(kundenstamm, medienbestand, initialBestand,
+                VerleihProtokollierer.getStandardSchreiber());
+    }
+
+    /**
+     * Konstruktor. Erzeugt einen neuen VerleihServiceImpl, der über den
+     * angegebenen ProtokollSchreiber protokolliert.
+     * 
+     * @param kundenstamm Der KundenstammService.
+     * @param medienbestand Der MedienbestandService.
+     * @param initialBestand Der initiale Bestand.
+     * @param protokollSchreiber Der Schreiber für das Verleihprotokoll.
+     * 
+     * @require kundenstamm != null
+     * @require medienbestand != null
+     * @require initialBestand != null
+     * @require protokollSchreiber != null
+     */
+    public VerleihServiceImpl(KundenstammService kundenstamm,
+            MedienbestandService medienbestand,
+            List<Verleihkarte> initialBestand,
+            ProtokollSchreiber protokollSchreiber)
     {
         assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm  != null";
         assert medienbestand != null : "Vorbedingung verletzt: medienbestand  != null";
         assert initialBestand != null : "Vorbedingung verletzt: initialBestand  != null";
-        _verleihkarten = erzeugeVerleihkartenBestand(initialBestand);
+        assert protokollSchreiber != null : "Vorbedingung verletzt: protokollSchreiber  != null";
+        _verleihkarten = new ConcurrentHashMap<Medium, Verleihkarte>();
+        _verleihkartenFuerKunden = new ConcurrentHashMap<Kunde, Set<Verleihkarte>>();
+        _sperren = new MedienSperren();
+        _verleihkartenStand = new AtomicLong();
+        _vormerkkartenStand = new AtomicLong();
+        _eintraegeSeitMomentaufnahme = new AtomicInteger();
+        erzeugeVerleihkartenBestand(initialBestand);
         _kundenstamm = kundenstamm;
         _medienbestand = medienbestand;
         //initialisiere leere Map mit Key-Value Paar für jedes Medium im Bestand
-        _vormerkkarten = erzeugeVormerkkartenBestand();
-        _protokollierer = new VerleihProtokollierer();
+        _vormerkregeln = new Vormerkregeln();
+        _vormerkschlangen = erzeugeVormerkschlangen();
+        _vorgemerkteMedienFuerKunden = new ConcurrentHashMap<Kunde, Set<Medium>>();
+        _protokollierer = new VerleihProtokollierer(protokollSchreiber);
+    }
+
+    /**
+     * Konstruktor. Erzeugt einen neuen VerleihServiceImpl, der in das
+     * angegebene Journal protokolliert und seinen Zustand daraus
+     * wiederherstellt: Gibt es eine Momentaufnahme, ersetzt sie den
+     * initialen Bestand. Anschließend werden die Journaleinträge seit der
+     * Momentaufnahme nachgespielt. Nach jeweils
+     * journal.getMomentaufnahmeIntervall() Einträgen wird eine neue
+     * Momentaufnahme geschrieben, außerdem sofort, wenn Einträge zu
+     * unbekannten Medien oder Kunden verworfen wurden.
+     * 
+     * @param kundenstamm Der KundenstammService.
+     * @param medienbestand Der MedienbestandService.
+     * @param initialBestand Der initiale Bestand.
+     * @param journal Das Verleihjournal.
+     * 
+     * @throws DateiLeseException wenn Momentaufnahme oder Journal nicht
+     *             gelesen werden können.
+     * 
+     * @require kundenstamm != null
+     * @require medienbestand != null
+     * @require initialBestand != null
+     * @require journal != null
+     */
+    public VerleihServiceImpl(KundenstammService kundenstamm,
+            MedienbestandService medienbestand,
+            List<Verleihkarte> initialBestand, VerleihJournal journal)
+            throws DateiLeseException
+    {
+        this(kundenstamm, medienbestand, initialBestand,
+                journal.getSchreiber());
+        _journal = journal;
+        _momentaufnahmeSchwelle = journal.getMomentaufnahmeIntervall();
+        _aufschub = journal.getMomentaufnahmeIntervall();
+        stelleZustandWiederHer();
+    }
+
+    /**
+     * Stellt den Zustand aus Momentaufnahme und Journal wieder her.
+     * 
+     * Wurden dabei Einträge verworfen, etwa zu einem Medium, das entfernt
+     * wurde oder dessen Einfügen nicht mehr gespeichert wurde, wird sofort
+     * eine Momentaufnahme geschrieben. So ist das Journal gekürzt, bevor der
+     * Medienbestand die Mediennummer eines solchen Eintrags neu vergibt.
+     * Schlägt das fehl, wird der Fehler festgehalten und die Momentaufnahme
+     * bleibt fällig.
+     */
+    private void stelleZustandWiederHer() throws DateiLeseException
+    {
+        boolean verworfen = false;
+        if (_journal.hatMomentaufnahme())
+        {
+            _verleihkarten.clear();
+            _verleihkartenFuerKunden.clear();
+            _verleihkartenStand.incrementAndGet();
+            _laufendeGebuehren = null;
+            for (JournalEintrag eintrag : _journal.leseMomentaufnahme())
+            {
+                verworfen |= !spieleNach(eintrag);
+            }
+        }
+        List<JournalEintrag> journal = _journal.leseJournal();
+        for (JournalEintrag eintrag : journal)
+        {
+            verworfen |= !spieleNach(eintrag);
+        }
+        _eintraegeSeitMomentaufnahme.set(journal.size());
+        if (verworfen)
+        {
+            try
+            {
+                _journal.schreibeMomentaufnahme(erzeugeMomentaufnahme());
+                _eintraegeSeitMomentaufnahme.set(0);
+            }
+            catch (ProtokollierException e)
+            {
+                _momentaufnahmeFehler = e;
+                _eintraegeSeitMomentaufnahme.set(Math.max(journal.size(),
+                        _momentaufnahmeSchwelle));
+            }
+        }
+    }
+
+    /**
+     * Wendet einen Journaleintrag auf den Zustand an, ohne zu protokollieren.
+     * Einträge zu unbekannten Kunden oder Medien werden ignoriert. Das
+     * Nachspielen ist idempotent, weil ein Eintrag nach einer Momentaufnahme
+     * erneut nachgespielt werden kann, wenn das Kürzen des Journals
+     * fehlgeschlagen ist.
+     * 
+     * @return false, wenn der Eintrag ignoriert wurde.
+     */
+    private boolean spieleNach(JournalEintrag eintrag)
+    {
+        Kunde kunde = _kundenstamm.getKunden(eintrag.getKundennummer());
+        Medium medium = _medienbestand.getMedium(eintrag.getMediennummer());
+        if (kunde == null || medium == null)
+        {
+            return false;
+        }
+        Vormerkschlange vormerkschlange = _vormerkschlangen.get(medium);
+        switch (eintrag.getEreignis())
+        {
+        case AUSLEIHE:
+            if (_verleihkarten.containsKey(medium))
+            {
+                entferneVerleihkarte(medium);
+            }
+            fuegeVerleihkarteEin(
+                    new Verleihkarte(kunde, medium, eintrag.getDatum()));
+            break;
+        case RUECKGABE:
+            if (_verleihkarten.containsKey(medium))
+            {
+                entferneVerleihkarte(medium);
+            }
+            break;
+        case VORMERKUNG:
+            if (!vormerkschlange.enthaelt(kunde))
+            {
+                fuegeVormerkkarteEin(
+                        new Vormerkkarte(kunde, medium, eintrag.getDatum()));
+            }
+            break;
+        case VORMERKUNG_ENTFERNT:
+            Vormerkkarte vormerkkarte = vormerkschlange.getKarteFuer(kunde);
+            if (vormerkkarte != null)
+            {
+                entferneVormerkkarte(vormerkkarte);
+            }
+            break;
+        }
+        _vormerkkartenStand.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Schreibt die Einträge eines Vorgangs gemeinsam ins Protokoll. Wird
+     * unter den Sperren der Medien aufgerufen, bevor der Zustand geändert
+     * wird: Schlägt das Schreiben fehl, bleibt der Vorgang ohne Wirkung.
+     * Weil die Sperren gehalten werden, stehen die Einträge zu einem Medium
+     * in der Reihenfolge der Änderungen im Protokoll.
+     */
+    private void protokolliere(List<byte[]> eintraege)
+            throws ProtokollierException
+    {
+        if (!eintraege.isEmpty())
+        {
+            _protokollierer.protokolliere(eintraege);
+            _eintraegeSeitMomentaufnahme.addAndGet(eintraege.size());
+        }
     }
 
     /**
-     * Erzeugt eine Hashmap an Vormerkkarten aus dem Initialbestand
+     * Schreibt eine Momentaufnahme, wenn seit der letzten mindestens
+     * journal.getMomentaufnahmeIntervall() Einträge protokolliert wurden.
+     * Dazu werden alle Medien gesperrt, damit bis zum Kürzen des Journals
+     * keine weiteren Einträge geschrieben werden. Darf deshalb erst nach dem
+     * Freigeben der Sperren eines Vorgangs aufgerufen werden.
+     * 
+     * Ein Fehler beim Schreiben der Momentaufnahme wird nicht an den Vorgang
+     * weitergegeben, denn dessen Einträge stehen bereits im Journal. Er wird
+     * festgehalten (siehe getMomentaufnahmeFehler()), und der nächste Versuch
+     * wird um eine mit jedem Fehler wachsende Anzahl an Einträgen
+     * aufgeschoben.
      */
-    private HashMap<Medium,List<Vormerkkarte>> erzeugeVormerkkartenBestand()
+    private void schreibeMomentaufnahmeFallsFaellig()
     {
-        HashMap<Medium,List<Vormerkkarte>> vormerkkarten = new HashMap<Medium,List<Vormerkkarte>>();
-        for(Medium medium : medienbestand.getMedien())
+        if (_journal != null && _eintraegeSeitMomentaufnahme
+            .get() >= _momentaufnahmeSchwelle)
         {
-            vormerkkarten.put(medium, new ArrayList<Vormerkkarte>());
+            int[] gesperrt = _sperren.sperreAlle();
+            try
+            {
+                int eintraege = _eintraegeSeitMomentaufnahme.get();
+                if (eintraege >= _momentaufnahmeSchwelle)
+                {
+                    int intervall = _journal.getMomentaufnahmeIntervall();
+                    try
+                    {
+                        _journal
+                            .schreibeMomentaufnahme(erzeugeMomentaufnahme());
+                        _eintraegeSeitMomentaufnahme.set(0);
+                        _momentaufnahmeSchwelle = intervall;
+                        _aufschub = intervall;
+                        _momentaufnahmeFehler = null;
+                    }
+                    catch (ProtokollierException e)
+                    {
+                        _momentaufnahmeFehler = e;
+                        _momentaufnahmeSchwelle = (int) Math.min(
+                                (long) eintraege + _aufschub,
+                                Integer.MAX_VALUE);
+                        _aufschub = (int) Math.min(Math.min(_aufschub * 2L,
+                                (long) intervall * MAX_AUFSCHUB_FAKTOR),
+                                Integer.MAX_VALUE);
+                    }
+                }
+            }
+            finally
+            {
+                _sperren.entsperre(gesperrt);
+            }
         }
-        return vormerkkarten;
     }
 
+    @Override
+    public ProtokollierException getMomentaufnahmeFehler()
     {
+        return _momentaufnahmeFehler;
+    }
 
+    /**
+     * Schließt einen ändernden Vorgang ab, nachdem seine Sperren freigegeben
+     * wurden: schreibt falls fällig eine Momentaufnahme und informiert die
+     * Beobachter. Die Beobachter werden auch dann informiert, wenn die
+     * Momentaufnahme nicht geschrieben werden konnte.
+     */
+    private void schliesseAenderungAb()
+    {
+        try
+        {
+            schreibeMomentaufnahmeFallsFaellig();
+        }
+        finally
+        {
+            informiereUeberAenderung();
+        }
     }
+
     /**
-     * Erzeugt eine neue HashMap aus dem Initialbestand.
+     * Beschreibt den aktuellen Zustand als Folge von Journaleinträgen. Die
+     * Reihenfolge der Vormerkungen je Medium bleibt dabei erhalten.
      */
-    private HashMap<Medium, Verleihkarte> erzeugeVerleihkartenBestand(
-            List<Verleihkarte> initialBestand)
+    private List<JournalEintrag> erzeugeMomentaufnahme()
     {
-        HashMap<Medium, Verleihkarte> result = new HashMap<Medium, Verleihkarte>();
-        for (Verleihkarte verleihkarte : initialBestand)
+        List<JournalEintrag> result = new ArrayList<JournalEintrag>();
+        for (Verleihkarte karte : _verleihkarten.values())
+        {
+            result.add(new JournalEintrag(VerleihEreignis.AUSLEIHE,
+                    karte.getAusleihdatum(), karte.getEntleiher()
+                        .getKundennummer(),
+                    karte.getMedium()
+                        .getMediennummer()));
+        }
+        for (Vormerkschlange vormerkschlange : _vormerkschlangen.values())
         {
-            result.put(verleihkarte.getMedium(), verleihkarte);
+            for (Vormerkkarte karte : vormerkschlange.getKarten())
+            {
+                result.add(new JournalEintrag(VerleihEreignis.VORMERKUNG,
+                        karte.getVormerkdatum(), karte.getVormerker()
+                            .getKundennummer(),
+                        karte.getMedium()
+                        .getMediennummer()));
+            }
         }
         return result;
     }
 
+    /**
+     * Erzeugt eine leere Vormerkschlange für jedes Medium im Medienbestand
+     */
+    private Map<Medium, Vormerkschlange> erzeugeVormerkschlangen()
+    {
+        Map<Medium, Vormerkschlange> vormerkschlangen = new ConcurrentHashMap<Medium, Vormerkschlange>();
+        for(Medium medium : _medienbestand.getMedien())
+        {
+            vormerkschlangen.put(medium,
+                    new Vormerkschlange(_vormerkregeln.getKapazitaet(medium)));
+        }
+        return vormerkschlangen;
+    }
+
+    /**
+     * Trägt die Verleihkarten des Initialbestands ein.
+     */
+    private void erzeugeVerleihkartenBestand(List<Verleihkarte> initialBestand)
+    {
+        for (Verleihkarte verleihkarte : initialBestand)
+        {
+            fuegeVerleihkarteEin(verleihkarte);
+        }
+    }
+
+    /**
+     * Fügt eine Verleihkarte in die Map der Verleihkarten und in den Index
+     * für ihren Entleiher ein.
+     * 
+     * @param verleihkarte Die einzufügende Verleihkarte.
+     */
+    private void fuegeVerleihkarteEin(Verleihkarte verleihkarte)
+    {
+        _verleihkarten.put(verleihkarte.getMedium(), verleihkarte);
+        Set<Verleihkarte> karten = _verleihkartenFuerKunden
+            .get(verleihkarte.getEntleiher());
+        if (karten == null)
+        {
+            Set<Verleihkarte> neueKarten = Collections.newSetFromMap(
+                    new ConcurrentHashMap<Verleihkarte, Boolean>());
+            karten = _verleihkartenFuerKunden
+                .putIfAbsent(verleihkarte.getEntleiher(), neueKarten);
+            if (karten == null)
+            {
+                karten = neueKarten;
+            }
+        }
+        karten.add(verleihkarte);
+        _verleihkartenStand.incrementAndGet();
+        Gebuehrenzaehler laufendeGebuehren = _laufendeGebuehren;
+        if (laufendeGebuehren != null)
+        {
+            synchronized (laufendeGebuehren)
+            {
+                laufendeGebuehren.addiere(verleihkarte);
+            }
+        }
+    }
+
+    /**
+     * Entfernt die Verleihkarte für das angegebene Medium aus der Map der
+     * Verleihkarten und aus dem Index für ihren Entleiher.
+     * 
+     * @param medium Das Medium, dessen Verleihkarte entfernt wird.
+     * @return Die entfernte Verleihkarte.
+     */
+    private Verleihkarte entferneVerleihkarte(Medium medium)
+    {
+        Verleihkarte verleihkarte = _verleihkarten.remove(medium);
+        _verleihkartenFuerKunden.get(verleihkarte.getEntleiher())
+            .remove(verleihkarte);
+        _verleihkartenStand.incrementAndGet();
+        Gebuehrenzaehler laufendeGebuehren = _laufendeGebuehren;
+        if (laufendeGebuehren != null)
+        {
+            synchronized (laufendeGebuehren)
+            {
+                laufendeGebuehren.subtrahiere(verleihkarte);
+            }
+        }
+        return verleihkarte;
+    }
+
     @Override
     public List<Verleihkarte> getVerleihkarten()
     {
-        return new ArrayList<Verleihkarte>(_verleihkarten.values());
+        Momentaufnahme<Verleihkarte> momentaufnahme = _verleihkartenMomentaufnahme;
+        long stand = _verleihkartenStand.get();
+        if (momentaufnahme == null || momentaufnahme.getStand() != stand)
+        {
+            momentaufnahme = new Momentaufnahme<Verleihkarte>(stand,
+                    new ArrayList<Verleihkarte>(_verleihkarten.values()));
+            _verleihkartenMomentaufnahme = momentaufnahme;
+        }
+        return momentaufnahme.getListe();
+    }
+
+    @Override
+    public Gebuehrenbericht getGebuehrenbericht(Datum stichtag)
+    {
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+
+        Gebuehrenzaehler laufendeGebuehren = _laufendeGebuehren;
+        if (laufendeGebuehren != null && laufendeGebuehren.getStichtag()
+            .equals(stichtag))
+        {
+            synchronized (laufendeGebuehren)
+            {
+                return laufendeGebuehren.erzeugeBericht();
+            }
+        }
+        if (!_gebuehrenMitfuehren)
+        {
+            return Gebuehrenzaehler.zaehle(getVerleihkarten(), stichtag)
+                .erzeugeBericht();
+        }
+        // Damit keine Änderung zwischen Zählen und Einsetzen verloren geht,
+        // wird der neue laufende Zähler unter allen Sperren erzeugt.
+        int[] gesperrt = _sperren.sperreAlle();
+        try
+        {
+            Gebuehrenzaehler zaehler = Gebuehrenzaehler
+                .zaehle(getVerleihkarten(), stichtag);
+            _laufendeGebuehren = zaehler;
+            return zaehler.erzeugeBericht();
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+    }
+
+    @Override
+    public Vormerkregeln getVormerkregeln()
+    {
+        return _vormerkregeln;
+    }
+
+    @Override
+    public void setVormerkregeln(Vormerkregeln vormerkregeln)
+    {
+        assert vormerkregeln != null : "Vorbedingung verletzt: vormerkregeln != null";
+
+        int[] gesperrt = _sperren.sperreAlle();
+        try
+        {
+            _vormerkregeln = vormerkregeln;
+            for (Map.Entry<Medium, Vormerkschlange> eintrag : _vormerkschlangen
+                .entrySet())
+            {
+                eintrag.getValue()
+                    .setKapazitaet(vormerkregeln.getKapazitaet(eintrag.getKey()));
+                eintrag.getValue()
+                    .priorisiereNeu(vormerkregeln);
+            }
+            _vormerkkartenStand.incrementAndGet();
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        informiereUeberAenderung();
+    }
+
+    @Override
+    public void setGebuehrenMitfuehren(boolean mitfuehren)
+    {
+        _gebuehrenMitfuehren = mitfuehren;
+        if (!mitfuehren)
+        {
+            _laufendeGebuehren = null;
+        }
     }
 
     @Override
@@ -138,19 +694,32 @@ public class VerleihServiceImpl extends AbstractObservableService
     public void nimmZurueck(List<Medium> medien, Datum rueckgabeDatum)
             throws ProtokollierException
     {
-        assert sindAlleVerliehen(
-                medien) : "Vorbedingung verletzt: sindAlleVerliehen(medien)";
         assert rueckgabeDatum != null : "Vorbedingung verletzt: rueckgabeDatum != null";
 
-        for (Medium medium : medien)
+        int[] gesperrt = _sperren.sperre(medien);
+        try
         {
-            Verleihkarte verleihkarte = _verleihkarten.get(medium);
-            _verleihkarten.remove(medium);
-            _protokollierer.protokolliere(
-                    VerleihProtokollierer.EREIGNIS_RUECKGABE, verleihkarte);
-        }
+            assert sindAlleVerliehen(
+                    medien) : "Vorbedingung verletzt: sindAlleVerliehen(medien)";
 
-        informiereUeberAenderung();
+            List<byte[]> eintraege = new ArrayList<byte[]>(medien.size());
+            for (Medium medium : medien)
+            {
+                eintraege.add(_protokollierer.erzeugeEintrag(
+                        VerleihEreignis.RUECKGABE, _verleihkarten.get(medium)));
+            }
+            protokolliere(eintraege);
+
+            for (Medium medium : medien)
+            {
+                entferneVerleihkarte(medium);
+            }
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        schliesseAenderungAb();
     }
 
     @Override
@@ -222,30 +791,91 @@ public class VerleihServiceImpl extends AbstractObservableService
     {
         assert kundeImBestand(
                 kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
-        assert sindAlleNichtVerliehen(
-                medien) : "Vorbedingung verletzt: sindAlleNichtVerliehen(medien) ";
         assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
-        assert istVerleihenMoeglich(kunde,
-                medien) : "Vorbedingung verletzt:  istVerleihenMoeglich(kunde, medien)";
-//        assert (sindAlleNichtVorgemerkt(medien) || istFuerAlleErstvormerker(kunde, medien))  : 
-//            "Vorbedingung verletzt: (sindAlleNichtVorgemerkt(medien) || istFuerAlleErstvormerker(kunde, medien))";
-        
+
+        int[] gesperrt = _sperren.sperre(medien);
+        try
+        {
+            assert sindAlleNichtVerliehen(
+                    medien) : "Vorbedingung verletzt: sindAlleNichtVerliehen(medien) ";
+            assert istVerleihenMoeglich(kunde,
+                    medien) : "Vorbedingung verletzt:  istVerleihenMoeglich(kunde, medien)";
+
+            verleiheAnUnterSperre(kunde, medien, ausleihDatum);
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        schliesseAenderungAb();
+    }
+
+    @Override
+    public boolean verleiheAnFallsMoeglich(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum) throws ProtokollierException
+    {
+        assert kundeImBestand(
+                kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
+        assert medienImBestand(
+                medien) : "Vorbedingung verletzt: medienImBestand(medien)";
+        assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
+
+        int[] gesperrt = _sperren.sperre(medien);
+        try
+        {
+            if (!istVerleihenMoeglich(kunde, medien))
+            {
+                return false;
+            }
+            verleiheAnUnterSperre(kunde, medien, ausleihDatum);
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        schliesseAenderungAb();
+        return true;
+    }
+
+    /**
+     * Verleiht die Medien, deren Sperren der Aufrufer hält. Erst werden alle
+     * Karten und Protokolleinträge erzeugt und gemeinsam protokolliert, dann
+     * wird der Zustand geändert. Schlägt das Protokollieren fehl, ist keines
+     * der Medien verliehen.
+     */
+    private void verleiheAnUnterSperre(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum) throws ProtokollierException
+    {
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>(
+                medien.size());
+        List<Vormerkkarte> erfuellteVormerkungen = new ArrayList<Vormerkkarte>();
+        List<byte[]> eintraege = new ArrayList<byte[]>(medien.size());
         for (Medium medium : medien)
         {
             Verleihkarte verleihkarte = new Verleihkarte(kunde, medium,
                     ausleihDatum);
-
-            _verleihkarten.put(medium, verleihkarte);
-            _protokollierer.protokolliere(
-                    VerleihProtokollierer.EREIGNIS_AUSLEIHE, verleihkarte);
-            if (istVorgemerkt(medium))
+            verleihkarten.add(verleihkarte);
+            eintraege.add(_protokollierer
+                .erzeugeEintrag(VerleihEreignis.AUSLEIHE, verleihkarte));
+            Vormerkkarte vormerkkarte = _vormerkschlangen.get(medium)
+                .getKarteFuer(kunde);
+            if (vormerkkarte != null)
             {
-                loescheVormerkkarte(medium, ausleihDatum, kunde);
+                erfuellteVormerkungen.add(vormerkkarte);
+                eintraege.add(_protokollierer.erzeugeEintrag(
+                        VerleihEreignis.VORMERKUNG_ENTFERNT, vormerkkarte));
             }
         }
-        // Was passiert wenn das Protokollieren mitten in der Schleife
-        // schief geht? informiereUeberAenderung in einen finally Block?
-        informiereUeberAenderung();
+        protokolliere(eintraege);
+
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            fuegeVerleihkarteEin(verleihkarte);
+        }
+        for (Vormerkkarte vormerkkarte : erfuellteVormerkungen)
+        {
+            entferneVormerkkarte(vormerkkarte);
+        }
     }
 
     @Override
@@ -284,10 +914,10 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert kundeImBestand(
                 kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         List<Medium> result = new ArrayList<Medium>();
-        for (Verleihkarte verleihkarte : _verleihkarten.values())
+        Set<Verleihkarte> karten = _verleihkartenFuerKunden.get(kunde);
+        if (karten != null)
         {
-            if (verleihkarte.getEntleiher()
-                .equals(kunde))
+            for (Verleihkarte verleihkarte : karten)
             {
                 result.add(verleihkarte.getMedium());
             }
@@ -318,13 +948,10 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert kundeImBestand(
                 kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         List<Verleihkarte> result = new ArrayList<Verleihkarte>();
-        for (Verleihkarte verleihkarte : _verleihkarten.values())
+        Set<Verleihkarte> karten = _verleihkartenFuerKunden.get(kunde);
+        if (karten != null)
         {
-            if (verleihkarte.getEntleiher()
-                .equals(kunde))
-            {
-                result.add(verleihkarte);
-            }
+            result.addAll(karten);
         }
         return result;
     }
@@ -336,18 +963,70 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         assert medienImBestand(medien) : "Vorbedingung verletzt: medienImBestand(medien)";
         assert vormerkDatum != null : "Vorbedingung verletzt: vormerkDatum ist null";
-        assert istVormerkenMoeglich(kunde, medien) : "Vorbedingung verletzt:  istVormerkenMoeglich(kunde, medien)";
-        
+
+        int[] gesperrt = _sperren.sperre(medien);
+        try
+        {
+            assert istVormerkenMoeglich(kunde, medien) : "Vorbedingung verletzt:  istVormerkenMoeglich(kunde, medien)";
+
+            merkeVorUnterSperre(kunde, medien, vormerkDatum);
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        schliesseAenderungAb();
+    }
+
+    @Override
+    public boolean merkeVorFallsMoeglich(Kunde kunde, List<Medium> medien,
+            Datum vormerkDatum) throws ProtokollierException
+    {
+        assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
+        assert medienImBestand(medien) : "Vorbedingung verletzt: medienImBestand(medien)";
+        assert vormerkDatum != null : "Vorbedingung verletzt: vormerkDatum ist null";
+
+        int[] gesperrt = _sperren.sperre(medien);
+        try
+        {
+            if (!istVormerkenMoeglich(kunde, medien))
+            {
+                return false;
+            }
+            merkeVorUnterSperre(kunde, medien, vormerkDatum);
+        }
+        finally
+        {
+            _sperren.entsperre(gesperrt);
+        }
+        schliesseAenderungAb();
+        return true;
+    }
+
+    /**
+     * Merkt die Medien vor, deren Sperren der Aufrufer hält. Wie beim
+     * Verleihen wird erst protokolliert und dann der Zustand geändert.
+     */
+    private void merkeVorUnterSperre(Kunde kunde, List<Medium> medien,
+            Datum vormerkDatum) throws ProtokollierException
+    {
+        List<Vormerkkarte> vormerkkarten = new ArrayList<Vormerkkarte>(
+                medien.size());
+        List<byte[]> eintraege = new ArrayList<byte[]>(medien.size());
         for (Medium medium : medien)
         {
             Vormerkkarte vormerkkarte = new Vormerkkarte(kunde, medium,
                     vormerkDatum);
+            vormerkkarten.add(vormerkkarte);
+            eintraege.add(_protokollierer
+                .erzeugeEintrag(VerleihEreignis.VORMERKUNG, vormerkkarte));
+        }
+        protokolliere(eintraege);
 
-            _vormerkkarten.get(medium).add(vormerkkarte);
-            _protokollierer.protokolliere(
-                    VerleihProtokollierer.EREIGNIS_VORMERKUNG, vormerkkarte);
+        for (Vormerkkarte vormerkkarte : vormerkkarten)
+        {
+            fuegeVormerkkarteEin(vormerkkarte);
         }
-        informiereUeberAenderung();
     }
 
     @Override
@@ -360,7 +1039,8 @@ public class VerleihServiceImpl extends AbstractObservableService
         {
             //TODO ggf. weitere Methode istAlleVormerkenMoeglich einfügen, da hier sonst wegen einer einzigen vorhandenen
             //Vormerkung des Kunden der Prozess nicht durchführbar ist, evtl. unschön
-            if (istVorgemerktVon(kunde, medium) || getVormerkkartenFuer(medium).size() >= 3
+            Vormerkschlange vormerkschlange = _vormerkschlangen.get(medium);
+            if (vormerkschlange.enthaelt(kunde) || vormerkschlange.istVoll()
                     || istVerliehenAn(kunde, medium))
             {
                 return false;
@@ -373,18 +1053,35 @@ public class VerleihServiceImpl extends AbstractObservableService
     @Override
     public List<Vormerkkarte> getVormerkkartenFuer(Medium medium)
     {
-        return _vormerkkarten.get(medium);
+        return _vormerkschlangen.get(medium)
+            .getKarten();
     }
 
     @Override
     public List<Kunde> getVormerkerFuer(Medium medium)
     {
-        List<Kunde> result = new ArrayList<Kunde>();
-        for (Vormerkkarte karte : _vormerkkarten.get(medium))
-        {
-            result.add(karte.getVormerker());
-        }
-        return result;
+        return _vormerkschlangen.get(medium)
+            .getVormerker();
+    }
+
+    @Override
+    public List<Kunde> getVormerkerFuer(Medium medium, int von, int anzahl)
+    {
+        assert mediumImBestand(medium) : "Vorbedingung verletzt: mediumImBestand(medium)";
+        assert von >= 0 : "Vorbedingung verletzt: von >= 0";
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        return _vormerkschlangen.get(medium)
+            .getVormerker(von, anzahl);
+    }
+
+    @Override
+    public int getAnzahlVormerkungenFuer(Medium medium)
+    {
+        assert mediumImBestand(medium) : "Vorbedingung verletzt: mediumImBestand(medium)";
+
+        return _vormerkschlangen.get(medium)
+            .getAnzahl();
     }
 
     @Override
@@ -393,15 +1090,10 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         
         List<Medium> result = new ArrayList<Medium>();
-        for (List<Vormerkkarte> liste : _vormerkkarten.values())
+        Set<Medium> medien = _vorgemerkteMedienFuerKunden.get(kunde);
+        if (medien != null)
         {
-            for (Vormerkkarte karte : liste)
-            {
-                if (karte.getVormerker().equals(kunde))
-                {
-                    result.add(karte.getMedium());
-                }
-            }
+            result.addAll(medien);
         }
         return result;
     }
@@ -409,54 +1101,133 @@ public class VerleihServiceImpl extends AbstractObservableService
     @Override
     public List<Vormerkkarte> getAlleVormerkkarten()
     {
-        List<Vormerkkarte> result = new ArrayList<Vormerkkarte>();
-        for (List<Vormerkkarte> liste : _vormerkkarten.values())
+        Momentaufnahme<Vormerkkarte> momentaufnahme = _vormerkkartenMomentaufnahme;
+        long stand = _vormerkkartenStand.get();
+        if (momentaufnahme == null || momentaufnahme.getStand() != stand)
         {
-            result.addAll(liste);
-            //TODO alternativ:
-//            for(Vormerkkarte karte : liste)
-//            {
-//                result.add(karte);
-//            }
+            List<Vormerkkarte> result = new ArrayList<Vormerkkarte>();
+            for (Vormerkschlange vormerkschlange : _vormerkschlangen.values())
+            {
+                result.addAll(vormerkschlange.getKarten());
+            }
+            momentaufnahme = new Momentaufnahme<Vormerkkarte>(stand, result);
+            _vormerkkartenMomentaufnahme = momentaufnahme;
         }
-        return result;
+        return momentaufnahme.getListe();
     }
 
     @Override
     public void loescheVormerkkarten(List<Medium> medien, Datum loeschDatum,
             Kunde kunde) throws ProtokollierException
     {
-        assert sindAlleVorgemerktVon(kunde, medien) : "Vorbedingung verletzt: sindAlleVorgemerktVon(kunde,";
         assert loeschDatum != null : "Vorbedingung verletzt: loeschDatum ist null";
-        
-        for (Medium medium : medien)
+
+        int[] gesperrt = _sperren.sperre(medien);
+        try
+        {
+            assert sindAlleVorgemerktVon(kunde, medien) : "Vorbedingung verletzt: sindAlleVorgemerktVon(kunde,";
+
+            loescheVormerkkartenUnterSperre(medien, kunde);
+        }
+        finally
         {
-            loescheVormerkkarte(medium, loeschDatum, kunde);
+            _sperren.entsperre(gesperrt);
         }
-        informiereUeberAenderung();        
+        schliesseAenderungAb();
     }
     
     @Override
     public void loescheVormerkkarte(Medium medium, Datum loeschDatum, Kunde kunde)
         throws ProtokollierException
         {
-            assert istVorgemerktVon(kunde, medium) : "Vorbedingung verletzt: istVorgemerktVon(kunde, medium)";
-            
-            Vormerkkarte karte = getVormerkkarteFuerKundeUndMedium(kunde, medium);
-            _vormerkkarten.get(medium).remove(getVormerkkarteFuerKundeUndMedium(kunde, medium));
-            _protokollierer.protokolliere(VerleihProtokollierer.EREIGNIS_VORMERKUNGENTFERNT, karte);
+            int[] gesperrt = _sperren.sperre(medium);
+            try
+            {
+                assert istVorgemerktVon(kunde, medium) : "Vorbedingung verletzt: istVorgemerktVon(kunde, medium)";
+
+                loescheVormerkkartenUnterSperre(
+                        Collections.singletonList(medium), kunde);
+            }
+            finally
+            {
+                _sperren.entsperre(gesperrt);
+            }
+            schreibeMomentaufnahmeFallsFaellig();
+        }
+
+    /**
+     * Löscht die Vormerkungen des Kunden für Medien, deren Sperren der
+     * Aufrufer hält. Wie beim Verleihen wird erst protokolliert und dann der
+     * Zustand geändert.
+     */
+    private void loescheVormerkkartenUnterSperre(List<Medium> medien,
+            Kunde kunde) throws ProtokollierException
+    {
+        List<Vormerkkarte> vormerkkarten = new ArrayList<Vormerkkarte>(
+                medien.size());
+        List<byte[]> eintraege = new ArrayList<byte[]>(medien.size());
+        for (Medium medium : medien)
+        {
+            Vormerkkarte vormerkkarte = _vormerkschlangen.get(medium)
+                .getKarteFuer(kunde);
+            vormerkkarten.add(vormerkkarte);
+            eintraege.add(_protokollierer.erzeugeEintrag(
+                    VerleihEreignis.VORMERKUNG_ENTFERNT, vormerkkarte));
         }
+        protokolliere(eintraege);
+
+        for (Vormerkkarte vormerkkarte : vormerkkarten)
+        {
+            entferneVormerkkarte(vormerkkarte);
+        }
+    }
+
+    /**
+     * Hängt eine Vormerkkarte an die Schlange ihres Mediums an und trägt das
+     * Medium im Index des Vormerkers ein.
+     */
+    private void fuegeVormerkkarteEin(Vormerkkarte vormerkkarte)
+    {
+        _vormerkschlangen.get(vormerkkarte.getMedium())
+            .fuegeHinzu(vormerkkarte,
+                    _vormerkregeln.getPrioritaet(vormerkkarte.getVormerker()));
+        Set<Medium> medien = _vorgemerkteMedienFuerKunden
+            .get(vormerkkarte.getVormerker());
+        if (medien == null)
+        {
+            Set<Medium> neueMedien = Collections
+                .synchronizedSet(new LinkedHashSet<Medium>());
+            medien = _vorgemerkteMedienFuerKunden
+                .putIfAbsent(vormerkkarte.getVormerker(), neueMedien);
+            if (medien == null)
+            {
+                medien = neueMedien;
+            }
+        }
+        medien.add(vormerkkarte.getMedium());
+        _vormerkkartenStand.incrementAndGet();
+    }
+
+    /**
+     * Entfernt eine Vormerkkarte aus der Schlange ihres Mediums und aus dem
+     * Index des Vormerkers.
+     */
+    private void entferneVormerkkarte(Vormerkkarte vormerkkarte)
+    {
+        _vormerkschlangen.get(vormerkkarte.getMedium())
+            .entferne(vormerkkarte.getVormerker());
+        _vorgemerkteMedienFuerKunden.get(vormerkkarte.getVormerker())
+            .remove(vormerkkarte.getMedium());
+        _vormerkkartenStand.incrementAndGet();
+    }
 
     @Override
     public boolean istVorgemerkt(Medium medium)
     {
         assert mediumImBestand(medium) : "Vorbedingung verletzt: mediumImBestand(medium)";
         
-        if (_vormerkkarten.get(medium).size() > 0)
-        {
-            return true;
-        }
-        return false;
+        return !_vormerkschlangen.get(medium)
+            .istLeer();
     }
 
     @Override
@@ -515,14 +1286,8 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         assert mediumImBestand(medium) : "Vorbedingung verletzt: mediumImBestand(medium)";
         
-        for (Kunde vkunde : getVormerkerFuer(medium))
-        {
-            if (vkunde.equals(kunde))
-            {
-                return true;
-            }
-        }
-        return false;
+        return _vormerkschlangen.get(medium)
+            .enthaelt(kunde);
     }
 
     @Override
@@ -531,22 +1296,10 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert medium != null : "Vorbedingung verletzt: medium ist null";
         assert kunde != null : "Vorbedingung verletzt: kunde ist null";
         
-        if (!istVorgemerktVon(kunde, medium))
-        {
-            return false;
-        }
-        if (_vormerkkarten.get(medium).get(0).equals(getVormerkkarteFuerKundeUndMedium(kunde, medium)))
-        {
-            return true;
-        }
-        return false;
-        //nicht möglich, da Datum nur Tagesvergleich anstellt, zu ungenau, wenn mehrere Kunden
-        //an einem Tag dasselbe Medium vormerken:
-//        Vormerkkarte karte = getVormerkkarteFuerKundeUndMedium(kunde, medium);
-//        for (Vormerkkarte vergleichkarte : _vormerkkarten.get(medium))
-//        {
-//            karte.getVormerkdatum().super.compareTo(vergleichkarte.getVormerkdatum());
-//        }
+        Vormerkkarte erste = _vormerkschlangen.get(medium)
+            .getErste();
+        return erste != null && erste.getVormerker()
+            .equals(kunde);
     }
 
     @Override
@@ -555,17 +1308,8 @@ public class VerleihServiceImpl extends AbstractObservableService
     {
         assert istVorgemerktVon(kunde, medium) : "Vorbedingung verletzt: istVorgemerktVon(kunde, medium)";
         
-        //muss initialisiert werden, Überschreibung result = karte ist jedoch durch Vorbedingung gesichert
-        Vormerkkarte result = new Vormerkkarte(kunde, medium, Datum.heute());
-        for (Vormerkkarte karte : _vormerkkarten.get(medium))
-        {
-            if (karte.getVormerker().equals(kunde)) 
-            {
-                result = karte;
-                break;
-            }
-        }
-        return result;
+        return _vormerkschlangen.get(medium)
+            .getKarteFuer(kunde);
     }
 
     @Override
@@ -590,8 +1334,34 @@ public class VerleihServiceImpl extends AbstractObservableService
         assert medium != null : "Vorbedingung verletzt: medium != null";
         assert istVorgemerkt(medium) : "Vorbedingung verletzt: istVorgemerkt(medium)";
         
-        return getVormerkerFuer(medium).get(0);
+        return _vormerkschlangen.get(medium)
+            .getErste()
+            .getVormerker();
     }
-    
 
+    /**
+     * Eine unveränderliche Liste von Karten zusammen mit dem Änderungsstand,
+     * zu dem sie erzeugt wurde.
+     */
+    private static final class Momentaufnahme<T>
+    {
+        private final long _stand;
+        private final List<T> _liste;
+
+        Momentaufnahme(long stand, List<T> liste)
+        {
+            _stand = stand;
+            _liste = Collections.unmodifiableList(liste);
+        }
+
+        long getStand()
+        {
+            return _stand;
+        }
+
+        List<T> getListe()
+        {
+            return _liste;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.ServiceObserver;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammServiceImpl;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandServiceImpl;
+
+/**
+ * Lasttest für die nebenläufige Verwendung des VerleihServiceImpl. Mehrere
+ * Threads verleihen, vormerken und nehmen zurück; dabei darf kein Medium je
+ * an zwei Kunden gleichzeitig verliehen sein.
+ *
+ * @author SE2-Team
+ */
+public class VerleihServiceImplNebenlaeufigTest
+{
+    private static final int THREADS = 8;
+    private static final int KUNDEN_PRO_THREAD = 4;
+    private static final int MEDIEN = 16;
+    private static final int DURCHLAEUFE = 2000;
+
+    private final List<Medium> _medien;
+    private final List<List<Kunde>> _kundenProThread;
+    private final ProtokollSchreiber _schreiber;
+    private final VerleihService _service;
+
+    public VerleihServiceImplNebenlaeufigTest() throws IOException
+    {
+        File protokoll = File.createTempFile("verleihProtokoll", ".txt");
+        protokoll.deleteOnExit();
+
+        KundenstammService kundenstamm = new KundenstammServiceImpl(
+                new ArrayList<Kunde>());
+        _kundenProThread = new ArrayList<List<Kunde>>();
+        for (int t = 0; t < THREADS; t++)
+        {
+            List<Kunde> kunden = new ArrayList<Kunde>();
+            for (int k = 0; k < KUNDEN_PRO_THREAD; k++)
+            {
+                Kunde kunde = new Kunde(
+                        new Kundennummer(100000 + t * KUNDEN_PRO_THREAD + k),
+                        "Vorname" + k, "Nachname" + t);
+                kundenstamm.fuegeKundenEin(kunde);
+                kunden.add(kunde);
+            }
+            _kundenProThread.add(kunden);
+        }
+        MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                new ArrayList<Medium>());
+        for (int m = 0; m < MEDIEN; m++)
+        {
+            medienbestand.fuegeMediumEin(new CD("CD" + m, "", "foo", 60));
+        }
+        _medien = medienbestand.getMedien();
+        _schreiber = new ProtokollSchreiber(protokoll,
+                ProtokollSchreiber.Modus.ASYNCHRON,
+                ProtokollSchreiber.Synchronisation.KEINE);
+        _service = new VerleihServiceImpl(kundenstamm, medienbestand,
+                new ArrayList<Verleihkarte>(), _schreiber);
+    }
+
+    @After
+    public void schliesseProtokoll() throws ProtokollierException
+    {
+        _schreiber.schliesse();
+    }
+
+    @Test
+    public void testeNebenlaeufigesVerleihenUndZuruecknehmen()
+            throws Exception
+    {
+        final AtomicIntegerArray verliehen = new AtomicIntegerArray(MEDIEN);
+        final AtomicInteger ausleihen = new AtomicInteger();
+        final AtomicInteger benachrichtigungen = new AtomicInteger();
+        final AtomicReference<Throwable> fehler = new AtomicReference<Throwable>();
+        final CountDownLatch start = new CountDownLatch(1);
+        _service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                benachrichtigungen.incrementAndGet();
+            }
+        });
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; t++)
+        {
+            final List<Kunde> kunden = _kundenProThread.get(t);
+            final Random zufall = new Random(t);
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        for (int i = 0; i < DURCHLAEUFE; i++)
+                        {
+                            arbeite(kunden, zufall, verliehen, ausleihen);
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        fehler.compareAndSet(null, e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        if (fehler.get() != null)
+        {
+            throw new AssertionError(fehler.get());
+        }
+        assertTrue(ausleihen.get() > 0);
+        assertTrue(benachrichtigungen.get() >= ausleihen.get());
+        pruefeKonsistenz(verliehen);
+    }
+
+    /**
+     * Ein Durchlauf eines Threads: Versucht ein zufälliges Medium an einen
+     * eigenen Kunden zu verleihen oder es vorzumerken, gibt es gegebenenfalls
+     * sofort wieder zurück und entfernt gelegentlich Vormerkungen.
+     */
+    private void arbeite(List<Kunde> kunden, Random zufall,
+            AtomicIntegerArray verliehen, AtomicInteger ausleihen)
+            throws ProtokollierException
+    {
+        Kunde kunde = kunden.get(zufall.nextInt(kunden.size()));
+        int index = zufall.nextInt(MEDIEN);
+        Medium medium = _medien.get(index);
+        List<Medium> medien = Collections.singletonList(medium);
+        Datum datum = Datum.heute();
+
+        if (_service.verleiheAnFallsMoeglich(kunde, medien, datum))
+        {
+            assertEquals(0, verliehen.getAndIncrement(index));
+            ausleihen.incrementAndGet();
+            assertTrue(_service.istVerliehenAn(kunde, medium));
+            assertFalse(_service.istVorgemerktVon(kunde, medium));
+            verliehen.decrementAndGet(index);
+            _service.nimmZurueck(medien, datum);
+        }
+        else if (zufall.nextBoolean())
+        {
+            _service.merkeVorFallsMoeglich(kunde, medien, datum);
+        }
+        else if (_service.istVorgemerktVon(kunde, medium))
+        {
+            _service.loescheVormerkkarten(medien, datum, kunde);
+        }
+        assertTrue(_service.getVormerkkartenFuer(medium)
+            .size() <= 3);
+    }
+
+    private void pruefeKonsistenz(AtomicIntegerArray verliehen)
+    {
+        Set<Verleihkarte> ueberKunden = new HashSet<Verleihkarte>();
+        for (List<Kunde> kunden : _kundenProThread)
+        {
+            for (Kunde kunde : kunden)
+            {
+                ueberKunden.addAll(_service.getVerleihkartenFuer(kunde));
+            }
+        }
+        assertEquals(new HashSet<Verleihkarte>(_service.getVerleihkarten()),
+                ueberKunden);
+        assertTrue(_service.getVerleihkarten()
+            .isEmpty());
+        for (int i = 0; i < MEDIEN; i++)
+        {
+            assertEquals(0, verliehen.get(i));
+            assertFalse(_service.istVerliehen(_medien.get(i)));
+        }
+    }
+}
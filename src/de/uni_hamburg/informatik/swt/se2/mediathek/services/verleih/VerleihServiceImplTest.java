@@ -2,15 +2,20 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Geldbetrag;
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Verleihkarte;
@@ -257,6 +262,278 @@ public class VerleihServiceImplTest
             .isEmpty());
     }
 
+    @Test
+    public void testeVorgemerkteMedienFuerKunden() throws Exception
+    {
+        List<Medium> medien = _medienListe.subList(0, 3);
+        assertTrue(_service.getVorgemerkteMedienFuer(_vormerkkunde)
+            .isEmpty());
+
+        _service.merkeVor(_vormerkkunde, medien.subList(2, 3), _datum);
+        _service.merkeVor(_vormerkkunde, medien.subList(0, 2), _datum);
+        _service.merkeVor(_vormerkkunde2, medien.subList(0, 1), _datum);
+        assertEquals(Arrays.asList(medien.get(2), medien.get(0), medien.get(1)),
+                _service.getVorgemerkteMedienFuer(_vormerkkunde));
+        assertEquals(medien.subList(0, 1),
+                _service.getVorgemerkteMedienFuer(_vormerkkunde2));
+
+        _service.loescheVormerkkarte(medien.get(0), _datum, _vormerkkunde);
+        assertEquals(Arrays.asList(medien.get(2), medien.get(1)),
+                _service.getVorgemerkteMedienFuer(_vormerkkunde));
+
+        // Die Ausleihe durch den Erstvormerker löscht seine Vormerkung
+        _service.verleiheAn(_vormerkkunde2, medien.subList(0, 1), _datum);
+        assertTrue(_service.getVorgemerkteMedienFuer(_vormerkkunde2)
+            .isEmpty());
+    }
+
+    @Test
+    public void testeVormerkregeln() throws Exception
+    {
+        List<Medium> medien = _medienListe.subList(0, 1);
+        Medium medium = medien.get(0);
+        Vormerkregeln regeln = new Vormerkregeln();
+        regeln.setKapazitaet(medium.getMedienBezeichnung(), 4);
+        regeln.setPrioritaet(_vormerkkunde4.getKundennummer(), 1);
+        _service.setVormerkregeln(regeln);
+        assertSame(regeln, _service.getVormerkregeln());
+
+        _service.merkeVor(_vormerkkunde, medien, _datum);
+        _service.merkeVor(_vormerkkunde2, medien, _datum);
+        _service.merkeVor(_vormerkkunde3, medien, _datum);
+        assertTrue(_service.istVormerkenMoeglich(_vormerkkunde4, medien));
+        _service.merkeVor(_vormerkkunde4, medien, _datum);
+        assertFalse(_service.istVormerkenMoeglich(_kunde, medien));
+
+        // Der bevorzugte Kunde steht vor den früheren Vormerkern
+        assertEquals(4, _service.getAnzahlVormerkungenFuer(medium));
+        assertEquals(Arrays.asList(_vormerkkunde4, _vormerkkunde,
+                _vormerkkunde2, _vormerkkunde3),
+                _service.getVormerkerFuer(medium));
+        assertEquals(Arrays.asList(_vormerkkunde3),
+                _service.getVormerkerFuer(medium, 3, 3));
+        assertTrue(_service.istVerleihenMoeglich(_vormerkkunde4, medien));
+        assertFalse(_service.istVerleihenMoeglich(_vormerkkunde, medien));
+
+        // Ohne Priorität gilt wieder die Reihenfolge der Vormerkung
+        _service.setVormerkregeln(new Vormerkregeln());
+        assertEquals(Arrays.asList(_vormerkkunde, _vormerkkunde2,
+                _vormerkkunde3, _vormerkkunde4),
+                _service.getVormerkerFuer(medium));
+        assertFalse(_service.istVormerkenMoeglich(_kunde, medien));
+    }
+
+    @Test
+    public void testeGeaenderteVormerkregelnGeltenFuerNeueVormerkungen()
+            throws Exception
+    {
+        List<Medium> medien = _medienListe.subList(0, 1);
+        Medium medium = medien.get(0);
+        Vormerkregeln regeln = new Vormerkregeln();
+        _service.setVormerkregeln(regeln);
+        _service.merkeVor(_vormerkkunde, medien, _datum);
+
+        // Eine geänderte Priorität gilt sofort für neue Vormerkungen
+        regeln.setPrioritaet(_vormerkkunde3.getKundennummer(), 1);
+        _service.merkeVor(_vormerkkunde2, medien, _datum);
+        _service.merkeVor(_vormerkkunde3, medien, _datum);
+        assertEquals(Arrays.asList(_vormerkkunde3, _vormerkkunde,
+                _vormerkkunde2), _service.getVormerkerFuer(medium));
+
+        // Eine geänderte Kapazität erst nach erneutem Übergeben
+        regeln.setKapazitaet(medium.getMedienBezeichnung(), 4);
+        assertFalse(_service.istVormerkenMoeglich(_vormerkkunde4, medien));
+        _service.setVormerkregeln(regeln);
+        assertTrue(_service.istVormerkenMoeglich(_vormerkkunde4, medien));
+    }
+
+    @Test
+    public void testeVerleihkartenFuerKunden() throws Exception
+    {
+        List<Medium> medienKunde = _medienListe.subList(0, 2);
+        List<Medium> medienVormerkkunde = _medienListe.subList(2, 3);
+        assertTrue(_service.getVerleihkartenFuer(_kunde)
+            .isEmpty());
+        assertTrue(_service.getAusgelieheneMedienFuer(_kunde)
+            .isEmpty());
+
+        _service.verleiheAn(_kunde, medienKunde, _datum);
+        _service.verleiheAn(_vormerkkunde, medienVormerkkunde, _datum);
+        assertEquals(2, _service.getVerleihkartenFuer(_kunde)
+            .size());
+        assertTrue(_service.getAusgelieheneMedienFuer(_kunde)
+            .containsAll(medienKunde));
+        assertEquals(medienVormerkkunde,
+                _service.getAusgelieheneMedienFuer(_vormerkkunde));
+        assertEquals(new Verleihkarte(_vormerkkunde, medienVormerkkunde.get(0),
+                _datum), _service.getVerleihkartenFuer(_vormerkkunde)
+                    .get(0));
+
+        _service.nimmZurueck(medienKunde.subList(0, 1), _datum);
+        assertEquals(medienKunde.subList(1, 2),
+                _service.getAusgelieheneMedienFuer(_kunde));
+
+        _service.nimmZurueck(medienKunde.subList(1, 2), _datum);
+        assertTrue(_service.getVerleihkartenFuer(_kunde)
+            .isEmpty());
+        assertEquals(1, _service.getVerleihkartenFuer(_vormerkkunde)
+            .size());
+    }
+
+    @Test
+    public void testeMomentaufnahmenDerKarten() throws Exception
+    {
+        List<Verleihkarte> verleihkarten = _service.getVerleihkarten();
+        List<Vormerkkarte> vormerkkarten = _service.getAlleVormerkkarten();
+        assertSame(verleihkarten, _service.getVerleihkarten());
+        assertSame(vormerkkarten, _service.getAlleVormerkkarten());
+
+        _service.verleiheAn(_kunde, _medienListe.subList(0, 1), _datum);
+        _service.merkeVor(_vormerkkunde, _medienListe.subList(0, 1), _datum);
+        assertTrue(verleihkarten.isEmpty());
+        assertTrue(vormerkkarten.isEmpty());
+        assertEquals(1, _service.getVerleihkarten()
+            .size());
+        assertEquals(1, _service.getAlleVormerkkarten()
+            .size());
+
+        try
+        {
+            _service.getVerleihkarten()
+                .clear();
+            fail("Momentaufnahme darf nicht veränderbar sein");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+    }
+
+    @Test
+    public void testeGebuehrenbericht() throws Exception
+    {
+        Datum stichtag = _datum.plus(9);
+        _service.verleiheAn(_kunde, _medienListe.subList(0, 2), _datum);
+        _service.verleiheAn(_vormerkkunde, _medienListe.subList(2, 3),
+                _datum.plus(5));
+
+        Gebuehrenbericht bericht = _service.getGebuehrenbericht(stichtag);
+        assertEquals(stichtag, bericht.getStichtag());
+        assertEquals(new Geldbetrag(2 * 3000 + 1500),
+                bericht.getGesamtbetrag());
+        assertEquals(new Geldbetrag(6000), bericht.getBetragFuer(_kunde));
+        assertEquals(new Geldbetrag(1500),
+                bericht.getBetragFuer(_vormerkkunde));
+        assertEquals(Geldbetrag.NULL, bericht.getBetragFuer(_vormerkkunde2));
+        assertEquals(new Geldbetrag(7500),
+                bericht.getBetragFuerMedienart("CD"));
+
+        // Ausleihen nach dem Stichtag zählen nicht mit
+        _service.verleiheAn(_vormerkkunde2, _medienListe.subList(3, 4),
+                stichtag.plus(1));
+        assertEquals(new Geldbetrag(7500), _service
+            .getGebuehrenbericht(stichtag)
+            .getGesamtbetrag());
+    }
+
+    @Test
+    public void testeMitgefuehrteGebuehren() throws Exception
+    {
+        Datum stichtag = _datum.plus(9);
+        _service.setGebuehrenMitfuehren(true);
+        _service.verleiheAn(_kunde, _medienListe.subList(0, 1), _datum);
+        assertEquals(new Geldbetrag(3000), _service
+            .getGebuehrenbericht(stichtag)
+            .getGesamtbetrag());
+
+        _service.verleiheAn(_vormerkkunde, _medienListe.subList(1, 3), _datum);
+        _service.nimmZurueck(_medienListe.subList(0, 1), stichtag);
+        Gebuehrenbericht bericht = _service.getGebuehrenbericht(stichtag);
+        assertEquals(new Geldbetrag(6000), bericht.getGesamtbetrag());
+        assertEquals(Geldbetrag.NULL, bericht.getBetragFuer(_kunde));
+        assertFalse(bericht.getBetraegeFuerKunden()
+            .containsKey(_kunde));
+        assertEquals(new Geldbetrag(6000),
+                bericht.getBetragFuer(_vormerkkunde));
+
+        assertEquals(new Geldbetrag(6600), _service
+            .getGebuehrenbericht(stichtag.plus(1))
+            .getGesamtbetrag());
+    }
+
+    @Test
+    public void testeVorgangOhneProtokollBleibtOhneWirkung() throws Exception
+    {
+        // Ein Verzeichnis kann nicht als Datei geöffnet werden
+        File verzeichnis = File.createTempFile("verleihProtokoll", ".txt")
+            .getParentFile();
+        List<Medium> verliehen = _medienListe.subList(0, 1);
+        List<Medium> frei = _medienListe.subList(1, 3);
+        ProtokollSchreiber schreiber = new ProtokollSchreiber(verzeichnis,
+                ProtokollSchreiber.Modus.BESTAETIGT,
+                ProtokollSchreiber.Synchronisation.KEINE);
+        VerleihService service = new VerleihServiceImpl(
+                new KundenstammServiceImpl(Arrays.asList(_kunde)),
+                new MedienbestandServiceImpl(_medienListe),
+                Arrays.asList(new Verleihkarte(_kunde, verliehen.get(0), _datum)),
+                schreiber);
+        final int[] benachrichtigungen = new int[1];
+        service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                benachrichtigungen[0]++;
+            }
+        });
+
+        try
+        {
+            service.verleiheAn(_kunde, frei, _datum);
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        assertTrue(service.sindAlleNichtVerliehen(frei));
+
+        try
+        {
+            service.nimmZurueck(verliehen, _datum);
+            fail("ProtokollierException erwartet");
+        }
+        catch (ProtokollierException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        assertTrue(service.sindAlleVerliehen(verliehen));
+        assertEquals(1, service.getVerleihkartenFuer(_kunde)
+            .size());
+        assertEquals(0, benachrichtigungen[0]);
+        schreiber.schliesse();
+    }
+
+    @Test
+    public void testeEineBenachrichtigungProVorgang() throws Exception
+    {
+        final int[] benachrichtigungen = new int[1];
+        _service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                benachrichtigungen[0]++;
+            }
+        });
+        List<Medium> medien = _medienListe.subList(0, 2);
+        _service.merkeVor(_vormerkkunde, medien, _datum);
+        _service.verleiheAn(_vormerkkunde, medien, _datum);
+        _service.nimmZurueck(medien, _datum);
+        assertEquals(3, benachrichtigungen[0]);
+        assertTrue(_service.sindAlleNichtVorgemerkt(_medienListe));
+    }
+
     //TODO muss noch für Vormerkung erweitert werden
     @Test
     public void testVerleihEreignisBeobachter() throws ProtokollierException
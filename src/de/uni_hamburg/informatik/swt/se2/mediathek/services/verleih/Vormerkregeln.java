@@ -0,0 +1,154 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * Die Regeln, nach denen Medien vorgemerkt werden: wie viele Vormerkungen
+ * ein Medium je Medienart höchstens haben kann und mit welcher Priorität ein
+ * Kunde in die Vormerkschlange eines Mediums eingereiht wird.
+ *
+ * Kunden mit höherer Priorität, etwa Mitarbeiter oder Premiumkunden, werden
+ * vor Kunden mit niedrigerer Priorität eingereiht. Bei gleicher Priorität gilt
+ * die Reihenfolge der Vormerkung. Ohne weitere Angaben hat jedes Medium die
+ * Kapazität STANDARD_KAPAZITAET und jeder Kunde die Priorität
+ * STANDARD_PRIORITAET, sodass die Vormerkungen in ihrer Reihenfolge bedient
+ * werden.
+ *
+ * Vormerkregeln können von mehreren Threads verwendet werden. Ein
+ * VerleihService liest die Priorität des Vormerkers bei jeder neuen
+ * Vormerkung aus seinen aktuellen Regeln, eine geänderte Priorität gilt also
+ * sofort für alle folgenden Vormerkungen. Bestehende Vormerkungen und die
+ * Kapazitäten übernimmt er dagegen erst, wenn ihm die Regeln erneut mit
+ * setVormerkregeln übergeben werden.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class Vormerkregeln
+{
+    /**
+     * Die Kapazität für Medienarten ohne eigene Angabe.
+     */
+    public static final int STANDARD_KAPAZITAET = 3;
+
+    /**
+     * Die Priorität für Kunden ohne eigene Angabe.
+     */
+    public static final int STANDARD_PRIORITAET = 0;
+
+    private final int _standardKapazitaet;
+
+    /**
+     * Die Kapazitäten nach Medienbezeichnung.
+     */
+    private final Map<String, Integer> _kapazitaeten;
+
+    /**
+     * Die Prioritäten nach Kundennummer, damit sie auch für neu eingelesene
+     * Kunden gelten.
+     */
+    private final Map<Kundennummer, Integer> _prioritaeten;
+
+    /**
+     * Initialisiert neue Vormerkregeln mit der Kapazität
+     * STANDARD_KAPAZITAET für alle Medienarten.
+     */
+    public Vormerkregeln()
+    {
+        this(STANDARD_KAPAZITAET);
+    }
+
+    /**
+     * Initialisiert neue Vormerkregeln.
+     *
+     * @param standardKapazitaet Die Kapazität für Medienarten ohne eigene
+     *            Angabe.
+     *
+     * @require standardKapazitaet > 0
+     */
+    public Vormerkregeln(int standardKapazitaet)
+    {
+        assert standardKapazitaet > 0 : "Vorbedingung verletzt: standardKapazitaet > 0";
+
+        _standardKapazitaet = standardKapazitaet;
+        _kapazitaeten = new ConcurrentHashMap<String, Integer>();
+        _prioritaeten = new ConcurrentHashMap<Kundennummer, Integer>();
+    }
+
+    /**
+     * Legt die Kapazität für eine Medienart fest. Ein VerleihService übernimmt
+     * sie erst, wenn ihm die Regeln mit setVormerkregeln übergeben werden.
+     *
+     * @param medienBezeichnung Die Medienart, wie sie
+     *            Medium.getMedienBezeichnung() liefert.
+     * @param kapazitaet Die maximale Anzahl an Vormerkungen je Medium dieser
+     *            Art.
+     *
+     * @require medienBezeichnung != null
+     * @require kapazitaet > 0
+     *
+     * @ensure getKapazitaet(medium) == kapazitaet für alle Medien dieser Art
+     */
+    public void setKapazitaet(String medienBezeichnung, int kapazitaet)
+    {
+        assert medienBezeichnung != null : "Vorbedingung verletzt: medienBezeichnung != null";
+        assert kapazitaet > 0 : "Vorbedingung verletzt: kapazitaet > 0";
+
+        _kapazitaeten.put(medienBezeichnung, kapazitaet);
+    }
+
+    /**
+     * Gibt die maximale Anzahl an Vormerkungen für ein Medium zurück.
+     *
+     * @param medium Das Medium.
+     *
+     * @require medium != null
+     *
+     * @ensure result > 0
+     */
+    public int getKapazitaet(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        Integer kapazitaet = _kapazitaeten.get(medium.getMedienBezeichnung());
+        return kapazitaet != null ? kapazitaet : _standardKapazitaet;
+    }
+
+    /**
+     * Legt die Priorität eines Kunden fest. Sie gilt sofort für alle
+     * Vormerkungen, die danach angelegt werden. Bestehende Vormerkungen werden
+     * erst neu eingereiht, wenn die Regeln erneut mit setVormerkregeln
+     * übergeben werden.
+     *
+     * @param kundennummer Die Kundennummer des Kunden.
+     * @param prioritaet Die Priorität, höhere Werte werden zuerst bedient.
+     *
+     * @require kundennummer != null
+     */
+    public void setPrioritaet(Kundennummer kundennummer, int prioritaet)
+    {
+        assert kundennummer != null : "Vorbedingung verletzt: kundennummer != null";
+
+        _prioritaeten.put(kundennummer, prioritaet);
+    }
+
+    /**
+     * Gibt die Priorität eines Kunden zurück.
+     *
+     * @param kunde Der Kunde.
+     *
+     * @require kunde != null
+     */
+    public int getPrioritaet(Kunde kunde)
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+
+        Integer prioritaet = _prioritaeten.get(kunde.getKundennummer());
+        return prioritaet != null ? prioritaet : STANDARD_PRIORITAET;
+    }
+}
@@ -0,0 +1,360 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Vormerkkarte;
+
+/**
+ * Die Vormerkkarten eines Mediums, geordnet nach der Priorität ihrer
+ * Vormerker und bei gleicher Priorität in der Reihenfolge, in der sie
+ * angelegt wurden. Der Kopf der Schlange ist die Karte des Erstvormerkers.
+ *
+ * Die Kapazität begrenzt die Schlange nicht selbst: Der VerleihService prüft
+ * sie mit istVoll() beim Vormerken, beim Wiederherstellen aus dem Journal
+ * und nach dem Verkleinern der Kapazität kann die Schlange mehr Karten
+ * enthalten.
+ *
+ * Die Einträge liegen sortiert in einer Liste, in die neue Karten per
+ * binärer Suche einsortiert werden. Zusätzlich kennt die Schlange den Eintrag
+ * jedes Vormerkers. Der Kopf, die Karte eines Kunden und jede Seite für die
+ * Anzeige können deshalb ohne Sortieren gelesen werden, Einfügen und
+ * Entfernen verschieben nur die folgenden Einträge. Sortiert wird lediglich
+ * in priorisiereNeu(). Die Liste aller Karten wird als unveränderliche Kopie
+ * bis zur nächsten Änderung aufbewahrt.
+ *
+ * Alle Operationen sind synchronisiert, sodass die Schlange auch ohne die
+ * Sperre ihres Mediums gelesen werden kann.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Vormerkschlange
+{
+    /**
+     * Ordnet Einträge nach absteigender Priorität, dann nach aufsteigender
+     * Folgenummer.
+     */
+    private static final Comparator<Eintrag> REIHENFOLGE = new Comparator<Eintrag>()
+    {
+        @Override
+        public int compare(Eintrag eintrag1, Eintrag eintrag2)
+        {
+            if (eintrag1._prioritaet != eintrag2._prioritaet)
+            {
+                return eintrag1._prioritaet > eintrag2._prioritaet ? -1 : 1;
+            }
+            return eintrag1._folgenummer < eintrag2._folgenummer ? -1
+                    : (eintrag1._folgenummer == eintrag2._folgenummer ? 0 : 1);
+        }
+    };
+
+    private int _kapazitaet;
+
+    /**
+     * Die Einträge in der Reihenfolge der Schlange, der Kopf liegt an
+     * Position 0.
+     */
+    private final List<Eintrag> _reihe;
+
+    /**
+     * Die Einträge nach Vormerker.
+     */
+    private final Map<Kunde, Eintrag> _eintraege;
+
+    /**
+     * Die Folgenummer für den nächsten Eintrag.
+     */
+    private long _naechsteFolgenummer;
+
+    /**
+     * Unveränderliche Kopie der Karten in der Reihenfolge der Schlange, oder
+     * null, wenn sich die Schlange seit der letzten Kopie geändert hat.
+     */
+    private List<Vormerkkarte> _karten;
+
+    /**
+     * Initialisiert eine neue, leere Vormerkschlange.
+     *
+     * @param kapazitaet Die maximale Anzahl an Vormerkungen.
+     *
+     * @require kapazitaet > 0
+     */
+    Vormerkschlange(int kapazitaet)
+    {
+        assert kapazitaet > 0 : "Vorbedingung verletzt: kapazitaet > 0";
+
+        _kapazitaet = kapazitaet;
+        _reihe = new ArrayList<Eintrag>(Math.min(kapazitaet, 16));
+        _eintraege = new HashMap<Kunde, Eintrag>();
+    }
+
+    /**
+     * Gibt die maximale Anzahl an Vormerkungen zurück.
+     */
+    synchronized int getKapazitaet()
+    {
+        return _kapazitaet;
+    }
+
+    /**
+     * Legt die maximale Anzahl an Vormerkungen fest. Bestehende Vormerkungen
+     * bleiben erhalten, auch wenn es mehr sind.
+     *
+     * @require kapazitaet > 0
+     */
+    synchronized void setKapazitaet(int kapazitaet)
+    {
+        assert kapazitaet > 0 : "Vorbedingung verletzt: kapazitaet > 0";
+
+        _kapazitaet = kapazitaet;
+    }
+
+    /**
+     * Gibt die Anzahl der Vormerkungen zurück.
+     */
+    synchronized int getAnzahl()
+    {
+        return _reihe.size();
+    }
+
+    /**
+     * Prüft, ob keine Vormerkung besteht.
+     */
+    synchronized boolean istLeer()
+    {
+        return _reihe.isEmpty();
+    }
+
+    /**
+     * Prüft, ob die Kapazität erreicht ist.
+     */
+    synchronized boolean istVoll()
+    {
+        return _reihe.size() >= _kapazitaet;
+    }
+
+    /**
+     * Prüft, ob der Kunde eine Vormerkung in dieser Schlange hat.
+     *
+     * @require kunde != null
+     */
+    synchronized boolean enthaelt(Kunde kunde)
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+
+        return _eintraege.containsKey(kunde);
+    }
+
+    /**
+     * Gibt die Karte des Erstvormerkers zurück, oder null, wenn die Schlange
+     * leer ist.
+     */
+    synchronized Vormerkkarte getErste()
+    {
+        return _reihe.isEmpty() ? null : _reihe.get(0)._karte;
+    }
+
+    /**
+     * Gibt die Karte des Kunden zurück, oder null, wenn er keine Vormerkung in
+     * dieser Schlange hat.
+     *
+     * @require kunde != null
+     */
+    synchronized Vormerkkarte getKarteFuer(Kunde kunde)
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+
+        Eintrag eintrag = _eintraege.get(kunde);
+        return eintrag == null ? null : eintrag._karte;
+    }
+
+    /**
+     * Reiht eine Karte nach ihrer Priorität ein, hinter allen Karten mit
+     * gleicher oder höherer Priorität.
+     *
+     * Die Kapazität wird hier nicht geprüft, damit beim Wiederherstellen aus
+     * dem Journal keine Vormerkung verloren geht.
+     *
+     * @param karte Die Karte.
+     * @param prioritaet Die Priorität des Vormerkers.
+     *
+     * @require karte != null
+     * @require !enthaelt(karte.getVormerker())
+     *
+     * @ensure enthaelt(karte.getVormerker())
+     */
+    synchronized void fuegeHinzu(Vormerkkarte karte, int prioritaet)
+    {
+        assert karte != null : "Vorbedingung verletzt: karte != null";
+        assert !enthaelt(karte
+            .getVormerker()) : "Vorbedingung verletzt: !enthaelt(karte.getVormerker())";
+
+        Eintrag eintrag = new Eintrag(karte, prioritaet,
+                _naechsteFolgenummer++);
+        _eintraege.put(karte.getVormerker(), eintrag);
+        // Die Folgenummer ist eindeutig, der Eintrag wird also nicht gefunden
+        int position = -Collections.binarySearch(_reihe, eintrag, REIHENFOLGE)
+                - 1;
+        _reihe.add(position, eintrag);
+        _karten = null;
+    }
+
+    /**
+     * Entfernt die Karte des Kunden aus der Schlange.
+     *
+     * @return Die entfernte Karte, oder null, wenn der Kunde keine Vormerkung
+     *         in dieser Schlange hatte.
+     *
+     * @require kunde != null
+     *
+     * @ensure !enthaelt(kunde)
+     */
+    synchronized Vormerkkarte entferne(Kunde kunde)
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+
+        Eintrag eintrag = _eintraege.remove(kunde);
+        if (eintrag == null)
+        {
+            return null;
+        }
+        _reihe.remove(Collections.binarySearch(_reihe, eintrag, REIHENFOLGE));
+        _karten = null;
+        return eintrag._karte;
+    }
+
+    /**
+     * Entfernt die Karte des Erstvormerkers aus der Schlange.
+     *
+     * @return Die entfernte Karte, oder null, wenn die Schlange leer war.
+     */
+    synchronized Vormerkkarte entferneErste()
+    {
+        Vormerkkarte erste = getErste();
+        if (erste != null)
+        {
+            entferne(erste.getVormerker());
+        }
+        return erste;
+    }
+
+    /**
+     * Bestimmt die Prioritäten aller Vormerker neu und ordnet die Schlange
+     * danach. Bei gleicher Priorität bleibt die bisherige Reihenfolge
+     * erhalten.
+     *
+     * @require regeln != null
+     */
+    synchronized void priorisiereNeu(Vormerkregeln regeln)
+    {
+        assert regeln != null : "Vorbedingung verletzt: regeln != null";
+
+        for (Eintrag eintrag : _reihe)
+        {
+            eintrag._prioritaet = regeln.getPrioritaet(eintrag._karte
+                .getVormerker());
+        }
+        Collections.sort(_reihe, REIHENFOLGE);
+        _karten = null;
+    }
+
+    /**
+     * Gibt die Karten in der Reihenfolge der Schlange als unveränderliche
+     * Liste zurück. Bis zur nächsten Änderung wird dieselbe Liste
+     * zurückgegeben.
+     *
+     * @ensure result != null
+     */
+    synchronized List<Vormerkkarte> getKarten()
+    {
+        if (_karten == null)
+        {
+            List<Vormerkkarte> karten = new ArrayList<Vormerkkarte>(
+                    _reihe.size());
+            for (Eintrag eintrag : _reihe)
+            {
+                karten.add(eintrag._karte);
+            }
+            _karten = Collections.unmodifiableList(karten);
+        }
+        return _karten;
+    }
+
+    /**
+     * Gibt einen Ausschnitt der Karten in der Reihenfolge der Schlange
+     * zurück, etwa eine Seite einer Anzeige.
+     *
+     * @param von Die Position der ersten Karte, 0 für den Erstvormerker.
+     * @param anzahl Die maximale Anzahl an Karten.
+     *
+     * @require von >= 0
+     * @require anzahl >= 0
+     *
+     * @ensure result != null
+     */
+    synchronized List<Vormerkkarte> getKarten(int von, int anzahl)
+    {
+        assert von >= 0 : "Vorbedingung verletzt: von >= 0";
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        List<Vormerkkarte> result = new ArrayList<Vormerkkarte>();
+        int bis = (int) Math.min(_reihe.size(), (long) von + anzahl);
+        for (int i = von; i < bis; i++)
+        {
+            result.add(_reihe.get(i)._karte);
+        }
+        return result;
+    }
+
+    /**
+     * Gibt die Vormerker in der Reihenfolge der Schlange zurück.
+     *
+     * @ensure result != null
+     */
+    synchronized List<Kunde> getVormerker()
+    {
+        return getVormerker(0, _reihe.size());
+    }
+
+    /**
+     * Gibt einen Ausschnitt der Vormerker in der Reihenfolge der Schlange
+     * zurück, analog zu getKarten(int, int).
+     *
+     * @require von >= 0
+     * @require anzahl >= 0
+     *
+     * @ensure result != null
+     */
+    synchronized List<Kunde> getVormerker(int von, int anzahl)
+    {
+        List<Kunde> result = new ArrayList<Kunde>();
+        for (Vormerkkarte karte : getKarten(von, anzahl))
+        {
+            result.add(karte.getVormerker());
+        }
+        return result;
+    }
+
+    /**
+     * Ein Eintrag der Schlange.
+     */
+    private static final class Eintrag
+    {
+        private final Vormerkkarte _karte;
+        private int _prioritaet;
+        private final long _folgenummer;
+
+        Eintrag(Vormerkkarte karte, int prioritaet, long folgenummer)
+        {
+            _karte = karte;
+            _prioritaet = prioritaet;
+            _folgenummer = folgenummer;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Vormerkkarte;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
+
+/**
+ * @author SE2-Team
+ */
+public class VormerkschlangeTest
+{
+    private final Medium _medium;
+    private final Vormerkkarte _karte1;
+    private final Vormerkkarte _karte2;
+    private final Vormerkkarte _karte3;
+    private final Vormerkschlange _schlange;
+
+    public VormerkschlangeTest()
+    {
+        _medium = new CD("CD", "baz", "foo", 123);
+        Datum datum = new Datum(3, 4, 2009);
+        _karte1 = new Vormerkkarte(
+                new Kunde(new Kundennummer(111111), "a", "a"), _medium, datum);
+        _karte2 = new Vormerkkarte(
+                new Kunde(new Kundennummer(222222), "b", "b"), _medium, datum);
+        _karte3 = new Vormerkkarte(
+                new Kunde(new Kundennummer(333333), "c", "c"), _medium, datum);
+        _schlange = new Vormerkschlange(2);
+    }
+
+    @Test
+    public void testeLeereSchlange()
+    {
+        assertTrue(_schlange.istLeer());
+        assertFalse(_schlange.istVoll());
+        assertEquals(0, _schlange.getAnzahl());
+        assertEquals(2, _schlange.getKapazitaet());
+        assertNull(_schlange.getErste());
+        assertNull(_schlange.getKarteFuer(_karte1.getVormerker()));
+        assertNull(_schlange.entferne(_karte1.getVormerker()));
+    }
+
+    @Test
+    public void testeReihenfolgeUndKapazitaet()
+    {
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+
+        assertTrue(_schlange.istVoll());
+        assertSame(_karte1, _schlange.getErste());
+        assertSame(_karte2, _schlange.getKarteFuer(_karte2.getVormerker()));
+        assertTrue(_schlange.enthaelt(_karte1.getVormerker()));
+        assertFalse(_schlange.enthaelt(_karte3.getVormerker()));
+        assertEquals(Arrays.asList(_karte1, _karte2), _schlange.getKarten());
+        assertEquals(
+                Arrays.asList(_karte1.getVormerker(), _karte2.getVormerker()),
+                _schlange.getVormerker());
+    }
+
+    @Test
+    public void testeEntfernenRueckenNach()
+    {
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+
+        assertSame(_karte1, _schlange.entferne(_karte1.getVormerker()));
+        assertSame(_karte2, _schlange.getErste());
+        assertFalse(_schlange.istVoll());
+
+        _schlange.fuegeHinzu(_karte3, 0);
+        assertEquals(Arrays.asList(_karte2, _karte3), _schlange.getKarten());
+
+        // Entfernen vom Ende lässt den Kopf unverändert
+        assertSame(_karte3, _schlange.entferne(_karte3.getVormerker()));
+        assertSame(_karte2, _schlange.getErste());
+        assertEquals(1, _schlange.getAnzahl());
+    }
+
+    @Test
+    public void testeHoeherePrioritaetWirdZuerstBedient()
+    {
+        _schlange.setKapazitaet(3);
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+        _schlange.fuegeHinzu(_karte3, 5);
+
+        assertSame(_karte3, _schlange.getErste());
+        assertEquals(Arrays.asList(_karte3, _karte1, _karte2),
+                _schlange.getKarten());
+
+        assertSame(_karte3, _schlange.entferneErste());
+        assertSame(_karte1, _schlange.getErste());
+    }
+
+    @Test
+    public void testePriorisiereNeuBehaeltReihenfolgeBeiGleicherPrioritaet()
+    {
+        _schlange.setKapazitaet(3);
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+        _schlange.fuegeHinzu(_karte3, 0);
+
+        Vormerkregeln regeln = new Vormerkregeln();
+        regeln.setPrioritaet(_karte2.getVormerker()
+            .getKundennummer(), 1);
+        _schlange.priorisiereNeu(regeln);
+        assertEquals(Arrays.asList(_karte2, _karte1, _karte3),
+                _schlange.getKarten());
+
+        _schlange.priorisiereNeu(new Vormerkregeln());
+        assertEquals(Arrays.asList(_karte1, _karte2, _karte3),
+                _schlange.getKarten());
+    }
+
+    @Test
+    public void testeSeitenweiseAbfrage()
+    {
+        _schlange.setKapazitaet(3);
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+        _schlange.fuegeHinzu(_karte3, 0);
+
+        assertEquals(Arrays.asList(_karte2.getVormerker(),
+                _karte3.getVormerker()), _schlange.getVormerker(1, 5));
+        assertEquals(Arrays.asList(_karte1), _schlange.getKarten(0, 1));
+        assertTrue(_schlange.getVormerker(3, 3)
+            .isEmpty());
+    }
+
+    @Test
+    public void testeKartenBleibenBisZurAenderungDieselbeListe()
+    {
+        _schlange.fuegeHinzu(_karte1, 0);
+        List<Vormerkkarte> karten = _schlange.getKarten();
+        assertSame(karten, _schlange.getKarten());
+        try
+        {
+            karten.add(_karte2);
+            fail("UnsupportedOperationException erwartet");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+
+        _schlange.fuegeHinzu(_karte2, 1);
+        assertEquals(Arrays.asList(_karte1), karten);
+        assertEquals(Arrays.asList(_karte2, _karte1), _schlange.getKarten());
+    }
+
+    @Test
+    public void testeKapazitaetBegrenztDieSchlangeNichtSelbst()
+    {
+        _schlange.fuegeHinzu(_karte1, 0);
+        _schlange.fuegeHinzu(_karte2, 0);
+        _schlange.fuegeHinzu(_karte3, 0);
+        assertTrue(_schlange.istVoll());
+        assertEquals(3, _schlange.getAnzahl());
+    }
+
+    @Test
+    public void testeGrosseSchlangeBleibtGeordnet()
+    {
+        int anzahl = 1000;
+        Vormerkschlange schlange = new Vormerkschlange(anzahl);
+        List<Vormerkkarte> karten = new ArrayList<Vormerkkarte>();
+        for (int i = 0; i < anzahl; i++)
+        {
+            Vormerkkarte karte = new Vormerkkarte(
+                    new Kunde(new Kundennummer(100000 + i), "v", "n"), _medium,
+                    new Datum(3, 4, 2009));
+            karten.add(karte);
+            // Jeder dritte Kunde wird bevorzugt
+            schlange.fuegeHinzu(karte, i % 3 == 0 ? 1 : 0);
+        }
+        assertTrue(schlange.istVoll());
+
+        // Jeden zweiten Kunden wieder austragen
+        for (int i = 1; i < anzahl; i += 2)
+        {
+            assertSame(karten.get(i), schlange.entferne(karten.get(i)
+                .getVormerker()));
+        }
+
+        List<Vormerkkarte> erwartet = new ArrayList<Vormerkkarte>();
+        for (int prioritaet = 1; prioritaet >= 0; prioritaet--)
+        {
+            for (int i = 0; i < anzahl; i += 2)
+            {
+                if ((i % 3 == 0 ? 1 : 0) == prioritaet)
+                {
+                    erwartet.add(karten.get(i));
+                }
+            }
+        }
+        assertEquals(erwartet, schlange.getKarten());
+
+        List<Vormerkkarte> entnommen = new ArrayList<Vormerkkarte>();
+        while (!schlange.istLeer())
+        {
+            entnommen.add(schlange.entferneErste());
+        }
+        assertEquals(erwartet, entnommen);
+    }
+}
@@ -1,6 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.startup;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.SwingUtilities;
 
@@ -9,7 +10,10 @@ import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.Kundenst
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandServiceImpl;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiLeseException;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DateiSchreibException;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DatenEinleser;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.persistenz.DatenSchreiber;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihJournal;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihServiceImpl;
 import de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.hauptwerkzeug.MediathekWerkzeug;
@@ -27,6 +31,16 @@ public class StartUpMediathek_Blatt06
             "./bestand/kundenstamm.txt");
     private static final File MEDIEN_DATEI = new File(
             "./bestand/medienbestand.txt");
+    private static final File JOURNAL_DATEI = new File(
+            "./verleihJournal.bin");
+    private static final File MOMENTAUFNAHME_DATEI = new File(
+            "./verleihMomentaufnahme.bin");
+
+    // Nach so vielen Journaleinträgen wird eine Momentaufnahme geschrieben
+    private static final int MOMENTAUFNAHME_INTERVALL = 1000;
+
+    // In diesem Abstand werden geänderte Bestände zurückgeschrieben
+    private static final int SCHREIB_INTERVALL_SEKUNDEN = 30;
 
     private static KundenstammService _kundenstamm;
     private static MedienbestandService _medienbestand;
@@ -61,14 +75,19 @@ public class StartUpMediathek_Blatt06
         try
         {
             DatenEinleser datenEinleser = new DatenEinleser(MEDIEN_DATEI,
-                    KUNDEN_DATEI);
+                    KUNDEN_DATEI, DatenEinleser.Modus.PARALLEL);
             datenEinleser.leseDaten();
             _medienbestand = new MedienbestandServiceImpl(
                     datenEinleser.getMedien());
             _kundenstamm = new KundenstammServiceImpl(
                     datenEinleser.getKunden());
+            VerleihJournal journal = new VerleihJournal(JOURNAL_DATEI,
+                    MOMENTAUFNAHME_DATEI, MOMENTAUFNAHME_INTERVALL);
+            journal.getSchreiber()
+                .schliesseBeimBeenden();
             _verleihService = new VerleihServiceImpl(_kundenstamm,
-                    _medienbestand, datenEinleser.getVerleihkarten());
+                    _medienbestand, datenEinleser.getVerleihkarten(), journal);
+            starteDatenSchreiber();
         }
         catch (DateiLeseException e)
         {
@@ -76,4 +95,31 @@ public class StartUpMediathek_Blatt06
         }
     }
 
+    /**
+     * Startet das periodische Zurückschreiben der Bestände. Beim Beenden der
+     * Anwendung werden sie ein letztes Mal geschrieben.
+     */
+    private static void starteDatenSchreiber()
+    {
+        final DatenSchreiber datenSchreiber = new DatenSchreiber(MEDIEN_DATEI,
+                KUNDEN_DATEI, _medienbestand, _kundenstamm, _verleihService);
+        datenSchreiber.starte(SCHREIB_INTERVALL_SEKUNDEN, TimeUnit.SECONDS);
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        datenSchreiber.beende();
+                    }
+                    catch (DateiSchreibException e)
+                    {
+                        e.printStackTrace();
+                    }
+                }
+            });
+    }
+
 }
@@ -3,8 +3,12 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.hauptwerkzeug;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
+import javax.swing.JOptionPane;
+
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.ServiceObserver;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.kundenstamm.KundenstammService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.medienbestand.MedienbestandService;
+import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.ProtokollierException;
 import de.uni_hamburg.informatik.swt.se2.mediathek.services.verleih.VerleihService;
 import de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.ausleihe.AusleihWerkzeug;
 import de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.rueckgabe.RueckgabeWerkzeug;
@@ -53,6 +57,12 @@ public class MediathekWerkzeug
      */
     private VormerkWerkzeug _vormerkWerkzeug;
 
+    /**
+     * Der zuletzt gemeldete Fehler beim Schreiben einer Momentaufnahme, damit
+     * jeder fehlgeschlagene Versuch nur einmal gemeldet wird.
+     */
+    private ProtokollierException _gemeldeterMomentaufnahmeFehler;
+
     /**
      * Initialisiert ein neues MediathekWerkzeug.
      * 
@@ -86,6 +96,39 @@ public class MediathekWerkzeug
                 _rueckgabeWerkzeug.getUIPanel(), _vormerkWerkzeug.getUIPanel());
 
         registriereUIAktionen();
+        registriereServiceBeobachter();
+    }
+
+    /**
+     * Registriert einen Beobachter am VerleihService, der fehlgeschlagene
+     * Momentaufnahmen meldet. Der Vorgang selbst ist dabei gelungen, deshalb
+     * meldet ihn nicht das ausführende Werkzeug.
+     */
+    private void registriereServiceBeobachter()
+    {
+        _verleihService.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void reagiereAufAenderung()
+            {
+                meldeMomentaufnahmeFehler();
+            }
+        });
+    }
+
+    /**
+     * Zeigt einen neuen Fehler beim Schreiben einer Momentaufnahme an.
+     */
+    private void meldeMomentaufnahmeFehler()
+    {
+        ProtokollierException fehler = _verleihService
+            .getMomentaufnahmeFehler();
+        if (fehler != null && fehler != _gemeldeterMomentaufnahmeFehler)
+        {
+            _gemeldeterMomentaufnahmeFehler = fehler;
+            JOptionPane.showMessageDialog(null, fehler.getMessage(),
+                    "Fehlermeldung", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     /**
@@ -33,6 +33,11 @@ public class VerleihkartenTableModel extends AbstractTableModel
      */
     private List<Verleihkarte> _verleihkartenListe;
 
+    /**
+     * Die zuletzt übergebene Liste, direkt gespeichert, oder null.
+     */
+    private List<Verleihkarte> _verleihkarten;
+
     /**
      * Konstruktor. Initialisiert ein neues VerleihkartenTableModel.
      */
@@ -114,17 +119,25 @@ public class VerleihkartenTableModel extends AbstractTableModel
     /**
      * Setzt die anzuzeigenden Verleihkarten.
      * 
-     * @param verleihkarten Eine Liste der zu setzenden Verleihkarten.
-     *            Nachträgliche Änderungen der Liste wirken sich auch auf das
-     *            Model aus.
+     * Die Liste wird direkt gespeichert und darf danach nicht mehr verändert
+     * werden, etwa eine unveränderliche Momentaufnahme des VerleihService.
+     * Nur wenn eine andere Liste als beim letzten Mal übergeben wird, wird
+     * eine sortierte Kopie erzeugt.
+     * 
+     * @param verleihkarten Eine Liste der zu setzenden Verleihkarten, sie darf
+     *            unveränderlich sein.
      * 
      * @require verleihkarten != null
      */
     public void setVerleihkarten(List<Verleihkarte> verleihkarten)
     {
         assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
-        _verleihkartenListe = verleihkarten;
-        sortiereVerleihkarten();
+        if (verleihkarten != _verleihkarten)
+        {
+            _verleihkarten = verleihkarten;
+            _verleihkartenListe = new ArrayList<Verleihkarte>(verleihkarten);
+            sortiereVerleihkarten();
+        }
 
         fireTableDataChanged();
     }
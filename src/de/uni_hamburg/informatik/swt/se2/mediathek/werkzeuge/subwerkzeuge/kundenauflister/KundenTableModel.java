@@ -28,6 +28,11 @@ public class KundenTableModel extends AbstractTableModel
      */
     private List<Kunde> _kundenListe;
 
+    /**
+     * Die zuletzt übergebene Liste, direkt gespeichert, oder null.
+     */
+    private List<Kunde> _kunden;
+
     /**
      * Initialisiert ein KundenTableModel.
      * 
@@ -113,17 +118,24 @@ public class KundenTableModel extends AbstractTableModel
      * Setze die anzuzeigenden Kunden. Nach dem Setzen wird die Tabelle
      * aktualisiert.
      * 
-     * @param kunden Eine Liste aller Kunden auf der gearbeitet wird.
-     *            Nachträgliche Änderungen der Liste wirken sich auch auf das
-     *            Model aus.
+     * Die Liste wird direkt gespeichert und darf danach nicht mehr verändert
+     * werden, etwa eine unveränderliche Momentaufnahme des Kundenstamms. Nur
+     * wenn eine andere Liste als beim letzten Mal übergeben wird, wird eine
+     * sortierte Kopie erzeugt.
+     * 
+     * @param kunden Eine Liste aller Kunden, sie darf unveränderlich sein.
      * 
      * @require kunden != null
      */
     public void setKunden(List<Kunde> kunden)
     {
         assert kunden != null : "Vorbedingung verletzt: kunden != null";
-        _kundenListe = kunden;
-        sortiereKunden();
+        if (kunden != _kunden)
+        {
+            _kunden = kunden;
+            _kundenListe = new ArrayList<Kunde>(kunden);
+            sortiereKunden();
+        }
 
         fireTableDataChanged();
     }
@@ -5,6 +5,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -31,6 +33,18 @@ public class KundenTableModelTest
         _model.setKunden(kunden);
     }
 
+    @Test
+    public void testeUnveraenderlicheListeWirdSortiert() throws Exception
+    {
+        List<Kunde> kunden = Collections.unmodifiableList(
+                Arrays.asList(_kundeSchmitz, _kundeSchmidt));
+        _model.setKunden(kunden);
+        _model.setKunden(kunden);
+        assertEquals(2, _model.getRowCount());
+        assertEquals(_kundeSchmidt, _model.getKundeFuerZeile(0));
+        assertEquals(_kundeSchmitz, _model.getKundeFuerZeile(1));
+    }
+
     @Test
     public void testeKundenMitZeilenVerknuepft() throws Exception
     {
@@ -1,5 +1,8 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.subwerkzeuge.vormerkmedienauflister;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
 
@@ -14,9 +17,7 @@ public class VormerkMedienFormatierer
 
     private final Kunde _entleiher;
     private final Medium _medium;
-    private final Kunde _vormerker3;
-    private final Kunde _vormerker2;
-    private final Kunde _vormerker1;
+    private final List<Kunde> _vormerker;
 
     /**
      * Initialisiert einen neuen VormerkMedienFormatierer für das angegebene
@@ -24,21 +25,20 @@ public class VormerkMedienFormatierer
      * 
      * @param medium Ein adaptiertes Medium.
      * @param entleiher Der aktuelle Entleiher, kann null sein.
-     * @param vormerker1 Der erste Vormerker, kann null sein.
-     * @param vormerker2 Der zweite Vormerker, kann null sein.
-     * @param vormerker3 Der dritte Vormerker, kann null sein.
+     * @param vormerker Die anzuzeigenden Vormerker in der Reihenfolge der
+     *            Vormerkschlange, etwa eine Seite einer längeren Schlange.
      * 
      * @require medium != null
+     * @require vormerker != null
      */
     public VormerkMedienFormatierer(Medium medium, Kunde entleiher,
-            Kunde vormerker1, Kunde vormerker2, Kunde vormerker3)
+            List<Kunde> vormerker)
     {
         assert medium != null : "@require (medium != null)";
+        assert vormerker != null : "@require (vormerker != null)";
         _medium = medium;
         _entleiher = entleiher;
-        _vormerker1 = vormerker1;
-        _vormerker2 = vormerker2;
-        _vormerker3 = vormerker3;
+        _vormerker = new ArrayList<Kunde>(vormerker);
     }
 
     /**
@@ -72,36 +72,25 @@ public class VormerkMedienFormatierer
     }
 
     /**
-     * Gibt den Namen des dritten Vormerkers zurück. Der String ist leer, wenn
-     * kein dritter Vormerker existiert.
+     * Gibt den Namen des Vormerkers an der angegebenen Position der
+     * angezeigten Vormerker zurück. Der String ist leer, wenn dort kein
+     * Vormerker existiert.
      * 
-     * @ensure result != null
-     */
-    public String getVormerker3()
-    {
-        return erzeugeKundendarstellung(_vormerker3);
-    }
-
-    /**
-     * Gibt den Namen des zweiten Vormerkers zurück. Der String ist leer, wenn
-     * kein zweiter Vormerker existiert.
+     * @param position Die Position, 0 für den ersten angezeigten Vormerker.
      * 
-     * @ensure result != null
-     */
-    public String getVormerker2()
-    {
-        return erzeugeKundendarstellung(_vormerker2);
-    }
-
-    /**
-     * Gibt den Namen des ersten Vormerkers zurück. Der String ist leer, wenn
-     * kein erster Vormerker existiert.
+     * @require position >= 0
      * 
      * @ensure result != null
      */
-    public String getVormerker1()
+    public String getVormerker(int position)
     {
-        return erzeugeKundendarstellung(_vormerker1);
+        assert position >= 0 : "@require (position >= 0)";
+        Kunde vormerker = null;
+        if (position < _vormerker.size())
+        {
+            vormerker = _vormerker.get(position);
+        }
+        return erzeugeKundendarstellung(vormerker);
     }
 
     /**
@@ -3,8 +3,11 @@ package de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.subwerkzeuge.vorme
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
+
 import org.junit.Test;
 
+import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.CD;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.DVD;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.KonsolenVideospiel;
@@ -66,6 +69,7 @@ public class VormerkMedienFormatiererComparatorTest
 
     private VormerkMedienFormatierer erzeugeFormatierer(Medium medium)
     {
-        return new VormerkMedienFormatierer(medium, null, null, null, null);
+        return new VormerkMedienFormatierer(medium, null,
+                Collections.<Kunde> emptyList());
     }
 }
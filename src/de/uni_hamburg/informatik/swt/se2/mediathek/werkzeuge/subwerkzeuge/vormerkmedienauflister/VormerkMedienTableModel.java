@@ -20,11 +20,21 @@ public class VormerkMedienTableModel extends AbstractTableModel
 {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Die Anzahl der Vormerker, die gleichzeitig angezeigt werden.
+     */
+    public static final int VORMERKER_PRO_SEITE = 3;
+
     private static final String[] COLUMN_NAMES = new String[] {"Medientyp",
-            "Titel", "Ausleiher", "Vormerker 1", "Vormerker 2", "Vormerker 3"};
+            "Titel", "Ausleiher"};
 
     private List<VormerkMedienFormatierer> _medienListe;
 
+    /**
+     * Die angezeigte Seite der Vormerker, beginnend bei 0.
+     */
+    private int _seite;
+
     /**
      * Initialisiert ein VormerkMedienTableModel.
      */
@@ -42,13 +52,23 @@ public class VormerkMedienTableModel extends AbstractTableModel
     @Override
     public int getColumnCount()
     {
-        return COLUMN_NAMES.length;
+        return COLUMN_NAMES.length + VORMERKER_PRO_SEITE;
     }
 
     @Override
     public String getColumnName(int column)
     {
-        return COLUMN_NAMES[column];
+        String name;
+        if (column < COLUMN_NAMES.length)
+        {
+            name = COLUMN_NAMES[column];
+        }
+        else
+        {
+            name = "Vormerker " + (_seite * VORMERKER_PRO_SEITE + column
+                    - COLUMN_NAMES.length + 1);
+        }
+        return name;
     }
 
     @Override
@@ -73,14 +93,8 @@ public class VormerkMedienTableModel extends AbstractTableModel
         case 2:
             ergebnis = formatierer.getEntleiher();
             break;
-        case 3:
-            ergebnis = formatierer.getVormerker1();
-            break;
-        case 4:
-            ergebnis = formatierer.getVormerker2();
-            break;
-        case 5:
-            ergebnis = formatierer.getVormerker3();
+        default:
+            ergebnis = formatierer.getVormerker(column - COLUMN_NAMES.length);
             break;
         }
         return ergebnis;
@@ -135,6 +149,36 @@ public class VormerkMedienTableModel extends AbstractTableModel
         fireTableDataChanged();
     }
 
+    /**
+     * Liefert die angezeigte Seite der Vormerker.
+     * 
+     * @ensure result >= 0
+     */
+    public int getSeite()
+    {
+        return _seite;
+    }
+
+    /**
+     * Setzt die angezeigte Seite der Vormerker. Die Spalten bleiben dieselben,
+     * nur getColumnName liefert für die Vormerkerspalten die Nummern der
+     * neuen Seite. Damit die Tabelle ihre Spalten nicht bei jedem Blättern
+     * neu aufbaut, wird kein Strukturwechsel gemeldet: Die Überschriften
+     * übernimmt der Aufrufer in die Spalten der Tabelle, die Vormerker der
+     * Seite müssen anschließend mit setMedien gesetzt werden.
+     * 
+     * @param seite Die Seite, beginnend bei 0.
+     * 
+     * @require seite >= 0
+     * 
+     * @ensure getSeite() == seite
+     */
+    public void setSeite(int seite)
+    {
+        assert seite >= 0 : "Vorbedingung verletzt: seite >= 0";
+        _seite = seite;
+    }
+
     /**
      * Liefert den Medien-Formatierer für einen angegebenen Index. Die
      * Gültigkeit des Index wird nicht überprüft.
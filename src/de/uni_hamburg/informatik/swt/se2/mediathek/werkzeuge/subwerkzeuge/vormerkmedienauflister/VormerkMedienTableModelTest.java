@@ -4,8 +4,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
 import org.junit.Test;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.fachwerte.Kundennummer;
@@ -35,12 +39,12 @@ public class VormerkMedienTableModelTest
         _kunde3 = new Kunde(new Kundennummer(333333), "Vorname3", "Nachname3");
         _kunde4 = new Kunde(new Kundennummer(444444), "Vorname4", "Nachname4");
         List<VormerkMedienFormatierer> medien = new ArrayList<VormerkMedienFormatierer>();
-        medien.add(new VormerkMedienFormatierer(_cd1, _kunde1, _kunde2, _kunde3,
-                _kunde4));
-        medien.add(new VormerkMedienFormatierer(_cd2, _kunde2, _kunde3, _kunde4,
-                _kunde1));
-        medien.add(new VormerkMedienFormatierer(_cd3, _kunde3, _kunde4, _kunde1,
-                _kunde2));
+        medien.add(new VormerkMedienFormatierer(_cd1, _kunde1,
+                Arrays.asList(_kunde2, _kunde3, _kunde4)));
+        medien.add(new VormerkMedienFormatierer(_cd2, _kunde2,
+                Arrays.asList(_kunde3, _kunde4, _kunde1)));
+        medien.add(new VormerkMedienFormatierer(_cd3, _kunde3,
+                Arrays.asList(_kunde4, _kunde1, _kunde2)));
         _model = new VormerkMedienTableModel();
         _model.setMedien(medien);
     }
@@ -103,6 +107,44 @@ public class VormerkMedienTableModelTest
         assertEquals("Vorname2 Nachname2", _model.getValueAt(2, 5));
     }
 
+    @Test
+    public void testeSeitenweiseVormerker() throws Exception
+    {
+        List<VormerkMedienFormatierer> medien = new ArrayList<VormerkMedienFormatierer>();
+        medien.add(new VormerkMedienFormatierer(_cd1, null,
+                Arrays.asList(_kunde4)));
+        _model.setSeite(1);
+        _model.setMedien(medien);
+
+        assertEquals(1, _model.getSeite());
+        assertEquals(6, _model.getColumnCount());
+        assertEquals("Vormerker 4", _model.getColumnName(3));
+        assertEquals("Vormerker 6", _model.getColumnName(5));
+        assertEquals("", _model.getValueAt(0, 2));
+        assertEquals("Vorname4 Nachname4", _model.getValueAt(0, 3));
+        assertEquals("", _model.getValueAt(0, 4));
+    }
+
+    @Test
+    public void testeBlaetternBautSpaltenNichtNeuAuf() throws Exception
+    {
+        final List<TableModelEvent> ereignisse = new ArrayList<TableModelEvent>();
+        _model.addTableModelListener(new TableModelListener()
+        {
+            @Override
+            public void tableChanged(TableModelEvent e)
+            {
+                ereignisse.add(e);
+            }
+        });
+        _model.setSeite(1);
+        _model.setMedien(new ArrayList<VormerkMedienFormatierer>());
+
+        assertEquals(1, ereignisse.size());
+        assertTrue(ereignisse.get(0)
+            .getFirstRow() != TableModelEvent.HEADER_ROW);
+    }
+
     @Test
     public void testeZeilenAnzahl() throws Exception
     {
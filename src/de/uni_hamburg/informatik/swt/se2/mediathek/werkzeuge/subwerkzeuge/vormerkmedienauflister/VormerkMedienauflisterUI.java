@@ -1,8 +1,12 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.subwerkzeuge.vormerkmedienauflister;
 
 import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
 
 import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
@@ -23,6 +27,9 @@ public class VormerkMedienauflisterUI
     private VormerkMedienTableModel _medienTableModel;
     private JPanel _hauptPanel;
     private JTable _medienTable;
+    private JButton _vorherigeSeiteButton;
+    private JButton _naechsteSeiteButton;
+    private JLabel _seitenLabel;
 
     /**
      * Initialisiert eine neue VormerkMedienauflisterUI.
@@ -31,6 +38,7 @@ public class VormerkMedienauflisterUI
     {
         erzeugeHauptPanel();
         erzeugeMedienTable();
+        erzeugeSeitenPanel();
     }
 
     /**
@@ -69,6 +77,63 @@ public class VormerkMedienauflisterUI
         _hauptPanel.add(medienAuflisterScrollPane, BorderLayout.CENTER);
     }
 
+    /**
+     * Erzeugt das Panel zum Blättern durch die Vormerker.
+     */
+    private void erzeugeSeitenPanel()
+    {
+        JPanel seitenPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        seitenPanel.setBackground(UIConstants.BACKGROUND_COLOR);
+
+        _vorherigeSeiteButton = new JButton();
+        _vorherigeSeiteButton.setText("Vorherige Vormerker");
+        _vorherigeSeiteButton.setPreferredSize(new Dimension(180, 50));
+        _vorherigeSeiteButton.setFont(UIConstants.BUTTON_FONT);
+        seitenPanel.add(_vorherigeSeiteButton);
+
+        _seitenLabel = new JLabel();
+        _seitenLabel.setFont(UIConstants.TEXT_FONT);
+        seitenPanel.add(_seitenLabel);
+
+        _naechsteSeiteButton = new JButton();
+        _naechsteSeiteButton.setText("Nächste Vormerker");
+        _naechsteSeiteButton.setPreferredSize(new Dimension(180, 50));
+        _naechsteSeiteButton.setFont(UIConstants.BUTTON_FONT);
+        seitenPanel.add(_naechsteSeiteButton);
+
+        _hauptPanel.add(seitenPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Gibt den Button zum Anzeigen der vorherigen Vormerker zurück.
+     * 
+     * @ensure result != null
+     */
+    public JButton getVorherigeSeiteButton()
+    {
+        return _vorherigeSeiteButton;
+    }
+
+    /**
+     * Gibt den Button zum Anzeigen der nächsten Vormerker zurück.
+     * 
+     * @ensure result != null
+     */
+    public JButton getNaechsteSeiteButton()
+    {
+        return _naechsteSeiteButton;
+    }
+
+    /**
+     * Gibt das Label mit der angezeigten Seite der Vormerker zurück.
+     * 
+     * @ensure result != null
+     */
+    public JLabel getSeitenLabel()
+    {
+        return _seitenLabel;
+    }
+
     /**
      * Gibt die Medienauflistertabelle (JTable) zurück.
      * 
@@ -1,11 +1,16 @@
 package de.uni_hamburg.informatik.swt.se2.mediathek.werkzeuge.subwerkzeuge.vormerkmedienauflister;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.swing.JPanel;
+import javax.swing.JTable;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.Kunde;
 import de.uni_hamburg.informatik.swt.se2.mediathek.materialien.medien.Medium;
@@ -68,6 +73,7 @@ public class VormerkMedienauflisterWerkzeug extends ObservableSubWerkzeug
     private void registriereUIAktionen()
     {
         registriereMedienAnzeigenAktion();
+        registriereSeitenAktionen();
     }
 
     /**
@@ -76,18 +82,29 @@ public class VormerkMedienauflisterWerkzeug extends ObservableSubWerkzeug
     private void setzeAnzuzeigendeMedien()
     {
         List<Medium> medienListe = _medienbestand.getMedien();
+        int seitenAnzahl = 1;
+        for (Medium medium : medienListe)
+        {
+            int anzahl = _verleihService.getAnzahlVormerkungenFuer(medium);
+            seitenAnzahl = Math.max(seitenAnzahl,
+                    (anzahl + VormerkMedienTableModel.VORMERKER_PRO_SEITE - 1)
+                            / VormerkMedienTableModel.VORMERKER_PRO_SEITE);
+        }
+        VormerkMedienTableModel medienTableModel = _ui
+            .getMedienAuflisterTableModel();
+        int seite = Math.min(medienTableModel.getSeite(), seitenAnzahl - 1);
+        medienTableModel.setSeite(seite);
+        aktualisiereSeitenAnzeige(seite, seitenAnzahl);
+        aktualisiereSpaltenUeberschriften();
+
         List<VormerkMedienFormatierer> medienFormatierer = new ArrayList<VormerkMedienFormatierer>();
         for (Medium medium : medienListe)
         {
-            // TODO für Aufgabenblatt 6 (nicht löschen): Die
-            // VormerkMedienFormatierer müssen noch mit einem möglichen
-            // Entleiher und möglichen Vormerkern ausgestattet werden.
-            // Ist dies korrekt implementiert, erscheinen in der Vormerkansicht
-            // die Namen des Entleihers und der möglichen 3 Vormerker.
+            // Die VormerkMedienFormatierer erhalten den möglichen Entleiher
+            // und die Vormerker der angezeigten Seite. In der Vormerkansicht
+            // erscheinen so der Entleiher und je Seite bis zu
+            // VORMERKER_PRO_SEITE Vormerker.
             Kunde entleiher;
-            Kunde vormerker1;
-            Kunde vormerker2;
-            Kunde vormerker3;
             
             if (_verleihService.istVerliehen(medium))
             {
@@ -97,37 +114,87 @@ public class VormerkMedienauflisterWerkzeug extends ObservableSubWerkzeug
             {
                 entleiher = null;
             }
-            if (_verleihService.istVorgemerkt(medium))
-            {
-                vormerker1 = _verleihService.getVormerkerFuer(medium).get(0);
-            }
-            else
-            {
-                vormerker1 = null;
-            }
-            if (_verleihService.getVormerkkartenFuer(medium).size() > 1)
-            {
-                vormerker2 = _verleihService.getVormerkerFuer(medium).get(1);
-            }
-            else
-            {
-                vormerker2 = null;
-            }
-            if (_verleihService.getVormerkkartenFuer(medium).size() > 2)
+            // Lange Vormerkschlangen werden seitenweise angezeigt, es wird
+            // nur die angezeigte Seite abgefragt.
+            List<Kunde> vormerker = _verleihService.getVormerkerFuer(medium,
+                    seite * VormerkMedienTableModel.VORMERKER_PRO_SEITE,
+                    VormerkMedienTableModel.VORMERKER_PRO_SEITE);
+
+            medienFormatierer.add(new VormerkMedienFormatierer(medium,
+                    entleiher, vormerker));
+        }
+        medienTableModel.setMedien(medienFormatierer);
+    }
+
+    /**
+     * Zeigt die aktuelle Seite der Vormerker an und aktiviert die Buttons zum
+     * Blättern, soweit es weitere Seiten gibt.
+     */
+    private void aktualisiereSeitenAnzeige(int seite, int seitenAnzahl)
+    {
+        _ui.getSeitenLabel()
+            .setText("Vormerker Seite " + (seite + 1) + " von " + seitenAnzahl);
+        _ui.getVorherigeSeiteButton()
+            .setEnabled(seite > 0);
+        _ui.getNaechsteSeiteButton()
+            .setEnabled(seite < seitenAnzahl - 1);
+    }
+
+    /**
+     * Registriert die Aktionen zum Blättern durch die Vormerker.
+     */
+    private void registriereSeitenAktionen()
+    {
+        _ui.getVorherigeSeiteButton()
+            .addActionListener(new ActionListener()
             {
-                vormerker3 = _verleihService.getVormerkerFuer(medium).get(2);
-            }
-            else
+                @Override
+                public void actionPerformed(ActionEvent e)
+                {
+                    blaettere(-1);
+                }
+            });
+        _ui.getNaechsteSeiteButton()
+            .addActionListener(new ActionListener()
             {
-                vormerker3 = null;
-            }
-            
+                @Override
+                public void actionPerformed(ActionEvent e)
+                {
+                    blaettere(1);
+                }
+            });
+    }
 
-            medienFormatierer.add(new VormerkMedienFormatierer(medium,
-                    entleiher, vormerker1, vormerker2, vormerker3));
+    /**
+     * Übernimmt die Überschriften der Vormerkerspalten für die aktuelle Seite
+     * in die Tabelle. Die Spalten selbst bleiben dabei erhalten, sie werden
+     * beim Blättern nicht neu aufgebaut.
+     */
+    private void aktualisiereSpaltenUeberschriften()
+    {
+        JTable medienTable = _ui.getMedienAuflisterTable();
+        TableColumnModel spalten = medienTable.getColumnModel();
+        for (int i = 0; i < spalten.getColumnCount(); i++)
+        {
+            TableColumn spalte = spalten.getColumn(i);
+            spalte.setHeaderValue(medienTable.getModel()
+                .getColumnName(spalte.getModelIndex()));
         }
-        _ui.getMedienAuflisterTableModel()
-            .setMedien(medienFormatierer);
+        medienTable.getTableHeader()
+            .repaint();
+    }
+
+    /**
+     * Wechselt die angezeigte Seite der Vormerker um die angegebene Anzahl an
+     * Seiten.
+     */
+    private void blaettere(int seiten)
+    {
+        VormerkMedienTableModel medienTableModel = _ui
+            .getMedienAuflisterTableModel();
+        medienTableModel
+            .setSeite(Math.max(0, medienTableModel.getSeite() + seiten));
+        setzeAnzuzeigendeMedien();
     }
 
     /**